@@ -0,0 +1,56 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.benchmark;
+
+import io.getlime.security.powerauth.http.PowerAuthEncryptionHttpHeader;
+import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
+import io.getlime.security.powerauth.http.PowerAuthTokenHttpHeader;
+
+/**
+ * Valid PowerAuth HTTP header values used in benchmarks.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public final class BenchmarkHttpHeaders {
+
+    private static final String VERSION = "3.1";
+    private static final String ACTIVATION_ID = "ab2c5a3e-5a5b-4c7d-9f3e-1d2c3b4a5f6e";
+    private static final String APPLICATION_KEY = "0nBPbfMTsEAJ6LQY5hMY4w==";
+    private static final String NONCE = "x3Qc/nUG4ayADyDxCbrrDA==";
+
+    /**
+     * Value of the signature header.
+     */
+    public static final String SIGNATURE_HEADER = new PowerAuthSignatureHttpHeader(ACTIVATION_ID, APPLICATION_KEY, "12345678-87654321", "possession_knowledge", NONCE, VERSION).buildHttpHeader();
+
+    /**
+     * Value of the token header.
+     */
+    public static final String TOKEN_HEADER = new PowerAuthTokenHttpHeader("d6b3f1a2-7c4e-4b9a-8f2d-3e5c1a7b9d0f", "vQkAuRrEXxZW6o/0pj9E/HQhqMGMbO1jX2UBNWzEHyM=", NONCE, "1581434925000", VERSION).buildHttpHeader();
+
+    /**
+     * Value of the encryption header.
+     */
+    public static final String ENCRYPTION_HEADER = new PowerAuthEncryptionHttpHeader(APPLICATION_KEY, ACTIVATION_ID, VERSION).buildHttpHeader();
+
+    private BenchmarkHttpHeaders() {
+    }
+
+}
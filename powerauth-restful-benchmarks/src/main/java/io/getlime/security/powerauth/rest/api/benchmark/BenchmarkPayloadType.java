@@ -0,0 +1,109 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.benchmark;
+
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Types of request and response payloads used in benchmarks.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public enum BenchmarkPayloadType {
+
+    /**
+     * Object serialized to JSON.
+     */
+    OBJECT(BenchmarkRequestObject.class, MappingJackson2HttpMessageConverter.class),
+
+    /**
+     * String serialized to JSON.
+     */
+    STRING(String.class, StringHttpMessageConverter.class),
+
+    /**
+     * Raw bytes without serialization.
+     */
+    BYTES(byte[].class, ByteArrayHttpMessageConverter.class);
+
+    // Payload data is deterministic, so that results of benchmark runs are comparable
+    private static final long RANDOM_SEED = 42L;
+
+    private final Class<?> payloadClass;
+
+    private final Class<? extends HttpMessageConverter<?>> converterClass;
+
+    BenchmarkPayloadType(Class<?> payloadClass, Class<? extends HttpMessageConverter<?>> converterClass) {
+        this.payloadClass = payloadClass;
+        this.converterClass = converterClass;
+    }
+
+    /**
+     * Get class of the payload.
+     * @return Payload class.
+     */
+    public Class<?> getPayloadClass() {
+        return payloadClass;
+    }
+
+    /**
+     * Get class of HTTP message converter which Spring selects for the payload.
+     * @return HTTP message converter class.
+     */
+    public Class<? extends HttpMessageConverter<?>> getConverterClass() {
+        return converterClass;
+    }
+
+    /**
+     * Create payload with approximately given size of serialized data.
+     * @param size Payload size in bytes.
+     * @return Payload.
+     */
+    public Object createPayload(int size) {
+        switch (this) {
+            case OBJECT:
+                // Subtract the JSON envelope {"data":""} from the data length
+                return new BenchmarkRequestObject(createText(Math.max(size - 11, 0)));
+            case STRING:
+                // Subtract JSON quotes from the data length
+                return createText(Math.max(size - 2, 0));
+            default:
+                final byte[] data = new byte[size];
+                new Random(RANDOM_SEED).nextBytes(data);
+                return data;
+        }
+    }
+
+    private static String createText(int length) {
+        final byte[] data = new byte[length];
+        final Random random = new Random(RANDOM_SEED);
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(26));
+        }
+        return new String(data, StandardCharsets.US_ASCII);
+    }
+
+}
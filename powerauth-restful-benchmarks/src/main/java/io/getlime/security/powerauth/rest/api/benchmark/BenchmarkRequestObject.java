@@ -0,0 +1,61 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.benchmark;
+
+/**
+ * Request and response object used in benchmarks.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class BenchmarkRequestObject {
+
+    private String data;
+
+    /**
+     * Default constructor.
+     */
+    public BenchmarkRequestObject() {
+    }
+
+    /**
+     * Constructor with data.
+     * @param data Data.
+     */
+    public BenchmarkRequestObject(String data) {
+        this.data = data;
+    }
+
+    /**
+     * Get data.
+     * @return Data.
+     */
+    public String getData() {
+        return data;
+    }
+
+    /**
+     * Set data.
+     * @param data Data.
+     */
+    public void setData(String data) {
+        this.data = data;
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.BaseEncoding;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.EciesEncryptor;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.EciesFactory;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesCryptogram;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesScope;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesSharedInfo1;
+import io.getlime.security.powerauth.crypto.lib.generator.KeyGenerator;
+import io.getlime.security.powerauth.http.PowerAuthEncryptionHttpHeader;
+import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesDecryptorParameters;
+import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesEncryption;
+import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthEncryptionException;
+import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestBody;
+import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestObjects;
+import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.security.Security;
+import java.security.interfaces.ECPublicKey;
+
+/**
+ * ECIES encrypted HTTP request in application scope prepared the same way as by a mobile client. The request
+ * is decrypted using {@link StubEncryptionProvider} with decryptor parameters matching the client encryptor.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class EciesRequestFixture {
+
+    private static final String PROTOCOL_VERSION = "3.1";
+
+    static {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    private final BenchmarkPayloadType payloadType;
+    private final Object payload;
+    private final MockHttpServletRequest request;
+    private final StubEncryptionProvider encryptionProvider;
+
+    /**
+     * Prepare encrypted request.
+     * @param payloadType Payload type.
+     * @param payloadSize Payload size in bytes.
+     * @throws Exception In case request encryption fails.
+     */
+    public EciesRequestFixture(BenchmarkPayloadType payloadType, int payloadSize) throws Exception {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final KeyGenerator keyGenerator = new KeyGenerator();
+        final ECPublicKey masterServerPublicKey = (ECPublicKey) keyGenerator.generateKeyPair().getPublic();
+        final byte[] applicationKey = keyGenerator.generateRandomBytes(16);
+        final byte[] applicationSecret = keyGenerator.generateRandomBytes(16);
+
+        // Encrypt request data the same way as mobile client
+        this.payloadType = payloadType;
+        this.payload = payloadType.createPayload(payloadSize);
+        final byte[] requestData = payload instanceof byte[] ? (byte[]) payload : objectMapper.writeValueAsBytes(payload);
+        final EciesEncryptor eciesEncryptor = new EciesFactory().getEciesEncryptorForApplication(masterServerPublicKey, applicationSecret, EciesSharedInfo1.APPLICATION_SCOPE_GENERIC);
+        final EciesCryptogram cryptogram = eciesEncryptor.encryptRequest(requestData, true);
+        final EciesEncryptedRequest encryptedRequest = new EciesEncryptedRequest();
+        encryptedRequest.setEphemeralPublicKey(BaseEncoding.base64().encode(cryptogram.getEphemeralPublicKey()));
+        encryptedRequest.setEncryptedData(BaseEncoding.base64().encode(cryptogram.getEncryptedData()));
+        encryptedRequest.setMac(BaseEncoding.base64().encode(cryptogram.getMac()));
+        encryptedRequest.setNonce(BaseEncoding.base64().encode(cryptogram.getNonce()));
+
+        // Prepare HTTP request with body stored in request attribute as by PowerAuthRequestFilter
+        request = new MockHttpServletRequest("POST", "/benchmark");
+        request.addHeader(PowerAuthEncryptionHttpHeader.HEADER_NAME, new PowerAuthEncryptionHttpHeader(BaseEncoding.base64().encode(applicationKey), PROTOCOL_VERSION).buildHttpHeader());
+        request.setAttribute(PowerAuthRequestObjects.REQUEST_BODY, new PowerAuthRequestBody(objectMapper.writeValueAsBytes(encryptedRequest)));
+
+        // Decryptor parameters which PowerAuth server derives from the master server private key
+        final String secretKey = BaseEncoding.base64().encode(eciesEncryptor.getEnvelopeKey().getSecretKey());
+        final String sharedInfo2 = BaseEncoding.base64().encode(eciesEncryptor.getSharedInfo2());
+        encryptionProvider = new StubEncryptionProvider(new PowerAuthEciesDecryptorParameters(secretKey, sharedInfo2));
+    }
+
+    /**
+     * Decrypt the request.
+     * @return Decrypted request.
+     * @throws PowerAuthEncryptionException In case request decryption fails.
+     */
+    public PowerAuthEciesEncryption<?> decryptRequest() throws PowerAuthEncryptionException {
+        return encryptionProvider.decryptRequest(request, payloadType.getPayloadClass(), EciesScope.APPLICATION_SCOPE);
+    }
+
+    /**
+     * Get payload of the request which is also used as response payload.
+     * @return Payload.
+     */
+    public Object getPayload() {
+        return payload;
+    }
+
+    /**
+     * Get encrypted HTTP request.
+     * @return HTTP request.
+     */
+    public MockHttpServletRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Get encryption provider.
+     * @return Encryption provider.
+     */
+    public StubEncryptionProvider getEncryptionProvider() {
+        return encryptionProvider;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.benchmark;
+
+import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesEncryption;
+import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthEncryptionException;
+import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of ECIES request decryption and response encryption in the encryption provider, the PowerAuth server
+ * call for decryptor parameters is stubbed.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EncryptionProviderBenchmark {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    private int payloadSize;
+
+    @Param({"OBJECT", "STRING", "BYTES"})
+    private BenchmarkPayloadType payloadType;
+
+    private EciesRequestFixture fixture;
+
+    private PowerAuthEciesEncryption<?> eciesEncryption;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new EciesRequestFixture(payloadType, payloadSize);
+        eciesEncryption = fixture.decryptRequest();
+        if (fixture.getEncryptionProvider().encryptResponse(fixture.getPayload(), eciesEncryption) == null) {
+            throw new IllegalStateException("Response encryption failed");
+        }
+    }
+
+    @Benchmark
+    public PowerAuthEciesEncryption<?> decryptRequest() throws PowerAuthEncryptionException {
+        return fixture.decryptRequest();
+    }
+
+    @Benchmark
+    public EciesEncryptedResponse encryptResponse() {
+        return fixture.getEncryptionProvider().encryptResponse(fixture.getPayload(), eciesEncryption);
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.benchmark;
+
+import io.getlime.security.powerauth.rest.api.spring.filter.EncryptionResponseBodyAdvice;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of response encryption in the Spring response body advice, including conversion of the encrypted
+ * response for String and byte[] responses.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EncryptionResponseBodyAdviceBenchmark {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    private int payloadSize;
+
+    @Param({"OBJECT", "STRING", "BYTES"})
+    private BenchmarkPayloadType payloadType;
+
+    private EncryptionResponseBodyAdvice responseBodyAdvice;
+
+    private Object payload;
+
+    private MethodParameter methodParameter;
+
+    private Class<? extends HttpMessageConverter<?>> converterClass;
+
+    private ServerHttpRequest serverHttpRequest;
+
+    private ServerHttpResponse serverHttpResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // The decrypted request stores the ECIES encryption object in the request as in a real request
+        final EciesRequestFixture fixture = new EciesRequestFixture(payloadType, payloadSize);
+        fixture.decryptRequest();
+        payload = fixture.getPayload();
+        converterClass = payloadType.getConverterClass();
+        methodParameter = new MethodParameter(EncryptionResponseBodyAdviceBenchmark.class.getDeclaredMethod("encryptedEndpoint"), -1);
+        serverHttpRequest = new ServletServerHttpRequest(fixture.getRequest());
+        serverHttpResponse = new ServletServerHttpResponse(new MockHttpServletResponse());
+
+        final RequestMappingHandlerAdapter requestMappingHandlerAdapter = new RequestMappingHandlerAdapter();
+        requestMappingHandlerAdapter.setMessageConverters(Arrays.asList(new ByteArrayHttpMessageConverter(), new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter()));
+        responseBodyAdvice = new EncryptionResponseBodyAdvice();
+        responseBodyAdvice.setRequestMappingHandlerAdapter(requestMappingHandlerAdapter);
+
+        if (beforeBodyWrite() == null) {
+            throw new IllegalStateException("Response encryption failed");
+        }
+    }
+
+    @Benchmark
+    public Object beforeBodyWrite() {
+        return responseBodyAdvice.beforeBodyWrite(payload, methodParameter, MediaType.APPLICATION_JSON, converterClass, serverHttpRequest, serverHttpResponse);
+    }
+
+    /**
+     * Endpoint method used as the method parameter of the advice.
+     * @return Response object.
+     */
+    private Object encryptedEndpoint() {
+        return payload;
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.benchmark;
+
+import com.google.common.io.BaseEncoding;
+import io.getlime.security.powerauth.http.PowerAuthEncryptionHttpHeader;
+import io.getlime.security.powerauth.http.PowerAuthHttpBody;
+import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
+import io.getlime.security.powerauth.http.PowerAuthTokenHttpHeader;
+import io.getlime.security.powerauth.http.validator.InvalidPowerAuthHttpHeaderException;
+import io.getlime.security.powerauth.http.validator.PowerAuthEncryptionHttpHeaderValidator;
+import io.getlime.security.powerauth.http.validator.PowerAuthSignatureHttpHeaderValidator;
+import io.getlime.security.powerauth.http.validator.PowerAuthTokenHttpHeaderValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of parsing and validation of PowerAuth HTTP headers and of signature base string construction.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class HttpHeaderBenchmark {
+
+    /**
+     * Request data used for signature base string construction.
+     */
+    @State(Scope.Thread)
+    public static class SignatureBaseStringState {
+
+        @Param({"0", "100", "10000", "1000000"})
+        private int bodySize;
+
+        private byte[] nonce;
+
+        private byte[] body;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            final PowerAuthSignatureHttpHeader header = new PowerAuthSignatureHttpHeader().fromValue(BenchmarkHttpHeaders.SIGNATURE_HEADER);
+            nonce = BaseEncoding.base64().decode(header.getNonce());
+            body = new byte[bodySize];
+            new Random(42).nextBytes(body);
+        }
+
+    }
+
+    @Benchmark
+    public PowerAuthSignatureHttpHeader parseSignatureHeader() throws InvalidPowerAuthHttpHeaderException {
+        final PowerAuthSignatureHttpHeader header = new PowerAuthSignatureHttpHeader().fromValue(BenchmarkHttpHeaders.SIGNATURE_HEADER);
+        PowerAuthSignatureHttpHeaderValidator.validate(header);
+        return header;
+    }
+
+    @Benchmark
+    public PowerAuthTokenHttpHeader parseTokenHeader() throws InvalidPowerAuthHttpHeaderException {
+        final PowerAuthTokenHttpHeader header = new PowerAuthTokenHttpHeader().fromValue(BenchmarkHttpHeaders.TOKEN_HEADER);
+        PowerAuthTokenHttpHeaderValidator.validate(header);
+        return header;
+    }
+
+    @Benchmark
+    public PowerAuthEncryptionHttpHeader parseEncryptionHeader() throws InvalidPowerAuthHttpHeaderException {
+        final PowerAuthEncryptionHttpHeader header = new PowerAuthEncryptionHttpHeader().fromValue(BenchmarkHttpHeaders.ENCRYPTION_HEADER);
+        PowerAuthEncryptionHttpHeaderValidator.validate(header);
+        return header;
+    }
+
+    @Benchmark
+    public String signatureBaseString(SignatureBaseStringState state) {
+        return PowerAuthHttpBody.getSignatureBaseString("POST", "/pa/signature/validate", state.nonce, state.body);
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.benchmark;
+
+import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
+import io.getlime.security.powerauth.rest.api.base.filter.PowerAuthRequestFilterBase;
+import io.getlime.security.powerauth.rest.api.base.filter.ResettableStreamHttpServletRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of request body extraction in the request filter, i.e. canonicalization of GET query parameters
+ * and capture of the request body for other HTTP methods.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RequestFilterBenchmark {
+
+    /**
+     * GET request with URL encoded query parameters in random order.
+     */
+    @State(Scope.Thread)
+    public static class GetRequestState {
+
+        @Param({"1", "10", "100"})
+        private int queryParameterCount;
+
+        private String queryString;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            final Random random = new Random(42);
+            final List<String> parameters = new ArrayList<>();
+            for (int i = 0; i < queryParameterCount; i++) {
+                parameters.add("param" + i + "=value%20" + random.nextInt(1000000) + "%2B%C3%A1");
+                // Repeated parameter names are sorted by value during canonicalization
+                if (i % 10 == 9) {
+                    parameters.add("param" + i + "=" + random.nextInt(1000000));
+                }
+            }
+            Collections.shuffle(parameters, random);
+            queryString = String.join("&", parameters);
+        }
+
+        private MockHttpServletRequest createRequest() {
+            final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/benchmark");
+            request.setQueryString(queryString);
+            request.addHeader(PowerAuthSignatureHttpHeader.HEADER_NAME, BenchmarkHttpHeaders.SIGNATURE_HEADER);
+            return request;
+        }
+
+    }
+
+    /**
+     * POST request with a body of given size.
+     */
+    @State(Scope.Thread)
+    public static class PostRequestState {
+
+        @Param({"100", "10000", "1000000", "10000000"})
+        private int bodySize;
+
+        private byte[] body;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            body = new byte[bodySize];
+            new Random(42).nextBytes(body);
+        }
+
+        private MockHttpServletRequest createRequest() {
+            final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/benchmark");
+            request.setContent(body);
+            request.addHeader(PowerAuthSignatureHttpHeader.HEADER_NAME, BenchmarkHttpHeaders.SIGNATURE_HEADER);
+            return request;
+        }
+
+    }
+
+    // The request is created in each invocation because the request body stream can only be consumed once.
+    // Creating the mock request is cheap compared to the filter itself and it is included in the results.
+
+    @Benchmark
+    public ResettableStreamHttpServletRequest filterGetRequest(GetRequestState state) throws IOException {
+        return PowerAuthRequestFilterBase.filterRequest(state.createRequest());
+    }
+
+    @Benchmark
+    public ResettableStreamHttpServletRequest filterPostRequest(PostRequestState state) throws IOException {
+        return PowerAuthRequestFilterBase.filterRequest(state.createRequest());
+    }
+
+}
@@ -0,0 +1,316 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest;
+
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestOperation;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Configuration of the load test, parsed from '--loadtest.*' command line arguments.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class LoadTestConfiguration {
+
+    /**
+     * Prefix of load test command line arguments.
+     */
+    public static final String ARGUMENT_PREFIX = "--loadtest.";
+
+    private int threads = 16;
+
+    private long duration = 60;
+
+    private long warmup = 10;
+
+    private int activations = 100;
+
+    private int payloadSize = 1000;
+
+    private Set<LoadTestOperation> operations;
+
+    private long standInLatency;
+
+    private long standInLatencyJitter;
+
+    private double standInErrorRate;
+
+    private String replay;
+
+    /**
+     * Parse load test configuration from command line arguments.
+     * @param args Command line arguments.
+     * @param supportedOperations Operations supported by the tested application, all of them are executed by default.
+     * @return Load test configuration.
+     * @throws IllegalArgumentException In case a load test argument is not valid.
+     */
+    public static LoadTestConfiguration fromArguments(String[] args, Set<LoadTestOperation> supportedOperations) {
+        final LoadTestConfiguration configuration = new LoadTestConfiguration();
+        configuration.setOperations(supportedOperations);
+        for (String arg: args) {
+            if (!arg.startsWith(ARGUMENT_PREFIX)) {
+                continue;
+            }
+            final int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing value of argument: " + arg);
+            }
+            final String name = arg.substring(ARGUMENT_PREFIX.length(), separator);
+            final String value = arg.substring(separator + 1);
+            switch (name) {
+                case "threads":
+                    configuration.setThreads(Integer.parseInt(value));
+                    break;
+                case "duration":
+                    configuration.setDuration(Long.parseLong(value));
+                    break;
+                case "warmup":
+                    configuration.setWarmup(Long.parseLong(value));
+                    break;
+                case "activations":
+                    configuration.setActivations(Integer.parseInt(value));
+                    break;
+                case "payloadSize":
+                    configuration.setPayloadSize(Integer.parseInt(value));
+                    break;
+                case "operations":
+                    final Set<LoadTestOperation> operations = EnumSet.noneOf(LoadTestOperation.class);
+                    for (String operation: value.split(",")) {
+                        final LoadTestOperation loadTestOperation = LoadTestOperation.valueOf(operation.trim().toUpperCase());
+                        if (!supportedOperations.contains(loadTestOperation)) {
+                            throw new IllegalArgumentException("Operation is not supported by the tested application: " + loadTestOperation);
+                        }
+                        operations.add(loadTestOperation);
+                    }
+                    configuration.setOperations(operations);
+                    break;
+                case "standIn.latency":
+                    configuration.setStandInLatency(Long.parseLong(value));
+                    break;
+                case "standIn.latencyJitter":
+                    configuration.setStandInLatencyJitter(Long.parseLong(value));
+                    break;
+                case "standIn.errorRate":
+                    configuration.setStandInErrorRate(Double.parseDouble(value));
+                    break;
+                case "replay":
+                    configuration.setReplay(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        return configuration;
+    }
+
+    /**
+     * Get number of load generator threads.
+     * @return Number of threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Set number of load generator threads, each thread sends requests sequentially.
+     * @param threads Number of threads.
+     */
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Get duration of the measurement in seconds.
+     * @return Duration in seconds.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Set duration of the measurement in seconds.
+     * @param duration Duration in seconds.
+     */
+    public void setDuration(long duration) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        this.duration = duration;
+    }
+
+    /**
+     * Get duration of the warmup in seconds.
+     * @return Warmup duration in seconds.
+     */
+    public long getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * Set duration of the warmup in seconds. Requests sent during warmup are not included in results.
+     * @param warmup Warmup duration in seconds.
+     */
+    public void setWarmup(long warmup) {
+        if (warmup < 0) {
+            throw new IllegalArgumentException("Warmup must not be negative");
+        }
+        this.warmup = warmup;
+    }
+
+    /**
+     * Get number of activations used by the load generator.
+     * @return Number of activations.
+     */
+    public int getActivations() {
+        return activations;
+    }
+
+    /**
+     * Set number of activations used by the load generator. Each activation is used by a single thread, so that
+     * signature counters are not shared, the number of activations is raised to the number of threads if needed.
+     * @param activations Number of activations.
+     */
+    public void setActivations(int activations) {
+        if (activations <= 0) {
+            throw new IllegalArgumentException("Number of activations must be positive");
+        }
+        this.activations = activations;
+    }
+
+    /**
+     * Get size of data in encrypted and signed requests in bytes.
+     * @return Payload size in bytes.
+     */
+    public int getPayloadSize() {
+        return payloadSize;
+    }
+
+    /**
+     * Set size of data in encrypted and signed requests in bytes.
+     * @param payloadSize Payload size in bytes.
+     */
+    public void setPayloadSize(int payloadSize) {
+        if (payloadSize < 0) {
+            throw new IllegalArgumentException("Payload size must not be negative");
+        }
+        this.payloadSize = payloadSize;
+    }
+
+    /**
+     * Get operations executed by the load generator.
+     * @return Operations.
+     */
+    public Set<LoadTestOperation> getOperations() {
+        return Collections.unmodifiableSet(operations);
+    }
+
+    /**
+     * Set operations executed by the load generator, operations are chosen randomly with equal probability.
+     * @param operations Operations.
+     */
+    public void setOperations(Set<LoadTestOperation> operations) {
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("At least one operation is required");
+        }
+        this.operations = EnumSet.copyOf(operations);
+    }
+
+    /**
+     * Get latency added to each call of the PowerAuth server stand-in in milliseconds.
+     * @return Latency in milliseconds.
+     */
+    public long getStandInLatency() {
+        return standInLatency;
+    }
+
+    /**
+     * Set latency added to each call of the PowerAuth server stand-in in milliseconds.
+     * @param standInLatency Latency in milliseconds.
+     */
+    public void setStandInLatency(long standInLatency) {
+        if (standInLatency < 0) {
+            throw new IllegalArgumentException("Latency must not be negative");
+        }
+        this.standInLatency = standInLatency;
+    }
+
+    /**
+     * Get maximum random latency added to each call of the PowerAuth server stand-in in milliseconds.
+     * @return Maximum random latency in milliseconds.
+     */
+    public long getStandInLatencyJitter() {
+        return standInLatencyJitter;
+    }
+
+    /**
+     * Set maximum random latency added to each call of the PowerAuth server stand-in in milliseconds.
+     * @param standInLatencyJitter Maximum random latency in milliseconds.
+     */
+    public void setStandInLatencyJitter(long standInLatencyJitter) {
+        if (standInLatencyJitter < 0) {
+            throw new IllegalArgumentException("Latency jitter must not be negative");
+        }
+        this.standInLatencyJitter = standInLatencyJitter;
+    }
+
+    /**
+     * Get ratio of calls of the PowerAuth server stand-in which fail with a SOAP fault.
+     * @return Error rate between 0 and 1.
+     */
+    public double getStandInErrorRate() {
+        return standInErrorRate;
+    }
+
+    /**
+     * Set ratio of calls of the PowerAuth server stand-in which fail with a SOAP fault.
+     * @param standInErrorRate Error rate between 0 and 1.
+     */
+    public void setStandInErrorRate(double standInErrorRate) {
+        if (standInErrorRate < 0 || standInErrorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1");
+        }
+        this.standInErrorRate = standInErrorRate;
+    }
+
+    /**
+     * Get path of the traffic log which is replayed instead of randomly chosen operations.
+     * @return Traffic log path or null in case no traffic is replayed.
+     */
+    public String getReplay() {
+        return replay;
+    }
+
+    /**
+     * Set path of the traffic log which is replayed instead of randomly chosen operations. Operations and payload
+     * sizes are taken from the traffic log and latencies of the PowerAuth server stand-in are taken from recorded
+     * PowerAuth server calls.
+     * @param replay Traffic log path or null in case no traffic should be replayed.
+     */
+    public void setReplay(String replay) {
+        this.replay = replay;
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest;
+
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestOperation;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * Human readable report of load test results.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final String serverName;
+    private final LoadTestConfiguration configuration;
+    private final LoadTestResults results;
+
+    /**
+     * Report constructor.
+     * @param serverName Name of the tested application variant.
+     * @param configuration Load test configuration.
+     * @param results Load test results.
+     */
+    public LoadTestReport(String serverName, LoadTestConfiguration configuration, LoadTestResults results) {
+        this.serverName = serverName;
+        this.configuration = configuration;
+        this.results = results;
+    }
+
+    /**
+     * Print the report.
+     * @param out Output stream.
+     */
+    public void print(PrintStream out) {
+        final double seconds = results.getElapsedTime() / NANOS_PER_SECOND;
+        if (configuration.getReplay() != null) {
+            out.printf("Server: %s, threads: %d, activations: %d, replayed traffic: %s, duration: %.1f s%n",
+                    serverName, configuration.getThreads(), configuration.getActivations(), configuration.getReplay(), seconds);
+        } else {
+            out.printf("Server: %s, threads: %d, activations: %d, payload size: %d, duration: %.1f s%n",
+                    serverName, configuration.getThreads(), configuration.getActivations(), configuration.getPayloadSize(), seconds);
+        }
+        out.printf("%-22s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "Operation", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<LoadTestOperation, LoadTestResults.OperationResults> entry : results.getOperationResults().entrySet()) {
+            final LoadTestResults.OperationResults operation = entry.getValue();
+            out.printf("%-22s %10d %8d %10.1f", entry.getKey(), operation.getRequests(), operation.getErrors(), operation.getRequests() / seconds);
+            for (double percentile : PERCENTILES) {
+                out.printf(" %9.2f", operation.getPercentile(percentile) / NANOS_PER_MILLI);
+            }
+            out.println();
+        }
+        final long requests = results.getRequests();
+        out.printf("%-22s %10d %8d %10.1f%n", "TOTAL", requests, results.getErrors(), requests / seconds);
+        if (requests == 0) {
+            return;
+        }
+        out.println("CPU time per request:");
+        printCpu(out, "process", results.getProcessCpuTime(), requests);
+        printCpu(out, "load generator", results.getGeneratorCpuTime(), requests);
+        printCpu(out, "server stand-in", results.getStandInCpuTime(), requests);
+        printCpu(out, "integration", results.getIntegrationCpuTime(), requests);
+    }
+
+    private void printCpu(PrintStream out, String name, long cpuTime, long requests) {
+        out.printf("  %-20s %10.3f ms%n", name, cpuTime / NANOS_PER_MILLI / requests);
+    }
+
+}
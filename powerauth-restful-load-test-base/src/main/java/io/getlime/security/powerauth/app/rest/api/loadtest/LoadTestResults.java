@@ -0,0 +1,173 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest;
+
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestOperation;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Results of a load test measurement.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class LoadTestResults {
+
+    private final Map<LoadTestOperation, OperationResults> operationResults;
+    private final long elapsedTime;
+    private final long processCpuTime;
+    private final long generatorCpuTime;
+    private final long standInCpuTime;
+
+    /**
+     * Results constructor.
+     * @param operationResults Results of individual operations.
+     * @param elapsedTime Duration of the measurement in nanoseconds.
+     * @param processCpuTime CPU time of the whole process in nanoseconds.
+     * @param generatorCpuTime CPU time of the load generator threads in nanoseconds.
+     * @param standInCpuTime CPU time of the PowerAuth server stand-in in nanoseconds.
+     */
+    public LoadTestResults(Map<LoadTestOperation, OperationResults> operationResults, long elapsedTime, long processCpuTime, long generatorCpuTime, long standInCpuTime) {
+        this.operationResults = operationResults;
+        this.elapsedTime = elapsedTime;
+        this.processCpuTime = processCpuTime;
+        this.generatorCpuTime = generatorCpuTime;
+        this.standInCpuTime = standInCpuTime;
+    }
+
+    /**
+     * Get results of individual operations.
+     * @return Results of individual operations.
+     */
+    public Map<LoadTestOperation, OperationResults> getOperationResults() {
+        return operationResults;
+    }
+
+    /**
+     * Get duration of the measurement.
+     * @return Duration of the measurement in nanoseconds.
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Get CPU time of the whole process.
+     * @return CPU time in nanoseconds.
+     */
+    public long getProcessCpuTime() {
+        return processCpuTime;
+    }
+
+    /**
+     * Get CPU time of the load generator threads.
+     * @return CPU time in nanoseconds.
+     */
+    public long getGeneratorCpuTime() {
+        return generatorCpuTime;
+    }
+
+    /**
+     * Get CPU time of the PowerAuth server stand-in.
+     * @return CPU time in nanoseconds.
+     */
+    public long getStandInCpuTime() {
+        return standInCpuTime;
+    }
+
+    /**
+     * Get CPU time attributed to the tested integration, i.e. CPU time of the process without the load generator and
+     * the PowerAuth server stand-in. The value includes JVM overhead such as garbage collection and JIT compilation.
+     * @return CPU time in nanoseconds.
+     */
+    public long getIntegrationCpuTime() {
+        return Math.max(0, processCpuTime - generatorCpuTime - standInCpuTime);
+    }
+
+    /**
+     * Get total number of successful requests.
+     * @return Number of successful requests.
+     */
+    public long getRequests() {
+        return operationResults.values().stream().mapToLong(OperationResults::getRequests).sum();
+    }
+
+    /**
+     * Get total number of failed requests.
+     * @return Number of failed requests.
+     */
+    public long getErrors() {
+        return operationResults.values().stream().mapToLong(OperationResults::getErrors).sum();
+    }
+
+    /**
+     * Results of a single operation.
+     */
+    public static class OperationResults {
+
+        private long[] latencies = new long[0];
+        private long errors;
+
+        /**
+         * Add results recorded by a worker thread.
+         * @param workerLatencies Latencies of successful requests in nanoseconds.
+         * @param workerErrors Number of failed requests.
+         */
+        public void add(long[] workerLatencies, long workerErrors) {
+            final long[] merged = Arrays.copyOf(latencies, latencies.length + workerLatencies.length);
+            System.arraycopy(workerLatencies, 0, merged, latencies.length, workerLatencies.length);
+            Arrays.sort(merged);
+            this.latencies = merged;
+            this.errors += workerErrors;
+        }
+
+        /**
+         * Get number of successful requests.
+         * @return Number of successful requests.
+         */
+        public long getRequests() {
+            return latencies.length;
+        }
+
+        /**
+         * Get number of failed requests.
+         * @return Number of failed requests.
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Get latency percentile of successful requests.
+         * @param percentile Percentile between 0 and 100.
+         * @return Latency in nanoseconds or 0 in case no request succeeded.
+         */
+        public long getPercentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            final int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+
+    }
+
+}
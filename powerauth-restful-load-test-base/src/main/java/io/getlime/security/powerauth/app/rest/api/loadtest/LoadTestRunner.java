@@ -0,0 +1,110 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest;
+
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadGenerator;
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestClient;
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestDevice;
+import io.getlime.security.powerauth.app.rest.api.loadtest.replay.TrafficReplay;
+import io.getlime.security.powerauth.app.rest.api.loadtest.standin.PowerAuthServerStandIn;
+import io.getlime.security.powerauth.app.rest.api.loadtest.standin.PowerAuthStandInHandler;
+import io.getlime.security.powerauth.app.rest.api.loadtest.standin.PowerAuthStandInServer;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runner of the load test, shared by all variants of the PowerAuth RESTful server application. The runner starts the
+ * PowerAuth server stand-in and the tested application, provisions devices, generates the load and prints the report.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class LoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final LoadTestConfiguration configuration;
+
+    /**
+     * Runner constructor.
+     * @param configuration Load test configuration.
+     */
+    public LoadTestRunner(LoadTestConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Run the load test and print the report.
+     * @param serverFactory Factory starting the tested application.
+     * @param out Output stream for the report.
+     * @return Load test results.
+     * @throws Exception In case the load test fails.
+     */
+    public LoadTestResults run(LoadTestServerFactory serverFactory, PrintStream out) throws Exception {
+        Security.addProvider(new BouncyCastleProvider());
+        // Allow keep-alive connections for all load generator threads
+        System.setProperty("http.maxConnections", String.valueOf(configuration.getThreads()));
+
+        TrafficReplay replay = null;
+        int payloadSize = configuration.getPayloadSize();
+        if (configuration.getReplay() != null) {
+            replay = TrafficReplay.load(Paths.get(configuration.getReplay()), configuration.getOperations());
+            logger.info("Replaying {} requests from traffic log {}, skipped records: {}", replay.getRequests(), configuration.getReplay(), replay.getSkippedRecords());
+            configuration.setOperations(replay.getOperations());
+            payloadSize = replay.getMaxPayloadSize();
+        }
+
+        final PowerAuthServerStandIn standIn = new PowerAuthServerStandIn();
+        final PowerAuthStandInHandler standInHandler = new PowerAuthStandInHandler(standIn, configuration.getStandInLatency(),
+                configuration.getStandInLatencyJitter(), configuration.getStandInErrorRate());
+        if (replay != null) {
+            standInHandler.setRecordedLatencies(replay.getBackendLatencies());
+        }
+
+        try (PowerAuthStandInServer standInServer = new PowerAuthStandInServer(standInHandler);
+             LoadTestServer server = serverFactory.start(standInServer.getServiceUrl())) {
+
+            final String baseUrl = server.getBaseUrl();
+            logger.info("PowerAuth RESTful server application started at {}", baseUrl);
+
+            final int deviceCount = Math.max(configuration.getActivations(), configuration.getThreads());
+            final List<LoadTestDevice> devices = new ArrayList<>(deviceCount);
+            for (int i = 0; i < deviceCount; i++) {
+                devices.add(LoadTestDevice.create(standIn));
+            }
+
+            final LoadTestClient client = new LoadTestClient(baseUrl, payloadSize);
+            final LoadGenerator generator = new LoadGenerator(configuration, client, devices,
+                    () -> standInHandler.getCpuTime(TimeUnit.NANOSECONDS));
+            generator.setReplay(replay);
+            final LoadTestResults results = generator.run();
+            new LoadTestReport(server.getName(), configuration, results).print(out);
+            return results;
+        }
+    }
+
+}
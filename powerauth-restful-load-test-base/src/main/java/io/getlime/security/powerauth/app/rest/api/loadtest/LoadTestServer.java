@@ -0,0 +1,41 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest;
+
+/**
+ * Tested PowerAuth RESTful server application running in the load test process.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public interface LoadTestServer extends AutoCloseable {
+
+    /**
+     * Get name of the application variant shown in the report.
+     * @return Application name.
+     */
+    String getName();
+
+    /**
+     * Get base URL of the application, without a trailing slash.
+     * @return Base URL.
+     */
+    String getBaseUrl();
+
+}
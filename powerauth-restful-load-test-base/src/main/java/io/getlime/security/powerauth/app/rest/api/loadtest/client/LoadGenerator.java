@@ -0,0 +1,213 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.client;
+
+import io.getlime.security.powerauth.app.rest.api.loadtest.LoadTestConfiguration;
+import io.getlime.security.powerauth.app.rest.api.loadtest.LoadTestResults;
+import io.getlime.security.powerauth.app.rest.api.loadtest.replay.TrafficReplay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Closed-loop load generator. Each worker thread owns a subset of devices and executes randomly chosen operations
+ * or requests of replayed traffic back to back. Latency of every request executed during the measurement is recorded,
+ * no sampling is used.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final LoadTestConfiguration configuration;
+    private final LoadTestClient client;
+    private final List<LoadTestDevice> devices;
+    private final LongSupplier standInCpuTime;
+    private final LoadTestOperation[] operations;
+
+    private TrafficReplay replay;
+
+    private volatile boolean measuring;
+    private volatile boolean running;
+
+    /**
+     * Load generator constructor.
+     * @param configuration Load test configuration.
+     * @param client Load test client.
+     * @param devices Devices used for generating requests, at least one device for each thread.
+     * @param standInCpuTime Supplier of CPU time in nanoseconds consumed by the PowerAuth server stand-in.
+     */
+    public LoadGenerator(LoadTestConfiguration configuration, LoadTestClient client, List<LoadTestDevice> devices, LongSupplier standInCpuTime) {
+        if (devices.size() < configuration.getThreads()) {
+            throw new IllegalArgumentException("At least one device is required for each thread");
+        }
+        this.configuration = configuration;
+        this.client = client;
+        this.devices = devices;
+        this.standInCpuTime = standInCpuTime;
+        this.operations = configuration.getOperations().toArray(new LoadTestOperation[0]);
+    }
+
+    /**
+     * Set traffic which is replayed instead of randomly chosen operations. Operations of the traffic need to be
+     * configured in the load test configuration.
+     * @param replay Traffic replay.
+     */
+    public void setReplay(TrafficReplay replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * Run the warmup and the measurement.
+     * @return Load test results.
+     * @throws InterruptedException In case the load test is interrupted.
+     */
+    public LoadTestResults run() throws InterruptedException {
+        final int threads = configuration.getThreads();
+        final List<Worker> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            final List<LoadTestDevice> workerDevices = new ArrayList<>();
+            for (int j = i; j < devices.size(); j += threads) {
+                workerDevices.add(devices.get(j));
+            }
+            workers.add(new Worker(i, workerDevices));
+        }
+
+        running = true;
+        workers.forEach(Thread::start);
+        logger.info("Warming up for {} s", configuration.getWarmup());
+        TimeUnit.SECONDS.sleep(configuration.getWarmup());
+
+        final com.sun.management.OperatingSystemMXBean osBean = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        final long processCpuStart = osBean.getProcessCpuTime();
+        final long standInCpuStart = standInCpuTime.getAsLong();
+        final long start = System.nanoTime();
+        measuring = true;
+        logger.info("Measuring for {} s", configuration.getDuration());
+        TimeUnit.SECONDS.sleep(configuration.getDuration());
+        measuring = false;
+        final long elapsed = System.nanoTime() - start;
+        final long processCpu = osBean.getProcessCpuTime() - processCpuStart;
+        final long standInCpu = standInCpuTime.getAsLong() - standInCpuStart;
+        running = false;
+
+        final Map<LoadTestOperation, LoadTestResults.OperationResults> results = new EnumMap<>(LoadTestOperation.class);
+        long generatorCpu = 0;
+        for (Worker worker : workers) {
+            worker.join();
+            generatorCpu += worker.cpuTime;
+            for (LoadTestOperation operation : operations) {
+                final Recorder recorder = worker.recorders.get(operation);
+                results.computeIfAbsent(operation, op -> new LoadTestResults.OperationResults())
+                        .add(Arrays.copyOf(recorder.latencies, recorder.count), recorder.errors);
+            }
+        }
+        return new LoadTestResults(results, elapsed, processCpu, generatorCpu, standInCpu);
+    }
+
+    /**
+     * Recorder of latencies of a single operation in a single thread.
+     */
+    private static class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+
+    }
+
+    /**
+     * Worker thread generating requests for its devices.
+     */
+    private class Worker extends Thread {
+
+        private final List<LoadTestDevice> workerDevices;
+        private final Map<LoadTestOperation, Recorder> recorders = new EnumMap<>(LoadTestOperation.class);
+        private long cpuTime;
+
+        private Worker(int index, List<LoadTestDevice> workerDevices) {
+            super("load-generator-" + index);
+            this.workerDevices = workerDevices;
+            for (LoadTestOperation operation : operations) {
+                recorders.put(operation, new Recorder());
+            }
+        }
+
+        @Override
+        public void run() {
+            final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            long cpuStart = -1;
+            int deviceIndex = 0;
+            while (running) {
+                final boolean measured = measuring;
+                if (measured && cpuStart < 0) {
+                    cpuStart = threadBean.getCurrentThreadCpuTime();
+                } else if (!measured && cpuStart >= 0) {
+                    break;
+                }
+                final LoadTestDevice device = workerDevices.get(deviceIndex);
+                deviceIndex = (deviceIndex + 1) % workerDevices.size();
+                final TrafficReplay.Request replayedRequest = replay != null ? replay.next() : null;
+                final LoadTestOperation operation = replayedRequest != null ? replayedRequest.getOperation() : operations[random.nextInt(operations.length)];
+                final Recorder recorder = recorders.get(operation);
+                final long start = System.nanoTime();
+                try {
+                    if (replayedRequest != null) {
+                        client.execute(device, operation, replayedRequest.getPayloadSize());
+                    } else {
+                        client.execute(device, operation);
+                    }
+                    if (measured) {
+                        recorder.record(System.nanoTime() - start);
+                    }
+                } catch (Exception ex) {
+                    if (measured) {
+                        recorder.errors++;
+                    }
+                    logger.debug("Operation {} failed: {}", operation, ex.getMessage());
+                }
+            }
+            if (cpuStart >= 0) {
+                cpuTime = threadBean.getCurrentThreadCpuTime() - cpuStart;
+            }
+        }
+
+    }
+
+}
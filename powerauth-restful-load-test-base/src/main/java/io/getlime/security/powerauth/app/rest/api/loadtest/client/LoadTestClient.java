@@ -0,0 +1,301 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.BaseEncoding;
+import io.getlime.core.rest.model.base.request.ObjectRequest;
+import io.getlime.security.powerauth.crypto.client.activation.PowerAuthClientActivation;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.EciesEncryptor;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesCryptogram;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesSharedInfo1;
+import io.getlime.security.powerauth.crypto.lib.generator.KeyGenerator;
+import io.getlime.security.powerauth.crypto.lib.model.ActivationStatusBlobInfo;
+import io.getlime.security.powerauth.http.PowerAuthEncryptionHttpHeader;
+import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
+import io.getlime.security.powerauth.http.PowerAuthTokenHttpHeader;
+import io.getlime.security.powerauth.rest.api.model.entity.TokenResponsePayload;
+import io.getlime.security.powerauth.rest.api.model.request.v3.ActivationStatusRequest;
+import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
+import io.getlime.security.powerauth.rest.api.model.request.v3.TokenRemoveRequest;
+import io.getlime.security.powerauth.rest.api.model.request.v3.VaultUnlockRequestPayload;
+import io.getlime.security.powerauth.rest.api.model.response.v3.ActivationStatusResponse;
+import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
+import io.getlime.security.powerauth.rest.api.model.response.v3.VaultUnlockResponsePayload;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * HTTP client executing load test operations on behalf of a simulated device. Each response is validated the same
+ * way a mobile SDK would validate it, so that an incorrect response is counted as an error.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class LoadTestClient {
+
+    private static final String STATUS_OK = "OK";
+    private static final byte ACTIVATION_STATUS_ACTIVE = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final KeyGenerator keyGenerator = new KeyGenerator();
+    private final PowerAuthClientActivation clientActivation = new PowerAuthClientActivation();
+
+    private final String baseUrl;
+    private final String payload;
+
+    /**
+     * Client constructor.
+     * @param baseUrl Base URL of the tested application.
+     * @param payloadSize Size of request data in characters, it is also the maximum size of request data of
+     *                    operations executed with explicit payload size.
+     */
+    public LoadTestClient(String baseUrl, int payloadSize) {
+        this.baseUrl = baseUrl;
+        final Random random = new Random();
+        final StringBuilder sb = new StringBuilder(payloadSize);
+        for (int i = 0; i < payloadSize; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        this.payload = sb.toString();
+    }
+
+    /**
+     * Execute an operation.
+     * @param device Device executing the operation.
+     * @param operation Operation to execute.
+     * @throws Exception In case the operation fails or its response is invalid.
+     */
+    public void execute(LoadTestDevice device, LoadTestOperation operation) throws Exception {
+        execute(device, operation, payload);
+    }
+
+    /**
+     * Execute an operation with request data of given size.
+     * @param device Device executing the operation.
+     * @param operation Operation to execute.
+     * @param payloadSize Size of request data in characters, at most the payload size of the client.
+     * @throws Exception In case the operation fails or its response is invalid.
+     */
+    public void execute(LoadTestDevice device, LoadTestOperation operation, int payloadSize) throws Exception {
+        if (payloadSize > payload.length()) {
+            throw new IllegalArgumentException("Payload size exceeds payload size of the client: " + payloadSize);
+        }
+        execute(device, operation, payloadSize == payload.length() ? payload : payload.substring(0, payloadSize));
+    }
+
+    private void execute(LoadTestDevice device, LoadTestOperation operation, String payload) throws Exception {
+        switch (operation) {
+            case ACTIVATION_STATUS:
+                activationStatus(device);
+                break;
+            case SIGNATURE_VALIDATE:
+                signatureValidate(device, payload);
+                break;
+            case TOKEN_CREATE:
+                tokenCreate(device);
+                break;
+            case TOKEN_REMOVE:
+                tokenRemove(device);
+                break;
+            case VAULT_UNLOCK:
+                vaultUnlock(device);
+                break;
+            case EXCHANGE_APPLICATION:
+                exchange(device, operation, payload, null, false, false);
+                break;
+            case EXCHANGE_ACTIVATION:
+                exchange(device, operation, payload, null, true, false);
+                break;
+            case EXCHANGE_SIGNED:
+                exchange(device, operation, payload, "/exchange/v3/signed", true, false);
+                break;
+            case EXCHANGE_TOKEN:
+                exchange(device, operation, payload, null, true, true);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+
+    private void activationStatus(LoadTestDevice device) throws Exception {
+        final byte[] challenge = keyGenerator.generateRandomBytes(16);
+        final ActivationStatusRequest request = new ActivationStatusRequest();
+        request.setActivationId(device.getActivationId());
+        request.setChallenge(BaseEncoding.base64().encode(challenge));
+        final byte[] responseBytes = post(LoadTestOperation.ACTIVATION_STATUS, objectMapper.writeValueAsBytes(new ObjectRequest<>(request)), Collections.emptyMap());
+        final ActivationStatusResponse response = objectMapper.treeToValue(readObjectResponse(responseBytes), ActivationStatusResponse.class);
+        final ActivationStatusBlobInfo statusBlobInfo = clientActivation.getStatusFromEncryptedBlob(
+                BaseEncoding.base64().decode(response.getEncryptedStatusBlob()), challenge,
+                BaseEncoding.base64().decode(response.getNonce()), device.getTransportKey());
+        if (!statusBlobInfo.isValid() || statusBlobInfo.getActivationStatus() != ACTIVATION_STATUS_ACTIVE) {
+            throw new IllegalStateException("Invalid activation status");
+        }
+    }
+
+    private void signatureValidate(LoadTestDevice device, String payload) throws Exception {
+        final byte[] requestBytes = payload.getBytes(StandardCharsets.UTF_8);
+        final String signatureHeader = device.computeSignatureHeader("POST", "/pa/signature/validate", requestBytes);
+        readStatus(post(LoadTestOperation.SIGNATURE_VALIDATE, requestBytes, Collections.singletonMap(PowerAuthSignatureHttpHeader.HEADER_NAME, signatureHeader)));
+    }
+
+    private void tokenCreate(LoadTestDevice device) throws Exception {
+        final EciesEncryptor encryptor = device.createActivationEncryptor(EciesSharedInfo1.CREATE_TOKEN);
+        final byte[] requestBytes = encryptRequest(encryptor, "{}".getBytes(StandardCharsets.UTF_8));
+        final String signatureHeader = device.computeSignatureHeader("POST", "/pa/token/create", requestBytes);
+        final byte[] responseBytes = post(LoadTestOperation.TOKEN_CREATE, requestBytes, Collections.singletonMap(PowerAuthSignatureHttpHeader.HEADER_NAME, signatureHeader));
+        final TokenResponsePayload response = objectMapper.readValue(decryptResponse(encryptor, responseBytes), TokenResponsePayload.class);
+        if (response.getTokenId() == null || response.getTokenSecret() == null) {
+            throw new IllegalStateException("Invalid token");
+        }
+        device.tokenCreated(response.getTokenId());
+    }
+
+    private void tokenRemove(LoadTestDevice device) throws Exception {
+        // Tokens created by other operations are removed first, otherwise removal of an unknown token is requested
+        final String tokenId = device.pollCreatedToken();
+        final TokenRemoveRequest request = new TokenRemoveRequest();
+        request.setTokenId(tokenId != null ? tokenId : UUID.randomUUID().toString());
+        final byte[] requestBytes = objectMapper.writeValueAsBytes(new ObjectRequest<>(request));
+        final String signatureHeader = device.computeSignatureHeader("POST", "/pa/token/remove", requestBytes);
+        readObjectResponse(post(LoadTestOperation.TOKEN_REMOVE, requestBytes, Collections.singletonMap(PowerAuthSignatureHttpHeader.HEADER_NAME, signatureHeader)));
+    }
+
+    private void vaultUnlock(LoadTestDevice device) throws Exception {
+        final EciesEncryptor encryptor = device.createActivationEncryptor(EciesSharedInfo1.VAULT_UNLOCK);
+        final VaultUnlockRequestPayload request = new VaultUnlockRequestPayload();
+        request.setReason("LOAD_TEST");
+        final byte[] requestBytes = encryptRequest(encryptor, objectMapper.writeValueAsBytes(request));
+        final String signatureHeader = device.computeSignatureHeader("POST", "/pa/vault/unlock", requestBytes);
+        final byte[] responseBytes = post(LoadTestOperation.VAULT_UNLOCK, requestBytes, Collections.singletonMap(PowerAuthSignatureHttpHeader.HEADER_NAME, signatureHeader));
+        final VaultUnlockResponsePayload response = objectMapper.readValue(decryptResponse(encryptor, responseBytes), VaultUnlockResponsePayload.class);
+        if (!response.isSignatureValid() || response.getEncryptedVaultEncryptionKey() == null) {
+            throw new IllegalStateException("Vault unlock failed");
+        }
+    }
+
+    private void exchange(LoadTestDevice device, LoadTestOperation operation, String payload, String signatureResourceId, boolean activationScope, boolean useToken) throws Exception {
+        final EciesEncryptor encryptor = activationScope
+                ? device.createActivationEncryptor(EciesSharedInfo1.ACTIVATION_SCOPE_GENERIC)
+                : device.createApplicationEncryptor();
+        // Sample data exchange endpoints of all server variants use the same request and response format
+        final byte[] requestData = objectMapper.writeValueAsBytes(Collections.singletonMap("data", payload));
+        final byte[] requestBytes = encryptRequest(encryptor, requestData);
+        final Map<String, String> headers = new LinkedHashMap<>();
+        if (signatureResourceId != null) {
+            // Sign-then-encrypt, signature is computed from request data before encryption
+            headers.put(PowerAuthSignatureHttpHeader.HEADER_NAME, device.computeSignatureHeader("POST", signatureResourceId, requestData));
+        } else {
+            // ECIES parameters are taken from the encryption header when the request is not signed
+            headers.put(PowerAuthEncryptionHttpHeader.HEADER_NAME, device.getEncryptionHeader(activationScope));
+            if (useToken) {
+                headers.put(PowerAuthTokenHttpHeader.HEADER_NAME, device.computeTokenHeader());
+            }
+        }
+        final byte[] responseBytes = post(operation, requestBytes, headers);
+        final JsonNode response = objectMapper.readTree(decryptResponse(encryptor, responseBytes));
+        if (!response.path("data").asText().contains(payload)) {
+            throw new IllegalStateException("Invalid data exchange response");
+        }
+    }
+
+    private byte[] encryptRequest(EciesEncryptor encryptor, byte[] data) throws Exception {
+        final EciesCryptogram cryptogram = encryptor.encryptRequest(data, true);
+        final EciesEncryptedRequest request = new EciesEncryptedRequest();
+        request.setEphemeralPublicKey(BaseEncoding.base64().encode(cryptogram.getEphemeralPublicKey()));
+        request.setEncryptedData(BaseEncoding.base64().encode(cryptogram.getEncryptedData()));
+        request.setMac(BaseEncoding.base64().encode(cryptogram.getMac()));
+        request.setNonce(BaseEncoding.base64().encode(cryptogram.getNonce()));
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    private byte[] decryptResponse(EciesEncryptor encryptor, byte[] responseBytes) throws Exception {
+        final EciesEncryptedResponse response = objectMapper.readValue(responseBytes, EciesEncryptedResponse.class);
+        return encryptor.decryptResponse(new EciesCryptogram(
+                BaseEncoding.base64().decode(response.getMac()),
+                BaseEncoding.base64().decode(response.getEncryptedData())));
+    }
+
+    private JsonNode readStatus(byte[] responseBytes) throws IOException {
+        final JsonNode response = objectMapper.readTree(responseBytes);
+        if (!STATUS_OK.equals(response.path("status").asText())) {
+            throw new IllegalStateException("Unexpected response status: " + response.path("status").asText());
+        }
+        return response;
+    }
+
+    private JsonNode readObjectResponse(byte[] responseBytes) throws IOException {
+        return readStatus(responseBytes).path("responseObject");
+    }
+
+    private byte[] post(LoadTestOperation operation, byte[] requestBytes, Map<String, String> headers) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + operation.getPath()).openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(requestBytes.length);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setRequestProperty("Accept", "application/json");
+            headers.forEach(connection::setRequestProperty);
+            try (OutputStream os = connection.getOutputStream()) {
+                os.write(requestBytes);
+            }
+            final int responseCode = connection.getResponseCode();
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                // Error response body is consumed so that the connection can be reused
+                final InputStream errorStream = connection.getErrorStream();
+                if (errorStream != null) {
+                    try (InputStream is = errorStream) {
+                        readFully(is);
+                    }
+                }
+                throw new IOException("Unexpected HTTP status code: " + responseCode);
+            }
+            try (InputStream is = connection.getInputStream()) {
+                return readFully(is);
+            }
+        } catch (IOException ex) {
+            connection.disconnect();
+            throw ex;
+        }
+    }
+
+    private byte[] readFully(InputStream is) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            os.write(buffer, 0, read);
+        }
+        return os.toByteArray();
+    }
+
+}
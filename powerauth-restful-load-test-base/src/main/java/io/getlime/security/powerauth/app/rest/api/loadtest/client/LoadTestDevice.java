@@ -0,0 +1,207 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.client;
+
+import com.google.common.io.BaseEncoding;
+import io.getlime.powerauth.soap.v3.SignatureType;
+import io.getlime.security.powerauth.app.rest.api.loadtest.standin.PowerAuthServerStandIn;
+import io.getlime.security.powerauth.app.rest.api.loadtest.standin.StandInActivation;
+import io.getlime.security.powerauth.app.rest.api.loadtest.standin.StandInToken;
+import io.getlime.security.powerauth.crypto.client.keyfactory.PowerAuthClientKeyFactory;
+import io.getlime.security.powerauth.crypto.client.signature.PowerAuthClientSignature;
+import io.getlime.security.powerauth.crypto.client.token.ClientTokenGenerator;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.EciesEncryptor;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.EciesFactory;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesSharedInfo1;
+import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureFormat;
+import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
+import io.getlime.security.powerauth.crypto.lib.generator.HashBasedCounter;
+import io.getlime.security.powerauth.crypto.lib.generator.KeyGenerator;
+import io.getlime.security.powerauth.crypto.lib.util.KeyConvertor;
+import io.getlime.security.powerauth.http.PowerAuthEncryptionHttpHeader;
+import io.getlime.security.powerauth.http.PowerAuthHttpBody;
+import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
+import io.getlime.security.powerauth.http.PowerAuthTokenHttpHeader;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Simulated mobile device with an activation and a token. The device keeps a signature counter, so that it must not
+ * be used by multiple threads concurrently.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class LoadTestDevice {
+
+    private static final String PROTOCOL_VERSION = "3.1";
+    private static final PowerAuthSignatureTypes SIGNATURE_TYPE = PowerAuthSignatureTypes.POSSESSION_KNOWLEDGE;
+    private static final int MAX_CREATED_TOKENS = 10;
+
+    private final KeyGenerator keyGenerator = new KeyGenerator();
+    private final HashBasedCounter hashBasedCounter = new HashBasedCounter();
+    private final PowerAuthClientSignature clientSignature = new PowerAuthClientSignature();
+    private final ClientTokenGenerator tokenGenerator = new ClientTokenGenerator();
+    private final EciesFactory eciesFactory = new EciesFactory();
+
+    private final String applicationKey;
+    private final byte[] applicationSecret;
+    private final ECPublicKey masterPublicKey;
+    private final String activationId;
+    private final ECPublicKey serverPublicKey;
+    private final SecretKey transportKey;
+    private final byte[] transportKeyBytes;
+    private final List<SecretKey> signatureKeys;
+    private final String tokenId;
+    private final byte[] tokenSecret;
+    private final Deque<String> createdTokenIds = new ArrayDeque<>();
+    private byte[] ctrData;
+
+    private LoadTestDevice(PowerAuthServerStandIn standIn, KeyPair deviceKeyPair, StandInActivation activation, StandInToken token) throws Exception {
+        final PowerAuthClientKeyFactory keyFactory = new PowerAuthClientKeyFactory();
+        final SecretKey masterSecretKey = keyFactory.generateClientMasterSecretKey(deviceKeyPair.getPrivate(), activation.getServerPublicKey());
+        this.applicationKey = standIn.getApplicationKey();
+        this.applicationSecret = standIn.getApplicationSecret().getBytes(StandardCharsets.UTF_8);
+        this.masterPublicKey = (ECPublicKey) standIn.getMasterPublicKey();
+        this.activationId = activation.getActivationId();
+        this.serverPublicKey = (ECPublicKey) activation.getServerPublicKey();
+        this.transportKey = keyFactory.generateServerTransportKey(masterSecretKey);
+        this.transportKeyBytes = new KeyConvertor().convertSharedSecretKeyToBytes(transportKey);
+        this.signatureKeys = keyFactory.keysForSignatureType(SIGNATURE_TYPE, masterSecretKey);
+        this.tokenId = token.getTokenId();
+        this.tokenSecret = token.getTokenSecret();
+        this.ctrData = activation.getCtrData();
+    }
+
+    /**
+     * Create a device with a new activation and a token in the PowerAuth server stand-in.
+     * @param standIn PowerAuth server stand-in.
+     * @return Device.
+     * @throws Exception In case device keys cannot be generated.
+     */
+    public static LoadTestDevice create(PowerAuthServerStandIn standIn) throws Exception {
+        final KeyPair deviceKeyPair = new KeyGenerator().generateKeyPair();
+        final StandInActivation activation = standIn.createActivation(deviceKeyPair.getPublic());
+        final StandInToken token = standIn.createToken(activation.getActivationId(), SignatureType.valueOf(SIGNATURE_TYPE.name()));
+        return new LoadTestDevice(standIn, deviceKeyPair, activation, token);
+    }
+
+    /**
+     * Get activation ID.
+     * @return Activation ID.
+     */
+    public String getActivationId() {
+        return activationId;
+    }
+
+    /**
+     * Get transport key.
+     * @return Transport key.
+     */
+    public SecretKey getTransportKey() {
+        return transportKey;
+    }
+
+    /**
+     * Compute value of the signature HTTP header and move the signature counter.
+     * @param httpMethod HTTP method.
+     * @param resourceId Resource identifier.
+     * @param body Request body.
+     * @return Signature HTTP header.
+     * @throws Exception In case signature cannot be computed.
+     */
+    public String computeSignatureHeader(String httpMethod, String resourceId, byte[] body) throws Exception {
+        final byte[] nonce = keyGenerator.generateRandomBytes(16);
+        final byte[] data = PowerAuthHttpBody.getSignatureBaseString(httpMethod, resourceId, nonce, body).getBytes(StandardCharsets.UTF_8);
+        final String signature = clientSignature.signatureForData(data, signatureKeys, ctrData,
+                PowerAuthSignatureFormat.getFormatForSignatureVersion(PROTOCOL_VERSION));
+        ctrData = hashBasedCounter.next(ctrData);
+        return new PowerAuthSignatureHttpHeader(activationId, applicationKey, signature, SIGNATURE_TYPE.toString(),
+                BaseEncoding.base64().encode(nonce), PROTOCOL_VERSION).buildHttpHeader();
+    }
+
+    /**
+     * Compute value of the token HTTP header.
+     * @return Token HTTP header.
+     * @throws Exception In case token digest cannot be computed.
+     */
+    public String computeTokenHeader() throws Exception {
+        final byte[] nonce = tokenGenerator.generateTokenNonce();
+        final byte[] timestamp = tokenGenerator.generateTokenTimestamp();
+        final byte[] digest = tokenGenerator.computeTokenDigest(nonce, timestamp, tokenSecret);
+        return new PowerAuthTokenHttpHeader(tokenId, BaseEncoding.base64().encode(digest), BaseEncoding.base64().encode(nonce),
+                new String(timestamp, StandardCharsets.UTF_8), PROTOCOL_VERSION).buildHttpHeader();
+    }
+
+    /**
+     * Get value of the encryption HTTP header.
+     * @param activationScope Whether the activation scope is used.
+     * @return Encryption HTTP header.
+     */
+    public String getEncryptionHeader(boolean activationScope) {
+        if (activationScope) {
+            return new PowerAuthEncryptionHttpHeader(applicationKey, activationId, PROTOCOL_VERSION).buildHttpHeader();
+        }
+        return new PowerAuthEncryptionHttpHeader(applicationKey, PROTOCOL_VERSION).buildHttpHeader();
+    }
+
+    /**
+     * Create ECIES encryptor for a single request in application scope.
+     * @return ECIES encryptor.
+     * @throws Exception In case encryptor cannot be created.
+     */
+    public EciesEncryptor createApplicationEncryptor() throws Exception {
+        return eciesFactory.getEciesEncryptorForApplication(masterPublicKey, applicationSecret, EciesSharedInfo1.APPLICATION_SCOPE_GENERIC);
+    }
+
+    /**
+     * Create ECIES encryptor for a single request in activation scope.
+     * @param sharedInfo1 Parameter sharedInfo1 specific for the endpoint.
+     * @return ECIES encryptor.
+     * @throws Exception In case encryptor cannot be created.
+     */
+    public EciesEncryptor createActivationEncryptor(EciesSharedInfo1 sharedInfo1) throws Exception {
+        return eciesFactory.getEciesEncryptorForActivation(serverPublicKey, applicationSecret, transportKeyBytes, sharedInfo1);
+    }
+
+    /**
+     * Remember a token created by the token creation operation, so that it can be removed later.
+     * @param createdTokenId Token ID.
+     */
+    public void tokenCreated(String createdTokenId) {
+        if (createdTokenIds.size() < MAX_CREATED_TOKENS) {
+            createdTokenIds.addLast(createdTokenId);
+        }
+    }
+
+    /**
+     * Get a token created by the token creation operation which should be removed.
+     * @return Token ID or null in case no created token exists.
+     */
+    public String pollCreatedToken() {
+        return createdTokenIds.pollFirst();
+    }
+
+}
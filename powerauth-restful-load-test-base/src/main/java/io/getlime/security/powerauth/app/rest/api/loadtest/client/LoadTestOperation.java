@@ -0,0 +1,88 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.client;
+
+/**
+ * Operations executed by the load generator.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public enum LoadTestOperation {
+
+    /**
+     * Activation status with a challenge, the status blob is decrypted and verified.
+     */
+    ACTIVATION_STATUS("/pa/v3/activation/status"),
+
+    /**
+     * Signature validation of request data.
+     */
+    SIGNATURE_VALIDATE("/pa/v3/signature/validate"),
+
+    /**
+     * Signed and encrypted token creation.
+     */
+    TOKEN_CREATE("/pa/v3/token/create"),
+
+    /**
+     * Signed removal of a token created by the token creation operation.
+     */
+    TOKEN_REMOVE("/pa/v3/token/remove"),
+
+    /**
+     * Signed and encrypted vault unlock.
+     */
+    VAULT_UNLOCK("/pa/v3/vault/unlock"),
+
+    /**
+     * Encrypted data exchange in application scope.
+     */
+    EXCHANGE_APPLICATION("/exchange/v3/application"),
+
+    /**
+     * Encrypted data exchange in activation scope.
+     */
+    EXCHANGE_ACTIVATION("/exchange/v3/activation"),
+
+    /**
+     * Signed and encrypted data exchange.
+     */
+    EXCHANGE_SIGNED("/exchange/v3/signed"),
+
+    /**
+     * Encrypted data exchange authenticated using a token.
+     */
+    EXCHANGE_TOKEN("/exchange/v3/token");
+
+    private final String path;
+
+    LoadTestOperation(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Get path of the endpoint.
+     * @return Endpoint path.
+     */
+    public String getPath() {
+        return path;
+    }
+
+}
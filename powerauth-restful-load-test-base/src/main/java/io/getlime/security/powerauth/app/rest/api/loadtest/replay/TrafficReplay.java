@@ -0,0 +1,222 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.replay;
+
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestOperation;
+import io.getlime.security.powerauth.rest.api.base.capture.PowerAuthTrafficBackendCall;
+import io.getlime.security.powerauth.rest.api.base.capture.PowerAuthTrafficLogReader;
+import io.getlime.security.powerauth.rest.api.base.capture.PowerAuthTrafficRecord;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Traffic captured by the PowerAuth RESTful server application, replayed by the load generator instead of randomly
+ * chosen operations. Requests are mapped to load test operations using their endpoint, requests to other endpoints
+ * and failed requests are skipped. Recorded durations of PowerAuth server calls are reproduced by the stand-in.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class TrafficReplay {
+
+    /**
+     * Approximate size of ECIES request fields other than encrypted data, i.e. ephemeral public key, MAC, nonce
+     * and JSON structure.
+     */
+    private static final int ENCRYPTED_REQUEST_OVERHEAD = 220;
+
+    /**
+     * Approximate size of the JSON wrapper of request data and of the AES padding.
+     */
+    private static final int ENCRYPTED_DATA_OVERHEAD = 16;
+
+    private final Request[] requests;
+    private final Set<LoadTestOperation> operations;
+    private final Map<String, long[]> backendLatencies;
+    private final long skippedRecords;
+    private final AtomicLong cursor = new AtomicLong();
+
+    private TrafficReplay(Request[] requests, Set<LoadTestOperation> operations, Map<String, long[]> backendLatencies, long skippedRecords) {
+        this.requests = requests;
+        this.operations = operations;
+        this.backendLatencies = backendLatencies;
+        this.skippedRecords = skippedRecords;
+    }
+
+    /**
+     * Load traffic from a traffic log.
+     * @param file Traffic log file.
+     * @param supportedOperations Operations supported by the tested application.
+     * @return Traffic replay.
+     * @throws IOException In case the traffic log cannot be read.
+     * @throws IllegalArgumentException In case the traffic log contains no request which can be replayed.
+     */
+    public static TrafficReplay load(Path file, Set<LoadTestOperation> supportedOperations) throws IOException {
+        final Map<String, LoadTestOperation> operationsByEndpoint = new HashMap<>();
+        for (LoadTestOperation operation: supportedOperations) {
+            operationsByEndpoint.put(operation.getPath(), operation);
+        }
+        final List<Request> requests = new ArrayList<>();
+        final Set<LoadTestOperation> operations = EnumSet.noneOf(LoadTestOperation.class);
+        final Map<String, List<Long>> latencies = new HashMap<>();
+        long skippedRecords = 0;
+        try (PowerAuthTrafficLogReader reader = new PowerAuthTrafficLogReader(file)) {
+            PowerAuthTrafficRecord trafficRecord;
+            while ((trafficRecord = reader.read()) != null) {
+                for (PowerAuthTrafficBackendCall backendCall: trafficRecord.getBackendCalls()) {
+                    latencies.computeIfAbsent(backendCall.getOperation(), op -> new ArrayList<>()).add(backendCall.getDuration());
+                }
+                final LoadTestOperation operation = operationsByEndpoint.get(trafficRecord.getEndpoint());
+                // Load test client can only send valid POST requests
+                if (operation == null || !"POST".equals(trafficRecord.getMethod()) || trafficRecord.getResponseStatus() >= 400) {
+                    skippedRecords++;
+                    continue;
+                }
+                requests.add(new Request(operation, payloadSize(operation, trafficRecord.getRequestBodySize())));
+                operations.add(operation);
+            }
+        }
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("Traffic log does not contain any request which can be replayed");
+        }
+        final Map<String, long[]> backendLatencies = new HashMap<>();
+        latencies.forEach((operation, durations) -> backendLatencies.put(operation, durations.stream().mapToLong(Long::longValue).toArray()));
+        return new TrafficReplay(requests.toArray(new Request[0]), operations, backendLatencies, skippedRecords);
+    }
+
+    /**
+     * Get the next request to replay, requests are replayed in the recorded order and the traffic is repeated
+     * once all requests are replayed.
+     * @return Request to replay.
+     */
+    public Request next() {
+        return requests[(int) (cursor.getAndIncrement() % requests.length)];
+    }
+
+    /**
+     * Get number of requests which can be replayed.
+     * @return Number of requests.
+     */
+    public int getRequests() {
+        return requests.length;
+    }
+
+    /**
+     * Get number of skipped records.
+     * @return Number of skipped records.
+     */
+    public long getSkippedRecords() {
+        return skippedRecords;
+    }
+
+    /**
+     * Get operations of replayed requests.
+     * @return Operations.
+     */
+    public Set<LoadTestOperation> getOperations() {
+        return Collections.unmodifiableSet(operations);
+    }
+
+    /**
+     * Get maximum size of request data of replayed requests.
+     * @return Maximum payload size.
+     */
+    public int getMaxPayloadSize() {
+        int result = 0;
+        for (Request request: requests) {
+            result = Math.max(result, request.getPayloadSize());
+        }
+        return result;
+    }
+
+    /**
+     * Get recorded durations of PowerAuth server calls.
+     * @return Durations in nanoseconds by operation name.
+     */
+    public Map<String, long[]> getBackendLatencies() {
+        return Collections.unmodifiableMap(backendLatencies);
+    }
+
+    /**
+     * Estimate size of request data from the recorded size of the request body, the body of encrypted requests
+     * contains Base64 encoded encrypted data.
+     * @param operation Load test operation.
+     * @param requestBodySize Request body size.
+     * @return Payload size.
+     */
+    private static int payloadSize(LoadTestOperation operation, long requestBodySize) {
+        final long payloadSize;
+        switch (operation) {
+            case SIGNATURE_VALIDATE:
+                payloadSize = requestBodySize;
+                break;
+            case EXCHANGE_APPLICATION:
+            case EXCHANGE_ACTIVATION:
+            case EXCHANGE_SIGNED:
+            case EXCHANGE_TOKEN:
+                payloadSize = (requestBodySize - ENCRYPTED_REQUEST_OVERHEAD) * 3 / 4 - ENCRYPTED_DATA_OVERHEAD;
+                break;
+            default:
+                // Request data of other operations do not depend on payload size
+                payloadSize = 0;
+        }
+        return (int) Math.max(0, Math.min(payloadSize, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Replayed request.
+     */
+    public static class Request {
+
+        private final LoadTestOperation operation;
+        private final int payloadSize;
+
+        private Request(LoadTestOperation operation, int payloadSize) {
+            this.operation = operation;
+            this.payloadSize = payloadSize;
+        }
+
+        /**
+         * Get operation executing the request.
+         * @return Operation.
+         */
+        public LoadTestOperation getOperation() {
+            return operation;
+        }
+
+        /**
+         * Get size of request data.
+         * @return Payload size.
+         */
+        public int getPayloadSize() {
+            return payloadSize;
+        }
+
+    }
+
+}
@@ -0,0 +1,366 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.standin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.BaseEncoding;
+import io.getlime.powerauth.soap.v3.*;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.EciesDecryptor;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.EciesFactory;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesCryptogram;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesSharedInfo1;
+import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureFormat;
+import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
+import io.getlime.security.powerauth.crypto.lib.generator.HashBasedCounter;
+import io.getlime.security.powerauth.crypto.lib.generator.KeyGenerator;
+import io.getlime.security.powerauth.crypto.lib.model.ActivationStatusBlobInfo;
+import io.getlime.security.powerauth.crypto.lib.util.KeyConvertor;
+import io.getlime.security.powerauth.crypto.server.activation.PowerAuthServerActivation;
+import io.getlime.security.powerauth.crypto.server.keyfactory.PowerAuthServerKeyFactory;
+import io.getlime.security.powerauth.crypto.server.token.ServerTokenVerifier;
+import io.getlime.security.powerauth.crypto.server.vault.PowerAuthServerVault;
+import io.getlime.security.powerauth.rest.api.model.response.v3.VaultUnlockResponsePayload;
+
+import javax.crypto.SecretKey;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in of PowerAuth server implementing the protocol version 3 operations used by the integration
+ * libraries using real PowerAuth cryptography. Activations and tokens are only stored in memory, activations are
+ * created directly by the load generator instead of the activation process.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthServerStandIn {
+
+    private static final long APPLICATION_ID = 1L;
+    private static final int MAX_FAILED_ATTEMPTS = 5;
+    private static final byte STATUS_BLOB_ACTIVE = 3;
+    private static final byte STATUS_BLOB_REMOVED = 5;
+    private static final byte PROTOCOL_VERSION = 3;
+    private static final byte COUNTER_LOOK_AHEAD = 20;
+
+    private final KeyGenerator keyGenerator = new KeyGenerator();
+    private final KeyConvertor keyConvertor = new KeyConvertor();
+    private final HashBasedCounter hashBasedCounter = new HashBasedCounter();
+    private final PowerAuthServerKeyFactory keyFactory = new PowerAuthServerKeyFactory();
+    private final PowerAuthServerActivation serverActivation = new PowerAuthServerActivation();
+    private final PowerAuthServerVault serverVault = new PowerAuthServerVault();
+    private final ServerTokenVerifier tokenVerifier = new ServerTokenVerifier();
+    private final EciesFactory eciesFactory = new EciesFactory();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DatatypeFactory datatypeFactory;
+
+    private final KeyPair masterKeyPair;
+    private final String applicationKey;
+    private final String applicationSecret;
+    private final XMLGregorianCalendar timestampCreated;
+
+    private final Map<String, StandInActivation> activations = new ConcurrentHashMap<>();
+    private final Map<String, StandInToken> tokens = new ConcurrentHashMap<>();
+    private final AtomicLong userCounter = new AtomicLong();
+
+    /**
+     * Constructor, generates master key pair and credentials of the application.
+     * @throws Exception In case the stand-in cannot be initialized.
+     */
+    public PowerAuthServerStandIn() throws Exception {
+        datatypeFactory = DatatypeFactory.newInstance();
+        masterKeyPair = keyGenerator.generateKeyPair();
+        applicationKey = BaseEncoding.base64().encode(keyGenerator.generateRandomBytes(16));
+        applicationSecret = BaseEncoding.base64().encode(keyGenerator.generateRandomBytes(16));
+        timestampCreated = now();
+    }
+
+    /**
+     * Get application key.
+     * @return Application key.
+     */
+    public String getApplicationKey() {
+        return applicationKey;
+    }
+
+    /**
+     * Get application secret.
+     * @return Application secret.
+     */
+    public String getApplicationSecret() {
+        return applicationSecret;
+    }
+
+    /**
+     * Get master public key of the application.
+     * @return Master public key.
+     */
+    public PublicKey getMasterPublicKey() {
+        return masterKeyPair.getPublic();
+    }
+
+    /**
+     * Create an active activation for a device public key.
+     * @param devicePublicKey Device public key.
+     * @return Created activation.
+     * @throws Exception In case activation keys cannot be derived.
+     */
+    public StandInActivation createActivation(PublicKey devicePublicKey) throws Exception {
+        final String activationId = serverActivation.generateActivationId();
+        final String userId = "loadtest-user-" + userCounter.incrementAndGet();
+        final KeyPair serverKeyPair = keyGenerator.generateKeyPair();
+        final SecretKey masterSecretKey = keyFactory.generateServerMasterSecretKey(serverKeyPair.getPrivate(), devicePublicKey);
+        final SecretKey transportKey = keyFactory.generateServerTransportKey(masterSecretKey);
+        final Map<PowerAuthSignatureTypes, List<SecretKey>> signatureKeys = new EnumMap<>(PowerAuthSignatureTypes.class);
+        for (PowerAuthSignatureTypes signatureType: PowerAuthSignatureTypes.values()) {
+            signatureKeys.put(signatureType, keyFactory.keysForSignatureType(signatureType, masterSecretKey));
+        }
+        final StandInActivation activation = new StandInActivation(activationId, userId, serverKeyPair, devicePublicKey,
+                transportKey, signatureKeys, hashBasedCounter.init());
+        activations.put(activationId, activation);
+        return activation;
+    }
+
+    /**
+     * Create a token for an activation.
+     * @param activationId Activation ID.
+     * @param signatureType Signature type used for token creation.
+     * @return Created token.
+     */
+    public StandInToken createToken(String activationId, SignatureType signatureType) {
+        final StandInToken token = new StandInToken(UUID.randomUUID().toString(), keyGenerator.generateRandomBytes(16), activationId, signatureType);
+        tokens.put(token.getTokenId(), token);
+        return token;
+    }
+
+    /**
+     * Handle a SOAP request.
+     * @param request Unmarshalled SOAP request.
+     * @return SOAP response.
+     * @throws Exception In case the request is invalid or not supported.
+     */
+    public Object handle(Object request) throws Exception {
+        if (request instanceof GetEciesDecryptorRequest) {
+            return getEciesDecryptor((GetEciesDecryptorRequest) request);
+        } else if (request instanceof VerifySignatureRequest) {
+            return verifySignature((VerifySignatureRequest) request);
+        } else if (request instanceof ValidateTokenRequest) {
+            return validateToken((ValidateTokenRequest) request);
+        } else if (request instanceof CreateTokenRequest) {
+            return createToken((CreateTokenRequest) request);
+        } else if (request instanceof RemoveTokenRequest) {
+            return removeToken((RemoveTokenRequest) request);
+        } else if (request instanceof GetActivationStatusRequest) {
+            return getActivationStatus((GetActivationStatusRequest) request);
+        } else if (request instanceof VaultUnlockRequest) {
+            return vaultUnlock((VaultUnlockRequest) request);
+        } else if (request instanceof RemoveActivationRequest) {
+            return removeActivation((RemoveActivationRequest) request);
+        }
+        throw new UnsupportedOperationException("Operation is not supported: " + request.getClass().getSimpleName());
+    }
+
+    private GetEciesDecryptorResponse getEciesDecryptor(GetEciesDecryptorRequest request) throws Exception {
+        verifyApplicationKey(request.getApplicationKey());
+        final EciesDecryptor decryptor;
+        if (request.getActivationId() == null) {
+            decryptor = eciesFactory.getEciesDecryptorForApplication((ECPrivateKey) masterKeyPair.getPrivate(),
+                    applicationSecret.getBytes(StandardCharsets.UTF_8), EciesSharedInfo1.APPLICATION_SCOPE_GENERIC);
+        } else {
+            decryptor = getActivationDecryptor(getActivation(request.getActivationId()), EciesSharedInfo1.ACTIVATION_SCOPE_GENERIC);
+        }
+        decryptor.initEnvelopeKey(BaseEncoding.base64().decode(request.getEphemeralPublicKey()));
+        final GetEciesDecryptorResponse response = new GetEciesDecryptorResponse();
+        response.setSecretKey(BaseEncoding.base64().encode(decryptor.getEnvelopeKey().getSecretKey()));
+        response.setSharedInfo2(BaseEncoding.base64().encode(decryptor.getSharedInfo2()));
+        return response;
+    }
+
+    private VerifySignatureResponse verifySignature(VerifySignatureRequest request) throws Exception {
+        final StandInActivation activation = activations.get(request.getActivationId());
+        final VerifySignatureResponse response = new VerifySignatureResponse();
+        response.setActivationId(request.getActivationId());
+        response.setSignatureType(request.getSignatureType());
+        response.setApplicationId(APPLICATION_ID);
+        if (activation == null || !applicationKey.equals(request.getApplicationKey())) {
+            response.setSignatureValid(false);
+            response.setActivationStatus(ActivationStatus.REMOVED);
+            response.setRemainingAttempts(BigInteger.ZERO);
+            return response;
+        }
+        final boolean signatureValid = activation.verifySignature(request.getData().getBytes(StandardCharsets.UTF_8), request.getSignature(),
+                PowerAuthSignatureTypes.valueOf(request.getSignatureType().name()),
+                PowerAuthSignatureFormat.getFormatForSignatureVersion(request.getSignatureVersion()));
+        response.setSignatureValid(signatureValid);
+        response.setActivationStatus(activation.getActivationStatus());
+        response.setUserId(activation.getUserId());
+        response.setRemainingAttempts(BigInteger.valueOf(MAX_FAILED_ATTEMPTS));
+        return response;
+    }
+
+    private ValidateTokenResponse validateToken(ValidateTokenRequest request) throws Exception {
+        final StandInToken token = tokens.get(request.getTokenId());
+        final ValidateTokenResponse response = new ValidateTokenResponse();
+        final StandInActivation activation = token == null ? null : activations.get(token.getActivationId());
+        if (activation == null || activation.getActivationStatus() != ActivationStatus.ACTIVE) {
+            response.setTokenValid(false);
+            return response;
+        }
+        final boolean tokenValid = tokenVerifier.validateTokenDigest(
+                BaseEncoding.base64().decode(request.getNonce()),
+                tokenVerifier.convertTokenTimestamp(request.getTimestamp()),
+                token.getTokenSecret(),
+                BaseEncoding.base64().decode(request.getTokenDigest()));
+        response.setTokenValid(tokenValid);
+        response.setActivationId(activation.getActivationId());
+        response.setUserId(activation.getUserId());
+        response.setApplicationId(APPLICATION_ID);
+        response.setSignatureType(token.getSignatureType());
+        return response;
+    }
+
+    private CreateTokenResponse createToken(CreateTokenRequest request) throws Exception {
+        verifyApplicationKey(request.getApplicationKey());
+        final StandInActivation activation = getActivation(request.getActivationId());
+        final EciesDecryptor decryptor = getActivationDecryptor(activation, EciesSharedInfo1.CREATE_TOKEN);
+        decryptor.decryptRequest(toCryptogram(request.getEphemeralPublicKey(), request.getMac(), request.getEncryptedData(), request.getNonce()));
+        final StandInToken token = createToken(activation.getActivationId(), request.getSignatureType());
+        final Map<String, String> tokenInfo = new LinkedHashMap<>();
+        tokenInfo.put("tokenId", token.getTokenId());
+        tokenInfo.put("tokenSecret", BaseEncoding.base64().encode(token.getTokenSecret()));
+        final EciesCryptogram cryptogram = decryptor.encryptResponse(objectMapper.writeValueAsBytes(tokenInfo));
+        final CreateTokenResponse response = new CreateTokenResponse();
+        response.setEncryptedData(BaseEncoding.base64().encode(cryptogram.getEncryptedData()));
+        response.setMac(BaseEncoding.base64().encode(cryptogram.getMac()));
+        return response;
+    }
+
+    private RemoveTokenResponse removeToken(RemoveTokenRequest request) {
+        final StandInToken token = tokens.get(request.getTokenId());
+        final boolean removed = token != null && token.getActivationId().equals(request.getActivationId())
+                && tokens.remove(request.getTokenId(), token);
+        final RemoveTokenResponse response = new RemoveTokenResponse();
+        response.setRemoved(removed);
+        return response;
+    }
+
+    private GetActivationStatusResponse getActivationStatus(GetActivationStatusRequest request) throws Exception {
+        final StandInActivation activation = getActivation(request.getActivationId());
+        final ActivationStatus activationStatus = activation.getActivationStatus();
+        final ActivationStatusBlobInfo statusBlobInfo = new ActivationStatusBlobInfo();
+        statusBlobInfo.setActivationStatus(activationStatus == ActivationStatus.ACTIVE ? STATUS_BLOB_ACTIVE : STATUS_BLOB_REMOVED);
+        statusBlobInfo.setCurrentVersion(PROTOCOL_VERSION);
+        statusBlobInfo.setUpgradeVersion(PROTOCOL_VERSION);
+        statusBlobInfo.setFailedAttempts((byte) 0);
+        statusBlobInfo.setMaxFailedAttempts((byte) MAX_FAILED_ATTEMPTS);
+        statusBlobInfo.setCtrLookAhead(COUNTER_LOOK_AHEAD);
+        statusBlobInfo.setCtrByte((byte) activation.getCounter());
+        statusBlobInfo.setCtrDataHash(serverActivation.calculateHashFromHashBasedCounter(activation.getCtrData(), activation.getTransportKey()));
+        // Protocol version 3.1 requires a challenge, the status blob is then randomized using a nonce
+        final byte[] challenge = request.getChallenge() == null ? null : BaseEncoding.base64().decode(request.getChallenge());
+        final byte[] nonce = challenge == null ? null : keyGenerator.generateRandomBytes(16);
+        final byte[] statusBlob = serverActivation.encryptedStatusBlob(statusBlobInfo, challenge, nonce, activation.getTransportKey());
+
+        final XMLGregorianCalendar timestamp = now();
+        final GetActivationStatusResponse response = new GetActivationStatusResponse();
+        response.setActivationId(activation.getActivationId());
+        response.setActivationStatus(activationStatus);
+        response.setActivationOtpValidation(ActivationOtpValidation.NONE);
+        response.setUserId(activation.getUserId());
+        response.setApplicationId(APPLICATION_ID);
+        response.setTimestampCreated(timestampCreated);
+        response.setTimestampLastUsed(timestamp);
+        response.setTimestampLastChange(timestampCreated);
+        response.setEncryptedStatusBlob(BaseEncoding.base64().encode(statusBlob));
+        response.setEncryptedStatusBlobNonce(nonce == null ? null : BaseEncoding.base64().encode(nonce));
+        response.setVersion(PROTOCOL_VERSION);
+        return response;
+    }
+
+    private VaultUnlockResponse vaultUnlock(VaultUnlockRequest request) throws Exception {
+        verifyApplicationKey(request.getApplicationKey());
+        final StandInActivation activation = getActivation(request.getActivationId());
+        final VaultUnlockResponse response = new VaultUnlockResponse();
+        final boolean signatureValid = activation.verifySignature(request.getSignedData().getBytes(StandardCharsets.UTF_8), request.getSignature(),
+                PowerAuthSignatureTypes.valueOf(request.getSignatureType().name()),
+                PowerAuthSignatureFormat.getFormatForSignatureVersion(request.getSignatureVersion()));
+        response.setSignatureValid(signatureValid);
+        if (!signatureValid) {
+            return response;
+        }
+        final EciesDecryptor decryptor = getActivationDecryptor(activation, EciesSharedInfo1.VAULT_UNLOCK);
+        decryptor.decryptRequest(toCryptogram(request.getEphemeralPublicKey(), request.getMac(), request.getEncryptedData(), request.getNonce()));
+        final VaultUnlockResponsePayload payload = new VaultUnlockResponsePayload();
+        payload.setEncryptedVaultEncryptionKey(BaseEncoding.base64().encode(
+                serverVault.encryptVaultEncryptionKey(activation.getServerKeyPair().getPrivate(), activation.getDevicePublicKey())));
+        payload.setSignatureValid(true);
+        final EciesCryptogram cryptogram = decryptor.encryptResponse(objectMapper.writeValueAsBytes(payload));
+        response.setEncryptedData(BaseEncoding.base64().encode(cryptogram.getEncryptedData()));
+        response.setMac(BaseEncoding.base64().encode(cryptogram.getMac()));
+        return response;
+    }
+
+    private RemoveActivationResponse removeActivation(RemoveActivationRequest request) {
+        final StandInActivation activation = getActivation(request.getActivationId());
+        activation.remove();
+        final RemoveActivationResponse response = new RemoveActivationResponse();
+        response.setActivationId(activation.getActivationId());
+        response.setRemoved(true);
+        return response;
+    }
+
+    private StandInActivation getActivation(String activationId) {
+        final StandInActivation activation = activationId == null ? null : activations.get(activationId);
+        if (activation == null) {
+            throw new IllegalArgumentException("Activation not found");
+        }
+        return activation;
+    }
+
+    private void verifyApplicationKey(String applicationKey) {
+        if (!this.applicationKey.equals(applicationKey)) {
+            throw new IllegalArgumentException("Application not found");
+        }
+    }
+
+    private EciesDecryptor getActivationDecryptor(StandInActivation activation, EciesSharedInfo1 sharedInfo1) throws Exception {
+        return eciesFactory.getEciesDecryptorForActivation((ECPrivateKey) activation.getServerKeyPair().getPrivate(),
+                applicationSecret.getBytes(StandardCharsets.UTF_8), keyConvertor.convertSharedSecretKeyToBytes(activation.getTransportKey()), sharedInfo1);
+    }
+
+    private EciesCryptogram toCryptogram(String ephemeralPublicKey, String mac, String encryptedData, String nonce) {
+        return new EciesCryptogram(
+                BaseEncoding.base64().decode(ephemeralPublicKey),
+                BaseEncoding.base64().decode(mac),
+                BaseEncoding.base64().decode(encryptedData),
+                nonce == null ? null : BaseEncoding.base64().decode(nonce));
+    }
+
+    private XMLGregorianCalendar now() {
+        return datatypeFactory.newXMLGregorianCalendar(new GregorianCalendar());
+    }
+
+}
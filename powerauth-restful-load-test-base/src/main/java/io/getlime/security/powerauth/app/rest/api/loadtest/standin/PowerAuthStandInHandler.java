@@ -0,0 +1,237 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.JAXBIntrospector;
+import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP handler exposing the PowerAuth server stand-in as a SOAP 1.1 service. The handler adds configured latency to
+ * each call and fails configured ratio of calls with a SOAP fault. When latencies recorded in a traffic log are set,
+ * a randomly chosen recorded latency of the called operation is added instead of the configured latency.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthStandInHandler implements HttpHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthStandInHandler.class);
+
+    private static final String SOAP_ENVELOPE_NAMESPACE = "http://schemas.xmlsoap.org/soap/envelope/";
+    private static final String SOAP_ENVELOPE_START = "<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"" + SOAP_ENVELOPE_NAMESPACE + "\"><SOAP-ENV:Header/><SOAP-ENV:Body>";
+    private static final String SOAP_ENVELOPE_END = "</SOAP-ENV:Body></SOAP-ENV:Envelope>";
+    private static final String SOAP_CONTENT_TYPE = "text/xml;charset=UTF-8";
+    private static final String REQUEST_SUFFIX = "Request";
+
+    private static final ClassValue<String> OPERATION_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            // Same naming as in metrics of PowerAuth server calls, e.g. VerifySignatureRequest is verifySignature
+            String name = type.getSimpleName();
+            if (name.endsWith(REQUEST_SUFFIX) && name.length() > REQUEST_SUFFIX.length()) {
+                name = name.substring(0, name.length() - REQUEST_SUFFIX.length());
+            }
+            return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        }
+    };
+
+    private final PowerAuthServerStandIn standIn;
+    private final long latency;
+    private final long latencyJitter;
+    private final double errorRate;
+
+    private final JAXBContext jaxbContext;
+    private final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder cpuTime = new LongAdder();
+
+    private volatile Map<String, long[]> recordedLatencies;
+
+    /**
+     * Constructor.
+     * @param standIn PowerAuth server stand-in.
+     * @param latency Latency added to each call in milliseconds.
+     * @param latencyJitter Maximum random latency added to each call in milliseconds.
+     * @param errorRate Ratio of calls which fail with a SOAP fault.
+     * @throws JAXBException In case JAXB context for SOAP messages cannot be created.
+     */
+    public PowerAuthStandInHandler(PowerAuthServerStandIn standIn, long latency, long latencyJitter, double errorRate) throws JAXBException {
+        this.standIn = standIn;
+        this.latency = latency;
+        this.latencyJitter = latencyJitter;
+        this.errorRate = errorRate;
+        this.jaxbContext = JAXBContext.newInstance("io.getlime.powerauth.soap.v3");
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        calls.increment();
+        // Sleeping does not consume CPU, simulated latency is not included in the CPU time
+        final long cpuStart = threadMXBean.getCurrentThreadCpuTime();
+        try (InputStream is = exchange.getRequestBody()) {
+            final Object soapRequest = readSoapRequest(is);
+            simulateLatency(soapRequest);
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errors.increment();
+                writeSoapFault(exchange, "Injected error");
+                return;
+            }
+            final Object soapResponse = standIn.handle(soapRequest);
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+            final Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8);
+            writer.write(SOAP_ENVELOPE_START);
+            final Marshaller marshaller = jaxbContext.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+            marshaller.marshal(soapResponse, writer);
+            writer.write(SOAP_ENVELOPE_END);
+            writer.flush();
+            writeResponse(exchange, HttpURLConnection.HTTP_OK, os.toByteArray());
+        } catch (Exception ex) {
+            logger.debug("PowerAuth server stand-in call failed", ex);
+            errors.increment();
+            writeSoapFault(exchange, ex.getMessage());
+        } finally {
+            cpuTime.add(threadMXBean.getCurrentThreadCpuTime() - cpuStart);
+            exchange.close();
+        }
+    }
+
+    /**
+     * Get number of calls.
+     * @return Number of calls.
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Get number of calls which failed with a SOAP fault, including injected errors.
+     * @return Number of failed calls.
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Get CPU time consumed by processing of calls.
+     * @param unit Time unit.
+     * @return CPU time.
+     */
+    public long getCpuTime(TimeUnit unit) {
+        return unit.convert(cpuTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Set latencies recorded in a traffic log which are added to calls instead of the configured latency.
+     * @param recordedLatencies Recorded latencies in nanoseconds by operation name, e.g. {@code verifySignature}.
+     */
+    public void setRecordedLatencies(Map<String, long[]> recordedLatencies) {
+        this.recordedLatencies = recordedLatencies;
+    }
+
+    private void simulateLatency(Object soapRequest) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = TimeUnit.MILLISECONDS.toNanos(latency);
+        if (latencyJitter > 0) {
+            delay += TimeUnit.MILLISECONDS.toNanos(random.nextLong(latencyJitter + 1));
+        }
+        final Map<String, long[]> latencies = recordedLatencies;
+        if (latencies != null) {
+            final long[] operationLatencies = latencies.get(OPERATION_NAMES.get(soapRequest.getClass()));
+            if (operationLatencies != null && operationLatencies.length > 0) {
+                delay = operationLatencies[random.nextInt(operationLatencies.length)];
+            }
+        }
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Object readSoapRequest(InputStream inputStream) throws XMLStreamException, JAXBException {
+        final XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(inputStream);
+        try {
+            // Skip to the payload which is the first element in SOAP body
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && "Body".equals(reader.getLocalName())
+                        && SOAP_ENVELOPE_NAMESPACE.equals(reader.getNamespaceURI())) {
+                    reader.nextTag();
+                    return JAXBIntrospector.getValue(jaxbContext.createUnmarshaller().unmarshal(reader));
+                }
+            }
+            throw new IllegalArgumentException("Missing SOAP body");
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void writeSoapFault(HttpExchange exchange, String message) throws IOException {
+        final String fault = SOAP_ENVELOPE_START
+                + "<SOAP-ENV:Fault><faultcode>SOAP-ENV:Server</faultcode><faultstring xml:lang=\"en\">"
+                + escapeXml(message == null ? "Internal error" : message)
+                + "</faultstring></SOAP-ENV:Fault>"
+                + SOAP_ENVELOPE_END;
+        writeResponse(exchange, HttpURLConnection.HTTP_INTERNAL_ERROR, fault.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeResponse(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", SOAP_CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private static String escapeXml(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+}
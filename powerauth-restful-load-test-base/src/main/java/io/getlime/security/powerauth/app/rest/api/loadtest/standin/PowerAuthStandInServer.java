@@ -0,0 +1,78 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.standin;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP server hosting the PowerAuth server stand-in on a random local port. The server built into the JDK is used, so
+ * that the stand-in does not interfere with the servlet container of the tested application.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthStandInServer implements AutoCloseable {
+
+    private static final String SERVICE_PATH = "/powerauth-java-server/soap";
+    private static final int BACKLOG = 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Start the server.
+     * @param handler Stand-in HTTP handler.
+     * @throws IOException In case the server cannot be started.
+     */
+    public PowerAuthStandInServer(PowerAuthStandInHandler handler) throws IOException {
+        final AtomicInteger threadCounter = new AtomicInteger();
+        // Stand-in must not prevent the JVM from exiting when the load test fails
+        executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "powerauth-stand-in-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), BACKLOG);
+        server.createContext(SERVICE_PATH, handler);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Get URL of the SOAP service.
+     * @return Service URL.
+     */
+    public String getServiceUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + SERVICE_PATH;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
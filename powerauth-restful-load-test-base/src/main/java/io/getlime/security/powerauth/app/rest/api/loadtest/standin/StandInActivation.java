@@ -0,0 +1,186 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.standin;
+
+import io.getlime.powerauth.soap.v3.ActivationStatus;
+import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureFormat;
+import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
+import io.getlime.security.powerauth.crypto.lib.generator.HashBasedCounter;
+import io.getlime.security.powerauth.crypto.lib.model.exception.CryptoProviderException;
+import io.getlime.security.powerauth.crypto.lib.model.exception.GenericCryptoException;
+import io.getlime.security.powerauth.crypto.server.signature.PowerAuthServerSignature;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Activation stored in the PowerAuth server stand-in.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class StandInActivation {
+
+    private static final int COUNTER_LOOK_AHEAD = 20;
+
+    private final PowerAuthServerSignature serverSignature = new PowerAuthServerSignature();
+    private final HashBasedCounter hashBasedCounter = new HashBasedCounter();
+
+    private final String activationId;
+    private final String userId;
+    private final KeyPair serverKeyPair;
+    private final PublicKey devicePublicKey;
+    private final SecretKey transportKey;
+    private final Map<PowerAuthSignatureTypes, List<SecretKey>> signatureKeys;
+    private byte[] ctrData;
+    private long counter;
+    private ActivationStatus activationStatus = ActivationStatus.ACTIVE;
+
+    /**
+     * Constructor.
+     * @param activationId Activation ID.
+     * @param userId User ID.
+     * @param serverKeyPair Server key pair.
+     * @param devicePublicKey Device public key.
+     * @param transportKey Transport key.
+     * @param signatureKeys Signature keys for each signature type.
+     * @param ctrData Initial hash based counter data.
+     */
+    StandInActivation(String activationId, String userId, KeyPair serverKeyPair, PublicKey devicePublicKey, SecretKey transportKey,
+                      Map<PowerAuthSignatureTypes, List<SecretKey>> signatureKeys, byte[] ctrData) {
+        this.activationId = activationId;
+        this.userId = userId;
+        this.serverKeyPair = serverKeyPair;
+        this.devicePublicKey = devicePublicKey;
+        this.transportKey = transportKey;
+        this.signatureKeys = signatureKeys;
+        this.ctrData = ctrData;
+    }
+
+    /**
+     * Get activation ID.
+     * @return Activation ID.
+     */
+    public String getActivationId() {
+        return activationId;
+    }
+
+    /**
+     * Get user ID.
+     * @return User ID.
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Get server public key.
+     * @return Server public key.
+     */
+    public PublicKey getServerPublicKey() {
+        return serverKeyPair.getPublic();
+    }
+
+    /**
+     * Get server key pair.
+     * @return Server key pair.
+     */
+    KeyPair getServerKeyPair() {
+        return serverKeyPair;
+    }
+
+    /**
+     * Get device public key.
+     * @return Device public key.
+     */
+    PublicKey getDevicePublicKey() {
+        return devicePublicKey;
+    }
+
+    /**
+     * Get transport key.
+     * @return Transport key.
+     */
+    SecretKey getTransportKey() {
+        return transportKey;
+    }
+
+    /**
+     * Get current hash based counter data.
+     * @return Counter data.
+     */
+    public synchronized byte[] getCtrData() {
+        return ctrData.clone();
+    }
+
+    /**
+     * Get current value of the numeric counter.
+     * @return Counter value.
+     */
+    synchronized long getCounter() {
+        return counter;
+    }
+
+    /**
+     * Get activation status.
+     * @return Activation status.
+     */
+    synchronized ActivationStatus getActivationStatus() {
+        return activationStatus;
+    }
+
+    /**
+     * Remove the activation.
+     */
+    synchronized void remove() {
+        activationStatus = ActivationStatus.REMOVED;
+    }
+
+    /**
+     * Verify signature of data and move the counter in case the signature is valid. Counter values within the
+     * look-ahead window are accepted, as the device moves its counter even when the request does not reach the server.
+     * @param data Signed data.
+     * @param signature Signature.
+     * @param signatureType Signature type.
+     * @param signatureFormat Signature format.
+     * @return Whether the signature is valid.
+     * @throws GenericCryptoException In case of a cryptography error.
+     * @throws CryptoProviderException In case of a cryptography provider error.
+     */
+    synchronized boolean verifySignature(byte[] data, String signature, PowerAuthSignatureTypes signatureType, PowerAuthSignatureFormat signatureFormat) throws GenericCryptoException, CryptoProviderException {
+        if (activationStatus != ActivationStatus.ACTIVE) {
+            return false;
+        }
+        final List<SecretKey> keys = signatureKeys.get(signatureType);
+        byte[] ctrDataCandidate = ctrData;
+        for (int i = 0; i < COUNTER_LOOK_AHEAD; i++) {
+            if (serverSignature.verifySignatureForData(data, signature, keys, ctrDataCandidate, signatureFormat)) {
+                ctrData = hashBasedCounter.next(ctrDataCandidate);
+                counter += i + 1;
+                return true;
+            }
+            ctrDataCandidate = hashBasedCounter.next(ctrDataCandidate);
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.standin;
+
+import io.getlime.powerauth.soap.v3.SignatureType;
+
+/**
+ * Token stored in the PowerAuth server stand-in.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class StandInToken {
+
+    private final String tokenId;
+    private final byte[] tokenSecret;
+    private final String activationId;
+    private final SignatureType signatureType;
+
+    /**
+     * Constructor.
+     * @param tokenId Token ID.
+     * @param tokenSecret Token secret.
+     * @param activationId Activation ID.
+     * @param signatureType Signature type used when the token was created.
+     */
+    StandInToken(String tokenId, byte[] tokenSecret, String activationId, SignatureType signatureType) {
+        this.tokenId = tokenId;
+        this.tokenSecret = tokenSecret;
+        this.activationId = activationId;
+        this.signatureType = signatureType;
+    }
+
+    /**
+     * Get token ID.
+     * @return Token ID.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * Get token secret.
+     * @return Token secret.
+     */
+    public byte[] getTokenSecret() {
+        return tokenSecret.clone();
+    }
+
+    /**
+     * Get activation ID.
+     * @return Activation ID.
+     */
+    String getActivationId() {
+        return activationId;
+    }
+
+    /**
+     * Get signature type used when the token was created.
+     * @return Signature type.
+     */
+    SignatureType getSignatureType() {
+        return signatureType;
+    }
+
+}
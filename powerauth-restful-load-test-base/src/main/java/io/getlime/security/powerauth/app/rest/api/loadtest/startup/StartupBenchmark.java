@@ -0,0 +1,181 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of startup time and memory of application variants, e.g. the JVM build and the native build of the
+ * PowerAuth RESTful server application. Each variant is started repeatedly by its command, the startup time is
+ * measured from the process start until the application responds to an HTTP request. Resident set size is read
+ * from '/proc', so memory is reported only on Linux.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class StartupBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupBenchmark.class);
+
+    private static final long POLL_INTERVAL = 10;
+    private static final int HTTP_TIMEOUT = 1000;
+    private static final long BYTES_PER_KILOBYTE = 1024;
+
+    private final StartupBenchmarkConfiguration configuration;
+
+    /**
+     * Benchmark constructor.
+     * @param configuration Startup benchmark configuration.
+     */
+    public StartupBenchmark(StartupBenchmarkConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Run the startup benchmark and print the report to standard output.
+     * @param args Command line arguments.
+     * @throws Exception In case the benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        final StartupBenchmarkConfiguration configuration = StartupBenchmarkConfiguration.fromArguments(args);
+        final Map<String, List<StartupMeasurement>> results = new StartupBenchmark(configuration).run();
+        new StartupBenchmarkReport(configuration, results).print(System.out);
+    }
+
+    /**
+     * Start each variant the configured number of times, variants are started one by one in the configured order.
+     * @return Map of variant names to measurements.
+     * @throws IOException In case an application cannot be started or it does not respond in time.
+     * @throws InterruptedException In case the benchmark is interrupted.
+     */
+    public Map<String, List<StartupMeasurement>> run() throws IOException, InterruptedException {
+        final Map<String, List<StartupMeasurement>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : configuration.getCommands().entrySet()) {
+            final List<StartupMeasurement> measurements = new ArrayList<>();
+            for (int i = 0; i < configuration.getRuns(); i++) {
+                final StartupMeasurement measurement = measure(entry.getValue());
+                logger.info("Variant {} run {} responded in {} ms", entry.getKey(), i + 1, TimeUnit.NANOSECONDS.toMillis(measurement.getStartupTime()));
+                measurements.add(measurement);
+            }
+            results.put(entry.getKey(), measurements);
+        }
+        return results;
+    }
+
+    private StartupMeasurement measure(String command) throws IOException, InterruptedException {
+        // The shell prints its process ID and replaces itself with the application, so that memory of the
+        // application can be read from '/proc' on Java 8, which cannot get process ID of a child process
+        final ProcessBuilder builder = new ProcessBuilder("sh", "-c", "echo $$; exec " + command);
+        builder.redirectErrorStream(true);
+        final long startTime = System.nanoTime();
+        final Process process = builder.start();
+        try {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            final String pid = reader.readLine();
+            if (pid == null) {
+                throw new IOException("Application did not start: " + command);
+            }
+            // Application output must be consumed, otherwise the application blocks once the pipe is full
+            final Thread outputReader = new Thread(() -> {
+                try {
+                    while (reader.readLine() != null) {
+                        // Output of the application is not used
+                    }
+                } catch (IOException ex) {
+                    // Application was stopped
+                }
+            }, "startup-benchmark-output");
+            outputReader.setDaemon(true);
+            outputReader.start();
+            final long deadline = startTime + TimeUnit.SECONDS.toNanos(configuration.getTimeout());
+            while (!isResponding()) {
+                if (!process.isAlive()) {
+                    throw new IOException("Application exited with status " + process.exitValue() + ": " + command);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IOException("Application did not respond within " + configuration.getTimeout() + " s: " + command);
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            final long startupTime = System.nanoTime() - startTime;
+            final Map<String, Long> memory = readMemory(pid.trim());
+            return new StartupMeasurement(startupTime, memory.getOrDefault("VmRSS", -1L), memory.getOrDefault("VmHWM", -1L));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(configuration.getTimeout(), TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private boolean isResponding() {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(configuration.getUrl()).openConnection();
+            connection.setConnectTimeout(HTTP_TIMEOUT);
+            connection.setReadTimeout(HTTP_TIMEOUT);
+            // Any response means that the application started, including error responses
+            connection.getResponseCode();
+            return true;
+        } catch (IOException ex) {
+            return false;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private Map<String, Long> readMemory(String pid) throws IOException {
+        final Map<String, Long> memory = new LinkedHashMap<>();
+        final List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get("/proc", pid, "status"), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException ex) {
+            return memory;
+        }
+        // Memory lines look like 'VmRSS:	  123456 kB'
+        for (String line : lines) {
+            final int separator = line.indexOf(':');
+            if (separator < 0 || !line.endsWith(" kB")) {
+                continue;
+            }
+            final String value = line.substring(separator + 1, line.length() - 3).trim();
+            memory.put(line.substring(0, separator), Long.parseLong(value) * BYTES_PER_KILOBYTE);
+        }
+        return memory;
+    }
+
+}
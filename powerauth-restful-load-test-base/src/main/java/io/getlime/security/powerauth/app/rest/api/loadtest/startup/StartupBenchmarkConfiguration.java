@@ -0,0 +1,172 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.startup;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration of the startup benchmark, parsed from '--startup.*' command line arguments.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class StartupBenchmarkConfiguration {
+
+    /**
+     * Prefix of startup benchmark command line arguments.
+     */
+    public static final String ARGUMENT_PREFIX = "--startup.";
+
+    private static final String COMMAND_PREFIX = "command.";
+
+    private final Map<String, String> commands = new LinkedHashMap<>();
+
+    private String url = "http://localhost:8080/api/service/status";
+
+    private int runs = 5;
+
+    private long timeout = 120;
+
+    /**
+     * Parse startup benchmark configuration from command line arguments.
+     * @param args Command line arguments.
+     * @return Startup benchmark configuration.
+     * @throws IllegalArgumentException In case a startup benchmark argument is not valid.
+     */
+    public static StartupBenchmarkConfiguration fromArguments(String[] args) {
+        final StartupBenchmarkConfiguration configuration = new StartupBenchmarkConfiguration();
+        for (String arg: args) {
+            if (!arg.startsWith(ARGUMENT_PREFIX)) {
+                continue;
+            }
+            final int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing value of argument: " + arg);
+            }
+            final String name = arg.substring(ARGUMENT_PREFIX.length(), separator);
+            final String value = arg.substring(separator + 1);
+            if (name.startsWith(COMMAND_PREFIX)) {
+                configuration.addCommand(name.substring(COMMAND_PREFIX.length()), value);
+                continue;
+            }
+            switch (name) {
+                case "url":
+                    configuration.setUrl(value);
+                    break;
+                case "runs":
+                    configuration.setRuns(Integer.parseInt(value));
+                    break;
+                case "timeout":
+                    configuration.setTimeout(Long.parseLong(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        if (configuration.getCommands().isEmpty()) {
+            throw new IllegalArgumentException("At least one command is required, use " + ARGUMENT_PREFIX + COMMAND_PREFIX + "<name>=<command>");
+        }
+        return configuration;
+    }
+
+    /**
+     * Get commands which start measured application variants.
+     * @return Map of variant names to commands.
+     */
+    public Map<String, String> getCommands() {
+        return Collections.unmodifiableMap(commands);
+    }
+
+    /**
+     * Add command which starts a measured application variant, e.g. the JVM build or the native build.
+     * The command is executed by the shell.
+     * @param name Name of the variant.
+     * @param command Command which starts the application.
+     */
+    public void addCommand(String name, String command) {
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Command name must not be empty");
+        }
+        if (command.trim().isEmpty()) {
+            throw new IllegalArgumentException("Command must not be empty: " + name);
+        }
+        commands.put(name, command);
+    }
+
+    /**
+     * Get URL which is polled until the application responds.
+     * @return Polled URL.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Set URL which is polled until the application responds. Any HTTP response, including errors, means that
+     * the application started.
+     * @param url Polled URL.
+     */
+    public void setUrl(String url) {
+        if (url.isEmpty()) {
+            throw new IllegalArgumentException("URL must not be empty");
+        }
+        this.url = url;
+    }
+
+    /**
+     * Get number of measured starts of each variant.
+     * @return Number of runs.
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+    /**
+     * Set number of measured starts of each variant.
+     * @param runs Number of runs.
+     */
+    public void setRuns(int runs) {
+        if (runs <= 0) {
+            throw new IllegalArgumentException("Number of runs must be positive");
+        }
+        this.runs = runs;
+    }
+
+    /**
+     * Get maximum time to wait for the application to respond in seconds.
+     * @return Timeout in seconds.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Set maximum time to wait for the application to respond in seconds.
+     * @param timeout Timeout in seconds.
+     */
+    public void setTimeout(long timeout) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.timeout = timeout;
+    }
+
+}
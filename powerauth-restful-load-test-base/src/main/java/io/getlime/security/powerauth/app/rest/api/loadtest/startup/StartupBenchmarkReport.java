@@ -0,0 +1,89 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.startup;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Human readable report of startup benchmark results.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class StartupBenchmarkReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    private final StartupBenchmarkConfiguration configuration;
+    private final Map<String, List<StartupMeasurement>> results;
+
+    /**
+     * Report constructor.
+     * @param configuration Startup benchmark configuration.
+     * @param results Map of variant names to measurements.
+     */
+    public StartupBenchmarkReport(StartupBenchmarkConfiguration configuration, Map<String, List<StartupMeasurement>> results) {
+        this.configuration = configuration;
+        this.results = results;
+    }
+
+    /**
+     * Print the report.
+     * @param out Output stream.
+     */
+    public void print(PrintStream out) {
+        out.printf("Runs: %d, URL: %s%n", configuration.getRuns(), configuration.getUrl());
+        out.printf("%-16s %12s %12s %12s %12s %14s%n",
+                "Variant", "min ms", "median ms", "max ms", "RSS MB", "peak RSS MB");
+        for (Map.Entry<String, List<StartupMeasurement>> entry : results.entrySet()) {
+            final long[] startupTimes = sorted(entry.getValue(), StartupMeasurement::getStartupTime);
+            final long[] rss = sorted(entry.getValue(), StartupMeasurement::getRss);
+            final long[] peakRss = sorted(entry.getValue(), StartupMeasurement::getPeakRss);
+            out.printf("%-16s %12.1f %12.1f %12.1f %12s %14s%n", entry.getKey(),
+                    startupTimes[0] / NANOS_PER_MILLI,
+                    median(startupTimes) / NANOS_PER_MILLI,
+                    startupTimes[startupTimes.length - 1] / NANOS_PER_MILLI,
+                    formatMemory(median(rss)),
+                    formatMemory(median(peakRss)));
+        }
+    }
+
+    private long[] sorted(List<StartupMeasurement> measurements, ToLongFunction<StartupMeasurement> value) {
+        final long[] values = measurements.stream().mapToLong(value).toArray();
+        Arrays.sort(values);
+        return values;
+    }
+
+    private long median(long[] sortedValues) {
+        return sortedValues[sortedValues.length / 2];
+    }
+
+    private String formatMemory(long bytes) {
+        if (bytes < 0) {
+            return "n/a";
+        }
+        return String.format("%.1f", bytes / BYTES_PER_MEGABYTE);
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.startup;
+
+/**
+ * Startup time and memory of a single application start.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class StartupMeasurement {
+
+    private final long startupTime;
+    private final long rss;
+    private final long peakRss;
+
+    /**
+     * Measurement constructor.
+     * @param startupTime Time from process start until the first HTTP response in nanoseconds.
+     * @param rss Resident set size after the first HTTP response in bytes, -1 in case it is not available.
+     * @param peakRss Peak resident set size after the first HTTP response in bytes, -1 in case it is not available.
+     */
+    public StartupMeasurement(long startupTime, long rss, long peakRss) {
+        this.startupTime = startupTime;
+        this.rss = rss;
+        this.peakRss = peakRss;
+    }
+
+    /**
+     * Get time from process start until the first HTTP response.
+     * @return Startup time in nanoseconds.
+     */
+    public long getStartupTime() {
+        return startupTime;
+    }
+
+    /**
+     * Get resident set size after the first HTTP response.
+     * @return Resident set size in bytes, -1 in case it is not available.
+     */
+    public long getRss() {
+        return rss;
+    }
+
+    /**
+     * Get peak resident set size after the first HTTP response.
+     * @return Peak resident set size in bytes, -1 in case it is not available.
+     */
+    public long getPeakRss() {
+        return peakRss;
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.javaee;
+
+import fish.payara.micro.PayaraMicro;
+import fish.payara.micro.PayaraMicroRuntime;
+import io.getlime.security.powerauth.app.rest.api.loadtest.LoadTestConfiguration;
+import io.getlime.security.powerauth.app.rest.api.loadtest.LoadTestRunner;
+import io.getlime.security.powerauth.app.rest.api.loadtest.LoadTestServer;
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestOperation;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URISyntaxException;
+import java.util.EnumSet;
+
+/**
+ * Load test of the Java EE variant of the PowerAuth RESTful server application. The application WAR file is deployed
+ * into an embedded Payara Micro container in the load test process, together with a PowerAuth server stand-in and
+ * a load generator. The results are reported in the same format as for the Spring variant.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class JavaEELoadTestApplication {
+
+    private static final String APPLICATION_NAME = "powerauth-restful-server-javaee";
+
+    /**
+     * Main method.
+     * @param args Load test arguments prefixed with "--loadtest.".
+     * @throws Exception In case the load test fails.
+     */
+    public static void main(String[] args) throws Exception {
+        for (String arg: args) {
+            if (!arg.startsWith(LoadTestConfiguration.ARGUMENT_PREFIX)) {
+                // Java EE application is configured in PowerAuthBeanFactory, it cannot be configured using arguments
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        // Token authenticated data exchange is only available in the Spring variant
+        final LoadTestConfiguration configuration = LoadTestConfiguration.fromArguments(args,
+                EnumSet.complementOf(EnumSet.of(LoadTestOperation.EXCHANGE_TOKEN)));
+
+        final File warFile = resolveApplicationFile();
+        new LoadTestRunner(configuration).run(serviceUrl -> {
+            // Service URL is read by PowerAuthBeanFactory of the application
+            System.setProperty("powerauth.service.url", serviceUrl);
+            final int port = findFreePort();
+            final PayaraMicroRuntime runtime = PayaraMicro.getInstance()
+                    .setHttpPort(port)
+                    .setNoCluster(true)
+                    // Bouncy Castle is a provided dependency of the application
+                    .addLibrary(new File(BouncyCastleProvider.class.getProtectionDomain().getCodeSource().getLocation().toURI()))
+                    .addDeploymentFile(warFile)
+                    .bootStrap();
+            final String baseUrl = "http://localhost:" + port + "/" + APPLICATION_NAME;
+            return new LoadTestServer() {
+                @Override
+                public String getName() {
+                    return "Java EE";
+                }
+
+                @Override
+                public String getBaseUrl() {
+                    return baseUrl;
+                }
+
+                @Override
+                public void close() throws Exception {
+                    runtime.shutdown();
+                }
+            };
+        }, System.out);
+    }
+
+    /**
+     * Resolve the application WAR file which is copied next to the load test JAR file during the build.
+     * @return Application WAR file.
+     * @throws URISyntaxException In case location of the load test JAR file is invalid.
+     */
+    private static File resolveApplicationFile() throws URISyntaxException {
+        final File jarFile = new File(JavaEELoadTestApplication.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final File warFile = new File(jarFile.getParentFile(), APPLICATION_NAME + ".war");
+        if (!warFile.isFile()) {
+            throw new IllegalStateException("Application file not found: " + warFile);
+        }
+        return warFile;
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.spring;
+
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestOperation;
+
+/**
+ * Allocation budget of a representative request, i.e. maximum number of bytes allocated by the request processing
+ * thread per request.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class AllocationBudget {
+
+    private final String name;
+    private final LoadTestOperation operation;
+    private final int payloadSize;
+    private long budget;
+
+    /**
+     * Constructor.
+     * @param name Name of the budget used in command line arguments and in the report.
+     * @param operation Operation executing the request.
+     * @param payloadSize Size of request data in bytes.
+     * @param budget Maximum allocated bytes per request.
+     */
+    public AllocationBudget(String name, LoadTestOperation operation, int payloadSize, long budget) {
+        this.name = name;
+        this.operation = operation;
+        this.payloadSize = payloadSize;
+        setBudget(budget);
+    }
+
+    /**
+     * Get name of the budget.
+     * @return Budget name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get operation executing the request.
+     * @return Operation.
+     */
+    public LoadTestOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Get size of request data in bytes.
+     * @return Payload size in bytes.
+     */
+    public int getPayloadSize() {
+        return payloadSize;
+    }
+
+    /**
+     * Get maximum allocated bytes per request.
+     * @return Maximum allocated bytes per request.
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Set maximum allocated bytes per request.
+     * @param budget Maximum allocated bytes per request.
+     */
+    public void setBudget(long budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Allocation budget must be positive");
+        }
+        this.budget = budget;
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.spring;
+
+import io.getlime.security.powerauth.app.rest.api.loadtest.LoadTestConfiguration;
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestOperation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Configuration of the allocation budget check, parsed from '--loadtest.*' command line arguments.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class AllocationBudgetConfiguration {
+
+    private static final String BUDGET_ARGUMENT_PREFIX = "budget.";
+
+    private int warmupRequests = 500;
+
+    private int requests = 500;
+
+    private final List<AllocationBudget> budgets = new ArrayList<>();
+
+    /**
+     * Constructor with default allocation budgets of representative requests.
+     */
+    public AllocationBudgetConfiguration() {
+        // Budgets leave headroom of roughly 20 % above measured allocations, so that only real regressions fail the check
+        budgets.add(new AllocationBudget("signed-1k", LoadTestOperation.SIGNATURE_VALIDATE, 1024, 350_000L));
+        budgets.add(new AllocationBudget("token", LoadTestOperation.EXCHANGE_TOKEN, 32, 600_000L));
+        budgets.add(new AllocationBudget("encrypted-10k", LoadTestOperation.EXCHANGE_ACTIVATION, 10240, 650_000L));
+    }
+
+    /**
+     * Parse allocation budget configuration from command line arguments.
+     * @param args Command line arguments.
+     * @return Allocation budget configuration.
+     * @throws IllegalArgumentException In case an allocation budget argument is not valid.
+     */
+    public static AllocationBudgetConfiguration fromArguments(String[] args) {
+        final AllocationBudgetConfiguration configuration = new AllocationBudgetConfiguration();
+        for (String arg: args) {
+            if (!arg.startsWith(LoadTestConfiguration.ARGUMENT_PREFIX)) {
+                continue;
+            }
+            final int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing value of argument: " + arg);
+            }
+            final String name = arg.substring(LoadTestConfiguration.ARGUMENT_PREFIX.length(), separator);
+            final String value = arg.substring(separator + 1);
+            if (name.startsWith(BUDGET_ARGUMENT_PREFIX)) {
+                configuration.getBudget(name.substring(BUDGET_ARGUMENT_PREFIX.length())).setBudget(Long.parseLong(value));
+                continue;
+            }
+            switch (name) {
+                case "warmupRequests":
+                    configuration.setWarmupRequests(Integer.parseInt(value));
+                    break;
+                case "requests":
+                    configuration.setRequests(Integer.parseInt(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        return configuration;
+    }
+
+    /**
+     * Get number of requests executed for each budget before the measurement.
+     * @return Number of warmup requests.
+     */
+    public int getWarmupRequests() {
+        return warmupRequests;
+    }
+
+    /**
+     * Set number of requests executed for each budget before the measurement. Allocations of code which is not
+     * compiled by JIT yet are higher, so that the warmup is required for stable results.
+     * @param warmupRequests Number of warmup requests.
+     */
+    public void setWarmupRequests(int warmupRequests) {
+        if (warmupRequests < 0) {
+            throw new IllegalArgumentException("Number of warmup requests must not be negative");
+        }
+        this.warmupRequests = warmupRequests;
+    }
+
+    /**
+     * Get number of measured requests for each budget.
+     * @return Number of measured requests.
+     */
+    public int getRequests() {
+        return requests;
+    }
+
+    /**
+     * Set number of measured requests for each budget.
+     * @param requests Number of measured requests.
+     */
+    public void setRequests(int requests) {
+        if (requests <= 0) {
+            throw new IllegalArgumentException("Number of requests must be positive");
+        }
+        this.requests = requests;
+    }
+
+    /**
+     * Get allocation budgets.
+     * @return Allocation budgets.
+     */
+    public List<AllocationBudget> getBudgets() {
+        return Collections.unmodifiableList(budgets);
+    }
+
+    /**
+     * Get allocation budget by name.
+     * @param name Budget name.
+     * @return Allocation budget.
+     * @throws IllegalArgumentException In case budget with given name does not exist.
+     */
+    public AllocationBudget getBudget(String name) {
+        for (AllocationBudget budget: budgets) {
+            if (budget.getName().equals(name)) {
+                return budget;
+            }
+        }
+        throw new IllegalArgumentException("Unknown allocation budget: " + name);
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.spring;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration registering the request allocation filter in front of all other filters of the application.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Configuration
+public class RequestAllocationConfig {
+
+    /**
+     * Register a new request allocation filter.
+     * @return Request allocation filter.
+     */
+    @Bean
+    public RequestAllocationFilter requestAllocationFilter() {
+        return new RequestAllocationFilter();
+    }
+
+    /**
+     * Map the request allocation filter to all end-points with the highest precedence.
+     * @param requestAllocationFilter Request allocation filter.
+     * @return Filter registration bean.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestAllocationFilter> requestAllocationFilterRegistration(RequestAllocationFilter requestAllocationFilter) {
+        final FilterRegistrationBean<RequestAllocationFilter> registrationBean = new FilterRegistrationBean<>(requestAllocationFilter);
+        registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registrationBean;
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.spring;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servlet filter measuring bytes allocated by the request processing thread. The filter is registered in front of
+ * all other filters, so that the measurement covers the PowerAuth request filter, annotation interceptor, argument
+ * resolvers, response body advice and calls of the PowerAuth server performed by the request thread.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class RequestAllocationFilter extends OncePerRequestFilter {
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    /**
+     * Filter constructor.
+     * @throws IllegalStateException In case the JVM does not support measurement of thread allocated memory.
+     */
+    public RequestAllocationFilter() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            throw new IllegalStateException("Measurement of thread allocated memory is not supported by the JVM");
+        }
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("Measurement of thread allocated memory is not supported by the JVM");
+        }
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        final long threadId = Thread.currentThread().getId();
+        final long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            allocatedBytes.add(threadMXBean.getThreadAllocatedBytes(threadId) - start);
+            requests.increment();
+        }
+    }
+
+    /**
+     * Get number of measured requests.
+     * @return Number of requests.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Get bytes allocated by measured requests.
+     * @return Allocated bytes.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    /**
+     * Reset measured values, e.g. after warmup.
+     */
+    public void reset() {
+        requests.reset();
+        allocatedBytes.reset();
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.spring;
+
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestClient;
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestDevice;
+import io.getlime.security.powerauth.app.rest.api.loadtest.standin.PowerAuthServerStandIn;
+import io.getlime.security.powerauth.app.rest.api.loadtest.standin.PowerAuthStandInHandler;
+import io.getlime.security.powerauth.app.rest.api.loadtest.standin.PowerAuthStandInServer;
+import io.getlime.security.powerauth.app.rest.api.spring.PowerAuthApiJavaApplication;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.security.Security;
+
+/**
+ * Allocation budget check of the Spring variant of the PowerAuth RESTful server application. Representative requests
+ * are sent sequentially to the application started in-process with a PowerAuth server stand-in, bytes allocated by
+ * the request processing thread are measured and compared with configured budgets. The application exits with
+ * a non-zero status when any budget is exceeded, so that it can be used to detect allocation regressions.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class SpringAllocationBudgetApplication {
+
+    /**
+     * Main method.
+     * @param args Allocation budget arguments prefixed with "--loadtest." and arguments of the PowerAuth RESTful server application.
+     * @throws Exception In case the allocation budget check fails.
+     */
+    public static void main(String[] args) throws Exception {
+        final AllocationBudgetConfiguration configuration = AllocationBudgetConfiguration.fromArguments(args);
+        final boolean withinBudgets = run(configuration, args, System.out);
+        System.exit(withinBudgets ? 0 : 1);
+    }
+
+    /**
+     * Run the allocation budget check and print the report.
+     * @param configuration Allocation budget configuration.
+     * @param args Command line arguments.
+     * @param out Output stream for the report.
+     * @return Whether all requests are within their allocation budgets.
+     * @throws Exception In case the allocation budget check fails.
+     */
+    private static boolean run(AllocationBudgetConfiguration configuration, String[] args, PrintStream out) throws Exception {
+        Security.addProvider(new BouncyCastleProvider());
+        final PowerAuthServerStandIn standIn = new PowerAuthServerStandIn();
+        final PowerAuthStandInHandler standInHandler = new PowerAuthStandInHandler(standIn, 0, 0, 0);
+
+        try (PowerAuthStandInServer standInServer = new PowerAuthStandInServer(standInHandler);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(PowerAuthApiJavaApplication.class, RequestAllocationConfig.class)
+                     .run(SpringLoadTestApplication.applicationArguments(args, standInServer.getServiceUrl()))) {
+
+            final String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            final RequestAllocationFilter allocationFilter = context.getBean(RequestAllocationFilter.class);
+            final LoadTestDevice device = LoadTestDevice.create(standIn);
+
+            boolean withinBudgets = true;
+            out.printf("Server: Spring, warmup requests: %d, requests: %d%n", configuration.getWarmupRequests(), configuration.getRequests());
+            out.printf("%-16s %-22s %8s %14s %14s %8s%n", "Budget", "Operation", "Payload", "Bytes/req", "Budget/req", "Result");
+            for (AllocationBudget budget: configuration.getBudgets()) {
+                final LoadTestClient client = new LoadTestClient(baseUrl, budget.getPayloadSize());
+                for (int i = 0; i < configuration.getWarmupRequests(); i++) {
+                    client.execute(device, budget.getOperation());
+                }
+                allocationFilter.reset();
+                for (int i = 0; i < configuration.getRequests(); i++) {
+                    client.execute(device, budget.getOperation());
+                }
+                final long allocatedBytes = allocationFilter.getAllocatedBytes() / allocationFilter.getRequests();
+                final boolean withinBudget = allocatedBytes <= budget.getBudget();
+                withinBudgets &= withinBudget;
+                out.printf("%-16s %-22s %8d %14d %14d %8s%n", budget.getName(), budget.getOperation(), budget.getPayloadSize(),
+                        allocatedBytes, budget.getBudget(), withinBudget ? "OK" : "EXCEEDED");
+            }
+            return withinBudgets;
+        }
+    }
+
+}
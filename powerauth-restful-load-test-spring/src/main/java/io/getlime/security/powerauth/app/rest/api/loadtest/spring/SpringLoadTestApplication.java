@@ -0,0 +1,97 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.loadtest.spring;
+
+import io.getlime.security.powerauth.app.rest.api.loadtest.LoadTestConfiguration;
+import io.getlime.security.powerauth.app.rest.api.loadtest.LoadTestRunner;
+import io.getlime.security.powerauth.app.rest.api.loadtest.LoadTestServer;
+import io.getlime.security.powerauth.app.rest.api.loadtest.client.LoadTestOperation;
+import io.getlime.security.powerauth.app.rest.api.spring.PowerAuthApiJavaApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Load test of the Spring variant of the PowerAuth RESTful server application. The application is started in-process
+ * together with a PowerAuth server stand-in and a load generator, so that the whole request processing pipeline of
+ * the integration is measured without depending on a deployed PowerAuth server.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class SpringLoadTestApplication {
+
+    /**
+     * Main method.
+     * @param args Load test arguments prefixed with "--loadtest." and arguments of the PowerAuth RESTful server application.
+     * @throws Exception In case the load test fails.
+     */
+    public static void main(String[] args) throws Exception {
+        final LoadTestConfiguration configuration = LoadTestConfiguration.fromArguments(args, EnumSet.allOf(LoadTestOperation.class));
+        new LoadTestRunner(configuration).run(serviceUrl -> {
+            final ConfigurableApplicationContext context = new SpringApplicationBuilder(PowerAuthApiJavaApplication.class)
+                    .run(applicationArguments(args, serviceUrl));
+            final String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            return new LoadTestServer() {
+                @Override
+                public String getName() {
+                    return "Spring";
+                }
+
+                @Override
+                public String getBaseUrl() {
+                    return baseUrl;
+                }
+
+                @Override
+                public void close() {
+                    context.close();
+                }
+            };
+        }, System.out);
+    }
+
+    /**
+     * Prepare arguments of the PowerAuth RESTful server application. Command line arguments take precedence over
+     * application.properties, so the PowerAuth service URL is always redirected to the stand-in.
+     * @param args Command line arguments.
+     * @param serviceUrl PowerAuth server stand-in URL.
+     * @return Application arguments.
+     */
+    static String[] applicationArguments(String[] args, String serviceUrl) {
+        final List<String> applicationArgs = new ArrayList<>();
+        boolean serverPortSet = false;
+        for (String arg: args) {
+            if (arg.startsWith(LoadTestConfiguration.ARGUMENT_PREFIX)) {
+                continue;
+            }
+            serverPortSet |= arg.startsWith("--server.port=");
+            applicationArgs.add(arg);
+        }
+        if (!serverPortSet) {
+            applicationArgs.add("--server.port=0");
+        }
+        applicationArgs.add("--powerauth.service.url=" + serviceUrl);
+        return applicationArgs.toArray(new String[0]);
+    }
+
+}
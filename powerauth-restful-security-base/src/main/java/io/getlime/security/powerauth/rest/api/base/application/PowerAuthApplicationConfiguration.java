@@ -37,4 +37,14 @@ public interface PowerAuthApplicationConfiguration {
      */
     Map<String, Object> statusServiceCustomObject();
 
+    /**
+     * Time for which the custom object returned by {@link #statusServiceCustomObject()} may be reused when
+     * the {@link PowerAuthStatusCustomObjectHolder} is used. Reused custom object is serialized only once.
+     * Default implementation returns zero value, i.e. the custom object is obtained for each request.
+     * @return Time in milliseconds for which the custom object may be reused.
+     */
+    default long statusServiceCustomObjectTtl() {
+        return 0L;
+    }
+
 }
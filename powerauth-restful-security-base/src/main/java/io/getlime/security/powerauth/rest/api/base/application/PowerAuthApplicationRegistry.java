@@ -0,0 +1,193 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of application versions which is refreshed periodically in background. The registry is used for
+ * rejecting requests with unknown or unsupported application keys before calling PowerAuth server and for
+ * lookup of application ID by application key.
+ *
+ * <p>Application keys are never rejected in case the registry was not loaded yet or its last successful refresh
+ * is older than the configured maximum age, the validation is left to PowerAuth server in such case.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthApplicationRegistry implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthApplicationRegistry.class);
+
+    private final PowerAuthApplicationRegistryConfiguration configuration;
+
+    private final PowerAuthApplicationRegistryLoader loader;
+
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong lastUnknownKeyRefresh = new AtomicLong();
+
+    private volatile Map<String, PowerAuthApplicationVersion> applicationVersions = Collections.emptyMap();
+
+    private volatile long lastRefresh;
+
+    /**
+     * Registry constructor, periodic refreshes are started in case the registry is enabled.
+     * @param configuration Application registry configuration.
+     * @param loader Loader of application versions.
+     */
+    public PowerAuthApplicationRegistry(PowerAuthApplicationRegistryConfiguration configuration, PowerAuthApplicationRegistryLoader loader) {
+        this.configuration = configuration;
+        this.loader = loader;
+        if (!configuration.isEnabled()) {
+            this.executor = null;
+            return;
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "powerauth-application-registry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::refresh, 0, configuration.getRefreshInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Whether the application registry is enabled.
+     * @return True in case the application registry is enabled.
+     */
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /**
+     * Whether the registry was refreshed successfully within the maximum age and can be used for validation.
+     * @return True in case the registry is ready.
+     */
+    public boolean isReady() {
+        final long refreshed = lastRefresh;
+        return refreshed > 0 && System.currentTimeMillis() - refreshed <= configuration.getMaximumAge();
+    }
+
+    /**
+     * Load application versions and replace the content of the registry. Failures are logged and the previous
+     * content is kept until it reaches the maximum age.
+     */
+    public void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            final List<PowerAuthApplicationVersion> versions = loader.loadApplicationVersions();
+            final Map<String, PowerAuthApplicationVersion> versionMap = new HashMap<>(versions.size() * 2);
+            for (PowerAuthApplicationVersion version: versions) {
+                if (version.getApplicationKey() != null) {
+                    versionMap.put(version.getApplicationKey(), version);
+                }
+            }
+            applicationVersions = Collections.unmodifiableMap(versionMap);
+            lastRefresh = System.currentTimeMillis();
+            logger.debug("Application registry refreshed, application versions: {}", versionMap.size());
+        } catch (Exception ex) {
+            logger.warn("Application registry could not be refreshed", ex);
+        }
+    }
+
+    /**
+     * Get application version with given application key.
+     * @param applicationKey Application key.
+     * @return Application version or null in case the application key is unknown or the registry is not ready.
+     */
+    public PowerAuthApplicationVersion getApplicationVersion(String applicationKey) {
+        if (applicationKey == null || !isReady()) {
+            return null;
+        }
+        return applicationVersions.get(applicationKey);
+    }
+
+    /**
+     * Get application ID of application with given application key.
+     * @param applicationKey Application key.
+     * @return Application ID or null in case the application key is unknown or the registry is not ready.
+     */
+    public Long getApplicationId(String applicationKey) {
+        final PowerAuthApplicationVersion version = getApplicationVersion(applicationKey);
+        return version != null ? version.getApplicationId() : null;
+    }
+
+    /**
+     * Check whether requests with given application key should be rejected without calling PowerAuth server.
+     * Keys of unsupported application versions are rejected. Unknown keys trigger a background refresh at most
+     * once per the unknown key refresh interval, the request which triggered the refresh is not rejected, so that
+     * application versions created after the last refresh are not rejected.
+     * @param applicationKey Application key.
+     * @return True in case the request should be rejected.
+     */
+    public boolean isApplicationKeyRejected(String applicationKey) {
+        if (applicationKey == null || !isReady()) {
+            return false;
+        }
+        final PowerAuthApplicationVersion version = applicationVersions.get(applicationKey);
+        if (version != null) {
+            return !version.isSupported();
+        }
+        return !scheduleUnknownKeyRefresh();
+    }
+
+    /**
+     * Schedule refresh of the registry caused by an unknown application key in case it is not throttled.
+     * @return True in case the refresh was scheduled.
+     */
+    private boolean scheduleUnknownKeyRefresh() {
+        final long now = System.currentTimeMillis();
+        final long previous = lastUnknownKeyRefresh.get();
+        if (now - previous < configuration.getUnknownKeyRefreshInterval() || !lastUnknownKeyRefresh.compareAndSet(previous, now)) {
+            return false;
+        }
+        try {
+            executor.execute(this::refresh);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            // Registry is being closed
+            return false;
+        }
+    }
+
+    /**
+     * Stop periodic refreshes of the registry.
+     */
+    @Override
+    public void close() {
+        if (isEnabled()) {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.application;
+
+/**
+ * Configuration of the application registry.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthApplicationRegistryConfiguration {
+
+    /**
+     * Default interval between periodic refreshes of the registry.
+     */
+    public static final long DEFAULT_REFRESH_INTERVAL = 60000L;
+
+    /**
+     * Default minimum interval between refreshes triggered by unknown application keys.
+     */
+    public static final long DEFAULT_UNKNOWN_KEY_REFRESH_INTERVAL = 10000L;
+
+    /**
+     * Default maximum age of the registry.
+     */
+    public static final long DEFAULT_MAXIMUM_AGE = 600000L;
+
+    private boolean enabled;
+
+    private long refreshInterval = DEFAULT_REFRESH_INTERVAL;
+
+    private long unknownKeyRefreshInterval = DEFAULT_UNKNOWN_KEY_REFRESH_INTERVAL;
+
+    private long maximumAge = DEFAULT_MAXIMUM_AGE;
+
+    /**
+     * Whether the application registry is enabled.
+     * @return True in case the application registry is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether the application registry is enabled.
+     * @param enabled True in case the application registry should be enabled.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Get interval between periodic refreshes of the registry.
+     * @return Refresh interval in milliseconds.
+     */
+    public long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Set interval between periodic refreshes of the registry.
+     * @param refreshInterval Refresh interval in milliseconds.
+     */
+    public void setRefreshInterval(long refreshInterval) {
+        if (refreshInterval <= 0) {
+            throw new IllegalArgumentException("Refresh interval must be positive");
+        }
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Get minimum interval between refreshes triggered by unknown application keys.
+     * @return Refresh interval in milliseconds.
+     */
+    public long getUnknownKeyRefreshInterval() {
+        return unknownKeyRefreshInterval;
+    }
+
+    /**
+     * Set minimum interval between refreshes triggered by unknown application keys. Requests with unknown application
+     * keys are rejected locally between such refreshes, so that application versions created after the last refresh
+     * are recognized quickly while a flood of invalid keys causes at most one refresh per interval.
+     * @param unknownKeyRefreshInterval Refresh interval in milliseconds.
+     */
+    public void setUnknownKeyRefreshInterval(long unknownKeyRefreshInterval) {
+        if (unknownKeyRefreshInterval < 0) {
+            throw new IllegalArgumentException("Unknown key refresh interval must not be negative");
+        }
+        this.unknownKeyRefreshInterval = unknownKeyRefreshInterval;
+    }
+
+    /**
+     * Get maximum age of the registry.
+     * @return Maximum age in milliseconds.
+     */
+    public long getMaximumAge() {
+        return maximumAge;
+    }
+
+    /**
+     * Set maximum age of the registry. In case the registry was not refreshed successfully within this time,
+     * application keys are no longer rejected locally and the validation is left to PowerAuth server.
+     * @param maximumAge Maximum age in milliseconds.
+     */
+    public void setMaximumAge(long maximumAge) {
+        if (maximumAge <= 0) {
+            throw new IllegalArgumentException("Maximum age must be positive");
+        }
+        this.maximumAge = maximumAge;
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.application;
+
+/**
+ * Application version known to PowerAuth server. Application secret is intentionally not part of the class,
+ * only information required for validation of application keys is kept.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthApplicationVersion {
+
+    private final long applicationId;
+
+    private final long applicationVersionId;
+
+    private final String applicationVersionName;
+
+    private final String applicationKey;
+
+    private final boolean supported;
+
+    /**
+     * Application version constructor.
+     * @param applicationId Application ID.
+     * @param applicationVersionId Application version ID.
+     * @param applicationVersionName Application version name.
+     * @param applicationKey Application key.
+     * @param supported Whether the application version is supported.
+     */
+    public PowerAuthApplicationVersion(long applicationId, long applicationVersionId, String applicationVersionName, String applicationKey, boolean supported) {
+        this.applicationId = applicationId;
+        this.applicationVersionId = applicationVersionId;
+        this.applicationVersionName = applicationVersionName;
+        this.applicationKey = applicationKey;
+        this.supported = supported;
+    }
+
+    /**
+     * Get application ID.
+     * @return Application ID.
+     */
+    public long getApplicationId() {
+        return applicationId;
+    }
+
+    /**
+     * Get application version ID.
+     * @return Application version ID.
+     */
+    public long getApplicationVersionId() {
+        return applicationVersionId;
+    }
+
+    /**
+     * Get application version name.
+     * @return Application version name.
+     */
+    public String getApplicationVersionName() {
+        return applicationVersionName;
+    }
+
+    /**
+     * Get application key.
+     * @return Application key.
+     */
+    public String getApplicationKey() {
+        return applicationKey;
+    }
+
+    /**
+     * Whether the application version is supported.
+     * @return True in case the application version is supported.
+     */
+    public boolean isSupported() {
+        return supported;
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.application;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only map with a JSON representation prepared in advance. When the map is serialized by Jackson,
+ * the prepared JSON is written directly into the output instead of serializing the map again.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@JsonSerialize(using = PowerAuthPreserializedObject.Serializer.class)
+public class PowerAuthPreserializedObject extends AbstractMap<String, Object> {
+
+    private final Map<String, Object> value;
+    private final String json;
+
+    /**
+     * Constructor with the map and its JSON representation.
+     * @param value Map value.
+     * @param json JSON representation of the map.
+     */
+    public PowerAuthPreserializedObject(Map<String, Object> value, String json) {
+        this.value = Collections.unmodifiableMap(value);
+        this.json = json;
+    }
+
+    /**
+     * Get JSON representation of the map.
+     * @return JSON representation of the map.
+     */
+    public String getJson() {
+        return json;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return value.entrySet();
+    }
+
+    /**
+     * Serializer which writes the prepared JSON representation.
+     */
+    public static class Serializer extends StdSerializer<PowerAuthPreserializedObject> {
+
+        /**
+         * Default constructor.
+         */
+        public Serializer() {
+            super(PowerAuthPreserializedObject.class);
+        }
+
+        @Override
+        public void serialize(PowerAuthPreserializedObject object, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeRawValue(object.getJson());
+        }
+    }
+
+}
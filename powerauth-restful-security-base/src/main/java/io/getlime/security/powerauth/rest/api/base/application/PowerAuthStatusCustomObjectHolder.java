@@ -0,0 +1,100 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * Holder of the custom object returned by the activation status end-point.
+ *
+ * <p>In case {@link PowerAuthApplicationConfiguration#statusServiceCustomObjectTtl()} returns a positive value,
+ * the custom object is obtained from the application configuration once per the configured time and it is
+ * serialized into JSON in advance, so that neither the callback nor the serialization is executed for each
+ * activation status request. Use {@link #refresh()} to reload the custom object explicitly, e.g. when the
+ * information it is based on changes.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthStatusCustomObjectHolder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthStatusCustomObjectHolder.class);
+
+    private final PowerAuthApplicationConfiguration applicationConfiguration;
+
+    private final ObjectMapper objectMapper;
+
+    private volatile Map<String, Object> customObject;
+
+    private volatile long expiration;
+
+    /**
+     * Constructor with application configuration and object mapper used for serialization of the custom object.
+     * Use the object mapper which serializes responses of the application, so that the prepared JSON is the same
+     * as the JSON written for the custom object otherwise.
+     * @param applicationConfiguration Application configuration.
+     * @param objectMapper Object mapper of the application.
+     */
+    public PowerAuthStatusCustomObjectHolder(PowerAuthApplicationConfiguration applicationConfiguration, ObjectMapper objectMapper) {
+        this.applicationConfiguration = applicationConfiguration;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Get the custom object for activation status response.
+     * @return Custom object, null in case the application does not provide any custom object.
+     */
+    public Map<String, Object> getCustomObject() {
+        if (applicationConfiguration.statusServiceCustomObjectTtl() <= 0) {
+            return applicationConfiguration.statusServiceCustomObject();
+        }
+        if (expiration < System.currentTimeMillis()) {
+            synchronized (this) {
+                // Another thread may have reloaded the custom object in the meantime
+                if (expiration < System.currentTimeMillis()) {
+                    refresh();
+                }
+            }
+        }
+        return customObject;
+    }
+
+    /**
+     * Reload the custom object from application configuration and serialize it.
+     */
+    public synchronized void refresh() {
+        final Map<String, Object> value = applicationConfiguration.statusServiceCustomObject();
+        Map<String, Object> preparedValue = value;
+        if (value != null) {
+            try {
+                preparedValue = new PowerAuthPreserializedObject(value, objectMapper.writeValueAsString(value));
+            } catch (JsonProcessingException ex) {
+                logger.warn("Serialization of status service custom object failed", ex);
+            }
+        }
+        customObject = preparedValue;
+        expiration = System.currentTimeMillis() + applicationConfiguration.statusServiceCustomObjectTtl();
+    }
+
+}
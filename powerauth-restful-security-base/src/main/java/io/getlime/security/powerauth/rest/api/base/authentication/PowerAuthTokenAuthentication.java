@@ -100,4 +100,16 @@ public interface PowerAuthTokenAuthentication extends PowerAuthAuthentication {
      * @param httpHeader PowerAuth HTTP header.
      */
     void setHttpHeader(PowerAuthHttpHeader httpHeader);
+
+    /**
+     * Whether the token may be accepted in degraded mode in case PowerAuth server is not reachable.
+     * @return True in case degraded mode is allowed.
+     */
+    boolean isDegradedModeAllowed();
+
+    /**
+     * Set whether the token may be accepted in degraded mode in case PowerAuth server is not reachable.
+     * @param degradedModeAllowed Whether degraded mode is allowed.
+     */
+    void setDegradedModeAllowed(boolean degradedModeAllowed);
 }
@@ -0,0 +1,115 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+/**
+ * Count-min sketch of 4-bit access frequency counters used for admission decisions of the W-TinyLFU cache.
+ * Each long value of the table holds sixteen counters. All counters are halved once the number of
+ * increments reaches the sample size, so that the sketch reflects recent access frequency. The sketch
+ * is not thread safe.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    // Clears the highest bit of each counter after the table values are shifted right
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final int MAXIMUM_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Sketch constructor.
+     * @param maximumSize Maximum size of the cache.
+     */
+    FrequencySketch(int maximumSize) {
+        final int tableSize = Math.max(8, Integer.highestOneBit(Math.min(maximumSize, 1 << 29) - 1) << 1);
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.sampleSize = (int) Math.min(10L * maximumSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get estimated access frequency of a key.
+     * @param hash Hash of the key.
+     * @return Estimated access frequency, at most 15.
+     */
+    int frequency(int hash) {
+        int frequency = MAXIMUM_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final long h = mix(hash, i);
+            final int count = (int) ((table[index(h)] >>> offset(h)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increment access frequency of a key.
+     * @param hash Hash of the key.
+     */
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final long h = mix(hash, i);
+            final int index = index(h);
+            final int offset = offset(h);
+            if (((table[index] >>> offset) & 0xfL) < MAXIMUM_COUNT) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Halve all counters.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private long mix(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h ^= h >>> 29;
+        return h;
+    }
+
+    private int index(long h) {
+        return (int) h & tableMask;
+    }
+
+    private int offset(long h) {
+        // Highest four bits select one of sixteen counters
+        return (int) (h >>> 60) << 2;
+    }
+
+}
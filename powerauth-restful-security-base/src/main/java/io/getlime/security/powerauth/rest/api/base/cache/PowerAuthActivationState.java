@@ -0,0 +1,71 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+/**
+ * States of activation as reported by the PowerAuth server.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public enum PowerAuthActivationState {
+
+    /**
+     * Activation was created.
+     */
+    CREATED,
+
+    /**
+     * Activation is waiting for commit.
+     */
+    PENDING_COMMIT,
+
+    /**
+     * Activation is active.
+     */
+    ACTIVE,
+
+    /**
+     * Activation is blocked.
+     */
+    BLOCKED,
+
+    /**
+     * Activation is removed.
+     */
+    REMOVED;
+
+    /**
+     * Convert activation status value used by the PowerAuth server client.
+     * @param value Activation status value.
+     * @return Activation state or null in case the value is unknown.
+     */
+    public static PowerAuthActivationState fromValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (PowerAuthActivationState state: values()) {
+            if (state.name().equals(value)) {
+                return state;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,312 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of activation states which allows rejecting requests of blocked and removed activations
+ * before calling the PowerAuth server.
+ *
+ * <p>The cache is fed by results of activation status, signature verification and token validation calls
+ * and by activation removal. Only blocked and removed activations are cached, any other reported state
+ * removes the activation from the cache. Token requests are rejected in case the activation of the token
+ * is known from a previous successful token validation.</p>
+ *
+ * <p>Cached states and token activations may be persisted into snapshot files using {@link #writeSnapshot(Path)}
+ * and loaded after restart using {@link #loadSnapshot(Path)}, see {@link PowerAuthCacheSnapshotFile}.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthActivationStateCache {
+
+    /**
+     * Name of the cache of blocked and removed activation states.
+     */
+    public static final String ACTIVATION_STATE_CACHE = "activationState";
+
+    /**
+     * Name of the cache of activations of validated tokens.
+     */
+    public static final String TOKEN_ACTIVATION_CACHE = "tokenActivation";
+
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private final PowerAuthActivationStateCacheConfiguration configuration;
+
+    private final PowerAuthCache<String, PowerAuthActivationState> activations;
+
+    private final PowerAuthCache<String, String> tokenActivations;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private volatile PowerAuthCacheSnapshotFile<PowerAuthActivationState> activationSnapshot;
+
+    private volatile PowerAuthCacheSnapshotFile<String> tokenSnapshot;
+
+    /**
+     * Cache constructor, states are stored in the default in-heap caches.
+     * @param configuration Activation state cache configuration.
+     */
+    public PowerAuthActivationStateCache(PowerAuthActivationStateCacheConfiguration configuration) {
+        this(configuration, new PowerAuthTinyLfuCacheFactory());
+    }
+
+    /**
+     * Cache constructor.
+     * @param configuration Activation state cache configuration.
+     * @param cacheFactory Factory of the caches used for storing activation states and token activations.
+     */
+    public PowerAuthActivationStateCache(PowerAuthActivationStateCacheConfiguration configuration, PowerAuthCacheFactory cacheFactory) {
+        this.configuration = configuration;
+        // Time to live of activation states depends on the state, token activations do not expire
+        this.activations = cacheFactory.createCache(ACTIVATION_STATE_CACHE, new PowerAuthCacheConfiguration(configuration.getMaxActivations(), 0L));
+        this.tokenActivations = cacheFactory.createCache(TOKEN_ACTIVATION_CACHE, new PowerAuthCacheConfiguration(configuration.getMaxTokens(), 0L));
+    }
+
+    /**
+     * Whether the activation state cache is enabled.
+     * @return True in case the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return configuration.isEnabled();
+    }
+
+    /**
+     * Update state of an activation reported by the PowerAuth server.
+     * @param activationId Activation ID.
+     * @param state Activation state, null value is ignored.
+     */
+    public void activationStateChanged(String activationId, PowerAuthActivationState state) {
+        if (!isEnabled() || activationId == null || state == null) {
+            return;
+        }
+        final long ttl;
+        switch (state) {
+            case BLOCKED:
+                ttl = configuration.getBlockedTtl();
+                break;
+            case REMOVED:
+                ttl = configuration.getRemovedTtl();
+                break;
+            default:
+                ttl = 0L;
+        }
+        final PowerAuthCacheSnapshotFile<PowerAuthActivationState> snapshot = activationSnapshot;
+        if (snapshot != null) {
+            snapshot.discard(activationId);
+        }
+        if (ttl > 0) {
+            activations.put(activationId, state, ttl);
+        } else {
+            activations.invalidate(activationId);
+        }
+    }
+
+    /**
+     * Record a token successfully validated by the PowerAuth server, the activation of the token is active.
+     * @param tokenId Token ID.
+     * @param activationId Activation ID.
+     */
+    public void tokenValidated(String tokenId, String activationId) {
+        if (!isEnabled() || tokenId == null || activationId == null) {
+            return;
+        }
+        final PowerAuthCacheSnapshotFile<String> snapshot = tokenSnapshot;
+        if (snapshot != null) {
+            snapshot.discard(tokenId);
+        }
+        tokenActivations.put(tokenId, activationId);
+        activationStateChanged(activationId, PowerAuthActivationState.ACTIVE);
+    }
+
+    /**
+     * Check whether requests of an activation should be rejected because the activation is known to be blocked or removed.
+     * @param activationId Activation ID.
+     * @return True in case requests of the activation should be rejected.
+     */
+    public boolean isActivationRejected(String activationId) {
+        if (!isEnabled() || activationId == null) {
+            return false;
+        }
+        if (lookupActivationState(activationId) == null) {
+            return false;
+        }
+        rejectedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Check whether requests using a token should be rejected because the activation of the token is known to be blocked or removed.
+     * @param tokenId Token ID.
+     * @return True in case requests using the token should be rejected.
+     */
+    public boolean isTokenRejected(String tokenId) {
+        if (!isEnabled() || tokenId == null) {
+            return false;
+        }
+        return isActivationRejected(lookupTokenActivation(tokenId));
+    }
+
+    /**
+     * Get cached state of an activation.
+     * @param activationId Activation ID.
+     * @return Cached state of blocked or removed activation, null in case activation state is not cached.
+     */
+    public PowerAuthActivationState getActivationState(String activationId) {
+        if (activationId == null) {
+            return null;
+        }
+        return lookupActivationState(activationId);
+    }
+
+    /**
+     * Invalidate cached state of an activation, e.g. after the activation was unblocked.
+     * @param activationId Activation ID.
+     */
+    public void invalidate(String activationId) {
+        final PowerAuthCacheSnapshotFile<PowerAuthActivationState> snapshot = activationSnapshot;
+        if (snapshot != null) {
+            snapshot.discard(activationId);
+        }
+        activations.invalidate(activationId);
+    }
+
+    /**
+     * Invalidate cached activation of a token, e.g. after the token was removed.
+     * @param tokenId Token ID.
+     */
+    public void invalidateToken(String tokenId) {
+        final PowerAuthCacheSnapshotFile<String> snapshot = tokenSnapshot;
+        if (snapshot != null) {
+            snapshot.discard(tokenId);
+        }
+        tokenActivations.invalidate(tokenId);
+    }
+
+    /**
+     * Invalidate all cached activation states and token mappings.
+     */
+    public void invalidateAll() {
+        activationSnapshot = null;
+        tokenSnapshot = null;
+        activations.invalidateAll();
+        tokenActivations.invalidateAll();
+    }
+
+    /**
+     * Load snapshot of cached activation states and token activations written by {@link #writeSnapshot(Path)}.
+     * The snapshot files are only mapped into memory, their records are read when activations or tokens are looked up.
+     * @param directory Snapshot directory.
+     */
+    public void loadSnapshot(Path directory) {
+        if (!isEnabled()) {
+            return;
+        }
+        activationSnapshot = PowerAuthCacheSnapshotFile.open(directory.resolve(ACTIVATION_STATE_CACHE + SNAPSHOT_SUFFIX), PowerAuthOffHeapValueCodec.ACTIVATION_STATE);
+        tokenSnapshot = PowerAuthCacheSnapshotFile.open(directory.resolve(TOKEN_ACTIVATION_CACHE + SNAPSHOT_SUFFIX), PowerAuthOffHeapValueCodec.UUID);
+    }
+
+    /**
+     * Write snapshot of cached activation states and token activations, including records of the loaded snapshot
+     * which were not looked up yet.
+     * @param directory Snapshot directory.
+     * @throws IOException In case snapshot files cannot be written.
+     */
+    public void writeSnapshot(Path directory) throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        PowerAuthCacheSnapshotFile.write(directory.resolve(ACTIVATION_STATE_CACHE + SNAPSHOT_SUFFIX), PowerAuthOffHeapValueCodec.ACTIVATION_STATE, activations, activationSnapshot);
+        PowerAuthCacheSnapshotFile.write(directory.resolve(TOKEN_ACTIVATION_CACHE + SNAPSHOT_SUFFIX), PowerAuthOffHeapValueCodec.UUID, tokenActivations, tokenSnapshot);
+    }
+
+    /**
+     * Get number of requests rejected using the cache.
+     * @return Number of rejected requests.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Get number of cached activation states.
+     * @return Number of cached activation states.
+     */
+    public int getSize() {
+        return activations.size();
+    }
+
+    /**
+     * Get statistics of the underlying activation state cache.
+     * @return Cache statistics.
+     */
+    public PowerAuthCacheStats getStats() {
+        return activations.getStats();
+    }
+
+    /**
+     * Get cached state of an activation, the loaded snapshot is used in case the state is not cached.
+     * @param activationId Activation ID.
+     * @return Cached state or null in case the state is not known.
+     */
+    private PowerAuthActivationState lookupActivationState(String activationId) {
+        final PowerAuthActivationState state = activations.get(activationId);
+        final PowerAuthCacheSnapshotFile<PowerAuthActivationState> snapshot = activationSnapshot;
+        if (state != null || snapshot == null) {
+            return state;
+        }
+        final PowerAuthCacheSnapshotFile.Entry<PowerAuthActivationState> entry = snapshot.take(activationId);
+        if (entry == null) {
+            return null;
+        }
+        activations.put(activationId, entry.getValue(), remainingTtl(entry));
+        return entry.getValue();
+    }
+
+    /**
+     * Get cached activation of a token, the loaded snapshot is used in case the activation is not cached.
+     * @param tokenId Token ID.
+     * @return Activation ID or null in case the activation is not known.
+     */
+    private String lookupTokenActivation(String tokenId) {
+        final String activationId = tokenActivations.get(tokenId);
+        final PowerAuthCacheSnapshotFile<String> snapshot = tokenSnapshot;
+        if (activationId != null || snapshot == null) {
+            return activationId;
+        }
+        final PowerAuthCacheSnapshotFile.Entry<String> entry = snapshot.take(tokenId);
+        if (entry == null) {
+            return null;
+        }
+        tokenActivations.put(tokenId, entry.getValue(), remainingTtl(entry));
+        return entry.getValue();
+    }
+
+    private static long remainingTtl(PowerAuthCacheSnapshotFile.Entry<?> entry) {
+        if (entry.getExpiration() == Long.MAX_VALUE) {
+            return 0L;
+        }
+        return Math.max(1L, entry.getExpiration() - System.currentTimeMillis());
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+/**
+ * Configuration of the activation state cache.
+ *
+ * <p>Blocked activations may be unblocked on the PowerAuth server, so they are cached for a short time only.
+ * Removed activations can never become active again and they may be cached for much longer time.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthActivationStateCacheConfiguration {
+
+    /**
+     * Default time for which blocked activations are rejected locally.
+     */
+    public static final long DEFAULT_BLOCKED_TTL = 60000L;
+
+    /**
+     * Default time for which removed activations are rejected locally.
+     */
+    public static final long DEFAULT_REMOVED_TTL = 86400000L;
+
+    /**
+     * Default maximum number of cached activations.
+     */
+    public static final int DEFAULT_MAX_ACTIVATIONS = 100000;
+
+    /**
+     * Default maximum number of remembered token to activation mappings.
+     */
+    public static final int DEFAULT_MAX_TOKENS = 100000;
+
+    private boolean enabled;
+
+    private long blockedTtl = DEFAULT_BLOCKED_TTL;
+
+    private long removedTtl = DEFAULT_REMOVED_TTL;
+
+    private int maxActivations = DEFAULT_MAX_ACTIVATIONS;
+
+    private int maxTokens = DEFAULT_MAX_TOKENS;
+
+    /**
+     * Whether the activation state cache is enabled.
+     * @return True in case the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether the activation state cache is enabled.
+     * @param enabled True in case the cache should be enabled.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Get time for which blocked activations are rejected locally.
+     * @return Time in milliseconds.
+     */
+    public long getBlockedTtl() {
+        return blockedTtl;
+    }
+
+    /**
+     * Set time for which blocked activations are rejected locally.
+     * @param blockedTtl Time in milliseconds, zero value disables caching of blocked activations.
+     */
+    public void setBlockedTtl(long blockedTtl) {
+        if (blockedTtl < 0) {
+            throw new IllegalArgumentException("Time to live must not be negative");
+        }
+        this.blockedTtl = blockedTtl;
+    }
+
+    /**
+     * Get time for which removed activations are rejected locally.
+     * @return Time in milliseconds.
+     */
+    public long getRemovedTtl() {
+        return removedTtl;
+    }
+
+    /**
+     * Set time for which removed activations are rejected locally.
+     * @param removedTtl Time in milliseconds, zero value disables caching of removed activations.
+     */
+    public void setRemovedTtl(long removedTtl) {
+        if (removedTtl < 0) {
+            throw new IllegalArgumentException("Time to live must not be negative");
+        }
+        this.removedTtl = removedTtl;
+    }
+
+    /**
+     * Get maximum number of cached activations.
+     * @return Maximum number of cached activations.
+     */
+    public int getMaxActivations() {
+        return maxActivations;
+    }
+
+    /**
+     * Set maximum number of cached activations, least recently used activations are evicted first.
+     * @param maxActivations Maximum number of cached activations.
+     */
+    public void setMaxActivations(int maxActivations) {
+        if (maxActivations <= 0) {
+            throw new IllegalArgumentException("Maximum number of activations must be positive");
+        }
+        this.maxActivations = maxActivations;
+    }
+
+    /**
+     * Get maximum number of remembered token to activation mappings.
+     * @return Maximum number of tokens.
+     */
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * Set maximum number of remembered token to activation mappings, least recently used tokens are evicted first.
+     * @param maxTokens Maximum number of tokens.
+     */
+    public void setMaxTokens(int maxTokens) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("Maximum number of tokens must be positive");
+        }
+        this.maxTokens = maxTokens;
+    }
+
+}
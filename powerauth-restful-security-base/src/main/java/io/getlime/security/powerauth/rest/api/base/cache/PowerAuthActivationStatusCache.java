@@ -0,0 +1,143 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+/**
+ * Short-lived cache of encrypted activation status blobs.
+ *
+ * <p>Activation status requests of protocol version 3.0 do not contain a challenge, so the encrypted status
+ * blob returned by the PowerAuth server only changes when the activation changes. Such blobs may be cached
+ * for a short time to avoid calling the PowerAuth server on every status poll. Status requests with challenge
+ * must never be cached, because the status blob is encrypted using the challenge.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthActivationStatusCache {
+
+    private final PowerAuthActivationStatusCacheConfiguration configuration;
+
+    private final PowerAuthCache<String, String> statuses;
+
+    /**
+     * Cache constructor, statuses are stored in the default in-heap cache.
+     * @param configuration Activation status cache configuration.
+     */
+    public PowerAuthActivationStatusCache(PowerAuthActivationStatusCacheConfiguration configuration) {
+        this(configuration, new PowerAuthTinyLfuCacheFactory());
+    }
+
+    /**
+     * Cache constructor.
+     * @param configuration Activation status cache configuration.
+     * @param cacheFactory Factory of the cache used for storing statuses.
+     */
+    public PowerAuthActivationStatusCache(PowerAuthActivationStatusCacheConfiguration configuration, PowerAuthCacheFactory cacheFactory) {
+        this.configuration = configuration;
+        this.statuses = cacheFactory.createCache("activationStatus",
+                new PowerAuthCacheConfiguration(configuration.getMaxEntries(), configuration.getTtl()));
+    }
+
+    /**
+     * Whether the activation status cache is enabled.
+     * @return True in case the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return configuration.isEnabled();
+    }
+
+    /**
+     * Get cached encrypted status blob of an activation.
+     * @param activationId Activation ID.
+     * @param challenge Challenge of the status request, statuses of requests with challenge are never cached.
+     * @return Encrypted status blob or null in case status is not cached.
+     */
+    public String get(String activationId, String challenge) {
+        if (!isEnabled() || activationId == null || challenge != null) {
+            return null;
+        }
+        return statuses.get(activationId);
+    }
+
+    /**
+     * Cache encrypted status blob of an activation. The status blob is not cached in case the request contains
+     * a challenge or the status blob is encrypted using a nonce, because such status blob is randomized.
+     * @param activationId Activation ID.
+     * @param challenge Challenge of the status request.
+     * @param encryptedStatusBlob Encrypted status blob.
+     * @param nonce Nonce used for encryption of the status blob.
+     */
+    public void put(String activationId, String challenge, String encryptedStatusBlob, String nonce) {
+        if (!isEnabled() || activationId == null || challenge != null || encryptedStatusBlob == null || nonce != null) {
+            return;
+        }
+        statuses.put(activationId, encryptedStatusBlob);
+    }
+
+    /**
+     * Invalidate cached status of an activation, used when the activation changes.
+     * @param activationId Activation ID.
+     */
+    public void invalidate(String activationId) {
+        if (!isEnabled() || activationId == null) {
+            return;
+        }
+        statuses.invalidate(activationId);
+    }
+
+    /**
+     * Invalidate all cached statuses.
+     */
+    public void invalidateAll() {
+        statuses.invalidateAll();
+    }
+
+    /**
+     * Get number of cache hits.
+     * @return Number of cache hits.
+     */
+    public long getHitCount() {
+        return statuses.getStats().getHitCount();
+    }
+
+    /**
+     * Get number of cache misses.
+     * @return Number of cache misses.
+     */
+    public long getMissCount() {
+        return statuses.getStats().getMissCount();
+    }
+
+    /**
+     * Get number of cached statuses.
+     * @return Number of cached statuses.
+     */
+    public int getSize() {
+        return statuses.size();
+    }
+
+    /**
+     * Get statistics of the underlying cache.
+     * @return Cache statistics.
+     */
+    public PowerAuthCacheStats getStats() {
+        return statuses.getStats();
+    }
+
+}
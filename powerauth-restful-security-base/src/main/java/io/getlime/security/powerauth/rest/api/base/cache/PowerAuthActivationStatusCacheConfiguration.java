@@ -0,0 +1,99 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+/**
+ * Configuration of the activation status cache.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthActivationStatusCacheConfiguration {
+
+    /**
+     * Default time to live of cached activation status.
+     */
+    public static final long DEFAULT_TTL = 2000L;
+
+    /**
+     * Default maximum number of cached activation statuses.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    private boolean enabled;
+
+    private long ttl = DEFAULT_TTL;
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    /**
+     * Whether the activation status cache is enabled.
+     * @return True in case the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether the activation status cache is enabled.
+     * @param enabled True in case the cache should be enabled.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Get time to live of cached activation status.
+     * @return Time to live in milliseconds.
+     */
+    public long getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Set time to live of cached activation status.
+     * @param ttl Time to live in milliseconds.
+     */
+    public void setTtl(long ttl) {
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.ttl = ttl;
+    }
+
+    /**
+     * Get maximum number of cached activation statuses.
+     * @return Maximum number of cached activation statuses.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Set maximum number of cached activation statuses, least recently used statuses are evicted first.
+     * @param maxEntries Maximum number of cached activation statuses.
+     */
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Maximum number of entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+/**
+ * Bounded cache used by PowerAuth integration components. Implementations must be thread safe.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public interface PowerAuthCache<K, V> {
+
+    /**
+     * Get a cached value.
+     * @param key Key.
+     * @return Cached value or null in case the value is not cached or it expired.
+     */
+    V get(K key);
+
+    /**
+     * Cache a value using time to live from the cache configuration.
+     * @param key Key.
+     * @param value Value.
+     */
+    void put(K key, V value);
+
+    /**
+     * Cache a value using specific time to live.
+     * @param key Key.
+     * @param value Value.
+     * @param ttl Time to live in milliseconds, zero value means the value does not expire.
+     */
+    void put(K key, V value, long ttl);
+
+    /**
+     * Remove a cached value.
+     * @param key Key.
+     */
+    void invalidate(K key);
+
+    /**
+     * Remove all cached values.
+     */
+    void invalidateAll();
+
+    /**
+     * Get number of cached values, including expired values which were not removed yet.
+     * @return Number of cached values.
+     */
+    int size();
+
+    /**
+     * Get snapshot of cache statistics.
+     * @return Cache statistics.
+     */
+    PowerAuthCacheStats getStats();
+
+    /**
+     * Visit all cached entries, e.g. for persisting a snapshot of the cache. Entries are visited outside
+     * of any lock, so that the visitor does not block cache operations. Default implementation visits
+     * no entries, caches which cannot be iterated are not included in snapshots.
+     * @param visitor Entry visitor.
+     */
+    default void forEach(PowerAuthCacheEntryVisitor<K, V> visitor) {
+    }
+
+}
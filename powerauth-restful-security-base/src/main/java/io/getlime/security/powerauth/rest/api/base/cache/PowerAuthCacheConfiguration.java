@@ -0,0 +1,65 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+/**
+ * Configuration of a cache created by {@link PowerAuthCacheFactory}.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthCacheConfiguration {
+
+    private final int maximumSize;
+
+    private final long ttl;
+
+    /**
+     * Constructor with maximum size and default time to live.
+     * @param maximumSize Maximum number of cached values.
+     * @param ttl Default time to live in milliseconds, zero value means values do not expire.
+     */
+    public PowerAuthCacheConfiguration(int maximumSize, long ttl) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        if (ttl < 0) {
+            throw new IllegalArgumentException("Time to live must not be negative");
+        }
+        this.maximumSize = maximumSize;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Get maximum number of cached values.
+     * @return Maximum number of cached values.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Get default time to live of cached values.
+     * @return Time to live in milliseconds, zero value means values do not expire.
+     */
+    public long getTtl() {
+        return ttl;
+    }
+
+}
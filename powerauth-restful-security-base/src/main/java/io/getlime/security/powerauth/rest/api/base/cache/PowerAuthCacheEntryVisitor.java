@@ -0,0 +1,40 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+/**
+ * Visitor of entries of a cache.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@FunctionalInterface
+public interface PowerAuthCacheEntryVisitor<K, V> {
+
+    /**
+     * Visit a cache entry.
+     * @param key Key.
+     * @param value Value.
+     * @param expiration Expiration timestamp in milliseconds, {@link Long#MAX_VALUE} in case the entry does not expire.
+     */
+    void visit(K key, V value, long expiration);
+
+}
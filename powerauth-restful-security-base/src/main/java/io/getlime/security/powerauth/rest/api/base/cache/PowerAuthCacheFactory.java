@@ -0,0 +1,53 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+/**
+ * Factory of caches used by PowerAuth integration components. Provide own implementation to replace
+ * the default in-heap caches, e.g. by caches backed by a different storage.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public interface PowerAuthCacheFactory {
+
+    /**
+     * Create a new cache.
+     * @param name Name of the cache, unique within the integration.
+     * @param configuration Cache configuration.
+     * @param evictionListener Listener of evicted values, null in case evictions should not be reported.
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return New cache.
+     */
+    <K, V> PowerAuthCache<K, V> createCache(String name, PowerAuthCacheConfiguration configuration, PowerAuthCacheEvictionListener<K, V> evictionListener);
+
+    /**
+     * Create a new cache without eviction listener.
+     * @param name Name of the cache, unique within the integration.
+     * @param configuration Cache configuration.
+     * @param <K> Key type.
+     * @param <V> Value type.
+     * @return New cache.
+     */
+    default <K, V> PowerAuthCache<K, V> createCache(String name, PowerAuthCacheConfiguration configuration) {
+        return createCache(name, configuration, null);
+    }
+
+}
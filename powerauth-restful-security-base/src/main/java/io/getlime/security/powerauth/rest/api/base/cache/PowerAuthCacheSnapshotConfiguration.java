@@ -0,0 +1,91 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+/**
+ * Configuration of periodic cache snapshots.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthCacheSnapshotConfiguration {
+
+    /**
+     * Default interval between snapshots.
+     */
+    public static final long DEFAULT_INTERVAL = 60000L;
+
+    private boolean enabled;
+
+    private String directory;
+
+    private long interval = DEFAULT_INTERVAL;
+
+    /**
+     * Whether cache snapshots are enabled.
+     * @return True in case cache snapshots are enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether cache snapshots are enabled.
+     * @param enabled True in case cache snapshots should be enabled.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Get directory of snapshot files.
+     * @return Snapshot directory.
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Set directory of snapshot files, the directory should be local to the node.
+     * @param directory Snapshot directory.
+     */
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Get interval between snapshots.
+     * @return Interval in milliseconds.
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Set interval between snapshots.
+     * @param interval Interval in milliseconds.
+     */
+    public void setInterval(long interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        this.interval = interval;
+    }
+
+}
@@ -0,0 +1,301 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Snapshot of a cache with UUID keys persisted in a memory-mapped file.
+ *
+ * <p>The file contains an open addressing hash table of fixed size records, each record contains the key encoded
+ * as two long values, expiration and the value encoded by a {@link PowerAuthOffHeapValueCodec}. Loading
+ * the snapshot only maps the file, records are read lazily when their keys are looked up, so that the operating
+ * system reads just the pages which are actually used. Each record can be taken from the snapshot only once,
+ * records of keys updated after the snapshot was loaded are discarded, so that the snapshot never overrides
+ * newer information.</p>
+ *
+ * @param <V> Value type.
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthCacheSnapshotFile<V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthCacheSnapshotFile.class);
+
+    private static final int MAGIC = 0x50415343;
+    private static final int VERSION = 1;
+
+    // Header contains magic, version, record size, capacity and creation timestamp
+    private static final int HEADER_SIZE = 24;
+
+    private static final int KEY_HIGH_OFFSET = 0;
+    private static final int KEY_LOW_OFFSET = 8;
+    private static final int EXPIRATION_OFFSET = 16;
+    private static final int VALUE_OFFSET = 24;
+
+    private final ByteBuffer buffer;
+    private final PowerAuthOffHeapValueCodec<V> codec;
+    private final int recordSize;
+    private final int capacity;
+    private final BitSet consumed;
+
+    private PowerAuthCacheSnapshotFile(ByteBuffer buffer, PowerAuthOffHeapValueCodec<V> codec, int capacity) {
+        this.buffer = buffer;
+        this.codec = codec;
+        this.recordSize = recordSize(codec);
+        this.capacity = capacity;
+        this.consumed = new BitSet(capacity);
+    }
+
+    /**
+     * Open a snapshot file.
+     * @param file Snapshot file.
+     * @param codec Codec of cached values.
+     * @param <V> Value type.
+     * @return Snapshot or null in case the file does not exist or it is not a valid snapshot.
+     */
+    public static <V> PowerAuthCacheSnapshotFile<V> open(Path file, PowerAuthOffHeapValueCodec<V> codec) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                logger.warn("Invalid size of cache snapshot file: {}", file);
+                return null;
+            }
+            // Mapping remains valid after the channel is closed
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            final int capacity = buffer.getInt(12);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != recordSize(codec)
+                    || capacity <= 0 || Integer.bitCount(capacity) != 1 || size != HEADER_SIZE + (long) capacity * recordSize(codec)) {
+                logger.warn("Invalid format of cache snapshot file: {}", file);
+                return null;
+            }
+            return new PowerAuthCacheSnapshotFile<>(buffer, codec, capacity);
+        } catch (IOException ex) {
+            logger.warn("Cache snapshot file could not be opened: {}", file, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Write a snapshot of a cache into a file. Remaining records of the previous snapshot are included as well,
+     * so that records which were not looked up yet are not lost. The file is replaced atomically.
+     * @param file Snapshot file.
+     * @param codec Codec of cached values.
+     * @param cache Cache to persist.
+     * @param previous Previous snapshot, null in case there is no previous snapshot.
+     * @param <V> Value type.
+     * @throws IOException In case the snapshot file cannot be written.
+     */
+    public static <V> void write(Path file, PowerAuthOffHeapValueCodec<V> codec, PowerAuthCache<String, V> cache, PowerAuthCacheSnapshotFile<V> previous) throws IOException {
+        final long now = System.currentTimeMillis();
+        final List<String> keys = new ArrayList<>();
+        final List<V> values = new ArrayList<>();
+        final List<Long> expirations = new ArrayList<>();
+        final PowerAuthCacheEntryVisitor<String, V> collector = (key, value, expiration) -> {
+            if (expiration >= now) {
+                keys.add(key);
+                values.add(value);
+                expirations.add(expiration);
+            }
+        };
+        // Cache entries are written first, so that they take precedence over records of the previous snapshot
+        cache.forEach(collector);
+        if (previous != null) {
+            previous.forEachRemaining(collector);
+        }
+
+        final int recordSize = recordSize(codec);
+        final int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, keys.size() * 2 - 1)) << 1);
+        final long fileSize = HEADER_SIZE + (long) capacity * recordSize;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Cache snapshot is too large: " + keys.size() + " entries");
+        }
+        final Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, recordSize);
+            buffer.putInt(12, capacity);
+            buffer.putLong(16, now);
+            for (int i = 0; i < keys.size(); i++) {
+                final String key = keys.get(i);
+                if (!PowerAuthOffHeapCache.isUuid(key)) {
+                    continue;
+                }
+                final long high = PowerAuthOffHeapCache.uuidHigh(key);
+                final long low = PowerAuthOffHeapCache.uuidLow(key);
+                final int record = findRecord(buffer, capacity, recordSize, high, low);
+                if (buffer.getLong(record + EXPIRATION_OFFSET) != 0L) {
+                    // Key is already written
+                    continue;
+                }
+                try {
+                    codec.write(buffer, record + VALUE_OFFSET, values.get(i));
+                } catch (IllegalArgumentException ex) {
+                    for (int j = VALUE_OFFSET; j < recordSize; j++) {
+                        buffer.put(record + j, (byte) 0);
+                    }
+                    continue;
+                }
+                buffer.putLong(record + KEY_HIGH_OFFSET, high);
+                buffer.putLong(record + KEY_LOW_OFFSET, low);
+                buffer.putLong(record + EXPIRATION_OFFSET, expirations.get(i));
+            }
+            buffer.force();
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Take a record from the snapshot, each record can be taken only once.
+     * @param key Key.
+     * @return Snapshot entry or null in case the key is not present, its record was already taken or it expired.
+     */
+    public synchronized Entry<V> take(String key) {
+        final int record = findTakeableRecord(key);
+        if (record < 0) {
+            return null;
+        }
+        final long expiration = buffer.getLong(record + EXPIRATION_OFFSET);
+        if (expiration < System.currentTimeMillis()) {
+            return null;
+        }
+        return new Entry<>(codec.read(buffer, record + VALUE_OFFSET), expiration);
+    }
+
+    /**
+     * Discard a record from the snapshot, used when the key is updated after the snapshot was loaded.
+     * @param key Key.
+     */
+    public synchronized void discard(String key) {
+        findTakeableRecord(key);
+    }
+
+    /**
+     * Visit records which were not taken or discarded yet.
+     * @param visitor Entry visitor.
+     */
+    synchronized void forEachRemaining(PowerAuthCacheEntryVisitor<String, V> visitor) {
+        for (int i = 0; i < capacity; i++) {
+            final int record = HEADER_SIZE + i * recordSize;
+            final long expiration = buffer.getLong(record + EXPIRATION_OFFSET);
+            if (expiration != 0L && !consumed.get(i)) {
+                final String key = new UUID(buffer.getLong(record + KEY_HIGH_OFFSET), buffer.getLong(record + KEY_LOW_OFFSET)).toString();
+                visitor.visit(key, codec.read(buffer, record + VALUE_OFFSET), expiration);
+            }
+        }
+    }
+
+    /**
+     * Find record of a key which was not taken yet and mark it as taken.
+     * @param key Key.
+     * @return Offset of the record or -1 in case there is no such record.
+     */
+    private int findTakeableRecord(String key) {
+        if (!PowerAuthOffHeapCache.isUuid(key)) {
+            return -1;
+        }
+        final int record = findRecord(buffer, capacity, recordSize, PowerAuthOffHeapCache.uuidHigh(key), PowerAuthOffHeapCache.uuidLow(key));
+        if (buffer.getLong(record + EXPIRATION_OFFSET) == 0L) {
+            return -1;
+        }
+        final int index = (record - HEADER_SIZE) / recordSize;
+        if (consumed.get(index)) {
+            return -1;
+        }
+        consumed.set(index);
+        return record;
+    }
+
+    /**
+     * Find record of a key using linear probing.
+     * @param buffer Snapshot buffer.
+     * @param capacity Number of records.
+     * @param recordSize Size of a record.
+     * @param high Most significant bits of the key.
+     * @param low Least significant bits of the key.
+     * @return Offset of the record with the key or of the empty record where the key would be stored.
+     */
+    private static int findRecord(ByteBuffer buffer, int capacity, int recordSize, long high, long low) {
+        int index = (int) PowerAuthOffHeapCache.hash(high, low) & (capacity - 1);
+        while (true) {
+            final int record = HEADER_SIZE + index * recordSize;
+            if (buffer.getLong(record + EXPIRATION_OFFSET) == 0L
+                    || (buffer.getLong(record + KEY_HIGH_OFFSET) == high && buffer.getLong(record + KEY_LOW_OFFSET) == low)) {
+                return record;
+            }
+            index = (index + 1) & (capacity - 1);
+        }
+    }
+
+    private static int recordSize(PowerAuthOffHeapValueCodec<?> codec) {
+        return (VALUE_OFFSET + codec.getSize() + 7) & ~7;
+    }
+
+    /**
+     * Entry taken from the snapshot.
+     * @param <V> Value type.
+     */
+    public static class Entry<V> {
+
+        private final V value;
+        private final long expiration;
+
+        Entry(V value, long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+
+        /**
+         * Get value of the entry.
+         * @return Value.
+         */
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * Get expiration of the entry.
+         * @return Expiration timestamp in milliseconds, {@link Long#MAX_VALUE} in case the entry does not expire.
+         */
+        public long getExpiration() {
+            return expiration;
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service which loads the activation state cache snapshot on startup and writes new snapshots periodically,
+ * so that a restarted node does not start with empty caches. Only non-secret information is persisted, i.e.
+ * states of blocked and removed activations and activation IDs of validated tokens.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthCacheSnapshotService implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthCacheSnapshotService.class);
+
+    private final PowerAuthActivationStateCache activationStateCache;
+
+    private final Path directory;
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Service constructor, the snapshot is loaded and periodic snapshots are started in case snapshots are enabled.
+     * @param configuration Cache snapshot configuration.
+     * @param activationStateCache Activation state cache.
+     */
+    public PowerAuthCacheSnapshotService(PowerAuthCacheSnapshotConfiguration configuration, PowerAuthActivationStateCache activationStateCache) {
+        this.activationStateCache = activationStateCache;
+        if (!configuration.isEnabled() || !activationStateCache.isEnabled()) {
+            this.directory = null;
+            this.executor = null;
+            return;
+        }
+        if (configuration.getDirectory() == null) {
+            throw new IllegalArgumentException("Snapshot directory is not configured");
+        }
+        this.directory = Paths.get(configuration.getDirectory());
+        activationStateCache.loadSnapshot(directory);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "powerauth-cache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::writeSnapshot, configuration.getInterval(), configuration.getInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Whether cache snapshots are enabled.
+     * @return True in case cache snapshots are enabled.
+     */
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /**
+     * Write snapshot of the activation state cache.
+     */
+    public void writeSnapshot() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            activationStateCache.writeSnapshot(directory);
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Cache snapshot could not be written", ex);
+        }
+    }
+
+    /**
+     * Stop periodic snapshots and write the final snapshot.
+     */
+    @Override
+    public void close() {
+        if (!isEnabled()) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            // Wait for a snapshot which is currently being written
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writeSnapshot();
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+/**
+ * Snapshot of cache statistics.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthCacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expirationCount;
+    private final int size;
+
+    /**
+     * Constructor with all statistics values.
+     * @param hitCount Number of cache hits.
+     * @param missCount Number of cache misses.
+     * @param evictionCount Number of values evicted due to cache size.
+     * @param expirationCount Number of values removed due to expiration.
+     * @param size Number of cached values.
+     */
+    public PowerAuthCacheStats(long hitCount, long missCount, long evictionCount, long expirationCount, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.size = size;
+    }
+
+    /**
+     * Get number of cache hits.
+     * @return Number of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get number of cache misses.
+     * @return Number of cache misses.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Get ratio of cache hits to all cache lookups.
+     * @return Hit rate, one in case there was no lookup.
+     */
+    public double getHitRate() {
+        final long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Get number of values evicted due to cache size.
+     * @return Number of evicted values.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Get number of values removed due to expiration.
+     * @return Number of expired values.
+     */
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * Get number of cached values.
+     * @return Number of cached values.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "PowerAuthCacheStats{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount
+                + ", expirationCount=" + expirationCount + ", size=" + size + "}";
+    }
+
+}
@@ -0,0 +1,481 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache with UUID keys, e.g. activation IDs or token IDs, which stores values in direct buffers outside of the heap.
+ *
+ * <p>Each entry occupies a fixed size slot which contains the key encoded as two long values, expiration,
+ * access stamp and the value encoded by a {@link PowerAuthOffHeapValueCodec}. Slots are organized into buckets
+ * of eight slots, a key may only be stored in the bucket selected by its hash, and the least recently used slot
+ * of a full bucket is evicted. The buckets are split into segments, each segment uses its own buffer and lock.
+ * The capacity is rounded up, so that the cache may hold slightly more entries than the configured maximum size.</p>
+ *
+ * <p>Slots are overwritten with zeros when their entries are evicted, expired or invalidated. Keys which are not
+ * UUIDs and values which cannot be encoded are not cached.</p>
+ *
+ * @param <V> Value type.
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthOffHeapCache<V> implements PowerAuthCache<String, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthOffHeapCache.class);
+
+    private static final int WAYS = 8;
+    private static final int MAX_SEGMENTS = 16;
+
+    private static final int KEY_HIGH_OFFSET = 0;
+    private static final int KEY_LOW_OFFSET = 8;
+    private static final int EXPIRATION_OFFSET = 16;
+    private static final int ACCESS_OFFSET = 24;
+    private static final int VALUE_OFFSET = 32;
+
+    private final long defaultTtl;
+    private final PowerAuthOffHeapValueCodec<V> codec;
+    private final PowerAuthCacheEvictionListener<String, V> evictionListener;
+
+    private final int slotSize;
+    private final int bucketMask;
+    private final int segmentShift;
+    private final Segment[] segments;
+
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong expirationCount = new AtomicLong();
+
+    /**
+     * Cache constructor.
+     * @param configuration Cache configuration.
+     * @param codec Codec of cached values.
+     * @param evictionListener Eviction listener, null in case evictions should not be reported.
+     */
+    public PowerAuthOffHeapCache(PowerAuthCacheConfiguration configuration, PowerAuthOffHeapValueCodec<V> codec, PowerAuthCacheEvictionListener<String, V> evictionListener) {
+        this.defaultTtl = configuration.getTtl();
+        this.codec = codec;
+        this.evictionListener = evictionListener;
+        // Slots are aligned to long values
+        this.slotSize = (VALUE_OFFSET + codec.getSize() + 7) & ~7;
+
+        final int requiredBuckets = (configuration.getMaximumSize() + WAYS - 1) / WAYS;
+        final int bucketCount = Math.max(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, requiredBuckets - 1)) << 1);
+        int segmentCount = MAX_SEGMENTS;
+        while ((long) (bucketCount / segmentCount) * WAYS * slotSize > Integer.MAX_VALUE) {
+            segmentCount <<= 1;
+        }
+        final int bucketsPerSegment = bucketCount / segmentCount;
+        this.bucketMask = bucketsPerSegment - 1;
+        this.segmentShift = Integer.numberOfTrailingZeros(bucketsPerSegment);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(ByteBuffer.allocateDirect(bucketsPerSegment * WAYS * slotSize));
+        }
+    }
+
+    @Override
+    public V get(String key) {
+        if (!isUuid(key)) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        final long high = uuidHigh(key);
+        final long low = uuidLow(key);
+        final long hash = hash(high, low);
+        final Segment segment = segmentFor(hash);
+        final V expiredValue;
+        synchronized (segment) {
+            final int slot = findSlot(segment.buffer, bucketOffset(hash), high, low);
+            if (slot < 0) {
+                missCount.incrementAndGet();
+                return null;
+            }
+            final ByteBuffer buffer = segment.buffer;
+            if (buffer.getLong(slot + EXPIRATION_OFFSET) >= System.currentTimeMillis()) {
+                buffer.putLong(slot + ACCESS_OFFSET, ++segment.clock);
+                hitCount.incrementAndGet();
+                return codec.read(buffer, slot + VALUE_OFFSET);
+            }
+            expiredValue = evictionListener == null ? null : codec.read(buffer, slot + VALUE_OFFSET);
+            clearSlot(buffer, slot);
+            size.decrementAndGet();
+        }
+        missCount.incrementAndGet();
+        expirationCount.incrementAndGet();
+        notifyEviction(key, expiredValue, PowerAuthCacheEvictionCause.EXPIRED);
+        return null;
+    }
+
+    @Override
+    public void put(String key, V value) {
+        put(key, value, defaultTtl);
+    }
+
+    @Override
+    public void put(String key, V value, long ttl) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Cached key and value must not be null");
+        }
+        if (!isUuid(key)) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final long expiration = ttl > 0 ? now + ttl : Long.MAX_VALUE;
+        final long high = uuidHigh(key);
+        final long low = uuidLow(key);
+        final long hash = hash(high, low);
+        final Segment segment = segmentFor(hash);
+        String removedKey = null;
+        V removedValue = null;
+        PowerAuthCacheEvictionCause removalCause = null;
+        synchronized (segment) {
+            final ByteBuffer buffer = segment.buffer;
+            final int bucket = bucketOffset(hash);
+            int slot = findSlot(buffer, bucket, high, low);
+            if (slot >= 0) {
+                if (evictionListener != null) {
+                    removedKey = key;
+                    removedValue = codec.read(buffer, slot + VALUE_OFFSET);
+                    removalCause = PowerAuthCacheEvictionCause.EXPLICIT;
+                }
+            } else {
+                slot = selectSlot(buffer, bucket, now);
+                if (buffer.getLong(slot + EXPIRATION_OFFSET) == 0L) {
+                    size.incrementAndGet();
+                } else {
+                    removalCause = buffer.getLong(slot + EXPIRATION_OFFSET) < now ? PowerAuthCacheEvictionCause.EXPIRED : PowerAuthCacheEvictionCause.SIZE;
+                    if (removalCause == PowerAuthCacheEvictionCause.EXPIRED) {
+                        expirationCount.incrementAndGet();
+                    } else {
+                        evictionCount.incrementAndGet();
+                    }
+                    if (evictionListener != null) {
+                        removedKey = new java.util.UUID(buffer.getLong(slot + KEY_HIGH_OFFSET), buffer.getLong(slot + KEY_LOW_OFFSET)).toString();
+                        removedValue = codec.read(buffer, slot + VALUE_OFFSET);
+                    }
+                }
+            }
+            clearSlot(buffer, slot);
+            try {
+                codec.write(buffer, slot + VALUE_OFFSET, value);
+                buffer.putLong(slot + KEY_HIGH_OFFSET, high);
+                buffer.putLong(slot + KEY_LOW_OFFSET, low);
+                buffer.putLong(slot + EXPIRATION_OFFSET, expiration);
+                buffer.putLong(slot + ACCESS_OFFSET, ++segment.clock);
+            } catch (IllegalArgumentException ex) {
+                // The slot stays empty, previous entry of the slot was removed
+                logger.debug("Value of key {} cannot be cached: {}", key, ex.getMessage());
+                clearSlot(buffer, slot);
+                size.decrementAndGet();
+            }
+        }
+        if (removedKey != null && removalCause != null) {
+            notifyEviction(removedKey, removedValue, removalCause);
+        }
+    }
+
+    @Override
+    public void invalidate(String key) {
+        if (!isUuid(key)) {
+            return;
+        }
+        final long high = uuidHigh(key);
+        final long low = uuidLow(key);
+        final long hash = hash(high, low);
+        final Segment segment = segmentFor(hash);
+        final V removedValue;
+        synchronized (segment) {
+            final int slot = findSlot(segment.buffer, bucketOffset(hash), high, low);
+            if (slot < 0) {
+                return;
+            }
+            removedValue = evictionListener == null ? null : codec.read(segment.buffer, slot + VALUE_OFFSET);
+            clearSlot(segment.buffer, slot);
+            size.decrementAndGet();
+        }
+        notifyEviction(key, removedValue, PowerAuthCacheEvictionCause.EXPLICIT);
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            final List<String> removedKeys = new ArrayList<>();
+            final List<V> removedValues = new ArrayList<>();
+            synchronized (segment) {
+                final ByteBuffer buffer = segment.buffer;
+                for (int slot = 0; slot < buffer.capacity(); slot += slotSize) {
+                    if (buffer.getLong(slot + EXPIRATION_OFFSET) != 0L) {
+                        if (evictionListener != null) {
+                            removedKeys.add(new java.util.UUID(buffer.getLong(slot + KEY_HIGH_OFFSET), buffer.getLong(slot + KEY_LOW_OFFSET)).toString());
+                            removedValues.add(codec.read(buffer, slot + VALUE_OFFSET));
+                        }
+                        clearSlot(buffer, slot);
+                        size.decrementAndGet();
+                    }
+                }
+            }
+            for (int i = 0; i < removedKeys.size(); i++) {
+                notifyEviction(removedKeys.get(i), removedValues.get(i), PowerAuthCacheEvictionCause.EXPLICIT);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public PowerAuthCacheStats getStats() {
+        return new PowerAuthCacheStats(hitCount.get(), missCount.get(), evictionCount.get(), expirationCount.get(), size.get());
+    }
+
+    @Override
+    public void forEach(PowerAuthCacheEntryVisitor<String, V> visitor) {
+        for (Segment segment : segments) {
+            final List<String> keys = new ArrayList<>();
+            final List<V> values = new ArrayList<>();
+            final List<Long> expirations = new ArrayList<>();
+            synchronized (segment) {
+                final ByteBuffer buffer = segment.buffer;
+                for (int slot = 0; slot < buffer.capacity(); slot += slotSize) {
+                    final long expiration = buffer.getLong(slot + EXPIRATION_OFFSET);
+                    if (expiration != 0L) {
+                        keys.add(new java.util.UUID(buffer.getLong(slot + KEY_HIGH_OFFSET), buffer.getLong(slot + KEY_LOW_OFFSET)).toString());
+                        values.add(codec.read(buffer, slot + VALUE_OFFSET));
+                        expirations.add(expiration);
+                    }
+                }
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                visitor.visit(keys.get(i), values.get(i), expirations.get(i));
+            }
+        }
+    }
+
+    /**
+     * Get read-only views of the segment buffers, used for checking contents of the slots.
+     * @return Segment buffers.
+     */
+    ByteBuffer[] getSegmentBuffers() {
+        final ByteBuffer[] buffers = new ByteBuffer[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            buffers[i] = segments[i].buffer.asReadOnlyBuffer();
+        }
+        return buffers;
+    }
+
+    /**
+     * Find slot of a key within a bucket.
+     * @param buffer Segment buffer.
+     * @param bucket Offset of the bucket.
+     * @param high Most significant bits of the key.
+     * @param low Least significant bits of the key.
+     * @return Offset of the slot or -1 in case the key is not present.
+     */
+    private int findSlot(ByteBuffer buffer, int bucket, long high, long low) {
+        for (int i = 0; i < WAYS; i++) {
+            final int slot = bucket + i * slotSize;
+            if (buffer.getLong(slot + EXPIRATION_OFFSET) != 0L
+                    && buffer.getLong(slot + KEY_HIGH_OFFSET) == high
+                    && buffer.getLong(slot + KEY_LOW_OFFSET) == low) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Select slot for a new entry, preferring empty slots, then expired slots and then the least recently used slot.
+     * @param buffer Segment buffer.
+     * @param bucket Offset of the bucket.
+     * @param now Current time.
+     * @return Offset of the slot.
+     */
+    private int selectSlot(ByteBuffer buffer, int bucket, long now) {
+        int victim = bucket;
+        long victimAccess = Long.MAX_VALUE;
+        for (int i = 0; i < WAYS; i++) {
+            final int slot = bucket + i * slotSize;
+            final long expiration = buffer.getLong(slot + EXPIRATION_OFFSET);
+            if (expiration == 0L) {
+                return slot;
+            }
+            final long access = expiration < now ? Long.MIN_VALUE : buffer.getLong(slot + ACCESS_OFFSET);
+            if (access < victimAccess) {
+                victim = slot;
+                victimAccess = access;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Overwrite a slot with zeros.
+     * @param buffer Segment buffer.
+     * @param slot Offset of the slot.
+     */
+    private void clearSlot(ByteBuffer buffer, int slot) {
+        for (int i = 0; i < slotSize; i += 8) {
+            buffer.putLong(slot + i, 0L);
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> segmentShift) & (segments.length - 1)];
+    }
+
+    private int bucketOffset(long hash) {
+        return ((int) hash & bucketMask) * WAYS * slotSize;
+    }
+
+    /**
+     * Notify eviction listener about a removed value.
+     * @param key Key.
+     * @param value Removed value.
+     * @param cause Cause of the removal.
+     */
+    private void notifyEviction(String key, V value, PowerAuthCacheEvictionCause cause) {
+        if (evictionListener == null) {
+            return;
+        }
+        try {
+            evictionListener.onEviction(key, value, cause);
+        } catch (RuntimeException ex) {
+            logger.warn("Cache eviction listener failed", ex);
+        }
+    }
+
+    /**
+     * Mix bits of the key using the finalizer of MurmurHash3.
+     * @param high Most significant bits of the key.
+     * @param low Least significant bits of the key.
+     * @return Hash of the key.
+     */
+    static long hash(long high, long low) {
+        long h = high ^ Long.rotateLeft(low, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Check whether the value is a UUID in the canonical form.
+     * @param value UUID value.
+     * @return True in case the value is a valid UUID.
+     */
+    static boolean isUuid(String value) {
+        if (value == null || value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            final char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (hexDigit(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get most significant bits of a UUID without creating intermediate objects.
+     * @param value UUID value validated using {@link #isUuid(String)}.
+     * @return Most significant bits of the UUID.
+     */
+    static long uuidHigh(String value) {
+        return parseHex(value, 0, 18);
+    }
+
+    /**
+     * Get least significant bits of a UUID without creating intermediate objects.
+     * @param value UUID value validated using {@link #isUuid(String)}.
+     * @return Least significant bits of the UUID.
+     */
+    static long uuidLow(String value) {
+        return parseHex(value, 19, 36);
+    }
+
+    /**
+     * Parse hexadecimal digits of a UUID in the given range, dashes are skipped.
+     * @param value UUID value.
+     * @param start Start index, inclusive.
+     * @param end End index, exclusive.
+     * @return Parsed bits.
+     */
+    private static long parseHex(String value, int start, int end) {
+        long result = 0L;
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if (c != '-') {
+                result = (result << 4) | hexDigit(c);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get value of an ASCII hexadecimal digit. Unlike {@link Character#digit(char, int)}, digits and letters
+     * of other scripts, e.g. fullwidth forms, are not accepted.
+     * @param c Character.
+     * @return Value of the digit, -1 in case the character is not an ASCII hexadecimal digit.
+     */
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Segment of buckets guarded by its own lock.
+     */
+    private static class Segment {
+
+        private final ByteBuffer buffer;
+        private long clock;
+
+        Segment(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Factory which stores caches with UUID keys and fixed size values outside of the heap.
+ *
+ * <p>Caches of activation states and token activations are stored in {@link PowerAuthOffHeapCache} instances
+ * by default, codecs for other caches may be registered using {@link #registerCodec(String, PowerAuthOffHeapValueCodec)}.
+ * Caches without a registered codec are created by the fallback factory.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthOffHeapCacheFactory implements PowerAuthCacheFactory {
+
+    private final PowerAuthCacheFactory fallbackFactory;
+
+    private final Map<String, PowerAuthOffHeapValueCodec<?>> codecs = new HashMap<>();
+
+    /**
+     * Default constructor, caches without a registered codec are stored in the in-heap W-TinyLFU caches.
+     */
+    public PowerAuthOffHeapCacheFactory() {
+        this(new PowerAuthTinyLfuCacheFactory());
+    }
+
+    /**
+     * Constructor with fallback factory.
+     * @param fallbackFactory Factory of caches without a registered codec.
+     */
+    public PowerAuthOffHeapCacheFactory(PowerAuthCacheFactory fallbackFactory) {
+        this.fallbackFactory = fallbackFactory;
+        codecs.put(PowerAuthActivationStateCache.ACTIVATION_STATE_CACHE, PowerAuthOffHeapValueCodec.ACTIVATION_STATE);
+        codecs.put(PowerAuthActivationStateCache.TOKEN_ACTIVATION_CACHE, PowerAuthOffHeapValueCodec.UUID);
+    }
+
+    /**
+     * Register codec of values of a cache, the cache keys must be UUIDs.
+     * @param name Name of the cache.
+     * @param codec Codec of cached values.
+     */
+    public synchronized void registerCodec(String name, PowerAuthOffHeapValueCodec<?> codec) {
+        codecs.put(name, codec);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <K, V> PowerAuthCache<K, V> createCache(String name, PowerAuthCacheConfiguration configuration, PowerAuthCacheEvictionListener<K, V> evictionListener) {
+        final PowerAuthOffHeapValueCodec<V> codec = (PowerAuthOffHeapValueCodec<V>) codecs.get(name);
+        if (codec == null) {
+            return fallbackFactory.createCache(name, configuration, evictionListener);
+        }
+        return (PowerAuthCache<K, V>) new PowerAuthOffHeapCache<>(configuration, codec, (PowerAuthCacheEvictionListener<String, V>) evictionListener);
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codec of values stored in fixed size slots of {@link PowerAuthOffHeapCache}.
+ *
+ * @param <V> Value type.
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public interface PowerAuthOffHeapValueCodec<V> {
+
+    /**
+     * Codec of activation states stored as a single byte.
+     */
+    PowerAuthOffHeapValueCodec<PowerAuthActivationState> ACTIVATION_STATE = new PowerAuthOffHeapValueCodec<PowerAuthActivationState>() {
+
+        private final PowerAuthActivationState[] states = PowerAuthActivationState.values();
+
+        @Override
+        public int getSize() {
+            return 1;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, PowerAuthActivationState value) {
+            buffer.put(offset, (byte) value.ordinal());
+        }
+
+        @Override
+        public PowerAuthActivationState read(ByteBuffer buffer, int offset) {
+            return states[buffer.get(offset)];
+        }
+    };
+
+    /**
+     * Codec of UUID values, e.g. activation IDs, stored as two long values.
+     */
+    PowerAuthOffHeapValueCodec<String> UUID = new PowerAuthOffHeapValueCodec<String>() {
+
+        @Override
+        public int getSize() {
+            return 16;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, String value) {
+            if (!PowerAuthOffHeapCache.isUuid(value)) {
+                throw new IllegalArgumentException("Value is not a UUID");
+            }
+            buffer.putLong(offset, PowerAuthOffHeapCache.uuidHigh(value));
+            buffer.putLong(offset + 8, PowerAuthOffHeapCache.uuidLow(value));
+        }
+
+        @Override
+        public String read(ByteBuffer buffer, int offset) {
+            return new java.util.UUID(buffer.getLong(offset), buffer.getLong(offset + 8)).toString();
+        }
+    };
+
+    /**
+     * Get size of encoded value.
+     * @return Size of encoded value in bytes.
+     */
+    int getSize();
+
+    /**
+     * Write encoded value into the buffer.
+     * @param buffer Buffer.
+     * @param offset Offset of the value in the buffer.
+     * @param value Value to write.
+     * @throws IllegalArgumentException In case the value cannot be encoded.
+     */
+    void write(ByteBuffer buffer, int offset, V value);
+
+    /**
+     * Read encoded value from the buffer.
+     * @param buffer Buffer.
+     * @param offset Offset of the value in the buffer.
+     * @return Decoded value.
+     */
+    V read(ByteBuffer buffer, int offset);
+
+}
@@ -0,0 +1,512 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-heap cache with W-TinyLFU eviction policy.
+ *
+ * <p>New values are stored in a small LRU window which takes one percent of the cache. Values leaving the window
+ * are admitted into the main space only in case their estimated access frequency is higher than the frequency
+ * of the value which would be evicted from the main space, so that one-time keys do not displace frequently used
+ * ones. The main space is a segmented LRU with probation and protected segments, values accessed in the probation
+ * segment are promoted into the protected segment which takes eighty percent of the main space.</p>
+ *
+ * <p>The cache is split into segments selected by key hash, each segment has its own lock and eviction policy, so that
+ * concurrent reads of different keys rarely contend for the same lock. Each segment holds at least 1024 values,
+ * smaller caches use a single segment. All operations run in constant time under the lock of a segment. Expired
+ * values are removed lazily when accessed or when selected for eviction. Eviction listener is called outside
+ * of the lock.</p>
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthTinyLfuCache<K, V> implements PowerAuthCache<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthTinyLfuCache.class);
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    // Smaller segments would make admission decisions less accurate
+    private static final int MIN_SEGMENT_SIZE = 1024;
+
+    private final long defaultTtl;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    private final PowerAuthCacheEvictionListener<K, V> evictionListener;
+
+    /**
+     * Cache constructor.
+     * @param configuration Cache configuration.
+     * @param evictionListener Eviction listener, null in case evictions should not be reported.
+     */
+    public PowerAuthTinyLfuCache(PowerAuthCacheConfiguration configuration, PowerAuthCacheEvictionListener<K, V> evictionListener) {
+        this(configuration, evictionListener, segmentCount(configuration.getMaximumSize()));
+    }
+
+    /**
+     * Cache constructor with explicit number of segments.
+     * @param configuration Cache configuration.
+     * @param evictionListener Eviction listener, null in case evictions should not be reported.
+     * @param segmentCount Number of segments, must be a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    PowerAuthTinyLfuCache(PowerAuthCacheConfiguration configuration, PowerAuthCacheEvictionListener<K, V> evictionListener, int segmentCount) {
+        if (segmentCount < 1 || Integer.bitCount(segmentCount) != 1) {
+            throw new IllegalArgumentException("Invalid number of segments: " + segmentCount);
+        }
+        final int maximumSize = configuration.getMaximumSize();
+        this.defaultTtl = configuration.getTtl();
+        this.evictionListener = evictionListener;
+        this.segments = (Segment[]) Array.newInstance(Segment.class, segmentCount);
+        this.segmentMask = segmentCount - 1;
+        for (int i = 0; i < segmentCount; i++) {
+            // Remainder of the maximum size is split between the first segments
+            segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        final int hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        put(key, value, defaultTtl);
+    }
+
+    @Override
+    public void put(K key, V value, long ttl) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Cached key and value must not be null");
+        }
+        final long expiration = ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
+        final int hash = hash(key);
+        segmentFor(hash).put(key, hash, value, expiration);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        if (key == null) {
+            return;
+        }
+        segmentFor(hash(key)).invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.invalidateAll();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public PowerAuthCacheStats getStats() {
+        final long[] stats = new long[5];
+        for (Segment segment : segments) {
+            segment.addStats(stats);
+        }
+        return new PowerAuthCacheStats(stats[0], stats[1], stats[2], stats[3], (int) stats[4]);
+    }
+
+    @Override
+    public void forEach(PowerAuthCacheEntryVisitor<K, V> visitor) {
+        for (Segment segment : segments) {
+            segment.forEach(visitor);
+        }
+    }
+
+    /**
+     * Get number of segments used by a cache of given maximum size. Each segment holds at least the minimum segment
+     * size, the number of segments is limited by the number of processors.
+     * @param maximumSize Maximum size of the cache.
+     * @return Number of segments, a power of two.
+     */
+    private static int segmentCount(int maximumSize) {
+        final int maximumSegments = Integer.highestOneBit(4 * Runtime.getRuntime().availableProcessors());
+        final int sizeSegments = Integer.highestOneBit(Math.max(1, maximumSize / MIN_SEGMENT_SIZE));
+        return Math.min(maximumSegments, sizeSegments);
+    }
+
+    private Segment segmentFor(int hash) {
+        // Segment is selected by the upper bits of the hash, the frequency sketch mixes all bits of the hash
+        return segments[(hash >>> 16) & segmentMask];
+    }
+
+    /**
+     * Segment of the cache with its own lock and eviction policy.
+     */
+    private final class Segment {
+
+        private final int windowMaximum;
+        private final int mainMaximum;
+        private final int protectedMaximum;
+
+        private final Map<K, Node<K, V>> data = new HashMap<>();
+        private final NodeList<K, V> window = new NodeList<>();
+        private final NodeList<K, V> probation = new NodeList<>();
+        private final NodeList<K, V> protectedSegment = new NodeList<>();
+        private final FrequencySketch sketch;
+
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+        private long expirationCount;
+
+        Segment(int maximumSize) {
+            this.windowMaximum = Math.max(1, maximumSize / 100);
+            this.mainMaximum = maximumSize - windowMaximum;
+            this.protectedMaximum = (int) (mainMaximum * 0.8);
+            this.sketch = new FrequencySketch(maximumSize);
+        }
+
+        V get(K key, int hash) {
+            final Node<K, V> expired;
+            synchronized (this) {
+                sketch.increment(hash);
+                final Node<K, V> node = data.get(key);
+                if (node == null) {
+                    missCount++;
+                    return null;
+                }
+                if (!node.isExpired(System.currentTimeMillis())) {
+                    hitCount++;
+                    onAccess(node);
+                    return node.value;
+                }
+                removeNode(node);
+                missCount++;
+                expirationCount++;
+                expired = node;
+            }
+            notifyEviction(expired.key, expired.value, PowerAuthCacheEvictionCause.EXPIRED);
+            return null;
+        }
+
+        void put(K key, int hash, V value, long expiration) {
+            final V replacedValue;
+            final List<Node<K, V>> evicted;
+            synchronized (this) {
+                sketch.increment(hash);
+                final Node<K, V> node = data.get(key);
+                if (node != null) {
+                    replacedValue = node.value;
+                    node.value = value;
+                    node.expiration = expiration;
+                    onAccess(node);
+                    evicted = null;
+                } else {
+                    replacedValue = null;
+                    final Node<K, V> newNode = new Node<>(key, value, expiration);
+                    data.put(key, newNode);
+                    newNode.queue = WINDOW;
+                    window.addLast(newNode);
+                    evicted = evict();
+                }
+            }
+            if (replacedValue != null && replacedValue != value) {
+                notifyEviction(key, replacedValue, PowerAuthCacheEvictionCause.EXPLICIT);
+            }
+            if (evicted != null) {
+                final long now = System.currentTimeMillis();
+                for (Node<K, V> node : evicted) {
+                    notifyEviction(node.key, node.value, node.isExpired(now) ? PowerAuthCacheEvictionCause.EXPIRED : PowerAuthCacheEvictionCause.SIZE);
+                }
+            }
+        }
+
+        void invalidate(K key) {
+            final Node<K, V> node;
+            synchronized (this) {
+                node = data.get(key);
+                if (node == null) {
+                    return;
+                }
+                removeNode(node);
+            }
+            notifyEviction(node.key, node.value, PowerAuthCacheEvictionCause.EXPLICIT);
+        }
+
+        void invalidateAll() {
+            final List<Node<K, V>> removed;
+            synchronized (this) {
+                removed = evictionListener == null ? null : new ArrayList<>(data.values());
+                data.clear();
+                window.clear();
+                probation.clear();
+                protectedSegment.clear();
+            }
+            if (removed != null) {
+                for (Node<K, V> node : removed) {
+                    notifyEviction(node.key, node.value, PowerAuthCacheEvictionCause.EXPLICIT);
+                }
+            }
+        }
+
+        synchronized int size() {
+            return data.size();
+        }
+
+        synchronized void addStats(long[] stats) {
+            stats[0] += hitCount;
+            stats[1] += missCount;
+            stats[2] += evictionCount;
+            stats[3] += expirationCount;
+            stats[4] += data.size();
+        }
+
+        void forEach(PowerAuthCacheEntryVisitor<K, V> visitor) {
+            final List<K> keys;
+            final List<V> values;
+            final long[] expirations;
+            synchronized (this) {
+                keys = new ArrayList<>(data.size());
+                values = new ArrayList<>(data.size());
+                expirations = new long[data.size()];
+                for (Node<K, V> node : data.values()) {
+                    expirations[keys.size()] = node.expiration;
+                    keys.add(node.key);
+                    values.add(node.value);
+                }
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                visitor.visit(keys.get(i), values.get(i), expirations[i]);
+            }
+        }
+
+        /**
+         * Update position of an accessed node.
+         * @param node Accessed node.
+         */
+        private void onAccess(Node<K, V> node) {
+            switch (node.queue) {
+                case WINDOW:
+                    window.moveToLast(node);
+                    break;
+                case PROBATION:
+                    probation.remove(node);
+                    node.queue = PROTECTED;
+                    protectedSegment.addLast(node);
+                    if (protectedSegment.size > protectedMaximum) {
+                        final Node<K, V> demoted = protectedSegment.removeFirst();
+                        demoted.queue = PROBATION;
+                        probation.addLast(demoted);
+                    }
+                    break;
+                default:
+                    protectedSegment.moveToLast(node);
+            }
+        }
+
+        /**
+         * Move nodes overflowing the window into the main space and evict nodes which were not admitted.
+         * @return Evicted nodes or null in case no node was evicted.
+         */
+        private List<Node<K, V>> evict() {
+            List<Node<K, V>> evicted = null;
+            final long now = System.currentTimeMillis();
+            while (window.size > windowMaximum) {
+                final Node<K, V> candidate = window.removeFirst();
+                if (probation.size + protectedSegment.size < mainMaximum) {
+                    candidate.queue = PROBATION;
+                    probation.addLast(candidate);
+                    continue;
+                }
+                final Node<K, V> victim = probation.first != null ? probation.first : protectedSegment.first;
+                final Node<K, V> evictedNode;
+                if (victim != null && !candidate.isExpired(now) && (victim.isExpired(now)
+                        || sketch.frequency(hash(candidate.key)) > sketch.frequency(hash(victim.key)))) {
+                    removeNode(victim);
+                    candidate.queue = PROBATION;
+                    probation.addLast(candidate);
+                    evictedNode = victim;
+                } else {
+                    data.remove(candidate.key);
+                    evictedNode = candidate;
+                }
+                if (evictedNode.isExpired(now)) {
+                    expirationCount++;
+                } else {
+                    evictionCount++;
+                }
+                if (evictionListener != null) {
+                    if (evicted == null) {
+                        evicted = new ArrayList<>(1);
+                    }
+                    evicted.add(evictedNode);
+                }
+            }
+            return evicted;
+        }
+
+        /**
+         * Remove a node from the cache.
+         * @param node Node to remove.
+         */
+        private void removeNode(Node<K, V> node) {
+            data.remove(node.key);
+            switch (node.queue) {
+                case WINDOW:
+                    window.remove(node);
+                    break;
+                case PROBATION:
+                    probation.remove(node);
+                    break;
+                default:
+                    protectedSegment.remove(node);
+            }
+        }
+    }
+
+    /**
+     * Notify eviction listener about a removed value.
+     * @param key Key.
+     * @param value Removed value.
+     * @param cause Cause of the removal.
+     */
+    private void notifyEviction(K key, V value, PowerAuthCacheEvictionCause cause) {
+        if (evictionListener == null) {
+            return;
+        }
+        try {
+            evictionListener.onEviction(key, value, cause);
+        } catch (RuntimeException ex) {
+            logger.warn("Cache eviction listener failed", ex);
+        }
+    }
+
+    /**
+     * Spread bits of key hash code.
+     * @param key Key.
+     * @return Hash of the key.
+     */
+    private static int hash(Object key) {
+        final int h = key.hashCode() * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Cached value linked into one of the cache segments.
+     */
+    private static class Node<K, V> {
+
+        private final K key;
+        private V value;
+        private long expiration;
+        private int queue;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        Node(K key, V value, long expiration) {
+            this.key = key;
+            this.value = value;
+            this.expiration = expiration;
+        }
+
+        boolean isExpired(long now) {
+            return expiration < now;
+        }
+    }
+
+    /**
+     * Doubly linked list of nodes ordered from the least recently used node.
+     */
+    private static class NodeList<K, V> {
+
+        private Node<K, V> first;
+        private Node<K, V> last;
+        private int size;
+
+        void addLast(Node<K, V> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        Node<K, V> removeFirst() {
+            final Node<K, V> node = first;
+            remove(node);
+            return node;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            first = null;
+            last = null;
+            size = 0;
+        }
+    }
+
+}
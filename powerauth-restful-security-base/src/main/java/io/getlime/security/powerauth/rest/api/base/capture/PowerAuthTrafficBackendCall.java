@@ -0,0 +1,71 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.capture;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceCallOutcome;
+
+/**
+ * PowerAuth server call made while processing a captured request.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthTrafficBackendCall {
+
+    private final String operation;
+    private final long duration;
+    private final PowerAuthServiceCallOutcome outcome;
+
+    /**
+     * Constructor.
+     * @param operation Operation name, e.g. {@code verifySignature}.
+     * @param duration Duration of the call in nanoseconds.
+     * @param outcome Outcome of the call.
+     */
+    public PowerAuthTrafficBackendCall(String operation, long duration, PowerAuthServiceCallOutcome outcome) {
+        this.operation = operation;
+        this.duration = duration;
+        this.outcome = outcome;
+    }
+
+    /**
+     * Get operation name.
+     * @return Operation name.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Get duration of the call in nanoseconds.
+     * @return Duration in nanoseconds.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get outcome of the call.
+     * @return Call outcome.
+     */
+    public PowerAuthServiceCallOutcome getOutcome() {
+        return outcome;
+    }
+
+}
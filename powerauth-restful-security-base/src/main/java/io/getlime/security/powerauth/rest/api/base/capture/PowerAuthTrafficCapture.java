@@ -0,0 +1,208 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.capture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Capture of anonymized request shapes into a binary traffic log, which can be replayed against another build of
+ * the application to compare performance using a real traffic mix. Request threads only put completed records into
+ * a bounded queue, records are written by a background thread and dropped in case the queue is full. The capture
+ * stops once the maximum file size is reached.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthTrafficCapture implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthTrafficCapture.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final PowerAuthTrafficCaptureConfiguration configuration;
+
+    private final PowerAuthTrafficLogWriter writer;
+
+    private final BlockingQueue<PowerAuthTrafficRecord> queue;
+
+    private final Thread writerThread;
+
+    private final LongAdder writtenRecords = new LongAdder();
+
+    private final LongAdder droppedRecords = new LongAdder();
+
+    private volatile boolean capturing;
+
+    private volatile boolean closed;
+
+    /**
+     * Capture constructor, the traffic log is created and the capture is started in case it is enabled.
+     * @param configuration Traffic capture configuration.
+     * @throws IOException In case the traffic log cannot be created.
+     */
+    public PowerAuthTrafficCapture(PowerAuthTrafficCaptureConfiguration configuration) throws IOException {
+        this.configuration = configuration;
+        if (!configuration.isEnabled()) {
+            this.writer = null;
+            this.queue = null;
+            this.writerThread = null;
+            return;
+        }
+        if (configuration.getFile() == null || configuration.getFile().isEmpty()) {
+            throw new IllegalArgumentException("Traffic log file is not configured");
+        }
+        this.writer = new PowerAuthTrafficLogWriter(Paths.get(configuration.getFile()));
+        this.queue = new ArrayBlockingQueue<>(configuration.getQueueCapacity());
+        this.capturing = true;
+        this.writerThread = new Thread(this::writeRecords, "powerauth-traffic-capture");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("Traffic capture started, writing to {}", configuration.getFile());
+    }
+
+    /**
+     * Whether traffic capture is enabled.
+     * @return True in case traffic capture is enabled.
+     */
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    /**
+     * Whether requests are being captured, the capture stops when the maximum file size is reached, when the log
+     * cannot be written or when the capture is closed.
+     * @return True in case requests are being captured.
+     */
+    public boolean isCapturing() {
+        return capturing;
+    }
+
+    /**
+     * Start capturing a new request.
+     * @return New traffic record or null in case the request is not captured.
+     */
+    public PowerAuthTrafficRecord startRequest() {
+        if (!capturing) {
+            return null;
+        }
+        final double sampleRate = configuration.getSampleRate();
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return null;
+        }
+        final PowerAuthTrafficRecord trafficRecord = new PowerAuthTrafficRecord();
+        trafficRecord.setTimestamp(System.currentTimeMillis());
+        return trafficRecord;
+    }
+
+    /**
+     * Record a completed request, the record is written asynchronously.
+     * @param trafficRecord Traffic record.
+     */
+    public void record(PowerAuthTrafficRecord trafficRecord) {
+        if (trafficRecord == null || !capturing) {
+            return;
+        }
+        if (!queue.offer(trafficRecord)) {
+            droppedRecords.increment();
+        }
+    }
+
+    /**
+     * Get number of records written to the traffic log.
+     * @return Number of written records.
+     */
+    public long getWrittenRecords() {
+        return writtenRecords.sum();
+    }
+
+    /**
+     * Get number of records dropped because the queue was full.
+     * @return Number of dropped records.
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.sum();
+    }
+
+    /**
+     * Stop the capture, write queued records and close the traffic log.
+     */
+    @Override
+    public void close() {
+        if (writerThread == null || closed) {
+            return;
+        }
+        closed = true;
+        final boolean writeQueuedRecords = capturing;
+        capturing = false;
+        try {
+            writerThread.join();
+            if (writeQueuedRecords) {
+                PowerAuthTrafficRecord trafficRecord;
+                while ((trafficRecord = queue.poll()) != null && writer.getSize() < configuration.getMaxFileSize()) {
+                    writer.write(trafficRecord);
+                    writtenRecords.increment();
+                }
+            }
+            writer.close();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            logger.warn("Traffic log could not be closed", ex);
+        }
+        logger.info("Traffic capture stopped, written records: {}, dropped records: {}", getWrittenRecords(), getDroppedRecords());
+    }
+
+    private void writeRecords() {
+        try {
+            // Thread is not interrupted on close, interruption would close the file channel
+            while (!closed) {
+                final PowerAuthTrafficRecord trafficRecord = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (trafficRecord == null) {
+                    writer.flush();
+                    continue;
+                }
+                writer.write(trafficRecord);
+                writtenRecords.increment();
+                if (writer.getSize() >= configuration.getMaxFileSize()) {
+                    capturing = false;
+                    writer.flush();
+                    logger.info("Traffic capture stopped, maximum file size of {} bytes reached", configuration.getMaxFileSize());
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            capturing = false;
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            capturing = false;
+            logger.warn("Traffic log could not be written, capture stopped", ex);
+        }
+    }
+
+}
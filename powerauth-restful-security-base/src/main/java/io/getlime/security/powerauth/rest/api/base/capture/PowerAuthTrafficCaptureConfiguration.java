@@ -0,0 +1,139 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.capture;
+
+/**
+ * Configuration of traffic capture.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthTrafficCaptureConfiguration {
+
+    /**
+     * Default maximum size of the traffic log in bytes.
+     */
+    public static final long DEFAULT_MAX_FILE_SIZE = 100L * 1024 * 1024;
+
+    /**
+     * Default capacity of the queue of records waiting to be written.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    private boolean enabled;
+
+    private String file;
+
+    private double sampleRate = 1.0;
+
+    private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    /**
+     * Whether traffic capture is enabled.
+     * @return True in case traffic capture is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether traffic capture is enabled.
+     * @param enabled True in case traffic capture should be enabled.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Get path of the traffic log file.
+     * @return Traffic log file path.
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Set path of the traffic log file. An existing file is overwritten.
+     * @param file Traffic log file path.
+     */
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    /**
+     * Get ratio of captured requests.
+     * @return Sample rate between 0 and 1.
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Set ratio of captured requests, requests are chosen randomly.
+     * @param sampleRate Sample rate between 0 and 1.
+     */
+    public void setSampleRate(double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Get maximum size of the traffic log in bytes.
+     * @return Maximum file size in bytes.
+     */
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    /**
+     * Set maximum size of the traffic log in bytes. The capture stops once the size is reached.
+     * @param maxFileSize Maximum file size in bytes.
+     */
+    public void setMaxFileSize(long maxFileSize) {
+        if (maxFileSize <= 0) {
+            throw new IllegalArgumentException("Maximum file size must be positive");
+        }
+        this.maxFileSize = maxFileSize;
+    }
+
+    /**
+     * Get capacity of the queue of records waiting to be written.
+     * @return Queue capacity.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Set capacity of the queue of records waiting to be written. Records are dropped when the queue is full,
+     * so that request threads never wait for the disk.
+     * @param queueCapacity Queue capacity.
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.capture;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceCallOutcome;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+
+/**
+ * Service metrics decorator which records PowerAuth server calls into the traffic record bound to the request
+ * thread and passes the call to the delegate metrics.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthTrafficCaptureServiceMetrics implements PowerAuthServiceMetrics {
+
+    private final PowerAuthServiceMetrics delegate;
+
+    private final PowerAuthTrafficCapture trafficCapture;
+
+    /**
+     * Service metrics constructor.
+     * @param delegate Delegate service metrics.
+     * @param trafficCapture Traffic capture.
+     */
+    public PowerAuthTrafficCaptureServiceMetrics(PowerAuthServiceMetrics delegate, PowerAuthTrafficCapture trafficCapture) {
+        this.delegate = delegate;
+        this.trafficCapture = trafficCapture;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return trafficCapture.isEnabled() || delegate.isEnabled();
+    }
+
+    @Override
+    public long callStarted(String operation) {
+        final long startTime = delegate.callStarted(operation);
+        // Disabled delegate does not provide the start time
+        return delegate.isEnabled() ? startTime : System.nanoTime();
+    }
+
+    @Override
+    public void callCompleted(String operation, long startTime, PowerAuthServiceCallOutcome outcome) {
+        PowerAuthTrafficRecord.backendCallCompleted(operation, System.nanoTime() - startTime, outcome);
+        delegate.callCompleted(operation, startTime, outcome);
+    }
+
+    @Override
+    public void callFailed(String operation, long startTime, Throwable throwable) {
+        PowerAuthTrafficRecord.backendCallCompleted(operation, System.nanoTime() - startTime, PowerAuthServiceCallOutcome.fromException(throwable));
+        delegate.callFailed(operation, startTime, throwable);
+    }
+
+    @Override
+    public void eventRecorded(String event) {
+        delegate.eventRecorded(event);
+    }
+
+}
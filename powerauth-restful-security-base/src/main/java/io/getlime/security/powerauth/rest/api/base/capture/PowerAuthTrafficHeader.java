@@ -0,0 +1,70 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.capture;
+
+import io.getlime.security.powerauth.http.PowerAuthEncryptionHttpHeader;
+import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
+import io.getlime.security.powerauth.http.PowerAuthTokenHttpHeader;
+
+/**
+ * PowerAuth HTTP headers recorded in captured traffic. Only presence of the headers is recorded, never their values.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public enum PowerAuthTrafficHeader {
+
+    /**
+     * Signature HTTP header.
+     */
+    SIGNATURE(PowerAuthSignatureHttpHeader.HEADER_NAME),
+
+    /**
+     * Token HTTP header.
+     */
+    TOKEN(PowerAuthTokenHttpHeader.HEADER_NAME),
+
+    /**
+     * Encryption HTTP header.
+     */
+    ENCRYPTION(PowerAuthEncryptionHttpHeader.HEADER_NAME);
+
+    private final String headerName;
+
+    PowerAuthTrafficHeader(String headerName) {
+        this.headerName = headerName;
+    }
+
+    /**
+     * Get name of the HTTP header.
+     * @return HTTP header name.
+     */
+    public String getHeaderName() {
+        return headerName;
+    }
+
+    /**
+     * Get bit of the header in the header mask of a record.
+     * @return Header bit.
+     */
+    public int getMask() {
+        return 1 << ordinal();
+    }
+
+}
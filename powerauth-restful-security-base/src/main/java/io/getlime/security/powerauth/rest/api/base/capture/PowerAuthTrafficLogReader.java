@@ -0,0 +1,156 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.capture;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceCallOutcome;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reader of the binary traffic log written by {@link PowerAuthTrafficLogWriter}.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthTrafficLogReader implements Closeable {
+
+    private static final PowerAuthServiceCallOutcome[] OUTCOMES = PowerAuthServiceCallOutcome.values();
+
+    private final DataInputStream in;
+    private final List<String> dictionary = new ArrayList<>();
+
+    private long previousTimestamp;
+
+    /**
+     * Open a traffic log.
+     * @param file Traffic log file.
+     * @throws IOException In case the file cannot be read or it is not a traffic log.
+     */
+    public PowerAuthTrafficLogReader(Path file) throws IOException {
+        this(Files.newInputStream(file));
+    }
+
+    /**
+     * Open a traffic log read from an input stream.
+     * @param in Input stream, closed when the reader is closed.
+     * @throws IOException In case the stream cannot be read or it does not contain a traffic log.
+     */
+    public PowerAuthTrafficLogReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        if (this.in.readInt() != PowerAuthTrafficLogWriter.MAGIC) {
+            throw new IOException("Invalid traffic log");
+        }
+        final int version = this.in.readInt();
+        if (version != PowerAuthTrafficLogWriter.VERSION) {
+            throw new IOException("Unsupported traffic log version: " + version);
+        }
+    }
+
+    /**
+     * Read the next record.
+     * @return Traffic record or null at the end of the log.
+     * @throws IOException In case the record cannot be read, e.g. the log is truncated.
+     */
+    public PowerAuthTrafficRecord read() throws IOException {
+        final int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        final PowerAuthTrafficRecord trafficRecord = new PowerAuthTrafficRecord();
+        previousTimestamp += unzigzag(readVarLong(first));
+        trafficRecord.setTimestamp(previousTimestamp);
+        trafficRecord.setMethod(readString());
+        trafficRecord.setEndpoint(readString());
+        trafficRecord.setHeaders((int) readVarLong());
+        trafficRecord.setRequestBodySize(readVarLong());
+        trafficRecord.setResponseBodySize(readVarLong());
+        trafficRecord.setResponseStatus((int) readVarLong());
+        trafficRecord.setAnnotationPath(readString());
+        final long backendCalls = readVarLong();
+        for (long i = 0; i < backendCalls; i++) {
+            final String operation = readString();
+            final long duration = TimeUnit.MICROSECONDS.toNanos(readVarLong());
+            final int outcome = in.readUnsignedByte();
+            if (outcome >= OUTCOMES.length) {
+                throw new IOException("Invalid outcome of PowerAuth server call: " + outcome);
+            }
+            trafficRecord.addBackendCall(new PowerAuthTrafficBackendCall(operation, duration, OUTCOMES[outcome]));
+        }
+        return trafficRecord;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readString() throws IOException {
+        final long code = readVarLong();
+        if (code > 0) {
+            if (code > dictionary.size()) {
+                throw new IOException("Invalid string reference: " + code);
+            }
+            return dictionary.get((int) code - 1);
+        }
+        final String str = in.readUTF();
+        if (dictionary.size() < PowerAuthTrafficLogWriter.MAX_DICTIONARY_SIZE) {
+            dictionary.add(str);
+        }
+        return str;
+    }
+
+    private long readVarLong() throws IOException {
+        final int first = in.read();
+        if (first < 0) {
+            throw new EOFException("Truncated traffic log");
+        }
+        return readVarLong(first);
+    }
+
+    private long readVarLong(int first) throws IOException {
+        long result = first & 0x7F;
+        int b = first;
+        for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+            if (shift > 63) {
+                throw new IOException("Invalid variable length integer");
+            }
+            b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated traffic log");
+            }
+            result |= (long) (b & 0x7F) << shift;
+        }
+        return result;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writer of the binary traffic log. The log starts with a header containing magic number and format version,
+ * records follow without any separators:
+ *
+ * <ul>
+ *     <li>timestamp difference from the previous record in milliseconds (zigzag encoded variable length integer)</li>
+ *     <li>HTTP method, endpoint pattern (strings)</li>
+ *     <li>mask of PowerAuth HTTP headers, request body size, response body size, response status code
+ *     (variable length integers)</li>
+ *     <li>annotation path (string)</li>
+ *     <li>number of PowerAuth server calls (variable length integer) followed by the calls, each call contains
+ *     the operation name (string), duration in microseconds (variable length integer) and outcome (byte)</li>
+ * </ul>
+ *
+ * <p>Strings are stored in a dictionary, the first occurrence of a string is written as code 0 followed by the string
+ * in modified UTF-8, later occurrences are written as the dictionary index increased by one. Since endpoints and
+ * operations repeat, a typical record takes about 20 bytes. The writer is not thread safe.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthTrafficLogWriter implements Closeable {
+
+    /**
+     * Magic number of the traffic log.
+     */
+    static final int MAGIC = 0x50415443;
+
+    /**
+     * Version of the traffic log format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Maximum number of strings in the dictionary, further strings are written inline, so that unexpected values
+     * such as custom HTTP methods cannot grow the dictionary without limits.
+     */
+    static final int MAX_DICTIONARY_SIZE = 10000;
+
+    private final OutputStream out;
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream record = new DataOutputStream(recordBuffer);
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    private long previousTimestamp;
+    private long size;
+
+    /**
+     * Create a new traffic log, an existing file is overwritten.
+     * @param file Traffic log file.
+     * @throws IOException In case the file cannot be created.
+     */
+    public PowerAuthTrafficLogWriter(Path file) throws IOException {
+        this(Files.newOutputStream(file));
+    }
+
+    /**
+     * Create a new traffic log written to an output stream.
+     * @param out Output stream, closed when the writer is closed.
+     * @throws IOException In case the header cannot be written.
+     */
+    public PowerAuthTrafficLogWriter(OutputStream out) throws IOException {
+        this.out = new BufferedOutputStream(out);
+        record.writeInt(MAGIC);
+        record.writeInt(VERSION);
+        flushRecord();
+    }
+
+    /**
+     * Write a record.
+     * @param trafficRecord Traffic record.
+     * @throws IOException In case the record cannot be written.
+     */
+    public void write(PowerAuthTrafficRecord trafficRecord) throws IOException {
+        writeVarLong(zigzag(trafficRecord.getTimestamp() - previousTimestamp));
+        previousTimestamp = trafficRecord.getTimestamp();
+        writeString(trafficRecord.getMethod());
+        writeString(trafficRecord.getEndpoint());
+        writeVarLong(trafficRecord.getHeaders());
+        writeVarLong(Math.max(trafficRecord.getRequestBodySize(), 0));
+        writeVarLong(Math.max(trafficRecord.getResponseBodySize(), 0));
+        writeVarLong(Math.max(trafficRecord.getResponseStatus(), 0));
+        writeString(trafficRecord.getAnnotationPath());
+        final List<PowerAuthTrafficBackendCall> backendCalls = trafficRecord.getBackendCalls();
+        writeVarLong(backendCalls.size());
+        for (PowerAuthTrafficBackendCall backendCall: backendCalls) {
+            writeString(backendCall.getOperation());
+            writeVarLong(Math.max(TimeUnit.NANOSECONDS.toMicros(backendCall.getDuration()), 0));
+            record.writeByte(backendCall.getOutcome().ordinal());
+        }
+        flushRecord();
+    }
+
+    /**
+     * Get number of bytes written so far, including buffered bytes.
+     * @return Size of the traffic log in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Flush buffered records to the file.
+     * @throws IOException In case records cannot be written.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void flushRecord() throws IOException {
+        recordBuffer.writeTo(out);
+        size += recordBuffer.size();
+        recordBuffer.reset();
+    }
+
+    private void writeString(String value) throws IOException {
+        final String str = value != null ? value : "";
+        final Integer index = dictionary.get(str);
+        if (index != null) {
+            writeVarLong(index + 1);
+            return;
+        }
+        writeVarLong(0);
+        record.writeUTF(str);
+        if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+            dictionary.put(str, dictionary.size());
+        }
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            record.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        record.writeByte((int) remaining);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+}
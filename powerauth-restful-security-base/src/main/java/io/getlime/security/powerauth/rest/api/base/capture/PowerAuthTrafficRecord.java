@@ -0,0 +1,246 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.capture;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceCallOutcome;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Anonymized shape of a captured request. Only the request mapping, presence of PowerAuth HTTP headers, sizes of
+ * bodies, PowerAuth annotations of the handler and durations of PowerAuth server calls are recorded, request paths,
+ * header values and bodies are never recorded.
+ *
+ * <p>The request filter binds the record to the request thread, so that PowerAuth server calls can be recorded
+ * using {@link #backendCallCompleted(String, long, PowerAuthServiceCallOutcome)} without access to the request.
+ * The record is not thread safe, the request needs to be processed by a single thread.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthTrafficRecord {
+
+    private static final ThreadLocal<PowerAuthTrafficRecord> CURRENT = new ThreadLocal<>();
+
+    private long timestamp;
+    private String method;
+    private String endpoint;
+    private int headers;
+    private long requestBodySize;
+    private long responseBodySize;
+    private int responseStatus;
+    private String annotationPath;
+    private List<PowerAuthTrafficBackendCall> backendCalls;
+
+    /**
+     * Get record bound to the current thread.
+     * @return Traffic record or null in case no record is bound.
+     */
+    public static PowerAuthTrafficRecord current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind the record to the current thread.
+     */
+    public void bind() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * Unbind record from the current thread.
+     */
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Record a PowerAuth server call into the record bound to the current thread.
+     * @param operation Operation name.
+     * @param duration Duration of the call in nanoseconds.
+     * @param outcome Outcome of the call.
+     */
+    public static void backendCallCompleted(String operation, long duration, PowerAuthServiceCallOutcome outcome) {
+        final PowerAuthTrafficRecord record = CURRENT.get();
+        if (record != null) {
+            record.addBackendCall(new PowerAuthTrafficBackendCall(operation, duration, outcome));
+        }
+    }
+
+    /**
+     * Get time of the request start in milliseconds since epoch.
+     * @return Request timestamp.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Set time of the request start in milliseconds since epoch.
+     * @param timestamp Request timestamp.
+     */
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Get HTTP method.
+     * @return HTTP method.
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Set HTTP method.
+     * @param method HTTP method.
+     */
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    /**
+     * Get request mapping pattern of the endpoint.
+     * @return Endpoint pattern, empty in case the request was not mapped.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Set request mapping pattern of the endpoint. Use the pattern instead of the request path, so that values of
+     * path variables are not recorded.
+     * @param endpoint Endpoint pattern, empty in case the request was not mapped.
+     */
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Get mask of PowerAuth HTTP headers present in the request.
+     * @return Header mask, see {@link PowerAuthTrafficHeader#getMask()}.
+     */
+    public int getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Set mask of PowerAuth HTTP headers present in the request.
+     * @param headers Header mask, see {@link PowerAuthTrafficHeader#getMask()}.
+     */
+    public void setHeaders(int headers) {
+        this.headers = headers;
+    }
+
+    /**
+     * Whether a PowerAuth HTTP header is present in the request.
+     * @param header PowerAuth HTTP header.
+     * @return True in case the header is present.
+     */
+    public boolean hasHeader(PowerAuthTrafficHeader header) {
+        return (headers & header.getMask()) != 0;
+    }
+
+    /**
+     * Get size of the request body in bytes.
+     * @return Request body size.
+     */
+    public long getRequestBodySize() {
+        return requestBodySize;
+    }
+
+    /**
+     * Set size of the request body in bytes.
+     * @param requestBodySize Request body size.
+     */
+    public void setRequestBodySize(long requestBodySize) {
+        this.requestBodySize = requestBodySize;
+    }
+
+    /**
+     * Get size of the response body in bytes.
+     * @return Response body size.
+     */
+    public long getResponseBodySize() {
+        return responseBodySize;
+    }
+
+    /**
+     * Set size of the response body in bytes.
+     * @param responseBodySize Response body size.
+     */
+    public void setResponseBodySize(long responseBodySize) {
+        this.responseBodySize = responseBodySize;
+    }
+
+    /**
+     * Get HTTP status code of the response.
+     * @return Response status code.
+     */
+    public int getResponseStatus() {
+        return responseStatus;
+    }
+
+    /**
+     * Set HTTP status code of the response.
+     * @param responseStatus Response status code.
+     */
+    public void setResponseStatus(int responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    /**
+     * Get PowerAuth annotations of the request handler, e.g. {@code @PowerAuth @PowerAuthEncryption(ACTIVATION_SCOPE)}.
+     * @return Annotation path, empty in case the handler has no PowerAuth annotations.
+     */
+    public String getAnnotationPath() {
+        return annotationPath;
+    }
+
+    /**
+     * Set PowerAuth annotations of the request handler.
+     * @param annotationPath Annotation path, empty in case the handler has no PowerAuth annotations.
+     */
+    public void setAnnotationPath(String annotationPath) {
+        this.annotationPath = annotationPath;
+    }
+
+    /**
+     * Get PowerAuth server calls made while processing the request.
+     * @return Unmodifiable list of PowerAuth server calls.
+     */
+    public List<PowerAuthTrafficBackendCall> getBackendCalls() {
+        return backendCalls != null ? Collections.unmodifiableList(backendCalls) : Collections.emptyList();
+    }
+
+    /**
+     * Add a PowerAuth server call made while processing the request.
+     * @param backendCall PowerAuth server call.
+     */
+    public void addBackendCall(PowerAuthTrafficBackendCall backendCall) {
+        if (backendCalls == null) {
+            // Most requests make a single PowerAuth server call
+            backendCalls = new ArrayList<>(2);
+        }
+        backendCalls.add(backendCall);
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.degraded;
+
+/**
+ * Configuration of the degraded mode of token validation.
+ *
+ * <p>When the degraded mode is enabled and the PowerAuth server is not reachable, tokens which were
+ * successfully validated by the PowerAuth server within the grace window are accepted without calling
+ * the server. Token digest cannot be verified locally, so the degraded mode is disabled by default.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthDegradedModeConfiguration {
+
+    /**
+     * Default grace window in milliseconds.
+     */
+    public static final long DEFAULT_GRACE_WINDOW = 60000L;
+
+    /**
+     * Default maximum number of remembered validated tokens.
+     */
+    public static final int DEFAULT_MAX_VALIDATED_TOKENS = 100000;
+
+    /**
+     * Default maximum number of remembered nonces of tokens accepted in degraded mode.
+     */
+    public static final int DEFAULT_MAX_NONCES = 1000000;
+
+    private boolean enabled;
+
+    private long graceWindow = DEFAULT_GRACE_WINDOW;
+
+    private int maxValidatedTokens = DEFAULT_MAX_VALIDATED_TOKENS;
+
+    private int maxNonces = DEFAULT_MAX_NONCES;
+
+    /**
+     * Whether degraded mode is enabled.
+     * @return True in case degraded mode is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether degraded mode is enabled.
+     * @param enabled True in case degraded mode should be enabled.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Get grace window, i.e. maximum age of last successful token validation and maximum difference
+     * between token timestamp and current time for tokens accepted in degraded mode.
+     * @return Grace window in milliseconds.
+     */
+    public long getGraceWindow() {
+        return graceWindow;
+    }
+
+    /**
+     * Set grace window, i.e. maximum age of last successful token validation and maximum difference
+     * between token timestamp and current time for tokens accepted in degraded mode.
+     * @param graceWindow Grace window in milliseconds.
+     */
+    public void setGraceWindow(long graceWindow) {
+        if (graceWindow <= 0) {
+            throw new IllegalArgumentException("Grace window must be positive");
+        }
+        this.graceWindow = graceWindow;
+    }
+
+    /**
+     * Get maximum number of remembered validated tokens.
+     * @return Maximum number of remembered validated tokens.
+     */
+    public int getMaxValidatedTokens() {
+        return maxValidatedTokens;
+    }
+
+    /**
+     * Set maximum number of remembered validated tokens, least recently validated tokens are forgotten first.
+     * @param maxValidatedTokens Maximum number of remembered validated tokens.
+     */
+    public void setMaxValidatedTokens(int maxValidatedTokens) {
+        if (maxValidatedTokens <= 0) {
+            throw new IllegalArgumentException("Maximum number of validated tokens must be positive");
+        }
+        this.maxValidatedTokens = maxValidatedTokens;
+    }
+
+    /**
+     * Get maximum number of remembered nonces of tokens accepted in degraded mode.
+     * @return Maximum number of remembered nonces.
+     */
+    public int getMaxNonces() {
+        return maxNonces;
+    }
+
+    /**
+     * Set maximum number of remembered nonces of tokens accepted in degraded mode. Nonces are remembered for twice
+     * the grace window, tokens are refused in degraded mode once the maximum is reached, so that the replay window
+     * is never shortened.
+     * @param maxNonces Maximum number of remembered nonces.
+     */
+    public void setMaxNonces(int maxNonces) {
+        if (maxNonces <= 0) {
+            throw new IllegalArgumentException("Maximum number of nonces must be positive");
+        }
+        this.maxNonces = maxNonces;
+    }
+
+}
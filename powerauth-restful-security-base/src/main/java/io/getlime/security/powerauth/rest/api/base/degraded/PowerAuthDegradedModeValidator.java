@@ -0,0 +1,267 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.degraded;
+
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthCacheConfiguration;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthCacheFactory;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthTinyLfuCacheFactory;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthNoopServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceEvent;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceRegistration;
+import io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStore;
+import io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStoreConfiguration;
+import io.getlime.security.powerauth.rest.api.base.token.PowerAuthTokenIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validator of tokens used when the PowerAuth server is not reachable.
+ *
+ * <p>Authentication providers record every token successfully validated by the PowerAuth server. In case
+ * the PowerAuth server fails to respond, the token is accepted in case it was validated within the grace
+ * window, its timestamp is within the grace window and its nonce was not used before. In case the nonce cannot
+ * be remembered for the whole replay window because the nonce store is full, the token is rejected. Every decision
+ * is written into the audit log, which uses the logger name of this class with the <code>.audit</code> suffix, and
+ * recorded as an event in service metrics, see {@link PowerAuthServiceEvent}. Token IDs are masked in the
+ * audit log, see {@link PowerAuthTokenIds#mask(String)}.</p>
+ *
+ * <p>Degraded mode skips verification of the token digest, authentication providers therefore use the validator
+ * only for endpoints which explicitly allow it.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthDegradedModeValidator {
+
+    private static final Logger auditLogger = LoggerFactory.getLogger(PowerAuthDegradedModeValidator.class.getName() + ".audit");
+
+    private final PowerAuthDegradedModeConfiguration configuration;
+
+    private final PowerAuthCache<String, PowerAuthValidatedToken> validatedTokens;
+
+    private final PowerAuthNonceStore nonceStore;
+
+    private final AtomicLong backendFailureCount = new AtomicLong();
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong replayCount = new AtomicLong();
+    private final AtomicLong capacityExceededCount = new AtomicLong();
+
+    private PowerAuthServiceMetrics serviceMetrics = new PowerAuthNoopServiceMetrics();
+
+    /**
+     * Validator constructor, validated tokens are stored in the default in-heap cache.
+     * @param configuration Degraded mode configuration.
+     */
+    public PowerAuthDegradedModeValidator(PowerAuthDegradedModeConfiguration configuration) {
+        this(configuration, new PowerAuthTinyLfuCacheFactory());
+    }
+
+    /**
+     * Validator constructor.
+     * @param configuration Degraded mode configuration.
+     * @param cacheFactory Factory of the cache used for storing validated tokens.
+     */
+    public PowerAuthDegradedModeValidator(PowerAuthDegradedModeConfiguration configuration, PowerAuthCacheFactory cacheFactory) {
+        this.configuration = configuration;
+        final int maxValidatedTokens = configuration.getMaxValidatedTokens();
+        // Validated tokens expire once the grace window passes
+        this.validatedTokens = cacheFactory.createCache("degradedModeTokens",
+                new PowerAuthCacheConfiguration(maxValidatedTokens, configuration.getGraceWindow()));
+        // Accepted token timestamps may differ from current time by the grace window in both directions
+        final PowerAuthNonceStoreConfiguration nonceStoreConfiguration = new PowerAuthNonceStoreConfiguration();
+        nonceStoreConfiguration.setEnabled(true);
+        nonceStoreConfiguration.setWindow(2 * configuration.getGraceWindow());
+        nonceStoreConfiguration.setMaxNonces(configuration.getMaxNonces());
+        this.nonceStore = new PowerAuthNonceStore(nonceStoreConfiguration);
+    }
+
+    /**
+     * Whether degraded mode is enabled.
+     * @return True in case degraded mode is enabled.
+     */
+    public boolean isEnabled() {
+        return configuration.isEnabled();
+    }
+
+    /**
+     * Set service metrics used for recording decisions made in degraded mode.
+     * @param serviceMetrics Service metrics.
+     */
+    public void setServiceMetrics(PowerAuthServiceMetrics serviceMetrics) {
+        this.serviceMetrics = serviceMetrics;
+    }
+
+    /**
+     * Check whether a PowerAuth server call failed because the server was not reachable or did not respond in time,
+     * for example due to a refused connection or a socket timeout. Errors reported by the PowerAuth server, such as
+     * SOAP faults, are not connectivity failures and tokens must not be accepted in degraded mode in such case.
+     * @param throwable Exception thrown by the PowerAuth server client.
+     * @return True in case the exception or any of its causes is an I/O exception other than a remote exception,
+     * which wraps SOAP faults in the Axis2 client.
+     */
+    public static boolean isConnectivityFailure(Throwable throwable) {
+        Throwable cause = throwable;
+        for (int depth = 0; cause != null && depth < 16; depth++) {
+            if (cause instanceof IOException && !(cause instanceof RemoteException)) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * Record a token which was successfully validated by the PowerAuth server.
+     * @param validatedToken Validated token.
+     */
+    public void tokenValidated(PowerAuthValidatedToken validatedToken) {
+        if (!isEnabled()) {
+            return;
+        }
+        validatedTokens.put(validatedToken.getTokenId(), validatedToken);
+    }
+
+    /**
+     * Forget a token which was rejected by the PowerAuth server.
+     * @param tokenId Token ID.
+     */
+    public void tokenRejected(String tokenId) {
+        if (!isEnabled()) {
+            return;
+        }
+        validatedTokens.invalidate(tokenId);
+    }
+
+    /**
+     * Validate a token in degraded mode, used when the PowerAuth server is not reachable.
+     * @param tokenId Token ID.
+     * @param nonce Token nonce.
+     * @param timestamp Token timestamp in milliseconds.
+     * @return Last successful validation of the token in case the token is accepted, null otherwise.
+     */
+    public PowerAuthValidatedToken validateToken(String tokenId, String nonce, String timestamp) {
+        backendFailureCount.incrementAndGet();
+        serviceMetrics.eventRecorded(PowerAuthServiceEvent.DEGRADED_MODE_BACKEND_FAILURE);
+        if (!isEnabled()) {
+            return null;
+        }
+        final long now = System.currentTimeMillis();
+        final long graceWindow = configuration.getGraceWindow();
+
+        final PowerAuthValidatedToken validatedToken = validatedTokens.get(tokenId);
+        if (validatedToken == null) {
+            return reject(tokenId, "token was not validated recently");
+        }
+        if (now - validatedToken.getValidationTimestamp() > graceWindow) {
+            return reject(tokenId, "grace window expired");
+        }
+
+        final long tokenTimestamp;
+        try {
+            tokenTimestamp = Long.parseLong(timestamp);
+        } catch (NumberFormatException ex) {
+            return reject(tokenId, "invalid timestamp");
+        }
+        if (Math.abs(now - tokenTimestamp) > graceWindow) {
+            return reject(tokenId, "timestamp outside of grace window");
+        }
+
+        final PowerAuthNonceRegistration registration = nonceStore.registerWithinWindow(PowerAuthNonceStore.SCOPE_TOKEN, tokenId, nonce);
+        if (registration == PowerAuthNonceRegistration.REPLAYED) {
+            replayCount.incrementAndGet();
+            serviceMetrics.eventRecorded(PowerAuthServiceEvent.DEGRADED_MODE_REPLAYED);
+            return reject(tokenId, "nonce was already used");
+        }
+        if (registration == PowerAuthNonceRegistration.CAPACITY_EXCEEDED) {
+            capacityExceededCount.incrementAndGet();
+            serviceMetrics.eventRecorded(PowerAuthServiceEvent.DEGRADED_MODE_CAPACITY_EXCEEDED);
+            return reject(tokenId, "nonce store is full");
+        }
+
+        acceptedCount.incrementAndGet();
+        serviceMetrics.eventRecorded(PowerAuthServiceEvent.DEGRADED_MODE_ACCEPTED);
+        auditLogger.info("Token accepted in degraded mode, token ID: {}, activation ID: {}, validated before: {} ms",
+                PowerAuthTokenIds.mask(tokenId), validatedToken.getActivationId(), now - validatedToken.getValidationTimestamp());
+        return validatedToken;
+    }
+
+    /**
+     * Get number of token validations which failed due to PowerAuth server error.
+     * @return Number of failed token validations.
+     */
+    public long getBackendFailureCount() {
+        return backendFailureCount.get();
+    }
+
+    /**
+     * Get number of tokens accepted in degraded mode.
+     * @return Number of accepted tokens.
+     */
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    /**
+     * Get number of tokens rejected in degraded mode, including replayed tokens.
+     * @return Number of rejected tokens.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Get number of tokens rejected in degraded mode due to nonce reuse.
+     * @return Number of replayed tokens.
+     */
+    public long getReplayCount() {
+        return replayCount.get();
+    }
+
+    /**
+     * Get number of tokens rejected in degraded mode because their nonces could not be remembered.
+     * @return Number of tokens rejected due to full nonce store.
+     */
+    public long getCapacityExceededCount() {
+        return capacityExceededCount.get();
+    }
+
+    /**
+     * Reject a token in degraded mode.
+     * @param tokenId Token ID.
+     * @param reason Reason of rejection.
+     * @return Null value.
+     */
+    private PowerAuthValidatedToken reject(String tokenId, String reason) {
+        rejectedCount.incrementAndGet();
+        serviceMetrics.eventRecorded(PowerAuthServiceEvent.DEGRADED_MODE_REJECTED);
+        auditLogger.info("Token rejected in degraded mode, token ID: {}, reason: {}", PowerAuthTokenIds.mask(tokenId), reason);
+        return null;
+    }
+
+}
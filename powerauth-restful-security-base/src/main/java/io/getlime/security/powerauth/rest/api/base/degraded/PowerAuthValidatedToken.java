@@ -0,0 +1,104 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.degraded;
+
+import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
+
+/**
+ * Record of a token which was successfully validated by the PowerAuth server.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthValidatedToken {
+
+    private final String tokenId;
+    private final String activationId;
+    private final String userId;
+    private final Long applicationId;
+    private final PowerAuthSignatureTypes signatureFactors;
+    private final long validationTimestamp;
+
+    /**
+     * Constructor with all details of validated token.
+     * @param tokenId Token ID.
+     * @param activationId Activation ID.
+     * @param userId User ID.
+     * @param applicationId Application ID.
+     * @param signatureFactors Signature factors used when the token was created.
+     * @param validationTimestamp Timestamp of successful validation in milliseconds.
+     */
+    public PowerAuthValidatedToken(String tokenId, String activationId, String userId, Long applicationId, PowerAuthSignatureTypes signatureFactors, long validationTimestamp) {
+        this.tokenId = tokenId;
+        this.activationId = activationId;
+        this.userId = userId;
+        this.applicationId = applicationId;
+        this.signatureFactors = signatureFactors;
+        this.validationTimestamp = validationTimestamp;
+    }
+
+    /**
+     * Get token ID.
+     * @return Token ID.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * Get activation ID.
+     * @return Activation ID.
+     */
+    public String getActivationId() {
+        return activationId;
+    }
+
+    /**
+     * Get user ID.
+     * @return User ID.
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Get application ID.
+     * @return Application ID.
+     */
+    public Long getApplicationId() {
+        return applicationId;
+    }
+
+    /**
+     * Get signature factors used when the token was created.
+     * @return Signature factors.
+     */
+    public PowerAuthSignatureTypes getSignatureFactors() {
+        return signatureFactors;
+    }
+
+    /**
+     * Get timestamp of successful validation.
+     * @return Timestamp of successful validation in milliseconds.
+     */
+    public long getValidationTimestamp() {
+        return validationTimestamp;
+    }
+
+}
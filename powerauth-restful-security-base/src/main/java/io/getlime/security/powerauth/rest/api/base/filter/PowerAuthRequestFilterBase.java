@@ -24,6 +24,8 @@ import io.getlime.security.powerauth.http.PowerAuthRequestCanonizationUtils;
 import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestBody;
 import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestObjects;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestPhase;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
@@ -45,6 +47,15 @@ public class PowerAuthRequestFilterBase {
      * @throws IOException In case request body extraction fails.
      */
     public static ResettableStreamHttpServletRequest filterRequest(HttpServletRequest httpRequest) throws IOException {
+        final long phaseStart = PowerAuthRequestTiming.phaseStarted();
+        try {
+            return extractRequestBody(httpRequest);
+        } finally {
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.BODY_BUFFERING, phaseStart);
+        }
+    }
+
+    private static ResettableStreamHttpServletRequest extractRequestBody(HttpServletRequest httpRequest) throws IOException {
         ResettableStreamHttpServletRequest resettableRequest = new ResettableStreamHttpServletRequest(httpRequest);
 
         if (httpRequest.getHeader(PowerAuthSignatureHttpHeader.HEADER_NAME) == null && httpRequest.getHeader(PowerAuthEncryptionHttpHeader.HEADER_NAME) == null) {
@@ -0,0 +1,107 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.filter;
+
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * HTTP servlet response wrapper which completes the request handler timing once the response body starts to be
+ * written and optionally adds the Server-Timing HTTP header before the response is committed.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthServerTimingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final PowerAuthRequestTiming timing;
+
+    private final boolean serverTimingHeaderEnabled;
+
+    private boolean responseStarted;
+
+    /**
+     * Response wrapper constructor.
+     * @param response HTTP servlet response.
+     * @param timing Request timing.
+     * @param serverTimingHeaderEnabled Whether Server-Timing HTTP header should be added.
+     */
+    public PowerAuthServerTimingResponseWrapper(HttpServletResponse response, PowerAuthRequestTiming timing, boolean serverTimingHeaderEnabled) {
+        super(response);
+        this.timing = timing;
+        this.serverTimingHeaderEnabled = serverTimingHeaderEnabled;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        responseStarted();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        responseStarted();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        responseStarted();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        responseStarted();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        responseStarted();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        responseStarted();
+        super.sendRedirect(location);
+    }
+
+    /**
+     * Complete the request handler timing and add the Server-Timing HTTP header unless the response
+     * is already committed. Repeated calls are ignored.
+     */
+    public void responseStarted() {
+        if (responseStarted) {
+            return;
+        }
+        responseStarted = true;
+        timing.handlerCompleted();
+        if (serverTimingHeaderEnabled && !isCommitted()) {
+            setHeader(PowerAuthRequestTiming.SERVER_TIMING_HEADER, timing.toServerTimingHeader());
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.invalidation;
+
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationState;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCache;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeValidator;
+
+/**
+ * Invalidator of integration caches on all nodes of a cluster. Changes of activations and tokens are applied
+ * to caches of this node and published using the broadcaster, events received from other nodes are applied
+ * to caches of this node. Caches which are not used by the application may be omitted.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthCacheInvalidator implements PowerAuthInvalidationListener {
+
+    private final PowerAuthInvalidationBroadcaster broadcaster;
+    private final PowerAuthActivationStateCache activationStateCache;
+    private final PowerAuthActivationStatusCache activationStatusCache;
+    private final PowerAuthDegradedModeValidator degradedModeValidator;
+
+    /**
+     * Invalidator constructor of an invalidator which does not invalidate any caches, used in case the application
+     * does not use any caches.
+     */
+    public PowerAuthCacheInvalidator() {
+        this(new PowerAuthNoopInvalidationBroadcaster(), null, null, null);
+    }
+
+    /**
+     * Invalidator constructor, the invalidator subscribes to events of the broadcaster.
+     * @param broadcaster Invalidation broadcaster.
+     * @param activationStateCache Activation state cache, null in case it is not used.
+     * @param activationStatusCache Activation status cache, null in case it is not used.
+     * @param degradedModeValidator Degraded mode validator, null in case it is not used.
+     */
+    public PowerAuthCacheInvalidator(PowerAuthInvalidationBroadcaster broadcaster, PowerAuthActivationStateCache activationStateCache,
+                                     PowerAuthActivationStatusCache activationStatusCache, PowerAuthDegradedModeValidator degradedModeValidator) {
+        this.broadcaster = broadcaster;
+        this.activationStateCache = activationStateCache;
+        this.activationStatusCache = activationStatusCache;
+        this.degradedModeValidator = degradedModeValidator;
+        broadcaster.subscribe(this);
+    }
+
+    /**
+     * Invalidate cached information about an activation which changed, e.g. after commit or upgrade.
+     * @param activationId Activation ID.
+     */
+    public void activationChanged(String activationId) {
+        invalidate(PowerAuthInvalidationEventType.ACTIVATION_CHANGED, activationId);
+    }
+
+    /**
+     * Invalidate cached information about a removed activation.
+     * @param activationId Activation ID.
+     */
+    public void activationRemoved(String activationId) {
+        invalidate(PowerAuthInvalidationEventType.ACTIVATION_REMOVED, activationId);
+    }
+
+    /**
+     * Invalidate cached information about a removed token.
+     * @param tokenId Token ID.
+     */
+    public void tokenRemoved(String tokenId) {
+        invalidate(PowerAuthInvalidationEventType.TOKEN_REMOVED, tokenId);
+    }
+
+    @Override
+    public void onInvalidation(PowerAuthInvalidationEvent event) {
+        final String id = event.getId();
+        switch (event.getType()) {
+            case ACTIVATION_CHANGED:
+                if (activationStateCache != null) {
+                    activationStateCache.invalidate(id);
+                }
+                if (activationStatusCache != null) {
+                    activationStatusCache.invalidate(id);
+                }
+                break;
+            case ACTIVATION_REMOVED:
+                if (activationStateCache != null) {
+                    activationStateCache.activationStateChanged(id, PowerAuthActivationState.REMOVED);
+                }
+                if (activationStatusCache != null) {
+                    activationStatusCache.invalidate(id);
+                }
+                break;
+            case TOKEN_REMOVED:
+                if (activationStateCache != null) {
+                    activationStateCache.invalidateToken(id);
+                }
+                if (degradedModeValidator != null) {
+                    degradedModeValidator.tokenRejected(id);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Apply an event to caches of this node and publish it to other nodes.
+     * @param type Event type.
+     * @param id Activation ID or token ID, null value is ignored.
+     */
+    private void invalidate(PowerAuthInvalidationEventType type, String id) {
+        if (id == null) {
+            return;
+        }
+        final PowerAuthInvalidationEvent event = new PowerAuthInvalidationEvent(type, id);
+        onInvalidation(event);
+        broadcaster.publish(event);
+    }
+
+}
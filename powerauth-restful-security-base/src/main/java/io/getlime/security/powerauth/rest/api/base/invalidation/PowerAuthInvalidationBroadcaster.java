@@ -0,0 +1,50 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.invalidation;
+
+import java.io.Closeable;
+
+/**
+ * Broadcaster of cache invalidation events between nodes of a cluster. Events published by a node are delivered
+ * to listeners on all other nodes, they are not delivered to listeners of the publishing node.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public interface PowerAuthInvalidationBroadcaster extends Closeable {
+
+    /**
+     * Publish an invalidation event to other nodes.
+     * @param event Invalidation event.
+     */
+    void publish(PowerAuthInvalidationEvent event);
+
+    /**
+     * Subscribe a listener of events received from other nodes.
+     * @param listener Invalidation listener.
+     */
+    void subscribe(PowerAuthInvalidationListener listener);
+
+    /**
+     * Stop receiving and publishing events.
+     */
+    @Override
+    void close();
+
+}
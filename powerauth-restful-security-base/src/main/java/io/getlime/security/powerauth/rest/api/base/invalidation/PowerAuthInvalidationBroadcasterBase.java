@@ -0,0 +1,74 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Base class of broadcasters which exchange events with other nodes. Each broadcaster instance uses a random
+ * node identifier, which is attached to published events so that the node ignores its own events.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public abstract class PowerAuthInvalidationBroadcasterBase implements PowerAuthInvalidationBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthInvalidationBroadcasterBase.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final List<PowerAuthInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void subscribe(PowerAuthInvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Get identifier of this node.
+     * @return Node identifier.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Deliver an event received from a node to subscribed listeners, events of this node are ignored.
+     * @param originNodeId Identifier of the node which published the event.
+     * @param event Invalidation event.
+     */
+    protected void dispatch(String originNodeId, PowerAuthInvalidationEvent event) {
+        if (nodeId.equals(originNodeId)) {
+            return;
+        }
+        for (PowerAuthInvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidation(event);
+            } catch (RuntimeException ex) {
+                logger.warn("Invalidation listener failed, event: {}", event, ex);
+            }
+        }
+    }
+
+}
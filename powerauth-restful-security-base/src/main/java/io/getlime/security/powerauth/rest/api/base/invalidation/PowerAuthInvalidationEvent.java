@@ -0,0 +1,66 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.invalidation;
+
+/**
+ * Cache invalidation event broadcast to other nodes of the cluster.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthInvalidationEvent {
+
+    private final PowerAuthInvalidationEventType type;
+    private final String id;
+
+    /**
+     * Event constructor.
+     * @param type Event type.
+     * @param id Activation ID or token ID, depending on event type.
+     */
+    public PowerAuthInvalidationEvent(PowerAuthInvalidationEventType type, String id) {
+        if (type == null || id == null) {
+            throw new IllegalArgumentException("Event type and ID must not be null");
+        }
+        this.type = type;
+        this.id = id;
+    }
+
+    /**
+     * Get event type.
+     * @return Event type.
+     */
+    public PowerAuthInvalidationEventType getType() {
+        return type;
+    }
+
+    /**
+     * Get activation ID or token ID, depending on event type.
+     * @return Activation ID or token ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return type + ":" + id;
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Broadcaster which exchanges events with other nodes using a database table. Published events are inserted
+ * into the table and each node polls the table for events inserted by other nodes. Events older than
+ * the retention time are deleted from the table.
+ *
+ * <p>The table must contain following columns:</p>
+ * <ul>
+ *     <li><code>id</code> - unique numeric identifier generated by the database</li>
+ *     <li><code>node_id</code> - identifier of the publishing node, 36 characters</li>
+ *     <li><code>event_type</code> - event type, up to 32 characters</li>
+ *     <li><code>target_id</code> - activation ID or token ID, up to 255 characters</li>
+ *     <li><code>created_at</code> - creation time in milliseconds since epoch, numeric</li>
+ * </ul>
+ *
+ * <p>Each poll reads events created since the previous poll minus the poll overlap, so that events committed
+ * late or created on nodes with slightly different clocks are not missed. Events are deduplicated using their
+ * identifiers.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthJdbcInvalidationBroadcaster extends PowerAuthInvalidationBroadcasterBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthJdbcInvalidationBroadcaster.class);
+
+    /**
+     * Default name of the event table.
+     */
+    public static final String DEFAULT_TABLE_NAME = "pa_cache_invalidation";
+
+    /**
+     * Default interval between polls.
+     */
+    public static final long DEFAULT_POLL_INTERVAL = 1000L;
+
+    /**
+     * Default overlap of consecutive polls.
+     */
+    public static final long DEFAULT_POLL_OVERLAP = 10000L;
+
+    /**
+     * Default retention time of events in the table.
+     */
+    public static final long DEFAULT_RETENTION = 3600000L;
+
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    private final DataSource dataSource;
+    private final String insertSql;
+    private final String selectSql;
+    private final String deleteSql;
+    private final long pollOverlap;
+    private final long retention;
+
+    private final ScheduledExecutorService executor;
+
+    // Identifiers and creation times of recently processed events, accessed by the polling thread only
+    private final Map<Long, Long> processedEvents = new HashMap<>();
+
+    private long lastPoll;
+    private long lastCleanup;
+
+    /**
+     * Constructor with default table name, poll interval, poll overlap and retention time.
+     * @param dataSource Data source.
+     */
+    public PowerAuthJdbcInvalidationBroadcaster(DataSource dataSource) {
+        this(dataSource, DEFAULT_TABLE_NAME, DEFAULT_POLL_INTERVAL, DEFAULT_POLL_OVERLAP, DEFAULT_RETENTION);
+    }
+
+    /**
+     * Broadcaster constructor.
+     * @param dataSource Data source.
+     * @param tableName Name of the event table.
+     * @param pollInterval Interval between polls in milliseconds.
+     * @param pollOverlap Overlap of consecutive polls in milliseconds.
+     * @param retention Retention time of events in the table in milliseconds.
+     */
+    public PowerAuthJdbcInvalidationBroadcaster(DataSource dataSource, String tableName, long pollInterval, long pollOverlap, long retention) {
+        if (tableName == null || !TABLE_NAME_PATTERN.matcher(tableName).matches()) {
+            throw new IllegalArgumentException("Invalid table name: " + tableName);
+        }
+        if (pollInterval <= 0 || pollOverlap < 0 || retention <= pollOverlap) {
+            throw new IllegalArgumentException("Invalid poll interval, poll overlap or retention time");
+        }
+        this.dataSource = dataSource;
+        this.insertSql = "INSERT INTO " + tableName + " (node_id, event_type, target_id, created_at) VALUES (?, ?, ?, ?)";
+        this.selectSql = "SELECT id, node_id, event_type, target_id, created_at FROM " + tableName + " WHERE created_at >= ? ORDER BY id";
+        this.deleteSql = "DELETE FROM " + tableName + " WHERE created_at < ?";
+        this.pollOverlap = pollOverlap;
+        this.retention = retention;
+        // Events published before this node started are not relevant
+        this.lastPoll = System.currentTimeMillis();
+        this.lastCleanup = lastPoll;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "powerauth-invalidation-jdbc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::poll, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(PowerAuthInvalidationEvent event) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(insertSql)) {
+            statement.setString(1, getNodeId());
+            statement.setString(2, event.getType().name());
+            statement.setString(3, event.getId());
+            statement.setLong(4, System.currentTimeMillis());
+            statement.executeUpdate();
+        } catch (SQLException ex) {
+            logger.warn("Invalidation event could not be published, event: {}", event, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Read events published by other nodes since the previous poll.
+     */
+    private void poll() {
+        final long now = System.currentTimeMillis();
+        final long from = lastPoll - pollOverlap;
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(selectSql)) {
+                statement.setLong(1, from);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        final long id = resultSet.getLong(1);
+                        if (processedEvents.put(id, resultSet.getLong(5)) != null) {
+                            continue;
+                        }
+                        final PowerAuthInvalidationEventType type;
+                        try {
+                            type = PowerAuthInvalidationEventType.valueOf(resultSet.getString(3));
+                        } catch (IllegalArgumentException ex) {
+                            logger.debug("Unknown invalidation event type: {}", resultSet.getString(3));
+                            continue;
+                        }
+                        dispatch(resultSet.getString(2), new PowerAuthInvalidationEvent(type, resultSet.getString(4)));
+                    }
+                }
+            }
+            lastPoll = now;
+            final Iterator<Long> creationTimes = processedEvents.values().iterator();
+            while (creationTimes.hasNext()) {
+                if (creationTimes.next() < from) {
+                    creationTimes.remove();
+                }
+            }
+            if (now - lastCleanup > pollOverlap) {
+                try (PreparedStatement statement = connection.prepareStatement(deleteSql)) {
+                    statement.setLong(1, now - retention);
+                    statement.executeUpdate();
+                }
+                lastCleanup = now;
+            }
+        } catch (SQLException | RuntimeException ex) {
+            logger.warn("Polling invalidation events failed", ex);
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.MulticastSocket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Broadcaster which exchanges events with other nodes using UDP multicast. Nodes on a single host receive
+ * each other's events as well, so the broadcaster can be tested locally.
+ *
+ * <p>UDP delivery is not guaranteed, events may be lost during network issues. Cached values still expire
+ * after their time to live, so the time to live limits the impact of a lost event.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthMulticastInvalidationBroadcaster extends PowerAuthInvalidationBroadcasterBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthMulticastInvalidationBroadcaster.class);
+
+    /**
+     * Default multicast group address, from the organization-local scope.
+     */
+    public static final String DEFAULT_GROUP_ADDRESS = "239.255.42.42";
+
+    /**
+     * Default multicast port.
+     */
+    public static final int DEFAULT_PORT = 42420;
+
+    private static final String MESSAGE_PREFIX = "PAINV1";
+    private static final int MAX_MESSAGE_SIZE = 512;
+
+    private final InetAddress group;
+    private final int port;
+    private final MulticastSocket socket;
+    private final Thread receiver;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructor with default group address, port and time to live of one hop.
+     * @throws IOException In case the multicast socket cannot be opened.
+     */
+    public PowerAuthMulticastInvalidationBroadcaster() throws IOException {
+        this(DEFAULT_GROUP_ADDRESS, DEFAULT_PORT, 1);
+    }
+
+    /**
+     * Broadcaster constructor.
+     * @param groupAddress Multicast group address.
+     * @param port Multicast port.
+     * @param timeToLive Time to live of multicast packets, i.e. number of network hops.
+     * @throws IOException In case the multicast socket cannot be opened.
+     */
+    public PowerAuthMulticastInvalidationBroadcaster(String groupAddress, int port, int timeToLive) throws IOException {
+        this.group = InetAddress.getByName(groupAddress);
+        if (!group.isMulticastAddress()) {
+            throw new IllegalArgumentException("Not a multicast address: " + groupAddress);
+        }
+        this.port = port;
+        this.socket = new MulticastSocket(port);
+        socket.setTimeToLive(timeToLive);
+        // Loopback is required for delivery to other nodes on the same host, own events are ignored by node ID
+        socket.setLoopbackMode(false);
+        socket.joinGroup(group);
+        this.receiver = new Thread(this::receive, "powerauth-invalidation-multicast");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void publish(PowerAuthInvalidationEvent event) {
+        if (closed) {
+            return;
+        }
+        final byte[] message = (MESSAGE_PREFIX + " " + getNodeId() + " " + event.getType().name() + " " + event.getId()).getBytes(StandardCharsets.UTF_8);
+        if (message.length > MAX_MESSAGE_SIZE) {
+            logger.warn("Invalidation event is too large, event: {}", event);
+            return;
+        }
+        try {
+            socket.send(new DatagramPacket(message, message.length, group, port));
+        } catch (IOException ex) {
+            logger.warn("Invalidation event could not be published, event: {}", event, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            socket.leaveGroup(group);
+        } catch (IOException ex) {
+            logger.debug("Leaving multicast group failed", ex);
+        }
+        socket.close();
+    }
+
+    /**
+     * Receive events until the broadcaster is closed.
+     */
+    private void receive() {
+        final byte[] buffer = new byte[MAX_MESSAGE_SIZE];
+        while (!closed) {
+            final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+            } catch (IOException ex) {
+                if (!closed) {
+                    logger.warn("Receiving invalidation event failed", ex);
+                }
+                continue;
+            }
+            final String[] parts = new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8).split(" ");
+            if (parts.length != 4 || !MESSAGE_PREFIX.equals(parts[0])) {
+                logger.debug("Invalid invalidation message received from: {}", packet.getAddress());
+                continue;
+            }
+            final PowerAuthInvalidationEventType type;
+            try {
+                type = PowerAuthInvalidationEventType.valueOf(parts[2]);
+            } catch (IllegalArgumentException ex) {
+                logger.debug("Unknown invalidation event type received: {}", parts[2]);
+                continue;
+            }
+            dispatch(parts[1], new PowerAuthInvalidationEvent(type, parts[3]));
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.invalidation;
+
+/**
+ * Broadcaster which does not deliver events anywhere, used by default for single node deployments.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthNoopInvalidationBroadcaster implements PowerAuthInvalidationBroadcaster {
+
+    @Override
+    public void publish(PowerAuthInvalidationEvent event) {
+    }
+
+    @Override
+    public void subscribe(PowerAuthInvalidationListener listener) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of a PowerAuth server call.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Name("BackendCall")
+@Label("PowerAuth Backend Call")
+@Category("PowerAuth")
+@Description("Call of PowerAuth server")
+@StackTrace(false)
+public class PowerAuthBackendCallEvent extends Event {
+
+    @Label("Operation")
+    @Description("Operation named after the SOAP request, e.g. verifySignature")
+    String operation;
+
+    @Label("Outcome")
+    String outcome;
+
+}
@@ -0,0 +1,301 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.jfr;
+
+import com.google.common.io.BaseEncoding;
+import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
+import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesEncryption;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceCallOutcome;
+import jdk.jfr.EventType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Emitter of JDK Flight Recorder events of PowerAuth authentication, encryption and PowerAuth server calls.
+ *
+ * <p>Each measured operation obtains an event using one of the {@code *Started} methods and passes it to the matching
+ * {@code *Completed} method. The started methods return null in case Flight Recorder is not available in the JVM,
+ * the event type is disabled in recording settings or events of the current thread are suppressed. Enablement is
+ * checked using the cached event type, so that disabled events are not allocated and event fields such as activation
+ * ID hashes are computed only for events which are committed.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public final class PowerAuthFlightRecorder {
+
+    private static final String OUTCOME_VALID = "VALID";
+    private static final String OUTCOME_INVALID = "INVALID";
+    private static final String OUTCOME_SUCCEEDED = "SUCCEEDED";
+    private static final String OUTCOME_FAILED = "FAILED";
+
+    // Number of bytes of SHA-256 hash included in events, activation IDs are never recorded in plain form
+    private static final int HASH_LENGTH = 8;
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    // Threads processing synthetic workload, e.g. the warm-up, do not emit events
+    private static final ThreadLocal<Boolean> SUPPRESSED = new ThreadLocal<>();
+
+    private PowerAuthFlightRecorder() {
+    }
+
+    /**
+     * Whether Flight Recorder API is available in the JVM.
+     * @return True in case Flight Recorder events can be emitted.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Suppress or resume events emitted by the current thread. Events of synthetic workload such as the warm-up
+     * are suppressed, so that they are not mixed with events of real requests.
+     * @param suppressed Whether events of the current thread are suppressed.
+     */
+    public static void setSuppressed(boolean suppressed) {
+        if (suppressed) {
+            SUPPRESSED.set(Boolean.TRUE);
+        } else {
+            SUPPRESSED.remove();
+        }
+    }
+
+    /**
+     * Whether PowerAuth server call events are enabled in recording settings.
+     * @return True in case PowerAuth server call events are recorded.
+     */
+    public static boolean isBackendCallEnabled() {
+        return AVAILABLE && EventTypes.BACKEND_CALL.isEnabled() && SUPPRESSED.get() == null;
+    }
+
+    /**
+     * Start signature verification event.
+     * @return Started event or null in case the event is disabled.
+     */
+    public static PowerAuthSignatureVerificationEvent signatureVerificationStarted() {
+        if (!AVAILABLE || !EventTypes.SIGNATURE_VERIFICATION.isEnabled() || SUPPRESSED.get() != null) {
+            return null;
+        }
+        final PowerAuthSignatureVerificationEvent event = new PowerAuthSignatureVerificationEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Complete signature verification event.
+     * @param event Event obtained from {@link #signatureVerificationStarted()}.
+     * @param activationId Activation ID.
+     * @param operation Request URI identifier of the signed request.
+     * @param signatureType Signature type.
+     * @param payload Signed request data.
+     * @param valid Whether the signature is valid.
+     */
+    public static void signatureVerificationCompleted(PowerAuthSignatureVerificationEvent event, String activationId, String operation, String signatureType, byte[] payload, boolean valid) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.activationIdHash = hash(activationId);
+            event.operation = operation;
+            event.signatureType = signatureType;
+            event.payloadSize = payload != null ? payload.length : 0;
+            event.outcome = valid ? OUTCOME_VALID : OUTCOME_INVALID;
+            event.commit();
+        }
+    }
+
+    /**
+     * Start token validation event.
+     * @return Started event or null in case the event is disabled.
+     */
+    public static PowerAuthTokenValidationEvent tokenValidationStarted() {
+        if (!AVAILABLE || !EventTypes.TOKEN_VALIDATION.isEnabled() || SUPPRESSED.get() != null) {
+            return null;
+        }
+        final PowerAuthTokenValidationEvent event = new PowerAuthTokenValidationEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Complete token validation event.
+     * @param event Event obtained from {@link #tokenValidationStarted()}.
+     * @param authentication Authentication of a valid token or null in case the token is invalid.
+     */
+    public static void tokenValidationCompleted(PowerAuthTokenValidationEvent event, PowerAuthApiAuthentication authentication) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            if (authentication != null) {
+                event.activationIdHash = hash(authentication.getActivationId());
+                event.signatureType = authentication.getSignatureFactors() != null ? authentication.getSignatureFactors().toString() : null;
+            }
+            event.outcome = authentication != null ? OUTCOME_VALID : OUTCOME_INVALID;
+            event.commit();
+        }
+    }
+
+    /**
+     * Start ECIES decryption event.
+     * @return Started event or null in case the event is disabled.
+     */
+    public static EciesDecryptEvent eciesDecryptStarted() {
+        if (!AVAILABLE || !EventTypes.ECIES_DECRYPT.isEnabled() || SUPPRESSED.get() != null) {
+            return null;
+        }
+        final EciesDecryptEvent event = new EciesDecryptEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Complete ECIES decryption event, the decryption succeeded in case the decrypted request is available.
+     * @param event Event obtained from {@link #eciesDecryptStarted()}.
+     * @param eciesEncryption ECIES encryption object.
+     */
+    public static void eciesDecryptCompleted(EciesDecryptEvent event, PowerAuthEciesEncryption<?> eciesEncryption) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            final byte[] encryptedRequest = eciesEncryption.getEncryptedRequest();
+            final byte[] decryptedRequest = eciesEncryption.getDecryptedRequest();
+            event.activationIdHash = hash(eciesEncryption.getContext().getActivationId());
+            event.operation = eciesEncryption.getContext().getEciesScope() != null ? eciesEncryption.getContext().getEciesScope().name() : null;
+            event.encryptedSize = encryptedRequest != null ? encryptedRequest.length : 0;
+            event.decryptedSize = decryptedRequest != null ? decryptedRequest.length : 0;
+            event.outcome = decryptedRequest != null ? OUTCOME_SUCCEEDED : OUTCOME_FAILED;
+            event.commit();
+        }
+    }
+
+    /**
+     * Start ECIES encryption event.
+     * @return Started event or null in case the event is disabled.
+     */
+    public static EciesEncryptEvent eciesEncryptStarted() {
+        if (!AVAILABLE || !EventTypes.ECIES_ENCRYPT.isEnabled() || SUPPRESSED.get() != null) {
+            return null;
+        }
+        final EciesEncryptEvent event = new EciesEncryptEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Complete ECIES encryption event.
+     * @param event Event obtained from {@link #eciesEncryptStarted()}.
+     * @param eciesEncryption ECIES encryption object.
+     * @param plainSize Size of response data before encryption, negative in case the encryption failed.
+     * @param encryptedSize Size of encrypted response data.
+     */
+    public static void eciesEncryptCompleted(EciesEncryptEvent event, PowerAuthEciesEncryption<?> eciesEncryption, int plainSize, int encryptedSize) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.activationIdHash = hash(eciesEncryption.getContext().getActivationId());
+            event.operation = eciesEncryption.getContext().getEciesScope() != null ? eciesEncryption.getContext().getEciesScope().name() : null;
+            event.plainSize = Math.max(plainSize, 0);
+            event.encryptedSize = encryptedSize;
+            event.outcome = plainSize >= 0 ? OUTCOME_SUCCEEDED : OUTCOME_FAILED;
+            event.commit();
+        }
+    }
+
+    /**
+     * Start PowerAuth server call event.
+     * @return Started event or null in case the event is disabled.
+     */
+    public static PowerAuthBackendCallEvent backendCallStarted() {
+        if (!AVAILABLE || !EventTypes.BACKEND_CALL.isEnabled() || SUPPRESSED.get() != null) {
+            return null;
+        }
+        final PowerAuthBackendCallEvent event = new PowerAuthBackendCallEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Complete PowerAuth server call event.
+     * @param event Event obtained from {@link #backendCallStarted()}.
+     * @param operation Operation name.
+     * @param outcome Call outcome.
+     */
+    public static void backendCallCompleted(PowerAuthBackendCallEvent event, String operation, PowerAuthServiceCallOutcome outcome) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.outcome = outcome.name();
+            event.commit();
+        }
+    }
+
+    /**
+     * Compute truncated SHA-256 hash of a value, so that events can be correlated without exposing identifiers.
+     * @param value Value to hash.
+     * @return Hex encoded hash or null in case value is null.
+     */
+    private static String hash(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return BaseEncoding.base16().lowerCase().encode(digest, 0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Event types used for checking whether events are enabled. The class is initialized only in case Flight
+     * Recorder is available.
+     */
+    private static final class EventTypes {
+
+        private static final EventType SIGNATURE_VERIFICATION = EventType.getEventType(PowerAuthSignatureVerificationEvent.class);
+        private static final EventType TOKEN_VALIDATION = EventType.getEventType(PowerAuthTokenValidationEvent.class);
+        private static final EventType ECIES_DECRYPT = EventType.getEventType(EciesDecryptEvent.class);
+        private static final EventType ECIES_ENCRYPT = EventType.getEventType(EciesEncryptEvent.class);
+        private static final EventType BACKEND_CALL = EventType.getEventType(PowerAuthBackendCallEvent.class);
+
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, PowerAuthFlightRecorder.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.jfr;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceCallOutcome;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+
+/**
+ * Service metrics decorator which emits a Flight Recorder event for each PowerAuth server call and passes the call
+ * to the delegate metrics. PowerAuth server calls are synchronous and never nested, the event of the call in progress
+ * is therefore kept in a thread local variable.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthFlightRecorderServiceMetrics implements PowerAuthServiceMetrics {
+
+    private static final ThreadLocal<PowerAuthBackendCallEvent> CURRENT_CALL = new ThreadLocal<>();
+
+    private final PowerAuthServiceMetrics delegate;
+
+    /**
+     * Service metrics constructor.
+     * @param delegate Delegate service metrics.
+     */
+    public PowerAuthFlightRecorderServiceMetrics(PowerAuthServiceMetrics delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        // Calls are not measured in case the delegate is disabled and the call events are not recorded
+        return delegate.isEnabled() || PowerAuthFlightRecorder.isBackendCallEnabled();
+    }
+
+    @Override
+    public long callStarted(String operation) {
+        final PowerAuthBackendCallEvent event = PowerAuthFlightRecorder.backendCallStarted();
+        if (event != null) {
+            CURRENT_CALL.set(event);
+        }
+        return delegate.callStarted(operation);
+    }
+
+    @Override
+    public void callCompleted(String operation, long startTime, PowerAuthServiceCallOutcome outcome) {
+        completeEvent(operation, outcome);
+        delegate.callCompleted(operation, startTime, outcome);
+    }
+
+    @Override
+    public void callFailed(String operation, long startTime, Throwable throwable) {
+        completeEvent(operation, PowerAuthServiceCallOutcome.fromException(throwable));
+        delegate.callFailed(operation, startTime, throwable);
+    }
+
+    @Override
+    public void eventRecorded(String event) {
+        delegate.eventRecorded(event);
+    }
+
+    private void completeEvent(String operation, PowerAuthServiceCallOutcome outcome) {
+        final PowerAuthBackendCallEvent event = CURRENT_CALL.get();
+        if (event != null) {
+            CURRENT_CALL.remove();
+            PowerAuthFlightRecorder.backendCallCompleted(event, operation, outcome);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of PowerAuth token validation including local checks and the PowerAuth server call.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Name("PowerAuthTokenValidation")
+@Label("PowerAuth Token Validation")
+@Category("PowerAuth")
+@Description("Validation of PowerAuth token of a request")
+@StackTrace(false)
+public class PowerAuthTokenValidationEvent extends Event {
+
+    @Label("Activation ID Hash")
+    @Description("Truncated SHA-256 hash of activation ID, only available for valid tokens")
+    String activationIdHash;
+
+    @Label("Signature Type")
+    String signatureType;
+
+    @Label("Outcome")
+    String outcome;
+
+}
@@ -0,0 +1,159 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with fixed buckets. Recording does not allocate memory and does not block concurrent
+ * recording threads.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthDurationHistogram {
+
+    private static final long[] BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS_MILLIS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            BUCKET_BOUNDS_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(BUCKET_BOUNDS_MILLIS[i]);
+        }
+    }
+
+    private final AtomicLong maxTime = new AtomicLong();
+
+    private final LongAdder totalTime = new LongAdder();
+
+    // The last bucket counts durations exceeding all bounds
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_NANOS.length + 1];
+
+    /**
+     * Histogram constructor.
+     */
+    public PowerAuthDurationHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Get upper bounds of histogram buckets, the last bucket which is not included has no upper bound.
+     * @return Upper bounds of histogram buckets in milliseconds.
+     */
+    public static long[] getBucketBounds() {
+        return BUCKET_BOUNDS_MILLIS.clone();
+    }
+
+    /**
+     * Record a duration.
+     * @param duration Duration in nanoseconds, negative durations are recorded as zero.
+     */
+    public void record(long duration) {
+        final long time = Math.max(duration, 0L);
+        totalTime.add(time);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_NANOS.length && time > BUCKET_BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        long max = maxTime.get();
+        while (time > max && !maxTime.compareAndSet(max, time)) {
+            max = maxTime.get();
+        }
+    }
+
+    /**
+     * Get number of recorded durations.
+     * @return Number of recorded durations.
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket: buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Get sum of recorded durations.
+     * @param unit Time unit of the result.
+     * @return Sum of recorded durations.
+     */
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(totalTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get maximum recorded duration.
+     * @param unit Time unit of the result.
+     * @return Maximum recorded duration.
+     */
+    public long getMaxTime(TimeUnit unit) {
+        return unit.convert(maxTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get number of recorded durations in histogram buckets, see {@link #getBucketBounds()}.
+     * @return Number of durations in each bucket.
+     */
+    public long[] getBucketCounts() {
+        final long[] result = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            result[i] = buckets[i].sum();
+        }
+        return result;
+    }
+
+    /**
+     * Estimate percentile of recorded durations as the upper bound of the histogram bucket which contains it.
+     * @param percentile Percentile between 0 and 1.
+     * @return Upper bound of the duration in milliseconds limited by the maximum duration, 0 in case no duration
+     * was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1");
+        }
+        final long[] bucketCounts = getBucketCounts();
+        long total = 0;
+        for (long count: bucketCounts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        // Bucket bounds are capped by the maximum duration rounded up to milliseconds
+        final long maxMillis = (maxTime.get() + 999_999L) / 1_000_000L;
+        final long rank = Math.max((long) Math.ceil(percentile * total), 1L);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            cumulative += bucketCounts[i];
+            if (cumulative >= rank) {
+                return Math.min(BUCKET_BOUNDS_MILLIS[i], maxMillis);
+            }
+        }
+        return maxMillis;
+    }
+
+}
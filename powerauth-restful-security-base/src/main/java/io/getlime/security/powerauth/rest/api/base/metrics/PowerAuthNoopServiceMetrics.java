@@ -0,0 +1,47 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.metrics;
+
+/**
+ * Service metrics which do not record anything, used when metrics are disabled.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthNoopServiceMetrics implements PowerAuthServiceMetrics {
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public long callStarted(String operation) {
+        return 0L;
+    }
+
+    @Override
+    public void callCompleted(String operation, long startTime, PowerAuthServiceCallOutcome outcome) {
+    }
+
+    @Override
+    public void callFailed(String operation, long startTime, Throwable throwable) {
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.metrics;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Outcome of a PowerAuth server call.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public enum PowerAuthServiceCallOutcome {
+
+    /**
+     * Call succeeded, signature or token was valid in case the call verifies a signature or a token.
+     */
+    VALID,
+
+    /**
+     * Call succeeded, but the verified signature or token was invalid.
+     */
+    INVALID,
+
+    /**
+     * Call failed, for example due to SOAP fault or connection error.
+     */
+    FAULT,
+
+    /**
+     * Call failed due to a connect or read timeout.
+     */
+    TIMEOUT;
+
+    /**
+     * Resolve outcome of a successful call which verifies a signature or a token.
+     * @param valid Whether the signature or token was valid.
+     * @return {@link #VALID} or {@link #INVALID}.
+     */
+    public static PowerAuthServiceCallOutcome fromValid(boolean valid) {
+        return valid ? VALID : INVALID;
+    }
+
+    /**
+     * Resolve outcome of a failed call.
+     * @param throwable Exception thrown by the call.
+     * @return {@link #TIMEOUT} in case the exception was caused by a timeout, {@link #FAULT} otherwise.
+     */
+    public static PowerAuthServiceCallOutcome fromException(Throwable throwable) {
+        Throwable cause = throwable;
+        // Limit the depth in case of cyclic causes
+        for (int depth = 0; cause != null && depth < 10; depth++) {
+            // SocketTimeoutException is a subclass of InterruptedIOException
+            if (cause instanceof InterruptedIOException) {
+                return TIMEOUT;
+            }
+            cause = cause.getCause();
+        }
+        return FAULT;
+    }
+
+}
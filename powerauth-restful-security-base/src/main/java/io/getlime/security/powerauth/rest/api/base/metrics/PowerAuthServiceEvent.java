@@ -0,0 +1,68 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.metrics;
+
+/**
+ * Names of events of the integration recorded in service metrics, i.e. decisions made locally instead of the
+ * PowerAuth server.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public final class PowerAuthServiceEvent {
+
+    /**
+     * Token validation failed because the PowerAuth server was not reachable.
+     */
+    public static final String DEGRADED_MODE_BACKEND_FAILURE = "degradedMode.backendFailure";
+
+    /**
+     * Token was accepted in degraded mode.
+     */
+    public static final String DEGRADED_MODE_ACCEPTED = "degradedMode.accepted";
+
+    /**
+     * Token was rejected in degraded mode, including replayed tokens.
+     */
+    public static final String DEGRADED_MODE_REJECTED = "degradedMode.rejected";
+
+    /**
+     * Token was rejected in degraded mode due to nonce reuse.
+     */
+    public static final String DEGRADED_MODE_REPLAYED = "degradedMode.replayed";
+
+    /**
+     * Token was rejected in degraded mode because the nonce store of the degraded mode was full.
+     */
+    public static final String DEGRADED_MODE_CAPACITY_EXCEEDED = "degradedMode.capacityExceeded";
+
+    /**
+     * Bucket of the nonce store was dropped before leaving the time window because the store was full.
+     */
+    public static final String NONCE_STORE_BUCKET_DROPPED = "nonceStore.bucketDropped";
+
+    /**
+     * Token was rejected before calling the PowerAuth server because its timestamp was invalid or outside of the allowed window.
+     */
+    public static final String TOKEN_TIMESTAMP_REJECTED = "token.timestampRejected";
+
+    private PowerAuthServiceEvent() {
+    }
+
+}
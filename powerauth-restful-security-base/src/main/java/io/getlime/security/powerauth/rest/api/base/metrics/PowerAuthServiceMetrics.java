@@ -0,0 +1,71 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.metrics;
+
+/**
+ * Metrics of PowerAuth server calls made by the integration. Operations are named after SOAP requests without
+ * the request suffix, e.g. {@code verifySignature}, operations of protocol version 2.0 use the {@code v2.} prefix.
+ *
+ * <p>Implementations must not allocate memory per call in case metrics are disabled, callers keep only the
+ * start time returned by {@link #callStarted(String)}.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public interface PowerAuthServiceMetrics {
+
+    /**
+     * Whether metrics are recorded.
+     * @return True in case metrics are recorded.
+     */
+    boolean isEnabled();
+
+    /**
+     * Record start of a call.
+     * @param operation Operation name.
+     * @return Start time of the call in nanoseconds.
+     */
+    long callStarted(String operation);
+
+    /**
+     * Record completion of a call.
+     * @param operation Operation name.
+     * @param startTime Start time returned by {@link #callStarted(String)}.
+     * @param outcome Outcome of the call.
+     */
+    void callCompleted(String operation, long startTime, PowerAuthServiceCallOutcome outcome);
+
+    /**
+     * Record failure of a call.
+     * @param operation Operation name.
+     * @param startTime Start time returned by {@link #callStarted(String)}.
+     * @param throwable Exception thrown by the call.
+     */
+    default void callFailed(String operation, long startTime, Throwable throwable) {
+        callCompleted(operation, startTime, PowerAuthServiceCallOutcome.fromException(throwable));
+    }
+
+    /**
+     * Record an event of the integration, e.g. a token accepted in degraded mode.
+     * @param event Event name, see {@link PowerAuthServiceEvent}.
+     */
+    default void eventRecorded(String event) {
+    }
+
+}
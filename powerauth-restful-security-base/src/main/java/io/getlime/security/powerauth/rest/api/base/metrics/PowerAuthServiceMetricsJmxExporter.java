@@ -0,0 +1,154 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exporter of {@link PowerAuthSimpleServiceMetrics} to the platform MBean server, so that metrics of PowerAuth
+ * server calls can be read using JMX clients or exported by monitoring agents of the application server.
+ *
+ * <p>Values are computed when they are read, recording of calls is not affected by the exporter.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthServiceMetricsJmxExporter implements PowerAuthServiceMetricsMXBean, AutoCloseable {
+
+    /**
+     * Default object name of the exported metrics.
+     */
+    public static final String DEFAULT_OBJECT_NAME = "io.getlime.security.powerauth:type=ServiceMetrics";
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthServiceMetricsJmxExporter.class);
+
+    private static final PowerAuthServiceCallOutcome[] OUTCOMES = PowerAuthServiceCallOutcome.values();
+
+    private final PowerAuthSimpleServiceMetrics serviceMetrics;
+
+    private final String objectName;
+
+    private ObjectName registeredName;
+
+    /**
+     * Exporter constructor, metrics are exported using the default object name.
+     * @param serviceMetrics Service metrics.
+     */
+    public PowerAuthServiceMetricsJmxExporter(PowerAuthSimpleServiceMetrics serviceMetrics) {
+        this(serviceMetrics, DEFAULT_OBJECT_NAME);
+    }
+
+    /**
+     * Exporter constructor.
+     * @param serviceMetrics Service metrics.
+     * @param objectName Object name of the exported metrics, use a unique name for each application deployed
+     *                   in the same application server.
+     */
+    public PowerAuthServiceMetricsJmxExporter(PowerAuthSimpleServiceMetrics serviceMetrics, String objectName) {
+        this.serviceMetrics = serviceMetrics;
+        this.objectName = objectName;
+    }
+
+    /**
+     * Register the metrics in the platform MBean server.
+     * @throws JMException In case the object name is invalid or already registered.
+     */
+    public synchronized void register() throws JMException {
+        if (registeredName != null) {
+            return;
+        }
+        final ObjectName name = new ObjectName(objectName);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        registeredName = name;
+    }
+
+    /**
+     * Unregister the metrics from the platform MBean server.
+     */
+    @Override
+    public synchronized void close() {
+        if (registeredName == null) {
+            return;
+        }
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(registeredName);
+        } catch (JMException ex) {
+            logger.warn("Service metrics could not be unregistered, error: {}", ex.getMessage());
+            logger.debug("Exception detail: ", ex);
+        }
+        registeredName = null;
+    }
+
+    @Override
+    public Map<String, Long> getInFlightCalls() {
+        final Map<String, Long> result = new TreeMap<>();
+        serviceMetrics.getOperationMetrics().forEach((operation, metrics) -> result.put(operation, metrics.getInFlight()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getCallCounts() {
+        final Map<String, Long> result = new TreeMap<>();
+        serviceMetrics.getOperationMetrics().forEach((operation, metrics) -> {
+            for (PowerAuthServiceCallOutcome outcome: OUTCOMES) {
+                result.put(key(operation, outcome), metrics.getCount(outcome));
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getCallTimesMillis() {
+        final Map<String, Long> result = new TreeMap<>();
+        serviceMetrics.getOperationMetrics().forEach((operation, metrics) -> {
+            for (PowerAuthServiceCallOutcome outcome: OUTCOMES) {
+                result.put(key(operation, outcome), metrics.getTotalTime(outcome, TimeUnit.MILLISECONDS));
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getMaxCallTimesMillis() {
+        final Map<String, Long> result = new TreeMap<>();
+        serviceMetrics.getOperationMetrics().forEach((operation, metrics) -> result.put(operation, metrics.getHistogram().getMaxTime(TimeUnit.MILLISECONDS)));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getEventCounts() {
+        return serviceMetrics.getEventCounts();
+    }
+
+    private static String key(String operation, PowerAuthServiceCallOutcome outcome) {
+        return operation + "." + outcome.name().toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link PowerAuthSimpleServiceMetrics} exported using JMX. Values of operations are
+ * keyed by the operation name, values of completed calls by the operation name and outcome, e.g.
+ * {@code verifySignature.valid}.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public interface PowerAuthServiceMetricsMXBean {
+
+    /**
+     * Get number of calls in progress.
+     * @return Number of calls in progress by operation.
+     */
+    Map<String, Long> getInFlightCalls();
+
+    /**
+     * Get number of completed calls.
+     * @return Number of completed calls by operation and outcome.
+     */
+    Map<String, Long> getCallCounts();
+
+    /**
+     * Get total duration of completed calls in milliseconds.
+     * @return Total duration of completed calls by operation and outcome.
+     */
+    Map<String, Long> getCallTimesMillis();
+
+    /**
+     * Get maximum duration of a call in milliseconds.
+     * @return Maximum duration of a call by operation.
+     */
+    Map<String, Long> getMaxCallTimesMillis();
+
+    /**
+     * Get number of recorded events, see {@link PowerAuthServiceEvent}.
+     * @return Number of events by event name.
+     */
+    Map<String, Long> getEventCounts();
+
+}
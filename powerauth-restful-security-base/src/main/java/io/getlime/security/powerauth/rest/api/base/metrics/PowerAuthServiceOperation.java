@@ -0,0 +1,137 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.metrics;
+
+/**
+ * Names of PowerAuth server operations called by the integration, used for recording service metrics.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public final class PowerAuthServiceOperation {
+
+    /**
+     * Operation name of the "verifySignature" SOAP request.
+     */
+    public static final String VERIFY_SIGNATURE = "verifySignature";
+
+    /**
+     * Operation name of the "validateToken" SOAP request.
+     */
+    public static final String VALIDATE_TOKEN = "validateToken";
+
+    /**
+     * Operation name of the "getEciesDecryptor" SOAP request.
+     */
+    public static final String GET_ECIES_DECRYPTOR = "getEciesDecryptor";
+
+    /**
+     * Operation name of the "prepareActivation" SOAP request.
+     */
+    public static final String PREPARE_ACTIVATION = "prepareActivation";
+
+    /**
+     * Operation name of the "createActivation" SOAP request.
+     */
+    public static final String CREATE_ACTIVATION = "createActivation";
+
+    /**
+     * Operation name of the "commitActivation" SOAP request.
+     */
+    public static final String COMMIT_ACTIVATION = "commitActivation";
+
+    /**
+     * Operation name of the "recoveryCodeActivation" SOAP request.
+     */
+    public static final String RECOVERY_CODE_ACTIVATION = "recoveryCodeActivation";
+
+    /**
+     * Operation name of the "getActivationStatus" SOAP request.
+     */
+    public static final String GET_ACTIVATION_STATUS = "getActivationStatus";
+
+    /**
+     * Operation name of the "removeActivation" SOAP request.
+     */
+    public static final String REMOVE_ACTIVATION = "removeActivation";
+
+    /**
+     * Operation name of the "vaultUnlock" SOAP request.
+     */
+    public static final String VAULT_UNLOCK = "vaultUnlock";
+
+    /**
+     * Operation name of the "createToken" SOAP request.
+     */
+    public static final String CREATE_TOKEN = "createToken";
+
+    /**
+     * Operation name of the "removeToken" SOAP request.
+     */
+    public static final String REMOVE_TOKEN = "removeToken";
+
+    /**
+     * Operation name of the "confirmRecoveryCode" SOAP request.
+     */
+    public static final String CONFIRM_RECOVERY_CODE = "confirmRecoveryCode";
+
+    /**
+     * Operation name of the "startUpgrade" SOAP request.
+     */
+    public static final String START_UPGRADE = "startUpgrade";
+
+    /**
+     * Operation name of the "commitUpgrade" SOAP request.
+     */
+    public static final String COMMIT_UPGRADE = "commitUpgrade";
+
+    /**
+     * Operation name of the "getApplicationList" SOAP request.
+     */
+    public static final String GET_APPLICATION_LIST = "getApplicationList";
+
+    /**
+     * Operation name of the "getApplicationDetail" SOAP request.
+     */
+    public static final String GET_APPLICATION_DETAIL = "getApplicationDetail";
+
+    /**
+     * Operation name of the "v2.prepareActivation" SOAP request.
+     */
+    public static final String V2_PREPARE_ACTIVATION = "v2.prepareActivation";
+
+    /**
+     * Operation name of the "v2.vaultUnlock" SOAP request.
+     */
+    public static final String V2_VAULT_UNLOCK = "v2.vaultUnlock";
+
+    /**
+     * Operation name of the "v2.createToken" SOAP request.
+     */
+    public static final String V2_CREATE_TOKEN = "v2.createToken";
+
+    /**
+     * Operation name of the "v2.getNonPersonalizedEncryptionKey" SOAP request.
+     */
+    public static final String V2_GET_NON_PERSONALIZED_ENCRYPTION_KEY = "v2.getNonPersonalizedEncryptionKey";
+
+    private PowerAuthServiceOperation() {
+    }
+
+}
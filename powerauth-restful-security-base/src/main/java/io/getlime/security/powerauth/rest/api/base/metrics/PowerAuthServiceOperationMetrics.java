@@ -0,0 +1,113 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a single PowerAuth server operation recorded by {@link PowerAuthSimpleServiceMetrics}. Call durations
+ * are recorded in a histogram with fixed buckets, counts and total durations are recorded per outcome.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthServiceOperationMetrics {
+
+    private static final PowerAuthServiceCallOutcome[] OUTCOMES = PowerAuthServiceCallOutcome.values();
+
+    private final String operation;
+
+    private final AtomicLong inFlight = new AtomicLong();
+
+    private final LongAdder[] counts = new LongAdder[OUTCOMES.length];
+
+    private final LongAdder[] totalTimes = new LongAdder[OUTCOMES.length];
+
+    private final PowerAuthDurationHistogram histogram = new PowerAuthDurationHistogram();
+
+    /**
+     * Operation metrics constructor.
+     * @param operation Operation name.
+     */
+    PowerAuthServiceOperationMetrics(String operation) {
+        this.operation = operation;
+        for (int i = 0; i < OUTCOMES.length; i++) {
+            counts[i] = new LongAdder();
+            totalTimes[i] = new LongAdder();
+        }
+    }
+
+    void callStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    void callCompleted(long duration, PowerAuthServiceCallOutcome outcome) {
+        inFlight.decrementAndGet();
+        final long time = Math.max(duration, 0L);
+        counts[outcome.ordinal()].increment();
+        totalTimes[outcome.ordinal()].add(time);
+        histogram.record(time);
+    }
+
+    /**
+     * Get operation name.
+     * @return Operation name.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Get number of calls which are in progress.
+     * @return Number of calls in progress.
+     */
+    public long getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get number of completed calls with given outcome.
+     * @param outcome Call outcome.
+     * @return Number of calls.
+     */
+    public long getCount(PowerAuthServiceCallOutcome outcome) {
+        return counts[outcome.ordinal()].sum();
+    }
+
+    /**
+     * Get total duration of completed calls with given outcome.
+     * @param outcome Call outcome.
+     * @param unit Time unit of the result.
+     * @return Total duration of calls.
+     */
+    public long getTotalTime(PowerAuthServiceCallOutcome outcome, TimeUnit unit) {
+        return unit.convert(totalTimes[outcome.ordinal()].sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get histogram of durations of completed calls with any outcome.
+     * @return Histogram of call durations.
+     */
+    public PowerAuthDurationHistogram getHistogram() {
+        return histogram;
+    }
+
+}
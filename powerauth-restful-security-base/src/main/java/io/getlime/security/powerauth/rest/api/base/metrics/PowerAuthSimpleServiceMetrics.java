@@ -0,0 +1,111 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simple in-memory registry of PowerAuth server call metrics. Metrics of an operation are created on its first
+ * call, later calls do not allocate memory.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthSimpleServiceMetrics implements PowerAuthServiceMetrics {
+
+    private final ConcurrentHashMap<String, PowerAuthServiceOperationMetrics> operations = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, AtomicLong> events = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public long callStarted(String operation) {
+        getOrCreate(operation).callStarted();
+        return System.nanoTime();
+    }
+
+    @Override
+    public void callCompleted(String operation, long startTime, PowerAuthServiceCallOutcome outcome) {
+        getOrCreate(operation).callCompleted(System.nanoTime() - startTime, outcome);
+    }
+
+    @Override
+    public void eventRecorded(String event) {
+        AtomicLong count = events.get(event);
+        if (count == null) {
+            count = events.computeIfAbsent(event, name -> new AtomicLong());
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * Get number of recorded events.
+     * @param event Event name.
+     * @return Number of recorded events.
+     */
+    public long getEventCount(String event) {
+        final AtomicLong count = events.get(event);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Get numbers of all recorded events.
+     * @return Map of event counts by event name.
+     */
+    public Map<String, Long> getEventCounts() {
+        final Map<String, Long> eventCounts = new TreeMap<>();
+        events.forEach((event, count) -> eventCounts.put(event, count.get()));
+        return eventCounts;
+    }
+
+    /**
+     * Get metrics of a single operation.
+     * @param operation Operation name.
+     * @return Operation metrics or null in case the operation was not called yet.
+     */
+    public PowerAuthServiceOperationMetrics getOperationMetrics(String operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * Get metrics of all operations which were called.
+     * @return Unmodifiable map of operation metrics by operation name.
+     */
+    public Map<String, PowerAuthServiceOperationMetrics> getOperationMetrics() {
+        return Collections.unmodifiableMap(operations);
+    }
+
+    private PowerAuthServiceOperationMetrics getOrCreate(String operation) {
+        // Avoid locking of computeIfAbsent for operations which already exist
+        final PowerAuthServiceOperationMetrics metrics = operations.get(operation);
+        if (metrics != null) {
+            return metrics;
+        }
+        return operations.computeIfAbsent(operation, PowerAuthServiceOperationMetrics::new);
+    }
+
+}
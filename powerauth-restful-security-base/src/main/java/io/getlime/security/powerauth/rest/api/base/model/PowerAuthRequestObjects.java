@@ -22,4 +22,14 @@ public class PowerAuthRequestObjects {
      */
     public static final String ENCRYPTION_OBJECT = "X-PowerAuth-Encryption-Object";
 
+    /**
+     * Constant for the request attribute name "X-PowerAuth-Request-Timing".
+     */
+    public static final String REQUEST_TIMING = "X-PowerAuth-Request-Timing";
+
+    /**
+     * Constant for the request attribute name "X-PowerAuth-Request-Permit".
+     */
+    public static final String REQUEST_PERMIT = "X-PowerAuth-Request-Permit";
+
 }
@@ -0,0 +1,108 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.nonce;
+
+/**
+ * Compact open addressing set of non-zero long values. The set is not thread safe.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class LongHashSet {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] table = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Whether the set contains a value.
+     * @param value Non-zero value.
+     * @return True in case the value is present in the set.
+     */
+    boolean contains(long value) {
+        final int mask = table.length - 1;
+        int index = (int) value & mask;
+        while (table[index] != 0L) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Add a value to the set.
+     * @param value Non-zero value.
+     * @return True in case the value was added, false in case it was already present.
+     */
+    boolean add(long value) {
+        // Keep load factor below 0.75
+        if ((size + 1) * 4 > table.length * 3) {
+            resize();
+        }
+        final int mask = table.length - 1;
+        int index = (int) value & mask;
+        while (table[index] != 0L) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Get number of values in the set.
+     * @return Number of values.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Remove all values and release memory.
+     */
+    void clear() {
+        table = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Double capacity of the table and re-insert all values.
+     */
+    private void resize() {
+        final long[] oldTable = table;
+        table = new long[oldTable.length * 2];
+        final int mask = table.length - 1;
+        for (long value: oldTable) {
+            if (value != 0L) {
+                int index = (int) value & mask;
+                while (table[index] != 0L) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.nonce;
+
+/**
+ * Result of registration of a nonce in the nonce store.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public enum PowerAuthNonceRegistration {
+
+    /**
+     * Nonce was not used before within the time window and it was registered.
+     */
+    REGISTERED,
+
+    /**
+     * Nonce was already used within the time window.
+     */
+    REPLAYED,
+
+    /**
+     * Nonce was not registered because the store is full and the time window would be shortened otherwise.
+     */
+    CAPACITY_EXCEEDED
+
+}
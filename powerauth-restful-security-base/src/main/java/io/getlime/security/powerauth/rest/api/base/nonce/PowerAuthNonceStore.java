@@ -0,0 +1,335 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.nonce;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthNoopServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceEvent;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local store of recently used nonces which allows rejecting replayed requests before calling the PowerAuth server.
+ *
+ * <p>Nonces are stored as 64-bit hashes of the scope, identifier (activation ID or token ID) and nonce value.
+ * The hash is seeded randomly, so it is not possible to construct colliding values in advance. The store is
+ * split into lock stripes selected by the hash and each stripe keeps its nonces in time buckets which are
+ * dropped as a whole once they leave the time window, so memory usage stays bounded and predictable.</p>
+ *
+ * <p>In case a stripe reaches its capacity, {@link #register(String, String, String)} fails open: the oldest
+ * buckets of the stripe are dropped, so the request is accepted and the replay window is shortened for nonces
+ * of the stripe until the load decreases. Replays of dropped nonces are still detected by the PowerAuth server.
+ * Every dropped bucket is recorded as the {@link PowerAuthServiceEvent#NONCE_STORE_BUCKET_DROPPED} event in service
+ * metrics and a warning is logged at most once per minute. Use {@link #registerWithinWindow(String, String, String)}
+ * in case the request should be refused instead.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthNonceStore {
+
+    /**
+     * Scope of nonces used in signatures.
+     */
+    public static final String SCOPE_SIGNATURE = "signature";
+
+    /**
+     * Scope of nonces used in tokens.
+     */
+    public static final String SCOPE_TOKEN = "token";
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthNonceStore.class);
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final long WARNING_INTERVAL = 60000L;
+
+    private final PowerAuthNonceStoreConfiguration configuration;
+
+    private final long bucketDuration;
+
+    private final int maxNoncesPerStripe;
+
+    private final long seed = new SecureRandom().nextLong();
+
+    private final Stripe[] stripes;
+
+    private final AtomicLong replayCount = new AtomicLong();
+
+    private final AtomicLong droppedBucketCount = new AtomicLong();
+
+    private final AtomicLong reportedDroppedBucketCount = new AtomicLong();
+
+    private final AtomicLong lastWarningTimestamp = new AtomicLong(Long.MIN_VALUE);
+
+    private PowerAuthServiceMetrics serviceMetrics = new PowerAuthNoopServiceMetrics();
+
+    /**
+     * Nonce store constructor.
+     * @param configuration Nonce store configuration.
+     */
+    public PowerAuthNonceStore(PowerAuthNonceStoreConfiguration configuration) {
+        this.configuration = configuration;
+        this.bucketDuration = Math.max(1L, configuration.getWindow() / configuration.getBucketCount());
+        this.maxNoncesPerStripe = Math.max(1, configuration.getMaxNonces() / configuration.getStripeCount());
+        this.stripes = new Stripe[configuration.getStripeCount()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(configuration.getBucketCount());
+        }
+    }
+
+    /**
+     * Whether the nonce store is enabled.
+     * @return True in case the nonce store is enabled.
+     */
+    public boolean isEnabled() {
+        return configuration.isEnabled();
+    }
+
+    /**
+     * Set service metrics used for recording buckets dropped due to exceeded capacity.
+     * @param serviceMetrics Service metrics.
+     */
+    public void setServiceMetrics(PowerAuthServiceMetrics serviceMetrics) {
+        this.serviceMetrics = serviceMetrics;
+    }
+
+    /**
+     * Register a nonce used in a request. In case the store is full, the oldest nonces are dropped and the nonce
+     * is registered.
+     * @param scope Nonce scope, see {@link #SCOPE_SIGNATURE} and {@link #SCOPE_TOKEN}.
+     * @param identifier Activation ID or token ID.
+     * @param nonce Nonce value.
+     * @return True in case the nonce was not used before within the time window or the store is disabled, false in case of replay.
+     */
+    public boolean register(String scope, String identifier, String nonce) {
+        if (!isEnabled() || identifier == null || nonce == null) {
+            return true;
+        }
+        return register(scope, identifier, nonce, true) != PowerAuthNonceRegistration.REPLAYED;
+    }
+
+    /**
+     * Register a nonce used in a request without shortening the time window. In case the store is full, the nonce
+     * is not registered and the request should be refused, because its replay could not be detected.
+     * @param scope Nonce scope, see {@link #SCOPE_SIGNATURE} and {@link #SCOPE_TOKEN}.
+     * @param identifier Activation ID or token ID.
+     * @param nonce Nonce value.
+     * @return Result of the registration, {@link PowerAuthNonceRegistration#REGISTERED} in case the store is disabled.
+     */
+    public PowerAuthNonceRegistration registerWithinWindow(String scope, String identifier, String nonce) {
+        if (!isEnabled() || identifier == null || nonce == null) {
+            return PowerAuthNonceRegistration.REGISTERED;
+        }
+        return register(scope, identifier, nonce, false);
+    }
+
+    private PowerAuthNonceRegistration register(String scope, String identifier, String nonce, boolean shortenWindow) {
+        return register(scope, identifier, nonce, shortenWindow, System.currentTimeMillis());
+    }
+
+    /**
+     * Register a nonce at the given time.
+     * @param scope Nonce scope.
+     * @param identifier Activation ID or token ID.
+     * @param nonce Nonce value.
+     * @param shortenWindow Whether the oldest nonces should be dropped in case the store is full.
+     * @param now Current time in milliseconds.
+     * @return Result of the registration.
+     */
+    PowerAuthNonceRegistration register(String scope, String identifier, String nonce, boolean shortenWindow, long now) {
+        final long hash = hash(scope, identifier, nonce);
+        final Stripe stripe = stripes[Math.floorMod((int) (hash >>> 32), stripes.length)];
+        final PowerAuthNonceRegistration registration = stripe.register(hash, now / bucketDuration, shortenWindow);
+        if (registration == PowerAuthNonceRegistration.REPLAYED) {
+            replayCount.incrementAndGet();
+        } else if (droppedBucketCount.get() != reportedDroppedBucketCount.get()) {
+            reportDroppedBuckets();
+        }
+        return registration;
+    }
+
+    /**
+     * Record buckets dropped since the last report in service metrics and log a warning, unless it was logged
+     * within the warning interval. Called outside of stripe locks.
+     */
+    private void reportDroppedBuckets() {
+        final long dropped = droppedBucketCount.get();
+        long reported;
+        do {
+            reported = reportedDroppedBucketCount.get();
+            if (reported >= dropped) {
+                return;
+            }
+        } while (!reportedDroppedBucketCount.compareAndSet(reported, dropped));
+        for (long i = reported; i < dropped; i++) {
+            serviceMetrics.eventRecorded(PowerAuthServiceEvent.NONCE_STORE_BUCKET_DROPPED);
+        }
+        final long now = System.currentTimeMillis();
+        final long lastWarning = lastWarningTimestamp.get();
+        if ((lastWarning == Long.MIN_VALUE || now - lastWarning >= WARNING_INTERVAL) && lastWarningTimestamp.compareAndSet(lastWarning, now)) {
+            logger.warn("Nonce store capacity exceeded, the replay window is shortened, dropped buckets: {}", dropped);
+        }
+    }
+
+    /**
+     * Get number of replayed nonces.
+     * @return Number of replayed nonces.
+     */
+    public long getReplayCount() {
+        return replayCount.get();
+    }
+
+    /**
+     * Get number of buckets dropped before leaving the time window because the store was full.
+     * @return Number of dropped buckets.
+     */
+    public long getDroppedBucketCount() {
+        return droppedBucketCount.get();
+    }
+
+    /**
+     * Get number of remembered nonces.
+     * @return Number of remembered nonces.
+     */
+    public long getSize() {
+        long size = 0;
+        for (Stripe stripe: stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Compute seeded 64-bit hash of the nonce key using FNV-1a with a final avalanche step.
+     * @param scope Nonce scope.
+     * @param identifier Activation ID or token ID.
+     * @param nonce Nonce value.
+     * @return Non-zero hash value.
+     */
+    private long hash(String scope, String identifier, String nonce) {
+        long hash = seed;
+        hash = hash(hash, scope);
+        hash = hash(hash, identifier);
+        hash = hash(hash, nonce);
+        // Finalization step of MurmurHash3 distributes all bits of the hash
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        // Zero value marks an empty slot
+        return hash == 0L ? 1L : hash;
+    }
+
+    private long hash(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        // Separator prevents collisions caused by shifting characters between values
+        hash ^= 0xffff;
+        hash *= FNV_PRIME;
+        return hash;
+    }
+
+    /**
+     * Lock stripe with nonces split into time buckets.
+     */
+    private class Stripe {
+
+        private final LongHashSet[] buckets;
+        private final long[] bucketEpochs;
+        private long latestEpoch = Long.MIN_VALUE;
+        private int size;
+
+        Stripe(int bucketCount) {
+            buckets = new LongHashSet[bucketCount];
+            bucketEpochs = new long[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new LongHashSet();
+            }
+            Arrays.fill(bucketEpochs, Long.MIN_VALUE);
+        }
+
+        synchronized PowerAuthNonceRegistration register(long hash, long epoch, boolean shortenWindow) {
+            // Do not move back in time in case system clock is adjusted
+            latestEpoch = Math.max(latestEpoch, epoch);
+            final int bucketCount = buckets.length;
+            final long oldestValidEpoch = latestEpoch - bucketCount + 1;
+            for (int i = 0; i < bucketCount; i++) {
+                if (bucketEpochs[i] < oldestValidEpoch) {
+                    dropBucket(i);
+                } else if (buckets[i].contains(hash)) {
+                    return PowerAuthNonceRegistration.REPLAYED;
+                }
+            }
+            final int current = (int) Math.floorMod(latestEpoch, (long) bucketCount);
+            bucketEpochs[current] = latestEpoch;
+            if (size >= maxNoncesPerStripe && !shortenWindow) {
+                return PowerAuthNonceRegistration.CAPACITY_EXCEEDED;
+            }
+            // Fail open, the oldest nonces are forgotten, the warning is logged by the caller outside of the lock
+            while (size >= maxNoncesPerStripe) {
+                droppedBucketCount.incrementAndGet();
+                if (!dropOldestBucket(current)) {
+                    break;
+                }
+            }
+            if (buckets[current].add(hash)) {
+                size++;
+            }
+            return PowerAuthNonceRegistration.REGISTERED;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private boolean dropOldestBucket(int current) {
+            int oldest = -1;
+            for (int i = 0; i < buckets.length; i++) {
+                if (i != current && buckets[i].size() > 0 && (oldest == -1 || bucketEpochs[i] < bucketEpochs[oldest])) {
+                    oldest = i;
+                }
+            }
+            if (oldest == -1) {
+                // Only the current bucket contains nonces, start over
+                dropBucket(current);
+                bucketEpochs[current] = latestEpoch;
+                return false;
+            }
+            dropBucket(oldest);
+            return true;
+        }
+
+        private void dropBucket(int index) {
+            if (buckets[index].size() > 0) {
+                size -= buckets[index].size();
+                buckets[index].clear();
+            }
+            bucketEpochs[index] = Long.MIN_VALUE;
+        }
+    }
+
+}
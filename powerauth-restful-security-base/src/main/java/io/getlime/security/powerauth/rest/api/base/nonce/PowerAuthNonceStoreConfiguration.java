@@ -0,0 +1,156 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.nonce;
+
+/**
+ * Configuration of the local nonce store used for detection of replayed requests.
+ *
+ * <p>Nonces are remembered for the configured time window. The window is split into time buckets,
+ * the oldest bucket is dropped as a whole once it leaves the window. In case the number of remembered
+ * nonces exceeds the configured maximum, oldest buckets are dropped early, so that memory consumption
+ * stays bounded even under extreme load at the cost of a shorter replay window.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthNonceStoreConfiguration {
+
+    /**
+     * Default time window in milliseconds.
+     */
+    public static final long DEFAULT_WINDOW = 3600000L;
+
+    /**
+     * Default number of time buckets.
+     */
+    public static final int DEFAULT_BUCKET_COUNT = 12;
+
+    /**
+     * Default number of lock stripes.
+     */
+    public static final int DEFAULT_STRIPE_COUNT = 64;
+
+    /**
+     * Default maximum number of remembered nonces.
+     */
+    public static final int DEFAULT_MAX_NONCES = 1000000;
+
+    private boolean enabled;
+
+    private long window = DEFAULT_WINDOW;
+
+    private int bucketCount = DEFAULT_BUCKET_COUNT;
+
+    private int stripeCount = DEFAULT_STRIPE_COUNT;
+
+    private int maxNonces = DEFAULT_MAX_NONCES;
+
+    /**
+     * Whether the nonce store is enabled.
+     * @return True in case the nonce store is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether the nonce store is enabled.
+     * @param enabled True in case the nonce store should be enabled.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Get time window for which nonces are remembered.
+     * @return Time window in milliseconds.
+     */
+    public long getWindow() {
+        return window;
+    }
+
+    /**
+     * Set time window for which nonces are remembered.
+     * @param window Time window in milliseconds.
+     */
+    public void setWindow(long window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Time window must be positive");
+        }
+        this.window = window;
+    }
+
+    /**
+     * Get number of time buckets the window is split into.
+     * @return Number of time buckets.
+     */
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * Set number of time buckets the window is split into.
+     * @param bucketCount Number of time buckets.
+     */
+    public void setBucketCount(int bucketCount) {
+        if (bucketCount < 2) {
+            throw new IllegalArgumentException("At least two time buckets are required");
+        }
+        this.bucketCount = bucketCount;
+    }
+
+    /**
+     * Get number of lock stripes.
+     * @return Number of lock stripes.
+     */
+    public int getStripeCount() {
+        return stripeCount;
+    }
+
+    /**
+     * Set number of lock stripes, higher number reduces lock contention.
+     * @param stripeCount Number of lock stripes.
+     */
+    public void setStripeCount(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Number of lock stripes must be positive");
+        }
+        this.stripeCount = stripeCount;
+    }
+
+    /**
+     * Get maximum number of remembered nonces.
+     * @return Maximum number of remembered nonces.
+     */
+    public int getMaxNonces() {
+        return maxNonces;
+    }
+
+    /**
+     * Set maximum number of remembered nonces.
+     * @param maxNonces Maximum number of remembered nonces.
+     */
+    public void setMaxNonces(int maxNonces) {
+        if (maxNonces <= 0) {
+            throw new IllegalArgumentException("Maximum number of nonces must be positive");
+        }
+        this.maxNonces = maxNonces;
+    }
+
+}
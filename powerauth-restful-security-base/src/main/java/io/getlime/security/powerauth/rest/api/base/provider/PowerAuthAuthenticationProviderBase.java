@@ -57,10 +57,23 @@ public abstract class PowerAuthAuthenticationProviderBase {
      * Validate the token digest from PowerAuth authentication header.
      * @param httpAuthorizationHeader HTTP header with token digest.
      * @param allowedSignatureTypes Allowed types of the signature.
+     * @param degradedModeAllowed Whether the token may be accepted in degraded mode without verification of the token
+     *                            digest in case PowerAuth server is not reachable.
      * @return Instance of a PowerAuthApiAuthentication on successful authorization.
      * @throws PowerAuthAuthenticationException In case authorization fails, exception is raised.
      */
-    public abstract PowerAuthApiAuthentication validateToken(String httpAuthorizationHeader, List<PowerAuthSignatureTypes> allowedSignatureTypes) throws PowerAuthAuthenticationException;
+    public abstract PowerAuthApiAuthentication validateToken(String httpAuthorizationHeader, List<PowerAuthSignatureTypes> allowedSignatureTypes, boolean degradedModeAllowed) throws PowerAuthAuthenticationException;
+
+    /**
+     * The same as {@link #validateToken(String, List, boolean)} but does not allow degraded mode.
+     * @param httpAuthorizationHeader HTTP header with token digest.
+     * @param allowedSignatureTypes Allowed types of the signature.
+     * @return Instance of a PowerAuthApiAuthentication on successful authorization.
+     * @throws PowerAuthAuthenticationException In case authorization fails, exception is raised.
+     */
+    public PowerAuthApiAuthentication validateToken(String httpAuthorizationHeader, List<PowerAuthSignatureTypes> allowedSignatureTypes) throws PowerAuthAuthenticationException {
+        return this.validateToken(httpAuthorizationHeader, allowedSignatureTypes, false);
+    }
 
     /**
      * The same as {{@link #validateRequestSignature(String, byte[], String, String, List, Integer)} but uses default accepted signature type (2FA or 3FA) and does not specify forced signature version.
@@ -32,14 +32,22 @@ import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.http.validator.InvalidPowerAuthHttpHeaderException;
 import io.getlime.security.powerauth.http.validator.PowerAuthEncryptionHttpHeaderValidator;
 import io.getlime.security.powerauth.http.validator.PowerAuthSignatureHttpHeaderValidator;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistry;
 import io.getlime.security.powerauth.rest.api.base.encryption.EciesEncryptionContext;
 import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesDecryptorParameters;
 import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesEncryption;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthEncryptionException;
+import io.getlime.security.powerauth.rest.api.base.jfr.EciesDecryptEvent;
+import io.getlime.security.powerauth.rest.api.base.jfr.EciesEncryptEvent;
+import io.getlime.security.powerauth.rest.api.base.jfr.PowerAuthFlightRecorder;
 import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestBody;
 import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestObjects;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestPhase;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
@@ -53,6 +61,8 @@ import java.io.IOException;
  */
 public abstract class PowerAuthEncryptionProviderBase {
 
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthEncryptionProviderBase.class);
+
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final EciesFactory eciesFactory = new EciesFactory();
 
@@ -67,6 +77,17 @@ public abstract class PowerAuthEncryptionProviderBase {
      */
     public abstract PowerAuthEciesDecryptorParameters getEciesDecryptorParameters(String activationId, String applicationKey, String ephemeralPublicKey) throws PowerAuthEncryptionException;
 
+    /**
+     * Get application registry used for rejecting unknown or unsupported application keys before calling
+     * PowerAuth server. The default implementation returns null and application keys are validated by PowerAuth
+     * server only.
+     *
+     * @return Application registry or null in case the registry is not available.
+     */
+    protected PowerAuthApplicationRegistry getApplicationRegistry() {
+        return null;
+    }
+
     /**
      * Decrypt HTTP request body and construct object with ECIES data. Use the requestType parameter to specify
      * the type of decrypted object.
@@ -85,7 +106,13 @@ public abstract class PowerAuthEncryptionProviderBase {
         }
 
         // Resolve either signature or encryption HTTP header for ECIES
-        EciesEncryptionContext encryptionContext = extractEciesEncryptionContext(request);
+        final long headerPhaseStart = PowerAuthRequestTiming.phaseStarted();
+        final EciesEncryptionContext encryptionContext;
+        try {
+            encryptionContext = extractEciesEncryptionContext(request);
+        } finally {
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.HEADER_PARSING, headerPhaseStart);
+        }
 
         // Construct ECIES encryption object from HTTP header
         final PowerAuthEciesEncryption<T> eciesEncryption = new PowerAuthEciesEncryption<>(encryptionContext);
@@ -93,6 +120,8 @@ public abstract class PowerAuthEncryptionProviderBase {
         // Save ECIES scope in context
         eciesEncryption.getContext().setEciesScope(eciesScope);
 
+        final long decryptionPhaseStart = PowerAuthRequestTiming.phaseStarted();
+        final EciesDecryptEvent decryptEvent = PowerAuthFlightRecorder.eciesDecryptStarted();
         try {
             // Parse ECIES cryptogram from request body
             PowerAuthRequestBody requestBody = ((PowerAuthRequestBody) request.getAttribute(PowerAuthRequestObjects.REQUEST_BODY));
@@ -168,6 +197,9 @@ public abstract class PowerAuthEncryptionProviderBase {
             request.setAttribute(PowerAuthRequestObjects.ENCRYPTION_OBJECT, eciesEncryption);
         } catch (Exception ex) {
             throw new PowerAuthEncryptionException("Invalid request");
+        } finally {
+            PowerAuthFlightRecorder.eciesDecryptCompleted(decryptEvent, eciesEncryption);
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.DECRYPTION, decryptionPhaseStart);
         }
         return eciesEncryption;
     }
@@ -180,15 +212,21 @@ public abstract class PowerAuthEncryptionProviderBase {
      * @return ECIES encrypted response.
      */
     public EciesEncryptedResponse encryptResponse(Object responseObject, PowerAuthEciesEncryption eciesEncryption) {
+        final long phaseStart = PowerAuthRequestTiming.phaseStarted();
+        final EciesEncryptEvent encryptEvent = PowerAuthFlightRecorder.eciesEncryptStarted();
         try {
             byte[] responseData = serializeResponseData(responseObject);
             // Encrypt response using decryptor and return ECIES cryptogram
             EciesCryptogram cryptogram = eciesEncryption.getEciesDecryptor().encryptResponse(responseData);
+            PowerAuthFlightRecorder.eciesEncryptCompleted(encryptEvent, eciesEncryption, responseData.length, cryptogram.getEncryptedData().length);
             String encryptedDataBase64 = BaseEncoding.base64().encode(cryptogram.getEncryptedData());
             String macBase64 = BaseEncoding.base64().encode(cryptogram.getMac());
             return new EciesEncryptedResponse(encryptedDataBase64, macBase64);
         } catch (Exception ex) {
+            PowerAuthFlightRecorder.eciesEncryptCompleted(encryptEvent, eciesEncryption, -1, 0);
             return null;
+        } finally {
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.ENCRYPTION, phaseStart);
         }
     }
 
@@ -259,6 +297,7 @@ public abstract class PowerAuthEncryptionProviderBase {
 
             // Construct encryption parameters object
             String applicationKey = header.getApplicationKey();
+            validateApplicationKey(applicationKey);
             String activationId = header.getActivationId();
             String version = header.getVersion();
             return new EciesEncryptionContext(applicationKey, activationId, version, header);
@@ -275,10 +314,25 @@ public abstract class PowerAuthEncryptionProviderBase {
 
             // Construct encryption parameters object
             String applicationKey = header.getApplicationKey();
+            validateApplicationKey(applicationKey);
             String activationId = header.getActivationId();
             String version = header.getVersion();
             return new EciesEncryptionContext(applicationKey, activationId, version, header);
         }
     }
 
+    /**
+     * Reject application keys which are known to be invalid or unsupported by the application registry.
+     *
+     * @param applicationKey Application key.
+     * @throws PowerAuthEncryptionException Thrown when application key is rejected.
+     */
+    private void validateApplicationKey(String applicationKey) throws PowerAuthEncryptionException {
+        final PowerAuthApplicationRegistry applicationRegistry = getApplicationRegistry();
+        if (applicationRegistry != null && applicationRegistry.isApplicationKeyRejected(applicationKey)) {
+            logger.warn("Application key is unknown or unsupported, application key: {}", applicationKey);
+            throw new PowerAuthEncryptionException();
+        }
+    }
+
 }
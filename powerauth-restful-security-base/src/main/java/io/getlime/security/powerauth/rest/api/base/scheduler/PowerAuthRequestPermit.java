@@ -0,0 +1,41 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.scheduler;
+
+/**
+ * Permit for processing a request obtained from the request scheduler. The permit needs to be closed
+ * once the request is processed, ideally using the try-with-resources statement.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public interface PowerAuthRequestPermit extends AutoCloseable {
+
+    /**
+     * Permit which does not hold any capacity, used when the scheduler is not configured.
+     */
+    PowerAuthRequestPermit NONE = () -> { };
+
+    /**
+     * Release the permit.
+     */
+    @Override
+    void close();
+
+}
@@ -0,0 +1,56 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.scheduler;
+
+/**
+ * Priority classes of PowerAuth Standard RESTful API end-points. The enum constants are declared
+ * from the highest priority to the lowest one. Cheap, frequent and user facing requests have
+ * a higher priority than expensive and rare requests.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public enum PowerAuthRequestPriority {
+
+    /**
+     * Activation status requests.
+     */
+    ACTIVATION_STATUS,
+
+    /**
+     * Token related requests.
+     */
+    TOKEN,
+
+    /**
+     * Signed requests, such as signature validation, vault unlock, activation removal or recovery.
+     */
+    SIGNATURE,
+
+    /**
+     * Activation create requests.
+     */
+    ACTIVATION_CREATE,
+
+    /**
+     * Activation upgrade requests.
+     */
+    UPGRADE
+
+}
@@ -0,0 +1,205 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.scheduler;
+
+import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRequestRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Priority aware scheduler of requests which call the PowerAuth server.
+ *
+ * <p>Each priority may use only a configured share of the total capacity. When the capacity available
+ * for a priority is exhausted, the request waits for the configured time and it is rejected in case
+ * no slot is released in the meantime. Since lower priorities have a smaller share of capacity, they
+ * are the first ones to wait or to be rejected when the capacity is short, while a part of capacity
+ * always remains reserved for higher priorities.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthRequestScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthRequestScheduler.class);
+
+    // Controller names are resolved from controller classes only once
+    private static final ConcurrentHashMap<Class<?>, String> CONTROLLER_NAMES = new ConcurrentHashMap<>();
+
+    private final PowerAuthRequestSchedulerConfiguration configuration;
+
+    private final Map<PowerAuthRequestPriority, Integer> capacityLimits = new EnumMap<>(PowerAuthRequestPriority.class);
+
+    private final Map<PowerAuthRequestPriority, AtomicLong> rejectedCounters = new EnumMap<>(PowerAuthRequestPriority.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotReleased = lock.newCondition();
+
+    private int inFlight;
+
+    /**
+     * Scheduler constructor.
+     * @param configuration Scheduler configuration.
+     */
+    public PowerAuthRequestScheduler(PowerAuthRequestSchedulerConfiguration configuration) {
+        this.configuration = configuration;
+        final int maxConcurrentRequests = configuration.getMaxConcurrentRequests();
+        for (PowerAuthRequestPriority priority: PowerAuthRequestPriority.values()) {
+            // Each priority is allowed to use at least one slot
+            final int limit = Math.max(1, maxConcurrentRequests * configuration.getCapacityShare(priority) / 100);
+            capacityLimits.put(priority, limit);
+            rejectedCounters.put(priority, new AtomicLong());
+        }
+    }
+
+    /**
+     * Whether the scheduler limits concurrent requests.
+     * @return True in case the scheduler is enabled.
+     */
+    public boolean isEnabled() {
+        return configuration.getMaxConcurrentRequests() > 0;
+    }
+
+    /**
+     * Resolve name of a controller used for priority overrides. The name is the simple class name without the
+     * {@code Controller} suffix starting with a lower case letter, e.g. {@code token} for {@code TokenController}.
+     * @param controllerClass Controller class.
+     * @return Controller name.
+     */
+    public static String resolveControllerName(Class<?> controllerClass) {
+        return CONTROLLER_NAMES.computeIfAbsent(controllerClass, clazz -> {
+            String name = clazz.getSimpleName();
+            if (name.endsWith("Controller") && name.length() > "Controller".length()) {
+                name = name.substring(0, name.length() - "Controller".length());
+            }
+            return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        });
+    }
+
+    /**
+     * Acquire a permit for processing a request of a controller.
+     * @param controllerClass Controller class, used for resolving priority overrides.
+     * @param defaultPriority Priority used in case controller priority is not overridden in configuration.
+     * @return Permit which needs to be closed once the request is processed.
+     * @throws PowerAuthRequestRejectedException In case the request is rejected due to insufficient capacity.
+     */
+    public PowerAuthRequestPermit acquire(Class<?> controllerClass, PowerAuthRequestPriority defaultPriority) throws PowerAuthRequestRejectedException {
+        if (!isEnabled()) {
+            return PowerAuthRequestPermit.NONE;
+        }
+        return acquire(resolveControllerName(controllerClass), defaultPriority);
+    }
+
+    /**
+     * Acquire a permit for processing a request of a controller.
+     * @param controllerName Controller name, used for resolving priority overrides.
+     * @param defaultPriority Priority used in case controller priority is not overridden in configuration.
+     * @return Permit which needs to be closed once the request is processed.
+     * @throws PowerAuthRequestRejectedException In case the request is rejected due to insufficient capacity.
+     */
+    public PowerAuthRequestPermit acquire(String controllerName, PowerAuthRequestPriority defaultPriority) throws PowerAuthRequestRejectedException {
+        if (!isEnabled()) {
+            return PowerAuthRequestPermit.NONE;
+        }
+        final PowerAuthRequestPriority controllerPriority = configuration.getControllerPriority(controllerName);
+        final PowerAuthRequestPriority priority = controllerPriority != null ? controllerPriority : defaultPriority;
+        final int limit = capacityLimits.get(priority);
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getMaxWaitTime(priority));
+        lock.lock();
+        try {
+            while (inFlight >= limit) {
+                if (remainingNanos <= 0L) {
+                    rejectedCounters.get(priority).incrementAndGet();
+                    logger.warn("Request rejected due to insufficient capacity, controller: {}, priority: {}", controllerName, priority);
+                    throw new PowerAuthRequestRejectedException();
+                }
+                remainingNanos = slotReleased.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            rejectedCounters.get(priority).incrementAndGet();
+            throw new PowerAuthRequestRejectedException();
+        } finally {
+            lock.unlock();
+        }
+        return new Permit();
+    }
+
+    /**
+     * Get number of requests which are currently being processed.
+     * @return Number of requests in flight.
+     */
+    public int getInFlightCount() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get number of requests with given priority which were rejected.
+     * @param priority Request priority.
+     * @return Number of rejected requests.
+     */
+    public long getRejectedCount(PowerAuthRequestPriority priority) {
+        return rejectedCounters.get(priority).get();
+    }
+
+    /**
+     * Release a slot and wake up waiting requests.
+     */
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            // Waiting requests have different limits, all of them need to re-evaluate the condition
+            slotReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Permit holding a single slot of the scheduler capacity.
+     */
+    private class Permit implements PowerAuthRequestPermit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void close() {
+            // Make sure the slot is released only once
+            if (released.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+
+}
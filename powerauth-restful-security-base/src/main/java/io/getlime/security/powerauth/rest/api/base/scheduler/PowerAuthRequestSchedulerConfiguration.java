@@ -0,0 +1,231 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.scheduler;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Configuration of the request scheduler.
+ *
+ * <p>The scheduler admits at most {@link #getMaxConcurrentRequests()} requests at once. Each priority
+ * may only use a part of this capacity (given in percent) and waits at most the configured time
+ * for a free slot. Lower priorities are configured with a smaller share of capacity and shorter
+ * waiting time, so that they wait or are rejected first when the capacity is short.</p>
+ *
+ * <p>Priority of end-points of a controller may be overridden using the controller name, for example
+ * <code>activation</code> or <code>token</code>, see {@link PowerAuthRequestScheduler#resolveControllerName(Class)}.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthRequestSchedulerConfiguration {
+
+    /**
+     * Default maximum number of concurrent requests, zero value disables the scheduler.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 0;
+
+    private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+
+    private final Map<PowerAuthRequestPriority, Integer> capacityShares = new EnumMap<>(PowerAuthRequestPriority.class);
+
+    private final Map<PowerAuthRequestPriority, Long> maxWaitTimes = new EnumMap<>(PowerAuthRequestPriority.class);
+
+    private final Map<String, PowerAuthRequestPriority> controllerPriorities = new HashMap<>();
+
+    /**
+     * Default constructor, initializes default capacity shares and maximum waiting times.
+     */
+    public PowerAuthRequestSchedulerConfiguration() {
+        capacityShares.put(PowerAuthRequestPriority.ACTIVATION_STATUS, 100);
+        capacityShares.put(PowerAuthRequestPriority.TOKEN, 90);
+        capacityShares.put(PowerAuthRequestPriority.SIGNATURE, 75);
+        capacityShares.put(PowerAuthRequestPriority.ACTIVATION_CREATE, 50);
+        capacityShares.put(PowerAuthRequestPriority.UPGRADE, 25);
+        maxWaitTimes.put(PowerAuthRequestPriority.ACTIVATION_STATUS, 2000L);
+        maxWaitTimes.put(PowerAuthRequestPriority.TOKEN, 1000L);
+        maxWaitTimes.put(PowerAuthRequestPriority.SIGNATURE, 500L);
+        maxWaitTimes.put(PowerAuthRequestPriority.ACTIVATION_CREATE, 100L);
+        maxWaitTimes.put(PowerAuthRequestPriority.UPGRADE, 0L);
+    }
+
+    /**
+     * Get maximum number of concurrently processed requests.
+     * @return Maximum number of concurrently processed requests, zero value means the scheduler is disabled.
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Set maximum number of concurrently processed requests.
+     * @param maxConcurrentRequests Maximum number of concurrently processed requests, use zero value to disable the scheduler.
+     */
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 0) {
+            throw new IllegalArgumentException("Maximum number of concurrent requests must not be negative");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    /**
+     * Get share of capacity which is available for given priority.
+     * @param priority Request priority.
+     * @return Share of capacity in percent.
+     */
+    public int getCapacityShare(PowerAuthRequestPriority priority) {
+        return capacityShares.get(priority);
+    }
+
+    /**
+     * Set share of capacity which is available for given priority.
+     * @param priority Request priority.
+     * @param capacityShare Share of capacity in percent (1 - 100).
+     */
+    public void setCapacityShare(PowerAuthRequestPriority priority, int capacityShare) {
+        if (capacityShare < 1 || capacityShare > 100) {
+            throw new IllegalArgumentException("Capacity share must be between 1 and 100 percent");
+        }
+        capacityShares.put(priority, capacityShare);
+    }
+
+    /**
+     * Set shares of capacity using a comma separated list of priorities and shares in percent, for example
+     * {@code TOKEN:80,UPGRADE:10}. Priorities which are not listed keep their current share.
+     * @param capacityShares Comma separated list of capacity shares, empty value keeps current shares.
+     */
+    public void setCapacityShares(String capacityShares) {
+        for (Map.Entry<String, String> entry: parseList(capacityShares).entrySet()) {
+            setCapacityShare(parsePriority(entry.getKey()), parseNumber(entry.getValue()).intValue());
+        }
+    }
+
+    /**
+     * Get maximum time a request with given priority waits for a free slot.
+     * @param priority Request priority.
+     * @return Maximum waiting time in milliseconds.
+     */
+    public long getMaxWaitTime(PowerAuthRequestPriority priority) {
+        return maxWaitTimes.get(priority);
+    }
+
+    /**
+     * Set maximum time a request with given priority waits for a free slot.
+     * @param priority Request priority.
+     * @param maxWaitTime Maximum waiting time in milliseconds, zero value means the request is rejected immediately.
+     */
+    public void setMaxWaitTime(PowerAuthRequestPriority priority, long maxWaitTime) {
+        if (maxWaitTime < 0) {
+            throw new IllegalArgumentException("Maximum waiting time must not be negative");
+        }
+        maxWaitTimes.put(priority, maxWaitTime);
+    }
+
+    /**
+     * Set maximum waiting times using a comma separated list of priorities and times in milliseconds, for example
+     * {@code TOKEN:500,UPGRADE:0}. Priorities which are not listed keep their current waiting time.
+     * @param maxWaitTimes Comma separated list of maximum waiting times, empty value keeps current waiting times.
+     */
+    public void setMaxWaitTimes(String maxWaitTimes) {
+        for (Map.Entry<String, String> entry: parseList(maxWaitTimes).entrySet()) {
+            setMaxWaitTime(parsePriority(entry.getKey()), parseNumber(entry.getValue()));
+        }
+    }
+
+    /**
+     * Get priority configured for end-points of a controller.
+     * @param controllerName Controller name.
+     * @return Configured priority or null in case default priority of end-points should be used.
+     */
+    public PowerAuthRequestPriority getControllerPriority(String controllerName) {
+        return controllerPriorities.get(controllerName);
+    }
+
+    /**
+     * Override priority of all end-points of a controller.
+     * @param controllerName Controller name.
+     * @param priority Priority of controller end-points.
+     */
+    public void setControllerPriority(String controllerName, PowerAuthRequestPriority priority) {
+        controllerPriorities.put(controllerName, priority);
+    }
+
+    /**
+     * Override priorities of controllers using a comma separated list of controller names and priorities, for example
+     * {@code token:ACTIVATION_STATUS,upgrade:SIGNATURE}.
+     * @param controllerPriorities Comma separated list of controller priorities, empty value keeps current priorities.
+     * @see PowerAuthRequestScheduler#resolveControllerName(Class)
+     */
+    public void setControllerPriorities(String controllerPriorities) {
+        for (Map.Entry<String, String> entry: parseList(controllerPriorities).entrySet()) {
+            setControllerPriority(entry.getKey(), parsePriority(entry.getValue()));
+        }
+    }
+
+    /**
+     * Parse a comma separated list of key and value pairs separated by a colon.
+     * @param list List to parse, null or empty value results in an empty map.
+     * @return Parsed key and value pairs.
+     */
+    private static Map<String, String> parseList(String list) {
+        final Map<String, String> result = new LinkedHashMap<>();
+        if (list == null || list.trim().isEmpty()) {
+            return result;
+        }
+        for (String item: list.split(",")) {
+            final String[] pair = item.split(":");
+            if (pair.length != 2 || pair[0].trim().isEmpty() || pair[1].trim().isEmpty()) {
+                throw new IllegalArgumentException("Invalid scheduler setting: " + item.trim());
+            }
+            result.put(pair[0].trim(), pair[1].trim());
+        }
+        return result;
+    }
+
+    /**
+     * Parse request priority from its name, the name is not case sensitive.
+     * @param name Priority name.
+     * @return Request priority.
+     */
+    private static PowerAuthRequestPriority parsePriority(String name) {
+        try {
+            return PowerAuthRequestPriority.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid request priority: " + name);
+        }
+    }
+
+    /**
+     * Parse a number used in scheduler settings.
+     * @param value Value to parse.
+     * @return Parsed number.
+     */
+    private static Long parseNumber(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid number in scheduler setting: " + value);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.timing;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthDurationHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histograms of request phase durations of a single endpoint recorded by {@link PowerAuthRequestTimingRegistry}.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthEndpointTimingMetrics {
+
+    private final String endpoint;
+
+    private final PowerAuthDurationHistogram[] histograms = new PowerAuthDurationHistogram[PowerAuthRequestPhase.values().length];
+
+    /**
+     * Endpoint metrics constructor.
+     * @param endpoint Endpoint name.
+     */
+    PowerAuthEndpointTimingMetrics(String endpoint) {
+        this.endpoint = endpoint;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new PowerAuthDurationHistogram();
+        }
+    }
+
+    void record(PowerAuthRequestTiming timing) {
+        for (PowerAuthRequestPhase phase: PowerAuthRequestPhase.values()) {
+            if (timing.isRecorded(phase)) {
+                histograms[phase.ordinal()].record(timing.getDuration(phase, TimeUnit.NANOSECONDS));
+            }
+        }
+    }
+
+    /**
+     * Get endpoint name.
+     * @return Endpoint name.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Get histogram of durations of a request phase.
+     * @param phase Request phase.
+     * @return Histogram of phase durations.
+     */
+    public PowerAuthDurationHistogram getHistogram(PowerAuthRequestPhase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.timing;
+
+/**
+ * Phases of processing of a PowerAuth protected request measured by {@link PowerAuthRequestTiming}.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public enum PowerAuthRequestPhase {
+
+    /**
+     * Buffering of request body in the request filter.
+     */
+    BODY_BUFFERING("pa-body"),
+
+    /**
+     * Parsing and validation of PowerAuth HTTP headers.
+     */
+    HEADER_PARSING("pa-header"),
+
+    /**
+     * Decryption of ECIES encrypted request.
+     */
+    DECRYPTION("pa-decrypt"),
+
+    /**
+     * Verification of PowerAuth signature or token.
+     */
+    AUTHENTICATION("pa-auth"),
+
+    /**
+     * Execution of request handler excluding other phases.
+     */
+    HANDLER("pa-handler"),
+
+    /**
+     * Encryption of ECIES encrypted response.
+     */
+    ENCRYPTION("pa-encrypt");
+
+    private final String metricName;
+
+    PowerAuthRequestPhase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * Get phase name used in Server-Timing HTTP header.
+     * @return Phase name.
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+
+}
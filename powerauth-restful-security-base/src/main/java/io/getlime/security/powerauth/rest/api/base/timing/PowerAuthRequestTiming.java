@@ -0,0 +1,190 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.timing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durations of processing phases of a single request. The request filter creates the timing, stores it in request
+ * attribute {@link io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestObjects#REQUEST_TIMING} and binds
+ * it to the request thread, so that phases can be measured using {@link #phaseStarted()} and
+ * {@link #phaseCompleted(PowerAuthRequestPhase, long)} without access to the request. Measuring is a no-op in case
+ * no timing is bound to the current thread.
+ *
+ * <p>The timing is not thread safe, the request needs to be processed by a single thread.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthRequestTiming {
+
+    /**
+     * Name of HTTP header with durations of request processing phases.
+     */
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final PowerAuthRequestPhase[] PHASES = PowerAuthRequestPhase.values();
+
+    private static final ThreadLocal<PowerAuthRequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long[] durations = new long[PHASES.length];
+
+    private final boolean[] recorded = new boolean[PHASES.length];
+
+    private long handlerStart;
+
+    private long handlerNestedStart;
+
+    private boolean handlerStarted;
+
+    private boolean handlerCompleted;
+
+    /**
+     * Get timing bound to the current thread.
+     * @return Request timing or null in case no timing is bound.
+     */
+    public static PowerAuthRequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind the timing to the current thread.
+     */
+    public void bind() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * Unbind timing from the current thread.
+     */
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Start measuring a phase.
+     * @return Start time to be passed to {@link #phaseCompleted(PowerAuthRequestPhase, long)}.
+     */
+    public static long phaseStarted() {
+        return CURRENT.get() != null ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Complete measuring a phase and record its duration into the timing bound to the current thread.
+     * @param phase Request phase.
+     * @param startTime Start time obtained from {@link #phaseStarted()}.
+     */
+    public static void phaseCompleted(PowerAuthRequestPhase phase, long startTime) {
+        final PowerAuthRequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.record(phase, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Record duration of a phase. Durations of repeated phases are summed.
+     * @param phase Request phase.
+     * @param duration Duration in nanoseconds.
+     */
+    public void record(PowerAuthRequestPhase phase, long duration) {
+        durations[phase.ordinal()] += Math.max(duration, 0L);
+        recorded[phase.ordinal()] = true;
+    }
+
+    /**
+     * Mark start of the request handler. Phases recorded until the handler is completed are not included
+     * in the handler duration.
+     */
+    public void handlerStarted() {
+        handlerStart = System.nanoTime();
+        handlerNestedStart = nestedDuration();
+        handlerStarted = true;
+    }
+
+    /**
+     * Mark completion of the request handler and record its duration. Repeated calls are ignored.
+     */
+    public void handlerCompleted() {
+        if (!handlerStarted || handlerCompleted) {
+            return;
+        }
+        handlerCompleted = true;
+        final long elapsed = System.nanoTime() - handlerStart;
+        record(PowerAuthRequestPhase.HANDLER, elapsed - (nestedDuration() - handlerNestedStart));
+    }
+
+    /**
+     * Whether duration of a phase was recorded.
+     * @param phase Request phase.
+     * @return True in case the phase duration was recorded.
+     */
+    public boolean isRecorded(PowerAuthRequestPhase phase) {
+        return recorded[phase.ordinal()];
+    }
+
+    /**
+     * Get duration of a phase.
+     * @param phase Request phase.
+     * @param unit Time unit of the result.
+     * @return Phase duration, 0 in case the phase duration was not recorded.
+     */
+    public long getDuration(PowerAuthRequestPhase phase, TimeUnit unit) {
+        return unit.convert(durations[phase.ordinal()], TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get value of Server-Timing HTTP header with durations of recorded phases in milliseconds,
+     * e.g. "pa-body;dur=0.125, pa-auth;dur=12.431".
+     * @return Server-Timing header value, empty in case no phase was recorded.
+     */
+    public String toServerTimingHeader() {
+        final StringBuilder sb = new StringBuilder();
+        for (PowerAuthRequestPhase phase: PHASES) {
+            if (!recorded[phase.ordinal()]) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            // Format milliseconds with microsecond precision independently of default locale
+            final long micros = TimeUnit.NANOSECONDS.toMicros(durations[phase.ordinal()]);
+            final long fraction = micros % 1000;
+            sb.append(phase.getMetricName()).append(";dur=").append(micros / 1000).append('.');
+            if (fraction < 100) {
+                sb.append('0');
+            }
+            if (fraction < 10) {
+                sb.append('0');
+            }
+            sb.append(fraction);
+        }
+        return sb.toString();
+    }
+
+    private long nestedDuration() {
+        long result = 0;
+        for (PowerAuthRequestPhase phase: PHASES) {
+            if (phase != PowerAuthRequestPhase.HANDLER) {
+                result += durations[phase.ordinal()];
+            }
+        }
+        return result;
+    }
+
+}
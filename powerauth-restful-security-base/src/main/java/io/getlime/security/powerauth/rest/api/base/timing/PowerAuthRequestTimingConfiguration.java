@@ -0,0 +1,93 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.timing;
+
+/**
+ * Configuration of request phase timing.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthRequestTimingConfiguration {
+
+    /**
+     * Default maximum number of endpoints with separate metrics.
+     */
+    public static final int DEFAULT_MAX_ENDPOINTS = 100;
+
+    private boolean enabled;
+
+    private boolean serverTimingHeaderEnabled;
+
+    private int maxEndpoints = DEFAULT_MAX_ENDPOINTS;
+
+    /**
+     * Whether request phase timing is enabled.
+     * @return True in case request phase timing is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether request phase timing is enabled.
+     * @param enabled True in case request phase timing should be enabled.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether durations of request phases are sent to clients in Server-Timing HTTP header.
+     * @return True in case Server-Timing header is enabled.
+     */
+    public boolean isServerTimingHeaderEnabled() {
+        return serverTimingHeaderEnabled;
+    }
+
+    /**
+     * Set whether durations of request phases are sent to clients in Server-Timing HTTP header. The header reveals
+     * internal processing durations, enable it only in environments where clients are trusted.
+     * @param serverTimingHeaderEnabled True in case Server-Timing header should be enabled.
+     */
+    public void setServerTimingHeaderEnabled(boolean serverTimingHeaderEnabled) {
+        this.serverTimingHeaderEnabled = serverTimingHeaderEnabled;
+    }
+
+    /**
+     * Get maximum number of endpoints with separate metrics.
+     * @return Maximum number of endpoints.
+     */
+    public int getMaxEndpoints() {
+        return maxEndpoints;
+    }
+
+    /**
+     * Set maximum number of endpoints with separate metrics. Requests to further endpoints are recorded together,
+     * so that requests to unmapped paths cannot grow the metrics without limits.
+     * @param maxEndpoints Maximum number of endpoints.
+     */
+    public void setMaxEndpoints(int maxEndpoints) {
+        if (maxEndpoints <= 0) {
+            throw new IllegalArgumentException("Maximum number of endpoints must be positive");
+        }
+        this.maxEndpoints = maxEndpoints;
+    }
+
+}
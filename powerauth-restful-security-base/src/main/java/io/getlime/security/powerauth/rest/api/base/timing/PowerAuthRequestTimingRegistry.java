@@ -0,0 +1,116 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.timing;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of request phase timing metrics. Durations of request phases are recorded into histograms per endpoint
+ * and phase. Metrics of an endpoint are created on its first request, later requests do not allocate memory.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthRequestTimingRegistry {
+
+    /**
+     * Endpoint name used for requests exceeding the maximum number of endpoints.
+     */
+    public static final String OTHER_ENDPOINTS = "other";
+
+    private final PowerAuthRequestTimingConfiguration configuration;
+
+    private final ConcurrentHashMap<String, PowerAuthEndpointTimingMetrics> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Registry constructor.
+     * @param configuration Request timing configuration.
+     */
+    public PowerAuthRequestTimingRegistry(PowerAuthRequestTimingConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Whether request phase timing is enabled.
+     * @return True in case request phase timing is enabled.
+     */
+    public boolean isEnabled() {
+        return configuration.isEnabled();
+    }
+
+    /**
+     * Whether durations of request phases are sent to clients in Server-Timing HTTP header.
+     * @return True in case Server-Timing header is enabled.
+     */
+    public boolean isServerTimingHeaderEnabled() {
+        return configuration.isEnabled() && configuration.isServerTimingHeaderEnabled();
+    }
+
+    /**
+     * Start timing of a new request.
+     * @return New request timing or null in case request phase timing is disabled.
+     */
+    public PowerAuthRequestTiming startRequest() {
+        return configuration.isEnabled() ? new PowerAuthRequestTiming() : null;
+    }
+
+    /**
+     * Record durations of phases of a completed request.
+     * @param endpoint Endpoint name, e.g. request mapping pattern.
+     * @param timing Request timing.
+     */
+    public void record(String endpoint, PowerAuthRequestTiming timing) {
+        if (timing == null) {
+            return;
+        }
+        getOrCreate(endpoint != null ? endpoint : OTHER_ENDPOINTS).record(timing);
+    }
+
+    /**
+     * Get metrics of a single endpoint.
+     * @param endpoint Endpoint name.
+     * @return Endpoint metrics or null in case no request to the endpoint was recorded yet.
+     */
+    public PowerAuthEndpointTimingMetrics getEndpointMetrics(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /**
+     * Get metrics of all endpoints with recorded requests.
+     * @return Unmodifiable map of endpoint metrics by endpoint name.
+     */
+    public Map<String, PowerAuthEndpointTimingMetrics> getEndpointMetrics() {
+        return Collections.unmodifiableMap(endpoints);
+    }
+
+    private PowerAuthEndpointTimingMetrics getOrCreate(String endpoint) {
+        // Avoid locking of computeIfAbsent for endpoints which already exist
+        final PowerAuthEndpointTimingMetrics metrics = endpoints.get(endpoint);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (endpoints.size() >= configuration.getMaxEndpoints()) {
+            return endpoints.computeIfAbsent(OTHER_ENDPOINTS, PowerAuthEndpointTimingMetrics::new);
+        }
+        return endpoints.computeIfAbsent(endpoint, PowerAuthEndpointTimingMetrics::new);
+    }
+
+}
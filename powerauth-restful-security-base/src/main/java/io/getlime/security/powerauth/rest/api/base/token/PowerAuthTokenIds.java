@@ -0,0 +1,50 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.token;
+
+/**
+ * Utility methods for token identifiers.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public final class PowerAuthTokenIds {
+
+    private static final int VISIBLE_PREFIX_LENGTH = 8;
+
+    private PowerAuthTokenIds() {
+    }
+
+    /**
+     * Mask a token ID before it is written into a log. Only the first eight characters of the token ID are kept,
+     * so that log lines of a single token can be correlated without disclosing the whole token ID.
+     * @param tokenId Token ID.
+     * @return Masked token ID.
+     */
+    public static String mask(String tokenId) {
+        if (tokenId == null) {
+            return null;
+        }
+        if (tokenId.length() <= VISIBLE_PREFIX_LENGTH) {
+            return "...";
+        }
+        return tokenId.substring(0, VISIBLE_PREFIX_LENGTH) + "...";
+    }
+
+}
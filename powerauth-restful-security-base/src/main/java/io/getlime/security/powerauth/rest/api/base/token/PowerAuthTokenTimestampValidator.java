@@ -0,0 +1,104 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.token;
+
+/**
+ * Validator of token timestamps which allows rejecting stale tokens before calling the PowerAuth server.
+ *
+ * <p>Token timestamp is validated by the PowerAuth server as well, the local check only saves the SOAP call
+ * for tokens from clients with wrong clock or replayed tokens. Configure the maximum skew so that it is not
+ * stricter than the validity of token timestamp on the PowerAuth server. Authentication providers record each
+ * rejected token as the {@link io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceEvent#TOKEN_TIMESTAMP_REJECTED}
+ * event in service metrics.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthTokenTimestampValidator {
+
+    /**
+     * Default maximum skew, zero value disables the validation.
+     */
+    public static final long DEFAULT_MAX_TIMESTAMP_SKEW = 0L;
+
+    private final long maxTimestampSkew;
+
+    /**
+     * Constructor with default maximum skew, the validation is disabled.
+     */
+    public PowerAuthTokenTimestampValidator() {
+        this(DEFAULT_MAX_TIMESTAMP_SKEW);
+    }
+
+    /**
+     * Constructor with maximum skew.
+     * @param maxTimestampSkew Maximum difference between token timestamp and current time in milliseconds, zero value disables the validation.
+     */
+    public PowerAuthTokenTimestampValidator(long maxTimestampSkew) {
+        if (maxTimestampSkew < 0) {
+            throw new IllegalArgumentException("Maximum timestamp skew must not be negative");
+        }
+        this.maxTimestampSkew = maxTimestampSkew;
+    }
+
+    /**
+     * Whether token timestamp validation is enabled.
+     * @return True in case token timestamp validation is enabled.
+     */
+    public boolean isEnabled() {
+        return maxTimestampSkew > 0;
+    }
+
+    /**
+     * Get maximum difference between token timestamp and current time.
+     * @return Maximum timestamp skew in milliseconds.
+     */
+    public long getMaxTimestampSkew() {
+        return maxTimestampSkew;
+    }
+
+    /**
+     * Validate token timestamp against current time.
+     * @param timestamp Token timestamp in milliseconds.
+     * @return True in case the timestamp is valid or the validation is disabled, false otherwise.
+     */
+    public boolean validate(String timestamp) {
+        return validate(timestamp, System.currentTimeMillis());
+    }
+
+    /**
+     * Validate token timestamp against the given time.
+     * @param timestamp Token timestamp in milliseconds.
+     * @param now Current time in milliseconds.
+     * @return True in case the timestamp is valid or the validation is disabled, false otherwise.
+     */
+    boolean validate(String timestamp, long now) {
+        if (!isEnabled()) {
+            return true;
+        }
+        try {
+            final long tokenTimestamp = Long.parseLong(timestamp);
+            return Math.abs(now - tokenTimestamp) <= maxTimestampSkew;
+        } catch (NumberFormatException ex) {
+            // Invalid timestamp is rejected
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.BaseEncoding;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.EciesEncryptor;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.EciesFactory;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesCryptogram;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesScope;
+import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesSharedInfo1;
+import io.getlime.security.powerauth.crypto.lib.generator.KeyGenerator;
+import io.getlime.security.powerauth.http.PowerAuthEncryptionHttpHeader;
+import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesDecryptorParameters;
+import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesEncryption;
+import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestBody;
+import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestObjects;
+import io.getlime.security.powerauth.rest.api.base.provider.PowerAuthEncryptionProviderBase;
+import io.getlime.security.powerauth.rest.api.model.request.v3.ActivationLayer2Request;
+import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
+import io.getlime.security.powerauth.rest.api.model.response.v3.ActivationLayer2Response;
+import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.security.interfaces.ECPublicKey;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Warm-up task which decrypts an ECIES encrypted request and encrypts the response using
+ * {@link PowerAuthEncryptionProviderBase#decryptRequest(HttpServletRequest, Class, EciesScope)} and
+ * {@link PowerAuthEncryptionProviderBase#encryptResponse(Object, PowerAuthEciesEncryption)}, so that the code path of
+ * encrypted requests is executed including HTTP header parsing and request body deserialization. The request is
+ * encrypted once by a synthetic client using a random master server key pair and the encryption provider of the task
+ * returns the matching decryptor parameters instead of calling PowerAuth server.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthEciesWarmupTask implements PowerAuthWarmupTask {
+
+    private static final String PROTOCOL_VERSION = "3.1";
+
+    private final ObjectMapper objectMapper;
+
+    private WarmupEncryptionProvider encryptionProvider;
+    private String encryptionHeader;
+    private byte[] requestBody;
+
+    /**
+     * Task constructor.
+     * @param objectMapper Object mapper used for request and response bodies.
+     */
+    public PowerAuthEciesWarmupTask(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getName() {
+        return "ECIES";
+    }
+
+    @Override
+    public void run() throws Exception {
+        if (encryptionProvider == null) {
+            prepareRequest();
+        }
+
+        // Decrypt request
+        final HttpServletRequest request = WarmupRequest.create(encryptionHeader, new PowerAuthRequestBody(requestBody));
+        final PowerAuthEciesEncryption<ActivationLayer2Request> eciesEncryption = encryptionProvider.decryptRequest(request, ActivationLayer2Request.class, EciesScope.APPLICATION_SCOPE);
+        final ActivationLayer2Request requestObject = eciesEncryption.getRequestObject();
+        if (requestObject == null) {
+            throw new IllegalStateException("Request decryption failed");
+        }
+
+        // Encrypt response
+        final ActivationLayer2Response response = new ActivationLayer2Response();
+        response.setActivationId(requestObject.getActivationName());
+        response.setServerPublicKey(requestObject.getDevicePublicKey());
+        final EciesEncryptedResponse eciesResponse = encryptionProvider.encryptResponse(response, eciesEncryption);
+        if (eciesResponse == null) {
+            throw new IllegalStateException("Response encryption failed");
+        }
+        objectMapper.writeValueAsBytes(eciesResponse);
+    }
+
+    private void prepareRequest() throws Exception {
+        final KeyGenerator keyGenerator = new KeyGenerator();
+        final ECPublicKey masterServerPublicKey = (ECPublicKey) keyGenerator.generateKeyPair().getPublic();
+        final byte[] applicationKey = keyGenerator.generateRandomBytes(16);
+        final byte[] applicationSecret = keyGenerator.generateRandomBytes(16);
+        final byte[] devicePublicKey = keyGenerator.generateRandomBytes(65);
+
+        // Encrypt request data the same way as mobile client
+        final ActivationLayer2Request request = new ActivationLayer2Request(BaseEncoding.base64().encode(devicePublicKey), "warm-up", null);
+        final EciesEncryptor eciesEncryptor = new EciesFactory().getEciesEncryptorForApplication(masterServerPublicKey, applicationSecret, EciesSharedInfo1.ACTIVATION_LAYER_2);
+        final EciesCryptogram cryptogram = eciesEncryptor.encryptRequest(objectMapper.writeValueAsBytes(request), true);
+        final EciesEncryptedRequest eciesRequest = new EciesEncryptedRequest();
+        eciesRequest.setEphemeralPublicKey(BaseEncoding.base64().encode(cryptogram.getEphemeralPublicKey()));
+        eciesRequest.setEncryptedData(BaseEncoding.base64().encode(cryptogram.getEncryptedData()));
+        eciesRequest.setMac(BaseEncoding.base64().encode(cryptogram.getMac()));
+        eciesRequest.setNonce(BaseEncoding.base64().encode(cryptogram.getNonce()));
+        requestBody = objectMapper.writeValueAsBytes(eciesRequest);
+        encryptionHeader = new PowerAuthEncryptionHttpHeader(BaseEncoding.base64().encode(applicationKey), PROTOCOL_VERSION).buildHttpHeader();
+
+        // Decryptor parameters which PowerAuth server derives from the master server private key
+        final String secretKey = BaseEncoding.base64().encode(eciesEncryptor.getEnvelopeKey().getSecretKey());
+        final String sharedInfo2 = BaseEncoding.base64().encode(eciesEncryptor.getSharedInfo2());
+        encryptionProvider = new WarmupEncryptionProvider(new PowerAuthEciesDecryptorParameters(secretKey, sharedInfo2));
+    }
+
+    /**
+     * Encryption provider which returns decryptor parameters of the synthetic request instead of calling
+     * PowerAuth server, application keys are not checked by the application registry.
+     */
+    private static class WarmupEncryptionProvider extends PowerAuthEncryptionProviderBase {
+
+        private final PowerAuthEciesDecryptorParameters decryptorParameters;
+
+        WarmupEncryptionProvider(PowerAuthEciesDecryptorParameters decryptorParameters) {
+            this.decryptorParameters = decryptorParameters;
+        }
+
+        @Override
+        public PowerAuthEciesDecryptorParameters getEciesDecryptorParameters(String activationId, String applicationKey, String ephemeralPublicKey) {
+            return decryptorParameters;
+        }
+    }
+
+    /**
+     * Synthetic POST request with the encryption HTTP header and the request body stored in request attribute
+     * as by the PowerAuth request filter. Other methods of the request return default values.
+     */
+    private static class WarmupRequest implements InvocationHandler {
+
+        private final String encryptionHeader;
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        private WarmupRequest(String encryptionHeader, PowerAuthRequestBody requestBody) {
+            this.encryptionHeader = encryptionHeader;
+            attributes.put(PowerAuthRequestObjects.REQUEST_BODY, requestBody);
+        }
+
+        static HttpServletRequest create(String encryptionHeader, PowerAuthRequestBody requestBody) {
+            return (HttpServletRequest) Proxy.newProxyInstance(WarmupRequest.class.getClassLoader(),
+                    new Class<?>[] {HttpServletRequest.class}, new WarmupRequest(encryptionHeader, requestBody));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getMethod":
+                    return "POST";
+                case "getHeader":
+                    return PowerAuthEncryptionHttpHeader.HEADER_NAME.equalsIgnoreCase((String) args[0]) ? encryptionHeader : null;
+                case "getAttribute":
+                    return attributes.get((String) args[0]);
+                case "setAttribute":
+                    attributes.put((String) args[0], args[1]);
+                    return null;
+                case "removeAttribute":
+                    attributes.remove((String) args[0]);
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "POST warm-up request";
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            if (type == boolean.class) {
+                return false;
+            } else if (type == int.class) {
+                return 0;
+            } else if (type == long.class) {
+                return 0L;
+            }
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.core.rest.model.base.request.ObjectRequest;
+import io.getlime.core.rest.model.base.response.ErrorResponse;
+import io.getlime.core.rest.model.base.response.ObjectResponse;
+import io.getlime.core.rest.model.base.response.Response;
+import io.getlime.security.powerauth.rest.api.model.request.v3.ActivationLayer1Request;
+import io.getlime.security.powerauth.rest.api.model.request.v3.ActivationStatusRequest;
+import io.getlime.security.powerauth.rest.api.model.request.v3.ConfirmRecoveryRequestPayload;
+import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
+import io.getlime.security.powerauth.rest.api.model.request.v3.TokenRemoveRequest;
+import io.getlime.security.powerauth.rest.api.model.request.v3.VaultUnlockRequestPayload;
+import io.getlime.security.powerauth.rest.api.model.response.v3.ActivationLayer1Response;
+import io.getlime.security.powerauth.rest.api.model.response.v3.ActivationRemoveResponse;
+import io.getlime.security.powerauth.rest.api.model.response.v3.ActivationStatusResponse;
+import io.getlime.security.powerauth.rest.api.model.response.v3.ConfirmRecoveryResponsePayload;
+import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
+import io.getlime.security.powerauth.rest.api.model.response.v3.TokenRemoveResponse;
+import io.getlime.security.powerauth.rest.api.model.response.v3.UpgradeResponsePayload;
+import io.getlime.security.powerauth.rest.api.model.response.v3.VaultUnlockResponsePayload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Warm-up task which serializes and deserializes request and response objects, so that the object mapper
+ * introspects the model classes and creates their serializers and deserializers before the first request.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthJsonWarmupTask implements PowerAuthWarmupTask {
+
+    private final ObjectMapper objectMapper;
+    private final List<Object> samples;
+
+    /**
+     * Task constructor.
+     * @param objectMapper Object mapper used by the application for request and response bodies.
+     * @param samples Sample objects, each object is serialized and deserialized as its class.
+     */
+    public PowerAuthJsonWarmupTask(ObjectMapper objectMapper, List<Object> samples) {
+        this.objectMapper = objectMapper;
+        this.samples = new ArrayList<>(samples);
+    }
+
+    /**
+     * Create sample objects of request and response classes of protocol version 3.
+     * @return Sample objects.
+     */
+    public static List<Object> defaultSamples() {
+        return Arrays.asList(
+                new ObjectRequest<>(new ActivationLayer1Request()),
+                new ObjectRequest<>(new ActivationStatusRequest()),
+                new ObjectRequest<>(new TokenRemoveRequest()),
+                new ObjectResponse<>(new ActivationLayer1Response()),
+                new ObjectResponse<>(new ActivationRemoveResponse()),
+                new ObjectResponse<>(new ActivationStatusResponse()),
+                new ObjectResponse<>(new TokenRemoveResponse()),
+                new EciesEncryptedRequest(),
+                new EciesEncryptedResponse(),
+                new ConfirmRecoveryRequestPayload(),
+                new ConfirmRecoveryResponsePayload(),
+                new UpgradeResponsePayload(),
+                new VaultUnlockRequestPayload(),
+                new VaultUnlockResponsePayload(),
+                new ErrorResponse("ERROR_GENERIC", "Warm-up"),
+                new Response()
+        );
+    }
+
+    @Override
+    public String getName() {
+        return "JSON";
+    }
+
+    @Override
+    public void run() throws Exception {
+        for (Object sample : samples) {
+            final byte[] json = objectMapper.writeValueAsBytes(sample);
+            objectMapper.readValue(json, sample.getClass());
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.warmup;
+
+import io.getlime.security.powerauth.rest.api.base.jfr.PowerAuthFlightRecorder;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm-up of request processing executed before the application starts accepting requests. Synthetic workload
+ * of the warm-up tasks initializes lazily created components such as cryptographic providers, JAXB context and
+ * Jackson serializers, and lets the JIT compiler compile the request processing code paths, so that the first
+ * requests after a deployment are not processed by cold code.
+ *
+ * <p>A failing task is logged and it is not executed again, the warm-up never prevents the application from
+ * starting. The duration of the warm-up is available using {@link #getDuration()} once it completes.</p>
+ *
+ * <p>Flight Recorder events and request phase timings are suppressed while the tasks run, so that the synthetic
+ * workload does not show up in recordings and metrics of real requests.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(PowerAuthWarmup.class);
+
+    private final PowerAuthWarmupConfiguration configuration;
+    private final List<PowerAuthWarmupTask> tasks;
+
+    private volatile boolean completed;
+    private volatile long duration;
+    private volatile int iterations;
+
+    /**
+     * Warm-up constructor.
+     * @param configuration Warm-up configuration.
+     * @param tasks Warm-up tasks.
+     */
+    public PowerAuthWarmup(PowerAuthWarmupConfiguration configuration, List<PowerAuthWarmupTask> tasks) {
+        this.configuration = configuration;
+        this.tasks = new ArrayList<>(tasks);
+    }
+
+    /**
+     * Whether the warm-up is enabled.
+     * @return True in case the warm-up is enabled.
+     */
+    public boolean isEnabled() {
+        return configuration.isEnabled();
+    }
+
+    /**
+     * Execute the warm-up tasks in the calling thread. The method returns immediately in case the warm-up is
+     * disabled or in case it has already been executed.
+     */
+    public synchronized void run() {
+        if (!configuration.isEnabled() || completed) {
+            return;
+        }
+        final long startTime = System.nanoTime();
+        final long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(configuration.getMaxDuration());
+        final List<PowerAuthWarmupTask> activeTasks = new ArrayList<>(tasks);
+        final PowerAuthRequestTiming requestTiming = PowerAuthRequestTiming.current();
+        PowerAuthRequestTiming.unbind();
+        PowerAuthFlightRecorder.setSuppressed(true);
+        int iteration = 0;
+        try {
+            while (iteration < configuration.getIterations() && !activeTasks.isEmpty() && System.nanoTime() - deadline < 0) {
+                final Iterator<PowerAuthWarmupTask> iterator = activeTasks.iterator();
+                while (iterator.hasNext()) {
+                    final PowerAuthWarmupTask task = iterator.next();
+                    try {
+                        task.run();
+                    } catch (Exception ex) {
+                        logger.warn("Warm-up task {} failed, error: {}", task.getName(), ex.getMessage());
+                        logger.debug("Exception detail: ", ex);
+                        iterator.remove();
+                    }
+                }
+                iteration++;
+            }
+        } finally {
+            PowerAuthFlightRecorder.setSuppressed(false);
+            if (requestTiming != null) {
+                requestTiming.bind();
+            }
+        }
+        iterations = iteration;
+        duration = System.nanoTime() - startTime;
+        completed = true;
+        logger.info("Warm-up completed in {} ms, iterations: {}", TimeUnit.NANOSECONDS.toMillis(duration), iteration);
+    }
+
+    /**
+     * Whether the warm-up has been executed.
+     * @return True in case the warm-up completed.
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Get duration of the warm-up.
+     * @return Duration in nanoseconds, zero in case the warm-up has not been executed.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get number of executed iterations, lower than configured in case the maximum duration was exceeded.
+     * @return Number of executed iterations.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+}
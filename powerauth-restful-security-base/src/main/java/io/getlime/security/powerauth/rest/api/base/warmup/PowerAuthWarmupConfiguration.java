@@ -0,0 +1,91 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.warmup;
+
+/**
+ * Configuration of the warm-up executed before the application starts accepting requests.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthWarmupConfiguration {
+
+    private boolean enabled;
+
+    private int iterations = 1000;
+
+    private long maxDuration = 30000;
+
+    /**
+     * Whether the warm-up is enabled.
+     * @return True in case the warm-up is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether the warm-up is enabled.
+     * @param enabled True in case the warm-up should be enabled.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Get number of iterations, each warm-up task is executed once in each iteration.
+     * @return Number of iterations.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Set number of iterations, each warm-up task is executed once in each iteration. The JIT compiler compiles
+     * frequently executed methods, so enough iterations are needed to warm up the request processing code paths.
+     * @param iterations Number of iterations.
+     */
+    public void setIterations(int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Number of iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Get maximum duration of the warm-up in milliseconds.
+     * @return Maximum duration in milliseconds.
+     */
+    public long getMaxDuration() {
+        return maxDuration;
+    }
+
+    /**
+     * Set maximum duration of the warm-up in milliseconds. The warm-up stops after the current iteration once the
+     * duration is exceeded, so that slow machines do not delay the application start indefinitely.
+     * @param maxDuration Maximum duration in milliseconds.
+     */
+    public void setMaxDuration(long maxDuration) {
+        if (maxDuration <= 0) {
+            throw new IllegalArgumentException("Maximum duration must be positive");
+        }
+        this.maxDuration = maxDuration;
+    }
+
+}
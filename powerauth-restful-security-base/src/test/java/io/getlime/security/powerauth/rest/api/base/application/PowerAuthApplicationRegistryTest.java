@@ -0,0 +1,194 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the registry of application versions.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthApplicationRegistryTest {
+
+    private static final String SUPPORTED_KEY = "c3VwcG9ydGVkIGtleQ==";
+    private static final String UNSUPPORTED_KEY = "dW5zdXBwb3J0ZWQga2V5";
+    private static final String NEW_KEY = "bmV3IGtleQ==";
+    private static final String UNKNOWN_KEY = "dW5rbm93biBrZXk=";
+
+    /**
+     * Loader which returns the current list of application versions or fails, calls of the loader are counted.
+     */
+    private static class TestLoader implements PowerAuthApplicationRegistryLoader {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile List<PowerAuthApplicationVersion> versions = new ArrayList<>(Arrays.asList(
+                new PowerAuthApplicationVersion(1L, 10L, "1.0", SUPPORTED_KEY, true),
+                new PowerAuthApplicationVersion(1L, 11L, "0.9", UNSUPPORTED_KEY, false),
+                new PowerAuthApplicationVersion(2L, 20L, "default", null, true)));
+        private volatile boolean failing;
+
+        @Override
+        public List<PowerAuthApplicationVersion> loadApplicationVersions() throws Exception {
+            calls.incrementAndGet();
+            if (failing) {
+                throw new Exception("PowerAuth server is not available");
+            }
+            return versions;
+        }
+    }
+
+    private final TestLoader loader = new TestLoader();
+
+    private PowerAuthApplicationRegistry registry;
+
+    private PowerAuthApplicationRegistry createRegistry(boolean enabled, long unknownKeyRefreshInterval, long maximumAge) {
+        final PowerAuthApplicationRegistryConfiguration configuration = new PowerAuthApplicationRegistryConfiguration();
+        configuration.setEnabled(enabled);
+        // Periodic refresh is executed only once when the registry is created
+        configuration.setRefreshInterval(3600000L);
+        configuration.setUnknownKeyRefreshInterval(unknownKeyRefreshInterval);
+        configuration.setMaximumAge(maximumAge);
+        registry = new PowerAuthApplicationRegistry(configuration, loader);
+        return registry;
+    }
+
+    private PowerAuthApplicationRegistry createRegistry() throws InterruptedException {
+        final PowerAuthApplicationRegistry registry = createRegistry(true, 3600000L, PowerAuthApplicationRegistryConfiguration.DEFAULT_MAXIMUM_AGE);
+        waitFor(registry::isReady);
+        return registry;
+    }
+
+    /**
+     * Wait for a background refresh of the registry.
+     */
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @AfterEach
+    void closeRegistry() {
+        if (registry != null) {
+            registry.close();
+        }
+    }
+
+    @Test
+    void testKnownApplicationKeys() throws InterruptedException {
+        final PowerAuthApplicationRegistry registry = createRegistry();
+        assertTrue(registry.isEnabled());
+        assertFalse(registry.isApplicationKeyRejected(SUPPORTED_KEY));
+        assertTrue(registry.isApplicationKeyRejected(UNSUPPORTED_KEY));
+        assertFalse(registry.isApplicationKeyRejected(null));
+        assertEquals(Long.valueOf(1L), registry.getApplicationId(SUPPORTED_KEY));
+        assertEquals(10L, registry.getApplicationVersion(SUPPORTED_KEY).getApplicationVersionId());
+        assertEquals("0.9", registry.getApplicationVersion(UNSUPPORTED_KEY).getApplicationVersionName());
+        assertNull(registry.getApplicationId(UNKNOWN_KEY));
+        assertNull(registry.getApplicationId(null));
+    }
+
+    @Test
+    void testUnknownKeyRefreshThrottled() throws InterruptedException {
+        final PowerAuthApplicationRegistry registry = createRegistry(true, 3600000L, PowerAuthApplicationRegistryConfiguration.DEFAULT_MAXIMUM_AGE);
+        waitFor(registry::isReady);
+        final int calls = loader.calls.get();
+        final List<PowerAuthApplicationVersion> versions = new ArrayList<>(loader.versions);
+        versions.add(new PowerAuthApplicationVersion(3L, 30L, "1.0", NEW_KEY, true));
+        loader.versions = versions;
+        // The first unknown key triggers a refresh and it is not rejected
+        assertFalse(registry.isApplicationKeyRejected(NEW_KEY));
+        waitFor(() -> registry.getApplicationVersion(NEW_KEY) != null);
+        assertFalse(registry.isApplicationKeyRejected(NEW_KEY));
+        // Other unknown keys are rejected until the unknown key refresh interval elapses
+        assertTrue(registry.isApplicationKeyRejected(UNKNOWN_KEY));
+        assertTrue(registry.isApplicationKeyRejected(UNKNOWN_KEY));
+        assertEquals(calls + 1, loader.calls.get());
+    }
+
+    @Test
+    void testFailedRefreshKeepsContent() throws InterruptedException {
+        final PowerAuthApplicationRegistry registry = createRegistry();
+        loader.failing = true;
+        loader.versions = new ArrayList<>();
+        registry.refresh();
+        assertTrue(registry.isReady());
+        assertTrue(registry.isApplicationKeyRejected(UNSUPPORTED_KEY));
+        assertEquals(Long.valueOf(1L), registry.getApplicationId(SUPPORTED_KEY));
+    }
+
+    @Test
+    void testRegistryNotReady() throws InterruptedException {
+        loader.failing = true;
+        final PowerAuthApplicationRegistry registry = createRegistry(true, 0L, PowerAuthApplicationRegistryConfiguration.DEFAULT_MAXIMUM_AGE);
+        waitFor(() -> loader.calls.get() > 0);
+        // Keys are not rejected before the first successful refresh
+        assertFalse(registry.isReady());
+        assertFalse(registry.isApplicationKeyRejected(UNSUPPORTED_KEY));
+        assertFalse(registry.isApplicationKeyRejected(UNKNOWN_KEY));
+        assertNull(registry.getApplicationVersion(SUPPORTED_KEY));
+    }
+
+    @Test
+    void testMaximumAgeExceeded() throws InterruptedException {
+        final PowerAuthApplicationRegistry registry = createRegistry(true, 3600000L, 1L);
+        waitFor(() -> loader.calls.get() > 0);
+        Thread.sleep(20);
+        // Registry which was not refreshed within the maximum age is not used for validation
+        assertFalse(registry.isReady());
+        assertFalse(registry.isApplicationKeyRejected(UNSUPPORTED_KEY));
+        assertNull(registry.getApplicationId(SUPPORTED_KEY));
+    }
+
+    @Test
+    void testDisabledRegistry() {
+        final PowerAuthApplicationRegistry registry = createRegistry(false, 0L, PowerAuthApplicationRegistryConfiguration.DEFAULT_MAXIMUM_AGE);
+        registry.refresh();
+        assertFalse(registry.isEnabled());
+        assertFalse(registry.isReady());
+        assertFalse(registry.isApplicationKeyRejected(UNSUPPORTED_KEY));
+        assertNull(registry.getApplicationId(SUPPORTED_KEY));
+        assertEquals(0, loader.calls.get());
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        final PowerAuthApplicationRegistryConfiguration configuration = new PowerAuthApplicationRegistryConfiguration();
+        assertThrows(IllegalArgumentException.class, () -> configuration.setRefreshInterval(0L));
+        assertThrows(IllegalArgumentException.class, () -> configuration.setUnknownKeyRefreshInterval(-1L));
+        assertThrows(IllegalArgumentException.class, () -> configuration.setMaximumAge(0L));
+    }
+
+}
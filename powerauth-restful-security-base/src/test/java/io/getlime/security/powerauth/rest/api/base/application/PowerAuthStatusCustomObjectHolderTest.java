@@ -0,0 +1,168 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.application;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.getlime.security.powerauth.rest.api.model.response.v3.ActivationStatusResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the holder of the activation status custom object.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthStatusCustomObjectHolderTest {
+
+    /**
+     * Application configuration which counts calls of the custom object callback.
+     */
+    private static class CountingConfiguration implements PowerAuthApplicationConfiguration {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final long ttl;
+        private volatile Map<String, Object> customObject;
+
+        CountingConfiguration(Map<String, Object> customObject, long ttl) {
+            this.customObject = customObject;
+            this.ttl = ttl;
+        }
+
+        @Override
+        public Map<String, Object> statusServiceCustomObject() {
+            calls.incrementAndGet();
+            return customObject;
+        }
+
+        @Override
+        public long statusServiceCustomObjectTtl() {
+            return ttl;
+        }
+    }
+
+    /**
+     * Create an object mapper with non-default settings, which need to be applied to the prepared JSON as well.
+     */
+    private ObjectMapper createObjectMapper() {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        objectMapper.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        return objectMapper;
+    }
+
+    private Map<String, Object> createCustomObject() {
+        final Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("zulu", "value");
+        nested.put("empty", "");
+        nested.put("alpha", Arrays.asList(1, 2, 3));
+        final Map<String, Object> customObject = new LinkedHashMap<>();
+        customObject.put("timestamp", 1600000000000L);
+        customObject.put("outage", nested);
+        customObject.put("message", "Service is \"available\"");
+        customObject.put("emptyList", Collections.emptyList());
+        return customObject;
+    }
+
+    private ActivationStatusResponse createResponse(Map<String, Object> customObject) {
+        final ActivationStatusResponse response = new ActivationStatusResponse();
+        response.setActivationId("e43a5dec-afea-4a10-a80b-b2183399f16b");
+        response.setEncryptedStatusBlob("c3RhdHVzQmxvYg==");
+        response.setCustomObject(customObject);
+        return response;
+    }
+
+    @Test
+    void testPreserializedOutputMatchesSerialization() throws Exception {
+        final ObjectMapper objectMapper = createObjectMapper();
+        final Map<String, Object> customObject = createCustomObject();
+        final PowerAuthStatusCustomObjectHolder holder = new PowerAuthStatusCustomObjectHolder(new CountingConfiguration(customObject, 60000), objectMapper);
+
+        final Map<String, Object> preparedObject = holder.getCustomObject();
+        assertTrue(preparedObject instanceof PowerAuthPreserializedObject);
+        assertEquals(customObject, preparedObject);
+        final String expected = objectMapper.writeValueAsString(createResponse(customObject));
+        assertEquals(expected, objectMapper.writeValueAsString(createResponse(preparedObject)));
+        // Settings of the object mapper are applied to the prepared JSON
+        assertTrue(expected.contains("{\"alpha\":[1,2,3],\"zulu\":\"value\"}"));
+    }
+
+    @Test
+    void testCustomObjectReusedWithinTtl() {
+        final CountingConfiguration configuration = new CountingConfiguration(createCustomObject(), 60000);
+        final PowerAuthStatusCustomObjectHolder holder = new PowerAuthStatusCustomObjectHolder(configuration, createObjectMapper());
+        final Map<String, Object> customObject = holder.getCustomObject();
+        assertSame(customObject, holder.getCustomObject());
+        assertEquals(1, configuration.calls.get());
+    }
+
+    @Test
+    void testRefresh() throws Exception {
+        final ObjectMapper objectMapper = createObjectMapper();
+        final CountingConfiguration configuration = new CountingConfiguration(createCustomObject(), 60000);
+        final PowerAuthStatusCustomObjectHolder holder = new PowerAuthStatusCustomObjectHolder(configuration, objectMapper);
+        holder.getCustomObject();
+        final Map<String, Object> updatedObject = Collections.singletonMap("status", "outage");
+        configuration.customObject = updatedObject;
+        holder.refresh();
+        assertEquals(2, configuration.calls.get());
+        assertEquals(objectMapper.writeValueAsString(updatedObject), ((PowerAuthPreserializedObject) holder.getCustomObject()).getJson());
+    }
+
+    @Test
+    void testCustomObjectExpiration() throws InterruptedException {
+        final CountingConfiguration configuration = new CountingConfiguration(createCustomObject(), 1);
+        final PowerAuthStatusCustomObjectHolder holder = new PowerAuthStatusCustomObjectHolder(configuration, createObjectMapper());
+        holder.getCustomObject();
+        Thread.sleep(20);
+        holder.getCustomObject();
+        assertEquals(2, configuration.calls.get());
+    }
+
+    @Test
+    void testCustomObjectWithoutTtl() {
+        final Map<String, Object> customObject = createCustomObject();
+        final CountingConfiguration configuration = new CountingConfiguration(customObject, 0);
+        final PowerAuthStatusCustomObjectHolder holder = new PowerAuthStatusCustomObjectHolder(configuration, createObjectMapper());
+        assertSame(customObject, holder.getCustomObject());
+        assertSame(customObject, holder.getCustomObject());
+        assertEquals(2, configuration.calls.get());
+    }
+
+    @Test
+    void testNullCustomObject() throws Exception {
+        final ObjectMapper objectMapper = createObjectMapper();
+        final PowerAuthStatusCustomObjectHolder holder = new PowerAuthStatusCustomObjectHolder(new CountingConfiguration(null, 60000), objectMapper);
+        assertNull(holder.getCustomObject());
+        assertEquals(objectMapper.writeValueAsString(createResponse(null)), objectMapper.writeValueAsString(createResponse(holder.getCustomObject())));
+    }
+
+}
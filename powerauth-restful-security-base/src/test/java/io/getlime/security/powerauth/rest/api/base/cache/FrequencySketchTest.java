@@ -0,0 +1,75 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the frequency sketch used by the W-TinyLFU cache.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class FrequencySketchTest {
+
+    @Test
+    void testUnknownKeyHasZeroFrequency() {
+        final FrequencySketch sketch = new FrequencySketch(1000);
+        assertEquals(0, sketch.frequency("unknown".hashCode()));
+    }
+
+    @Test
+    void testFrequencyIsIncremented() {
+        final FrequencySketch sketch = new FrequencySketch(1000);
+        final int hash = "key".hashCode();
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(hash);
+        }
+        assertEquals(5, sketch.frequency(hash));
+    }
+
+    @Test
+    void testFrequencySaturates() {
+        final FrequencySketch sketch = new FrequencySketch(1000);
+        final int hash = "key".hashCode();
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(hash);
+        }
+        assertEquals(15, sketch.frequency(hash));
+    }
+
+    @Test
+    void testCountersAreHalvedAfterSampleSize() {
+        // Sample size is ten times the maximum size
+        final FrequencySketch sketch = new FrequencySketch(10);
+        final int hash = "key".hashCode();
+        for (int i = 0; i < 8; i++) {
+            sketch.increment(hash);
+        }
+        assertTrue(sketch.frequency(hash) >= 8);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(("other" + i).hashCode());
+        }
+        assertTrue(sketch.frequency(hash) < 8);
+    }
+
+}
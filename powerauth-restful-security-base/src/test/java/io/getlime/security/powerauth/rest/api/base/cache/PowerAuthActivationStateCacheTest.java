@@ -0,0 +1,181 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the cache of blocked and removed activation states.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthActivationStateCacheTest {
+
+    private final String activationId = UUID.randomUUID().toString();
+    private final String tokenId = UUID.randomUUID().toString();
+
+    @TempDir
+    Path directory;
+
+    private PowerAuthActivationStateCache createCache(boolean enabled, long blockedTtl) {
+        final PowerAuthActivationStateCacheConfiguration configuration = new PowerAuthActivationStateCacheConfiguration();
+        configuration.setEnabled(enabled);
+        configuration.setBlockedTtl(blockedTtl);
+        return new PowerAuthActivationStateCache(configuration);
+    }
+
+    private PowerAuthActivationStateCache createCache() {
+        return createCache(true, PowerAuthActivationStateCacheConfiguration.DEFAULT_BLOCKED_TTL);
+    }
+
+    @Test
+    void testBlockedAndRemovedActivationsRejected() {
+        final PowerAuthActivationStateCache cache = createCache();
+        final String removedActivationId = UUID.randomUUID().toString();
+        cache.activationStateChanged(activationId, PowerAuthActivationState.BLOCKED);
+        cache.activationStateChanged(removedActivationId, PowerAuthActivationState.REMOVED);
+        assertTrue(cache.isActivationRejected(activationId));
+        assertTrue(cache.isActivationRejected(removedActivationId));
+        assertEquals(PowerAuthActivationState.BLOCKED, cache.getActivationState(activationId));
+        assertEquals(PowerAuthActivationState.REMOVED, cache.getActivationState(removedActivationId));
+        assertEquals(2, cache.getRejectedCount());
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    void testOtherStatesNotCached() {
+        final PowerAuthActivationStateCache cache = createCache();
+        for (PowerAuthActivationState state : new PowerAuthActivationState[] {
+                PowerAuthActivationState.CREATED, PowerAuthActivationState.PENDING_COMMIT, PowerAuthActivationState.ACTIVE}) {
+            cache.activationStateChanged(activationId, state);
+            assertFalse(cache.isActivationRejected(activationId));
+        }
+        assertEquals(0, cache.getSize());
+        cache.activationStateChanged(activationId, null);
+        cache.activationStateChanged(null, PowerAuthActivationState.BLOCKED);
+        assertEquals(0, cache.getSize());
+        assertFalse(cache.isActivationRejected(null));
+        assertNull(cache.getActivationState(null));
+        assertEquals(0, cache.getRejectedCount());
+    }
+
+    @Test
+    void testUnblockedActivationAccepted() {
+        final PowerAuthActivationStateCache cache = createCache();
+        cache.activationStateChanged(activationId, PowerAuthActivationState.BLOCKED);
+        cache.activationStateChanged(activationId, PowerAuthActivationState.ACTIVE);
+        assertFalse(cache.isActivationRejected(activationId));
+        cache.activationStateChanged(activationId, PowerAuthActivationState.BLOCKED);
+        cache.invalidate(activationId);
+        assertFalse(cache.isActivationRejected(activationId));
+    }
+
+    @Test
+    void testBlockedStateExpires() throws InterruptedException {
+        final PowerAuthActivationStateCache cache = createCache(true, 1L);
+        cache.activationStateChanged(activationId, PowerAuthActivationState.BLOCKED);
+        Thread.sleep(20);
+        assertFalse(cache.isActivationRejected(activationId));
+    }
+
+    @Test
+    void testTokenOfBlockedActivationRejected() {
+        final PowerAuthActivationStateCache cache = createCache();
+        // Activation of unknown token is not known
+        cache.activationStateChanged(activationId, PowerAuthActivationState.BLOCKED);
+        assertFalse(cache.isTokenRejected(tokenId));
+        // Validated token marks the activation as active
+        cache.tokenValidated(tokenId, activationId);
+        assertFalse(cache.isTokenRejected(tokenId));
+        cache.activationStateChanged(activationId, PowerAuthActivationState.BLOCKED);
+        assertTrue(cache.isTokenRejected(tokenId));
+        cache.invalidateToken(tokenId);
+        assertFalse(cache.isTokenRejected(tokenId));
+        assertFalse(cache.isTokenRejected(null));
+    }
+
+    @Test
+    void testInvalidateAll() {
+        final PowerAuthActivationStateCache cache = createCache();
+        cache.tokenValidated(tokenId, activationId);
+        cache.activationStateChanged(activationId, PowerAuthActivationState.REMOVED);
+        cache.invalidateAll();
+        assertFalse(cache.isActivationRejected(activationId));
+        assertFalse(cache.isTokenRejected(tokenId));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void testDisabled() {
+        final PowerAuthActivationStateCache cache = createCache(false, PowerAuthActivationStateCacheConfiguration.DEFAULT_BLOCKED_TTL);
+        cache.tokenValidated(tokenId, activationId);
+        cache.activationStateChanged(activationId, PowerAuthActivationState.BLOCKED);
+        assertFalse(cache.isActivationRejected(activationId));
+        assertFalse(cache.isTokenRejected(tokenId));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void testSnapshot() throws IOException {
+        final PowerAuthActivationStateCache cache = new PowerAuthActivationStateCache(createConfiguration(), new PowerAuthOffHeapCacheFactory());
+        final String activeActivationId = UUID.randomUUID().toString();
+        cache.tokenValidated(tokenId, activationId);
+        cache.activationStateChanged(activationId, PowerAuthActivationState.REMOVED);
+        cache.activationStateChanged(activeActivationId, PowerAuthActivationState.ACTIVE);
+        cache.writeSnapshot(directory);
+
+        final PowerAuthActivationStateCache restored = new PowerAuthActivationStateCache(createConfiguration(), new PowerAuthOffHeapCacheFactory());
+        restored.loadSnapshot(directory);
+        assertTrue(restored.isTokenRejected(tokenId));
+        assertTrue(restored.isActivationRejected(activationId));
+        assertFalse(restored.isActivationRejected(activeActivationId));
+        // Records taken from the snapshot are cached
+        assertEquals(1, restored.getSize());
+    }
+
+    @Test
+    void testStateChangeOverridesSnapshot() throws IOException {
+        final PowerAuthActivationStateCache cache = new PowerAuthActivationStateCache(createConfiguration(), new PowerAuthOffHeapCacheFactory());
+        cache.activationStateChanged(activationId, PowerAuthActivationState.BLOCKED);
+        cache.writeSnapshot(directory);
+
+        final PowerAuthActivationStateCache restored = new PowerAuthActivationStateCache(createConfiguration(), new PowerAuthOffHeapCacheFactory());
+        restored.loadSnapshot(directory);
+        restored.activationStateChanged(activationId, PowerAuthActivationState.ACTIVE);
+        assertFalse(restored.isActivationRejected(activationId));
+    }
+
+    private static PowerAuthActivationStateCacheConfiguration createConfiguration() {
+        final PowerAuthActivationStateCacheConfiguration configuration = new PowerAuthActivationStateCacheConfiguration();
+        configuration.setEnabled(true);
+        return configuration;
+    }
+
+}
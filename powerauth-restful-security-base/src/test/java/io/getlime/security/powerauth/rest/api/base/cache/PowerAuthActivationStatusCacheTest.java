@@ -0,0 +1,120 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test of the cache of encrypted activation status blobs.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthActivationStatusCacheTest {
+
+    private static final String STATUS_BLOB = "c3RhdHVzIGJsb2I=";
+
+    private final String activationId = UUID.randomUUID().toString();
+
+    private PowerAuthActivationStatusCache createCache(boolean enabled, long ttl) {
+        final PowerAuthActivationStatusCacheConfiguration configuration = new PowerAuthActivationStatusCacheConfiguration();
+        configuration.setEnabled(enabled);
+        configuration.setTtl(ttl);
+        return new PowerAuthActivationStatusCache(configuration);
+    }
+
+    private PowerAuthActivationStatusCache createCache() {
+        return createCache(true, PowerAuthActivationStatusCacheConfiguration.DEFAULT_TTL);
+    }
+
+    @Test
+    void testStatusWithoutChallengeCached() {
+        final PowerAuthActivationStatusCache cache = createCache();
+        assertNull(cache.get(activationId, null));
+        cache.put(activationId, null, STATUS_BLOB, null);
+        assertEquals(STATUS_BLOB, cache.get(activationId, null));
+        assertEquals(1, cache.getSize());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testStatusWithChallengeNotCached() {
+        final PowerAuthActivationStatusCache cache = createCache();
+        cache.put(activationId, "challenge", STATUS_BLOB, null);
+        assertNull(cache.get(activationId, null));
+        assertEquals(0, cache.getSize());
+        // Cached status is never returned for requests with challenge
+        cache.put(activationId, null, STATUS_BLOB, null);
+        assertNull(cache.get(activationId, "challenge"));
+    }
+
+    @Test
+    void testStatusWithNonceNotCached() {
+        final PowerAuthActivationStatusCache cache = createCache();
+        cache.put(activationId, null, STATUS_BLOB, "nonce");
+        assertNull(cache.get(activationId, null));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void testInvalidValuesNotCached() {
+        final PowerAuthActivationStatusCache cache = createCache();
+        cache.put(null, null, STATUS_BLOB, null);
+        cache.put(activationId, null, null, null);
+        assertNull(cache.get(activationId, null));
+        assertNull(cache.get(null, null));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void testInvalidation() {
+        final PowerAuthActivationStatusCache cache = createCache();
+        final String otherActivationId = UUID.randomUUID().toString();
+        cache.put(activationId, null, STATUS_BLOB, null);
+        cache.put(otherActivationId, null, STATUS_BLOB, null);
+        cache.invalidate(activationId);
+        assertNull(cache.get(activationId, null));
+        assertEquals(STATUS_BLOB, cache.get(otherActivationId, null));
+        cache.invalidateAll();
+        assertNull(cache.get(otherActivationId, null));
+    }
+
+    @Test
+    void testExpiration() throws InterruptedException {
+        final PowerAuthActivationStatusCache cache = createCache(true, 1L);
+        cache.put(activationId, null, STATUS_BLOB, null);
+        Thread.sleep(20);
+        assertNull(cache.get(activationId, null));
+    }
+
+    @Test
+    void testDisabled() {
+        final PowerAuthActivationStatusCache cache = createCache(false, PowerAuthActivationStatusCacheConfiguration.DEFAULT_TTL);
+        cache.put(activationId, null, STATUS_BLOB, null);
+        assertNull(cache.get(activationId, null));
+        assertEquals(0, cache.getSize());
+    }
+
+}
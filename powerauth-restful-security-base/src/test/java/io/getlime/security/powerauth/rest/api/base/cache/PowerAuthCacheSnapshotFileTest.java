@@ -0,0 +1,204 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test of the cache snapshot persisted in a memory-mapped file.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthCacheSnapshotFileTest {
+
+    private static final PowerAuthOffHeapValueCodec<String> CODEC = PowerAuthOffHeapValueCodec.UUID;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Create a cache large enough so that random keys used by the tests are not evicted from full buckets.
+     */
+    private PowerAuthCache<String, String> createCache() {
+        return new PowerAuthOffHeapCache<>(new PowerAuthCacheConfiguration(1000, 0), CODEC, null);
+    }
+
+    private Path writeSnapshot(PowerAuthCache<String, String> cache) throws IOException {
+        final Path file = directory.resolve("cache.snapshot");
+        PowerAuthCacheSnapshotFile.write(file, CODEC, cache, null);
+        return file;
+    }
+
+    /**
+     * Write a valid snapshot of a single entry and overwrite an int value of the header.
+     */
+    private Path writeCorruptedSnapshot(int offset, int value) throws IOException {
+        final PowerAuthCache<String, String> cache = createCache();
+        cache.put(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+        final Path file = writeSnapshot(cache);
+        final byte[] content = Files.readAllBytes(file);
+        ByteBuffer.wrap(content).putInt(offset, value);
+        Files.write(file, content);
+        return file;
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        final PowerAuthCache<String, String> cache = createCache();
+        final Map<String, String> entries = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            final String key = UUID.randomUUID().toString();
+            final String value = UUID.randomUUID().toString();
+            cache.put(key, value);
+            entries.put(key, value);
+        }
+        final long expiration = System.currentTimeMillis() + 60000;
+        final String expiringKey = UUID.randomUUID().toString();
+        cache.put(expiringKey, expiringKey, 60000);
+
+        final PowerAuthCacheSnapshotFile<String> snapshot = PowerAuthCacheSnapshotFile.open(writeSnapshot(cache), CODEC);
+        assertNotNull(snapshot);
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            final PowerAuthCacheSnapshotFile.Entry<String> snapshotEntry = snapshot.take(entry.getKey());
+            assertNotNull(snapshotEntry);
+            assertEquals(entry.getValue(), snapshotEntry.getValue());
+            assertEquals(Long.MAX_VALUE, snapshotEntry.getExpiration());
+        }
+        final PowerAuthCacheSnapshotFile.Entry<String> expiringEntry = snapshot.take(expiringKey);
+        assertNotNull(expiringEntry);
+        assertEquals(expiringKey, expiringEntry.getValue());
+        assertFalse(Math.abs(expiringEntry.getExpiration() - expiration) > 1000);
+        assertNull(snapshot.take(UUID.randomUUID().toString()));
+        assertNull(snapshot.take("key"));
+    }
+
+    @Test
+    void testEachRecordTakenOnce() throws IOException {
+        final PowerAuthCache<String, String> cache = createCache();
+        final String key = UUID.randomUUID().toString();
+        final String discardedKey = UUID.randomUUID().toString();
+        cache.put(key, key);
+        cache.put(discardedKey, discardedKey);
+
+        final PowerAuthCacheSnapshotFile<String> snapshot = PowerAuthCacheSnapshotFile.open(writeSnapshot(cache), CODEC);
+        assertNotNull(snapshot);
+        assertNotNull(snapshot.take(key));
+        assertNull(snapshot.take(key));
+        snapshot.discard(discardedKey);
+        assertNull(snapshot.take(discardedKey));
+    }
+
+    @Test
+    void testExpiredEntriesNotWritten() throws IOException, InterruptedException {
+        final PowerAuthCache<String, String> cache = createCache();
+        final String key = UUID.randomUUID().toString();
+        cache.put(key, key, 1);
+        Thread.sleep(20);
+
+        final PowerAuthCacheSnapshotFile<String> snapshot = PowerAuthCacheSnapshotFile.open(writeSnapshot(cache), CODEC);
+        assertNotNull(snapshot);
+        assertNull(snapshot.take(key));
+    }
+
+    @Test
+    void testRemainingRecordsOfPreviousSnapshot() throws IOException {
+        final PowerAuthCache<String, String> cache = createCache();
+        final String takenKey = UUID.randomUUID().toString();
+        final String remainingKey = UUID.randomUUID().toString();
+        final String updatedKey = UUID.randomUUID().toString();
+        cache.put(takenKey, takenKey);
+        cache.put(remainingKey, remainingKey);
+        cache.put(updatedKey, updatedKey);
+        final Path file = writeSnapshot(cache);
+
+        final PowerAuthCacheSnapshotFile<String> previous = PowerAuthCacheSnapshotFile.open(file, CODEC);
+        assertNotNull(previous);
+        assertNotNull(previous.take(takenKey));
+        final PowerAuthCache<String, String> nextCache = createCache();
+        final String updatedValue = UUID.randomUUID().toString();
+        nextCache.put(updatedKey, updatedValue);
+        PowerAuthCacheSnapshotFile.write(file, CODEC, nextCache, previous);
+
+        final PowerAuthCacheSnapshotFile<String> snapshot = PowerAuthCacheSnapshotFile.open(file, CODEC);
+        assertNotNull(snapshot);
+        assertNull(snapshot.take(takenKey));
+        assertEquals(remainingKey, snapshot.take(remainingKey).getValue());
+        // Cache entries take precedence over records of the previous snapshot
+        assertEquals(updatedValue, snapshot.take(updatedKey).getValue());
+    }
+
+    @Test
+    void testMissingFile() {
+        assertNull(PowerAuthCacheSnapshotFile.open(directory.resolve("missing.snapshot"), CODEC));
+        assertNull(PowerAuthCacheSnapshotFile.open(directory, CODEC));
+    }
+
+    @Test
+    void testCorruptedHeader() throws IOException {
+        // Magic
+        assertNull(PowerAuthCacheSnapshotFile.open(writeCorruptedSnapshot(0, 0x12345678), CODEC));
+        // Version
+        assertNull(PowerAuthCacheSnapshotFile.open(writeCorruptedSnapshot(4, 2), CODEC));
+        // Record size
+        assertNull(PowerAuthCacheSnapshotFile.open(writeCorruptedSnapshot(8, 48), CODEC));
+        // Capacity which is not a power of two, negative or does not match the file size
+        assertNull(PowerAuthCacheSnapshotFile.open(writeCorruptedSnapshot(12, 15), CODEC));
+        assertNull(PowerAuthCacheSnapshotFile.open(writeCorruptedSnapshot(12, -16), CODEC));
+        assertNull(PowerAuthCacheSnapshotFile.open(writeCorruptedSnapshot(12, 32), CODEC));
+    }
+
+    @Test
+    void testTruncatedFile() throws IOException {
+        final PowerAuthCache<String, String> cache = createCache();
+        cache.put(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+        final Path file = writeSnapshot(cache);
+        final byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 8));
+        assertNull(PowerAuthCacheSnapshotFile.open(file, CODEC));
+        Files.write(file, Arrays.copyOf(content, 16));
+        assertNull(PowerAuthCacheSnapshotFile.open(file, CODEC));
+        Files.write(file, new byte[0]);
+        assertNull(PowerAuthCacheSnapshotFile.open(file, CODEC));
+    }
+
+    @Test
+    void testSnapshotOfDifferentCodec() throws IOException {
+        final PowerAuthCache<String, String> cache = createCache();
+        cache.put(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+        final Path file = writeSnapshot(cache);
+        assertNull(PowerAuthCacheSnapshotFile.open(file, PowerAuthOffHeapValueCodec.ACTIVATION_STATE));
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the off-heap cache with UUID keys.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthOffHeapCacheTest {
+
+    /**
+     * Eviction listener which records evicted keys and causes.
+     */
+    private static class RecordingListener implements PowerAuthCacheEvictionListener<String, String> {
+
+        private final List<String> keys = Collections.synchronizedList(new ArrayList<>());
+        private final List<PowerAuthCacheEvictionCause> causes = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onEviction(String key, String value, PowerAuthCacheEvictionCause cause) {
+            keys.add(key);
+            causes.add(cause);
+        }
+    }
+
+    private final RecordingListener listener = new RecordingListener();
+
+    /**
+     * Create the smallest cache, which uses sixteen segments with a single bucket of eight slots each.
+     */
+    private PowerAuthOffHeapCache<String> createCache(long ttl) {
+        return new PowerAuthOffHeapCache<>(new PowerAuthCacheConfiguration(8, ttl), PowerAuthOffHeapValueCodec.UUID, listener);
+    }
+
+    /**
+     * Find keys which are stored in the same bucket. Each segment of the smallest cache has one bucket, so that
+     * the bucket is selected by the lowest four bits of the hash.
+     */
+    private List<String> keysInSameBucket(int count) {
+        final List<String> keys = new ArrayList<>();
+        for (long i = 1; keys.size() < count; i++) {
+            if ((PowerAuthOffHeapCache.hash(0L, i) & 15) == 0) {
+                keys.add(new UUID(0L, i).toString());
+            }
+        }
+        return keys;
+    }
+
+    private void assertZeroed(PowerAuthOffHeapCache<String> cache) {
+        for (ByteBuffer buffer : cache.getSegmentBuffers()) {
+            for (int i = 0; i < buffer.capacity(); i++) {
+                assertEquals(0, buffer.get(i), "Byte " + i + " of the segment buffer is not zero");
+            }
+        }
+    }
+
+    @Test
+    void testUuidParsing() {
+        for (int i = 0; i < 100; i++) {
+            final UUID uuid = UUID.randomUUID();
+            assertTrue(PowerAuthOffHeapCache.isUuid(uuid.toString()));
+            assertEquals(uuid.getMostSignificantBits(), PowerAuthOffHeapCache.uuidHigh(uuid.toString()));
+            assertEquals(uuid.getLeastSignificantBits(), PowerAuthOffHeapCache.uuidLow(uuid.toString()));
+            final String upperCase = uuid.toString().toUpperCase(Locale.ROOT);
+            assertTrue(PowerAuthOffHeapCache.isUuid(upperCase));
+            assertEquals(uuid.getMostSignificantBits(), PowerAuthOffHeapCache.uuidHigh(upperCase));
+            assertEquals(uuid.getLeastSignificantBits(), PowerAuthOffHeapCache.uuidLow(upperCase));
+        }
+        assertFalse(PowerAuthOffHeapCache.isUuid(null));
+        assertFalse(PowerAuthOffHeapCache.isUuid(""));
+        assertFalse(PowerAuthOffHeapCache.isUuid("f81d4fae-7dec-11d0-a765-00a0c91e6bf"));
+        assertFalse(PowerAuthOffHeapCache.isUuid("f81d4fae-7dec-11d0-a765-00a0c91e6bf6a"));
+        assertFalse(PowerAuthOffHeapCache.isUuid("f81d4fae07dec-11d0-a765-00a0c91e6bf6"));
+        assertFalse(PowerAuthOffHeapCache.isUuid("f81d4fae-7dec-11d0-a765-00a0c91e6bg6"));
+        assertFalse(PowerAuthOffHeapCache.isUuid("f81d4fae-7dec-11d0-a765-00a0c91e-bf6"));
+    }
+
+    @Test
+    void testNonAsciiDigitsRejected() {
+        // Arabic-Indic digit one, fullwidth digit one, fullwidth letters A and a
+        for (char c : new char[] {'\u0661', '\uff11', '\uff21', '\uff41'}) {
+            assertFalse(PowerAuthOffHeapCache.isUuid(c + "81d4fae-7dec-11d0-a765-00a0c91e6bf6"));
+            assertFalse(PowerAuthOffHeapCache.isUuid("f81d4fae-7dec-11d0-a765-00a0c91e6bf" + c));
+        }
+        final PowerAuthOffHeapCache<String> cache = createCache(0);
+        cache.put("\uff11" + "81d4fae-7dec-11d0-a765-00a0c91e6bf6", UUID.randomUUID().toString());
+        assertNull(cache.get("181d4fae-7dec-11d0-a765-00a0c91e6bf6"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testPutAndGet() {
+        final PowerAuthOffHeapCache<String> cache = createCache(0);
+        final String key = UUID.randomUUID().toString();
+        final String value = UUID.randomUUID().toString();
+        cache.put(key, value);
+        assertEquals(value, cache.get(key));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getStats().getHitCount());
+    }
+
+    @Test
+    void testInvalidKeyAndValueNotCached() {
+        final PowerAuthOffHeapCache<String> cache = createCache(0);
+        cache.put("key", UUID.randomUUID().toString());
+        assertNull(cache.get("key"));
+        final String key = UUID.randomUUID().toString();
+        cache.put(key, "value");
+        assertNull(cache.get(key));
+        assertEquals(0, cache.size());
+        assertZeroed(cache);
+    }
+
+    @Test
+    void testEvictionWithinBucket() {
+        final PowerAuthOffHeapCache<String> cache = createCache(0);
+        final List<String> keys = keysInSameBucket(9);
+        for (int i = 0; i < 8; i++) {
+            cache.put(keys.get(i), keys.get(i));
+        }
+        // The first key becomes the most recently used one, the second key is evicted
+        assertEquals(keys.get(0), cache.get(keys.get(0)));
+        cache.put(keys.get(8), keys.get(8));
+        assertEquals(8, cache.size());
+        assertNull(cache.get(keys.get(1)));
+        assertEquals(keys.get(0), cache.get(keys.get(0)));
+        assertEquals(keys.get(8), cache.get(keys.get(8)));
+        assertEquals(1, cache.getStats().getEvictionCount());
+        assertEquals(Collections.singletonList(keys.get(1)), listener.keys);
+        assertEquals(Collections.singletonList(PowerAuthCacheEvictionCause.SIZE), listener.causes);
+    }
+
+    @Test
+    void testSlotReuse() {
+        final PowerAuthOffHeapCache<String> cache = createCache(0);
+        final List<String> keys = keysInSameBucket(9);
+        for (int i = 0; i < 8; i++) {
+            cache.put(keys.get(i), keys.get(i));
+        }
+        cache.invalidate(keys.get(3));
+        // The invalidated slot is reused without evicting other entries
+        cache.put(keys.get(8), keys.get(8));
+        assertEquals(8, cache.size());
+        assertEquals(0, cache.getStats().getEvictionCount());
+        for (int i = 0; i < 9; i++) {
+            if (i == 3) {
+                assertNull(cache.get(keys.get(i)));
+            } else {
+                assertEquals(keys.get(i), cache.get(keys.get(i)));
+            }
+        }
+        // Overwriting an existing key keeps a single slot
+        final String value = UUID.randomUUID().toString();
+        cache.put(keys.get(0), value);
+        assertEquals(8, cache.size());
+        assertEquals(value, cache.get(keys.get(0)));
+    }
+
+    @Test
+    void testSlotsZeroedOnInvalidation() {
+        final PowerAuthOffHeapCache<String> cache = createCache(0);
+        final List<String> keys = keysInSameBucket(8);
+        for (String key : keys) {
+            cache.put(key, UUID.randomUUID().toString());
+        }
+        for (String key : keys) {
+            cache.invalidate(key);
+        }
+        assertEquals(0, cache.size());
+        assertZeroed(cache);
+
+        for (int i = 0; i < 50; i++) {
+            cache.put(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+        }
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertZeroed(cache);
+    }
+
+    @Test
+    void testSlotsZeroedOnExpiration() throws InterruptedException {
+        final PowerAuthOffHeapCache<String> cache = createCache(1);
+        final String key = UUID.randomUUID().toString();
+        cache.put(key, UUID.randomUUID().toString());
+        Thread.sleep(20);
+        assertNull(cache.get(key));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getStats().getExpirationCount());
+        assertEquals(Collections.singletonList(PowerAuthCacheEvictionCause.EXPIRED), listener.causes);
+        assertZeroed(cache);
+    }
+
+    @Test
+    void testEvictedSlotOverwritten() {
+        final PowerAuthOffHeapCache<String> cache = createCache(0);
+        final List<String> keys = keysInSameBucket(9);
+        final UUID evictedValue = UUID.randomUUID();
+        cache.put(keys.get(0), evictedValue.toString());
+        for (int i = 1; i < 9; i++) {
+            cache.put(keys.get(i), keys.get(i));
+        }
+        assertNull(cache.get(keys.get(0)));
+        // No bytes of the evicted value remain in the buffers
+        for (ByteBuffer buffer : cache.getSegmentBuffers()) {
+            for (int i = 0; i + 8 <= buffer.capacity(); i += 8) {
+                final long value = buffer.getLong(i);
+                assertTrue(value != evictedValue.getMostSignificantBits() && value != evictedValue.getLeastSignificantBits());
+            }
+        }
+    }
+
+}
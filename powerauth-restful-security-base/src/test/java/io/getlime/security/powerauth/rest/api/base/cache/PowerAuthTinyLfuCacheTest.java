@@ -0,0 +1,248 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the in-heap cache with W-TinyLFU eviction policy.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthTinyLfuCacheTest {
+
+    /**
+     * Eviction listener which records evicted keys and causes.
+     */
+    private static class RecordingListener implements PowerAuthCacheEvictionListener<String, String> {
+
+        private final List<String> keys = Collections.synchronizedList(new ArrayList<>());
+        private final List<PowerAuthCacheEvictionCause> causes = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onEviction(String key, String value, PowerAuthCacheEvictionCause cause) {
+            keys.add(key);
+            causes.add(cause);
+        }
+    }
+
+    private final RecordingListener listener = new RecordingListener();
+
+    /**
+     * Create a single segment cache, so that eviction order is deterministic. The window holds one value.
+     */
+    private PowerAuthTinyLfuCache<String, String> createCache(int maximumSize, long ttl) {
+        return new PowerAuthTinyLfuCache<>(new PowerAuthCacheConfiguration(maximumSize, ttl), listener, 1);
+    }
+
+    private void fill(PowerAuthCache<String, String> cache, String prefix, int count) {
+        for (int i = 0; i < count; i++) {
+            cache.put(prefix + i, "value");
+        }
+    }
+
+    @Test
+    void testPutAndGet() {
+        final PowerAuthTinyLfuCache<String, String> cache = createCache(10, 0);
+        cache.put("key", "value");
+        assertEquals("value", cache.get("key"));
+        assertNull(cache.get("missing"));
+        final PowerAuthCacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void testReplacedValueIsReported() {
+        final PowerAuthTinyLfuCache<String, String> cache = createCache(10, 0);
+        cache.put("key", "value1");
+        cache.put("key", "value2");
+        assertEquals("value2", cache.get("key"));
+        assertEquals(Collections.singletonList("key"), listener.keys);
+        assertEquals(Collections.singletonList(PowerAuthCacheEvictionCause.EXPLICIT), listener.causes);
+    }
+
+    @Test
+    void testOneTimeKeysDoNotDisplaceFrequentKeys() {
+        final PowerAuthTinyLfuCache<String, String> cache = createCache(100, 0);
+        fill(cache, "frequent", 100);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 99; i++) {
+                assertNotNull(cache.get("frequent" + i));
+            }
+        }
+        fill(cache, "once", 50);
+        assertEquals(100, cache.size());
+        for (int i = 0; i < 99; i++) {
+            assertNotNull(cache.get("frequent" + i), "Frequent key was evicted: frequent" + i);
+        }
+        // The value in the window and one-time values leaving the window are not admitted into the main space
+        assertEquals(50, listener.keys.size());
+        assertEquals("frequent99", listener.keys.get(0));
+        for (int i = 0; i < 49; i++) {
+            assertEquals("once" + i, listener.keys.get(i + 1));
+        }
+        assertTrue(listener.causes.stream().allMatch(cause -> cause == PowerAuthCacheEvictionCause.SIZE));
+        assertEquals(50, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    void testEvictionOrder() {
+        final PowerAuthTinyLfuCache<String, String> cache = createCache(100, 0);
+        fill(cache, "key", 100);
+        // Accessed value is promoted from probation into the protected segment
+        assertNotNull(cache.get("key0"));
+        // Misses increase frequency of a key, so that it is admitted once it leaves the window
+        for (int i = 0; i < 5; i++) {
+            assertNull(cache.get("hot1"));
+        }
+        cache.put("hot1", "value");
+        cache.put("filler1", "value");
+        for (int i = 0; i < 5; i++) {
+            assertNull(cache.get("hot2"));
+        }
+        cache.put("hot2", "value");
+        cache.put("filler2", "value");
+        // Values leaving the window with equal frequency are not admitted, admitted values evict the least recently
+        // used probation value, the accessed value is protected
+        assertEquals(Arrays.asList("key99", "key1", "filler1", "key2"), listener.keys);
+        assertNotNull(cache.get("key0"));
+        assertNotNull(cache.get("hot1"));
+        assertNotNull(cache.get("hot2"));
+        assertNotNull(cache.get("filler2"));
+    }
+
+    @Test
+    void testExpiration() throws InterruptedException {
+        final PowerAuthTinyLfuCache<String, String> cache = createCache(10, 0);
+        cache.put("expiring", "value", 1);
+        cache.put("permanent", "value");
+        Thread.sleep(20);
+        assertNull(cache.get("expiring"));
+        assertEquals("value", cache.get("permanent"));
+        assertEquals(Collections.singletonList("expiring"), listener.keys);
+        assertEquals(Collections.singletonList(PowerAuthCacheEvictionCause.EXPIRED), listener.causes);
+        final PowerAuthCacheStats stats = cache.getStats();
+        assertEquals(1, stats.getExpirationCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void testDefaultTtl() throws InterruptedException {
+        final PowerAuthTinyLfuCache<String, String> cache = createCache(10, 1);
+        cache.put("key", "value");
+        Thread.sleep(20);
+        assertNull(cache.get("key"));
+        assertEquals(Collections.singletonList(PowerAuthCacheEvictionCause.EXPIRED), listener.causes);
+    }
+
+    @Test
+    void testExpiredValueIsEvictedBeforeFrequentValue() throws InterruptedException {
+        final PowerAuthTinyLfuCache<String, String> cache = createCache(100, 0);
+        cache.put("expiring", "value", 1);
+        fill(cache, "key", 99);
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(cache.get("key0"));
+        }
+        Thread.sleep(20);
+        cache.put("new", "value");
+        assertEquals(Collections.singletonList("expiring"), listener.keys);
+        assertEquals(Collections.singletonList(PowerAuthCacheEvictionCause.EXPIRED), listener.causes);
+    }
+
+    @Test
+    void testInvalidate() {
+        final PowerAuthTinyLfuCache<String, String> cache = createCache(10, 0);
+        fill(cache, "key", 5);
+        cache.invalidate("key1");
+        assertNull(cache.get("key1"));
+        assertEquals(4, cache.size());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(5, listener.keys.size());
+        assertTrue(listener.causes.stream().allMatch(cause -> cause == PowerAuthCacheEvictionCause.EXPLICIT));
+    }
+
+    @Test
+    void testSegmentsKeepMaximumSize() {
+        final PowerAuthTinyLfuCache<String, String> cache = new PowerAuthTinyLfuCache<>(new PowerAuthCacheConfiguration(1000, 0), listener, 4);
+        for (int i = 0; i < 5000; i++) {
+            cache.put("key" + i, "value");
+            assertEquals("value", cache.get("key" + i));
+        }
+        assertTrue(cache.size() <= 1000);
+        assertEquals(5000, cache.size() + listener.keys.size());
+        assertEquals(5000, cache.getStats().getHitCount());
+        final List<String> keys = new ArrayList<>();
+        cache.forEach((key, value, expiration) -> keys.add(key));
+        assertEquals(cache.size(), keys.size());
+    }
+
+    @Test
+    void testInvalidSegmentCount() {
+        assertThrows(IllegalArgumentException.class, () -> new PowerAuthTinyLfuCache<String, String>(new PowerAuthCacheConfiguration(1000, 0), null, 3));
+    }
+
+    @Test
+    void testConcurrentAccess() throws Exception {
+        final PowerAuthTinyLfuCache<String, String> cache = new PowerAuthTinyLfuCache<>(new PowerAuthCacheConfiguration(10000, 0), null);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int seed = t;
+                futures.add(executor.submit(() -> {
+                    final Random random = new Random(seed);
+                    for (int i = 0; i < 100000; i++) {
+                        final String key = "key" + random.nextInt(20000);
+                        if (cache.get(key) == null) {
+                            cache.put(key, key);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 10000);
+        cache.forEach((key, value, expiration) -> assertEquals(key, value));
+    }
+
+}
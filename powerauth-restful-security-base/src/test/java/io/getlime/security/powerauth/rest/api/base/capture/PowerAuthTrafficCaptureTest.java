@@ -0,0 +1,218 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.capture;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthNoopServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceCallOutcome;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthSimpleServiceMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the traffic capture and of recording PowerAuth server calls into captured requests.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthTrafficCaptureTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void unbind() {
+        PowerAuthTrafficRecord.unbind();
+    }
+
+    private PowerAuthTrafficCaptureConfiguration createConfiguration() {
+        final PowerAuthTrafficCaptureConfiguration configuration = new PowerAuthTrafficCaptureConfiguration();
+        configuration.setEnabled(true);
+        configuration.setFile(directory.resolve("traffic.log").toString());
+        return configuration;
+    }
+
+    private List<PowerAuthTrafficRecord> readLog() throws IOException {
+        final List<PowerAuthTrafficRecord> result = new ArrayList<>();
+        try (PowerAuthTrafficLogReader reader = new PowerAuthTrafficLogReader(directory.resolve("traffic.log"))) {
+            PowerAuthTrafficRecord trafficRecord;
+            while ((trafficRecord = reader.read()) != null) {
+                result.add(trafficRecord);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void testDisabledCapture() throws IOException {
+        final PowerAuthTrafficCapture capture = new PowerAuthTrafficCapture(new PowerAuthTrafficCaptureConfiguration());
+        assertFalse(capture.isEnabled());
+        assertFalse(capture.isCapturing());
+        assertNull(capture.startRequest());
+        capture.record(new PowerAuthTrafficRecord());
+        capture.close();
+        assertEquals(0, capture.getWrittenRecords());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testMissingFile() {
+        final PowerAuthTrafficCaptureConfiguration configuration = new PowerAuthTrafficCaptureConfiguration();
+        configuration.setEnabled(true);
+        assertThrows(IllegalArgumentException.class, () -> new PowerAuthTrafficCapture(configuration));
+        configuration.setFile("");
+        assertThrows(IllegalArgumentException.class, () -> new PowerAuthTrafficCapture(configuration));
+    }
+
+    @Test
+    void testRecordsWritten() throws IOException {
+        final PowerAuthTrafficCapture capture = new PowerAuthTrafficCapture(createConfiguration());
+        assertTrue(capture.isEnabled());
+        assertTrue(capture.isCapturing());
+        for (int i = 0; i < 10; i++) {
+            final PowerAuthTrafficRecord trafficRecord = capture.startRequest();
+            assertNotNull(trafficRecord);
+            assertTrue(trafficRecord.getTimestamp() > 0);
+            trafficRecord.setMethod("POST");
+            trafficRecord.setEndpoint("/pa/v3/token/create");
+            trafficRecord.setRequestBodySize(i);
+            capture.record(trafficRecord);
+        }
+        // Records remaining in the queue are written on close
+        capture.close();
+        assertFalse(capture.isCapturing());
+        assertEquals(10, capture.getWrittenRecords());
+        assertEquals(0, capture.getDroppedRecords());
+        // Requests completed after close are not recorded
+        capture.record(new PowerAuthTrafficRecord());
+        capture.close();
+
+        final List<PowerAuthTrafficRecord> trafficRecords = readLog();
+        assertEquals(10, trafficRecords.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("/pa/v3/token/create", trafficRecords.get(i).getEndpoint());
+            assertEquals(i, trafficRecords.get(i).getRequestBodySize());
+        }
+    }
+
+    @Test
+    void testSampling() throws IOException {
+        final PowerAuthTrafficCaptureConfiguration configuration = createConfiguration();
+        configuration.setSampleRate(0);
+        try (PowerAuthTrafficCapture capture = new PowerAuthTrafficCapture(configuration)) {
+            for (int i = 0; i < 100; i++) {
+                assertNull(capture.startRequest());
+            }
+            assertTrue(capture.isCapturing());
+        }
+    }
+
+    @Test
+    void testMaximumFileSize() throws IOException, InterruptedException {
+        final PowerAuthTrafficCaptureConfiguration configuration = createConfiguration();
+        // The log header alone does not exceed the maximum size, the first record does
+        configuration.setMaxFileSize(9);
+        final PowerAuthTrafficCapture capture = new PowerAuthTrafficCapture(configuration);
+        capture.record(capture.startRequest());
+        for (int i = 0; i < 500 && capture.isCapturing(); i++) {
+            Thread.sleep(10);
+        }
+        assertFalse(capture.isCapturing());
+        assertNull(capture.startRequest());
+        capture.record(new PowerAuthTrafficRecord());
+        capture.close();
+        assertEquals(1, capture.getWrittenRecords());
+        assertEquals(1, readLog().size());
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        final PowerAuthTrafficCaptureConfiguration configuration = new PowerAuthTrafficCaptureConfiguration();
+        assertThrows(IllegalArgumentException.class, () -> configuration.setSampleRate(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> configuration.setSampleRate(1.1));
+        assertThrows(IllegalArgumentException.class, () -> configuration.setMaxFileSize(0));
+        assertThrows(IllegalArgumentException.class, () -> configuration.setQueueCapacity(0));
+        assertEquals(1.0, configuration.getSampleRate());
+        assertEquals(PowerAuthTrafficCaptureConfiguration.DEFAULT_MAX_FILE_SIZE, configuration.getMaxFileSize());
+        assertEquals(PowerAuthTrafficCaptureConfiguration.DEFAULT_QUEUE_CAPACITY, configuration.getQueueCapacity());
+    }
+
+    @Test
+    void testBackendCallsRecorded() throws IOException {
+        try (PowerAuthTrafficCapture capture = new PowerAuthTrafficCapture(createConfiguration())) {
+            final PowerAuthSimpleServiceMetrics delegate = new PowerAuthSimpleServiceMetrics();
+            final PowerAuthTrafficCaptureServiceMetrics serviceMetrics = new PowerAuthTrafficCaptureServiceMetrics(delegate, capture);
+            assertTrue(serviceMetrics.isEnabled());
+
+            final PowerAuthTrafficRecord trafficRecord = capture.startRequest();
+            trafficRecord.bind();
+            serviceMetrics.callCompleted("verifySignature", serviceMetrics.callStarted("verifySignature"), PowerAuthServiceCallOutcome.VALID);
+            serviceMetrics.callFailed("createToken", serviceMetrics.callStarted("createToken"), new IOException(new SocketTimeoutException()));
+            PowerAuthTrafficRecord.unbind();
+            // Calls outside of a captured request are recorded only by the delegate
+            serviceMetrics.callCompleted("verifySignature", serviceMetrics.callStarted("verifySignature"), PowerAuthServiceCallOutcome.INVALID);
+
+            assertEquals(2, trafficRecord.getBackendCalls().size());
+            assertEquals("verifySignature", trafficRecord.getBackendCalls().get(0).getOperation());
+            assertEquals(PowerAuthServiceCallOutcome.VALID, trafficRecord.getBackendCalls().get(0).getOutcome());
+            assertTrue(trafficRecord.getBackendCalls().get(0).getDuration() >= 0);
+            assertEquals("createToken", trafficRecord.getBackendCalls().get(1).getOperation());
+            assertEquals(PowerAuthServiceCallOutcome.TIMEOUT, trafficRecord.getBackendCalls().get(1).getOutcome());
+            assertEquals(1, delegate.getOperationMetrics("verifySignature").getCount(PowerAuthServiceCallOutcome.VALID));
+            assertEquals(1, delegate.getOperationMetrics("verifySignature").getCount(PowerAuthServiceCallOutcome.INVALID));
+            assertEquals(1, delegate.getOperationMetrics("createToken").getCount(PowerAuthServiceCallOutcome.TIMEOUT));
+        }
+    }
+
+    @Test
+    void testBackendCallsRecordedWithDisabledMetrics() throws IOException, InterruptedException {
+        try (PowerAuthTrafficCapture capture = new PowerAuthTrafficCapture(createConfiguration())) {
+            final PowerAuthTrafficCaptureServiceMetrics serviceMetrics = new PowerAuthTrafficCaptureServiceMetrics(new PowerAuthNoopServiceMetrics(), capture);
+            assertTrue(serviceMetrics.isEnabled());
+            final PowerAuthTrafficRecord trafficRecord = new PowerAuthTrafficRecord();
+            trafficRecord.bind();
+            final long startTime = serviceMetrics.callStarted("verifySignature");
+            Thread.sleep(5);
+            serviceMetrics.callCompleted("verifySignature", startTime, PowerAuthServiceCallOutcome.VALID);
+            // Duration is measured even though the delegate does not provide the start time
+            assertTrue(trafficRecord.getBackendCalls().get(0).getDuration() >= 5_000_000);
+        }
+        final PowerAuthTrafficCaptureServiceMetrics serviceMetrics = new PowerAuthTrafficCaptureServiceMetrics(new PowerAuthNoopServiceMetrics(),
+                new PowerAuthTrafficCapture(new PowerAuthTrafficCaptureConfiguration()));
+        assertFalse(serviceMetrics.isEnabled());
+    }
+
+}
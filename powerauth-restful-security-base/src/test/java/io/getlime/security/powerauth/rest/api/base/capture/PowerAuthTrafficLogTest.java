@@ -0,0 +1,208 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.capture;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceCallOutcome;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of writing and reading of the binary traffic log.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthTrafficLogTest {
+
+    private PowerAuthTrafficRecord createRecord(long timestamp, String endpoint, PowerAuthTrafficBackendCall... backendCalls) {
+        final PowerAuthTrafficRecord trafficRecord = new PowerAuthTrafficRecord();
+        trafficRecord.setTimestamp(timestamp);
+        trafficRecord.setMethod("POST");
+        trafficRecord.setEndpoint(endpoint);
+        trafficRecord.setHeaders(PowerAuthTrafficHeader.SIGNATURE.getMask() | PowerAuthTrafficHeader.ENCRYPTION.getMask());
+        trafficRecord.setRequestBodySize(1024);
+        trafficRecord.setResponseBodySize(300_000);
+        trafficRecord.setResponseStatus(200);
+        trafficRecord.setAnnotationPath("/pa/signature/validate");
+        for (PowerAuthTrafficBackendCall backendCall : backendCalls) {
+            trafficRecord.addBackendCall(backendCall);
+        }
+        return trafficRecord;
+    }
+
+    private byte[] writeLog(PowerAuthTrafficRecord... trafficRecords) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PowerAuthTrafficLogWriter writer = new PowerAuthTrafficLogWriter(out)) {
+            for (PowerAuthTrafficRecord trafficRecord : trafficRecords) {
+                writer.write(trafficRecord);
+            }
+            writer.flush();
+            assertEquals(out.size(), writer.getSize());
+        }
+        return out.toByteArray();
+    }
+
+    private void assertRecord(PowerAuthTrafficRecord expected, PowerAuthTrafficRecord actual) {
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getMethod(), actual.getMethod());
+        assertEquals(expected.getEndpoint(), actual.getEndpoint());
+        assertEquals(expected.getHeaders(), actual.getHeaders());
+        assertEquals(expected.getRequestBodySize(), actual.getRequestBodySize());
+        assertEquals(expected.getResponseBodySize(), actual.getResponseBodySize());
+        assertEquals(expected.getResponseStatus(), actual.getResponseStatus());
+        assertEquals(expected.getAnnotationPath(), actual.getAnnotationPath());
+        final List<PowerAuthTrafficBackendCall> expectedCalls = expected.getBackendCalls();
+        final List<PowerAuthTrafficBackendCall> actualCalls = actual.getBackendCalls();
+        assertEquals(expectedCalls.size(), actualCalls.size());
+        for (int i = 0; i < expectedCalls.size(); i++) {
+            assertEquals(expectedCalls.get(i).getOperation(), actualCalls.get(i).getOperation());
+            // Durations are stored with microsecond precision
+            assertEquals(TimeUnit.NANOSECONDS.toMicros(expectedCalls.get(i).getDuration()), TimeUnit.NANOSECONDS.toMicros(actualCalls.get(i).getDuration()));
+            assertEquals(expectedCalls.get(i).getOutcome(), actualCalls.get(i).getOutcome());
+        }
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        final long now = System.currentTimeMillis();
+        final PowerAuthTrafficRecord[] trafficRecords = {
+                createRecord(now, "/pa/v3/signature/validate",
+                        new PowerAuthTrafficBackendCall("verifySignature", 12_345_678, PowerAuthServiceCallOutcome.VALID)),
+                // Records are not necessarily written in order of their timestamps
+                createRecord(now - 5, "/pa/v3/token/create",
+                        new PowerAuthTrafficBackendCall("verifySignature", 1_000, PowerAuthServiceCallOutcome.INVALID),
+                        new PowerAuthTrafficBackendCall("createToken", 2_000_000, PowerAuthServiceCallOutcome.TIMEOUT)),
+                createRecord(now + 1000, "/pa/v3/signature/validate"),
+                new PowerAuthTrafficRecord()
+        };
+        final byte[] log = writeLog(trafficRecords);
+
+        try (PowerAuthTrafficLogReader reader = new PowerAuthTrafficLogReader(new ByteArrayInputStream(log))) {
+            for (int i = 0; i < 3; i++) {
+                assertRecord(trafficRecords[i], reader.read());
+            }
+            // Missing strings are read as empty strings
+            final PowerAuthTrafficRecord emptyRecord = reader.read();
+            assertEquals("", emptyRecord.getMethod());
+            assertEquals("", emptyRecord.getEndpoint());
+            assertEquals("", emptyRecord.getAnnotationPath());
+            assertTrue(emptyRecord.getBackendCalls().isEmpty());
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void testRepeatedStringsReferenced() throws IOException {
+        final PowerAuthTrafficRecord trafficRecord = createRecord(0, "/pa/v3/signature/validate");
+        final int singleRecordSize = writeLog(trafficRecord).length;
+        final int doubleRecordSize = writeLog(trafficRecord, trafficRecord).length;
+        // The second record references strings written by the first one
+        assertTrue(doubleRecordSize - singleRecordSize < 20);
+    }
+
+    @Test
+    void testNegativeSizesNotWritten() throws IOException {
+        final PowerAuthTrafficRecord trafficRecord = createRecord(0, "/pa/v3/activation/status",
+                new PowerAuthTrafficBackendCall("getActivationStatus", -1_000, PowerAuthServiceCallOutcome.FAULT));
+        // Unknown sizes are reported as negative numbers
+        trafficRecord.setRequestBodySize(-1);
+        trafficRecord.setResponseBodySize(-1);
+        trafficRecord.setResponseStatus(-1);
+        try (PowerAuthTrafficLogReader reader = new PowerAuthTrafficLogReader(new ByteArrayInputStream(writeLog(trafficRecord)))) {
+            final PowerAuthTrafficRecord result = reader.read();
+            assertEquals(0, result.getRequestBodySize());
+            assertEquals(0, result.getResponseBodySize());
+            assertEquals(0, result.getResponseStatus());
+            assertEquals(0, result.getBackendCalls().get(0).getDuration());
+        }
+    }
+
+    @Test
+    void testHeaderMasks() {
+        final PowerAuthTrafficRecord trafficRecord = createRecord(0, "/pa/v3/signature/validate");
+        assertTrue(trafficRecord.hasHeader(PowerAuthTrafficHeader.SIGNATURE));
+        assertFalse(trafficRecord.hasHeader(PowerAuthTrafficHeader.TOKEN));
+        assertTrue(trafficRecord.hasHeader(PowerAuthTrafficHeader.ENCRYPTION));
+    }
+
+    @Test
+    void testInvalidLog() throws IOException {
+        final byte[] log = writeLog(createRecord(0, "/pa/v3/signature/validate",
+                new PowerAuthTrafficBackendCall("verifySignature", 1_000, PowerAuthServiceCallOutcome.VALID)));
+
+        // Magic
+        final byte[] invalidMagic = log.clone();
+        invalidMagic[0] = 0;
+        assertThrows(IOException.class, () -> new PowerAuthTrafficLogReader(new ByteArrayInputStream(invalidMagic)));
+
+        // Version
+        final byte[] invalidVersion = log.clone();
+        invalidVersion[7] = 2;
+        assertThrows(IOException.class, () -> new PowerAuthTrafficLogReader(new ByteArrayInputStream(invalidVersion)));
+
+        // Outcome of the PowerAuth server call is the last byte of the record
+        final byte[] invalidOutcome = log.clone();
+        invalidOutcome[invalidOutcome.length - 1] = (byte) PowerAuthServiceCallOutcome.values().length;
+        try (PowerAuthTrafficLogReader reader = new PowerAuthTrafficLogReader(new ByteArrayInputStream(invalidOutcome))) {
+            assertThrows(IOException.class, reader::read);
+        }
+
+        // Empty log
+        assertThrows(EOFException.class, () -> new PowerAuthTrafficLogReader(new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    void testTruncatedLog() throws IOException {
+        final byte[] log = writeLog(createRecord(0, "/pa/v3/signature/validate",
+                new PowerAuthTrafficBackendCall("verifySignature", 1_000, PowerAuthServiceCallOutcome.VALID)));
+        final byte[] truncated = Arrays.copyOf(log, log.length - 2);
+        try (PowerAuthTrafficLogReader reader = new PowerAuthTrafficLogReader(new ByteArrayInputStream(truncated))) {
+            assertThrows(EOFException.class, reader::read);
+        }
+    }
+
+    @Test
+    void testInvalidStringReference() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(PowerAuthTrafficLogWriter.MAGIC);
+        data.writeInt(PowerAuthTrafficLogWriter.VERSION);
+        // Timestamp followed by a reference to a string which was not written
+        data.writeByte(0);
+        data.writeByte(5);
+        try (PowerAuthTrafficLogReader reader = new PowerAuthTrafficLogReader(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThrows(IOException.class, reader::read);
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.degraded;
+
+import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceEvent;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthSimpleServiceMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.rmi.RemoteException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of token validation in degraded mode.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthDegradedModeValidatorTest {
+
+    private static final String TOKEN_ID = "d6561669-34d6-4fee-8913-89477687a5cb";
+    private static final String ACTIVATION_ID = "f81d4fae-7dec-11d0-a765-00a0c91e6bf6";
+
+    private static final long GRACE_WINDOW = 60000L;
+
+    private final PowerAuthSimpleServiceMetrics serviceMetrics = new PowerAuthSimpleServiceMetrics();
+
+    private PowerAuthDegradedModeValidator createValidator(boolean enabled, int maxNonces) {
+        final PowerAuthDegradedModeConfiguration configuration = new PowerAuthDegradedModeConfiguration();
+        configuration.setEnabled(enabled);
+        configuration.setGraceWindow(GRACE_WINDOW);
+        configuration.setMaxNonces(maxNonces);
+        final PowerAuthDegradedModeValidator validator = new PowerAuthDegradedModeValidator(configuration);
+        validator.setServiceMetrics(serviceMetrics);
+        return validator;
+    }
+
+    private PowerAuthDegradedModeValidator createValidator() {
+        return createValidator(true, PowerAuthDegradedModeConfiguration.DEFAULT_MAX_NONCES);
+    }
+
+    private static PowerAuthValidatedToken validatedToken(long validationTimestamp) {
+        return new PowerAuthValidatedToken(TOKEN_ID, ACTIVATION_ID, "user", 1L, PowerAuthSignatureTypes.POSSESSION, validationTimestamp);
+    }
+
+    private static String now() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+
+    @Test
+    void testRecentlyValidatedTokenAccepted() {
+        final PowerAuthDegradedModeValidator validator = createValidator();
+        final PowerAuthValidatedToken validatedToken = validatedToken(System.currentTimeMillis());
+        validator.tokenValidated(validatedToken);
+        assertSame(validatedToken, validator.validateToken(TOKEN_ID, "nonce", now()));
+        assertEquals(1, validator.getAcceptedCount());
+        assertEquals(1, serviceMetrics.getEventCount(PowerAuthServiceEvent.DEGRADED_MODE_BACKEND_FAILURE));
+        assertEquals(1, serviceMetrics.getEventCount(PowerAuthServiceEvent.DEGRADED_MODE_ACCEPTED));
+    }
+
+    @Test
+    void testUnknownTokenRejected() {
+        final PowerAuthDegradedModeValidator validator = createValidator();
+        assertNull(validator.validateToken(TOKEN_ID, "nonce", now()));
+        assertEquals(1, validator.getRejectedCount());
+        assertEquals(1, serviceMetrics.getEventCount(PowerAuthServiceEvent.DEGRADED_MODE_REJECTED));
+    }
+
+    @Test
+    void testRejectedTokenForgotten() {
+        final PowerAuthDegradedModeValidator validator = createValidator();
+        validator.tokenValidated(validatedToken(System.currentTimeMillis()));
+        validator.tokenRejected(TOKEN_ID);
+        assertNull(validator.validateToken(TOKEN_ID, "nonce", now()));
+    }
+
+    @Test
+    void testGraceWindowExpired() {
+        final PowerAuthDegradedModeValidator validator = createValidator();
+        // Token was validated by PowerAuth server before the grace window
+        validator.tokenValidated(validatedToken(System.currentTimeMillis() - GRACE_WINDOW - 1000L));
+        assertNull(validator.validateToken(TOKEN_ID, "nonce", now()));
+        assertEquals(0, validator.getAcceptedCount());
+        assertEquals(1, validator.getRejectedCount());
+    }
+
+    @Test
+    void testTimestampOutsideOfGraceWindow() {
+        final PowerAuthDegradedModeValidator validator = createValidator();
+        validator.tokenValidated(validatedToken(System.currentTimeMillis()));
+        final long now = System.currentTimeMillis();
+        assertNull(validator.validateToken(TOKEN_ID, "nonce1", String.valueOf(now - GRACE_WINDOW - 1000L)));
+        assertNull(validator.validateToken(TOKEN_ID, "nonce2", String.valueOf(now + GRACE_WINDOW + 1000L)));
+        assertNull(validator.validateToken(TOKEN_ID, "nonce3", "timestamp"));
+        assertNull(validator.validateToken(TOKEN_ID, "nonce4", null));
+        assertEquals(4, validator.getRejectedCount());
+        assertNotNull(validator.validateToken(TOKEN_ID, "nonce5", now()));
+    }
+
+    @Test
+    void testNonceReplayRejected() {
+        final PowerAuthDegradedModeValidator validator = createValidator();
+        validator.tokenValidated(validatedToken(System.currentTimeMillis()));
+        assertNotNull(validator.validateToken(TOKEN_ID, "nonce", now()));
+        assertNull(validator.validateToken(TOKEN_ID, "nonce", now()));
+        assertEquals(1, validator.getReplayCount());
+        assertEquals(1, validator.getRejectedCount());
+        assertEquals(1, serviceMetrics.getEventCount(PowerAuthServiceEvent.DEGRADED_MODE_REPLAYED));
+        // The same nonce of another token is not a replay
+        validator.tokenValidated(new PowerAuthValidatedToken("another", ACTIVATION_ID, "user", 1L, PowerAuthSignatureTypes.POSSESSION, System.currentTimeMillis()));
+        assertNotNull(validator.validateToken("another", "nonce", now()));
+    }
+
+    @Test
+    void testFullNonceStoreRejectsTokens() {
+        // Each stripe of the nonce store holds a single nonce, the store has less stripes than nonces registered below
+        final PowerAuthDegradedModeValidator validator = createValidator(true, 1);
+        validator.tokenValidated(validatedToken(System.currentTimeMillis()));
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (validator.validateToken(TOKEN_ID, "nonce" + i, now()) != null) {
+                accepted++;
+            }
+        }
+        assertTrue(validator.getCapacityExceededCount() > 0);
+        assertEquals(100, accepted + validator.getCapacityExceededCount());
+        assertEquals(validator.getCapacityExceededCount(), serviceMetrics.getEventCount(PowerAuthServiceEvent.DEGRADED_MODE_CAPACITY_EXCEEDED));
+        assertEquals(0, validator.getReplayCount());
+    }
+
+    @Test
+    void testDisabled() {
+        final PowerAuthDegradedModeValidator validator = createValidator(false, PowerAuthDegradedModeConfiguration.DEFAULT_MAX_NONCES);
+        validator.tokenValidated(validatedToken(System.currentTimeMillis()));
+        assertNull(validator.validateToken(TOKEN_ID, "nonce", now()));
+        assertEquals(1, validator.getBackendFailureCount());
+        assertEquals(0, validator.getRejectedCount());
+        assertEquals(0, serviceMetrics.getEventCount(PowerAuthServiceEvent.DEGRADED_MODE_REJECTED));
+    }
+
+    @Test
+    void testConnectivityFailures() {
+        assertTrue(PowerAuthDegradedModeValidator.isConnectivityFailure(new ConnectException("Connection refused")));
+        assertTrue(PowerAuthDegradedModeValidator.isConnectivityFailure(new SocketTimeoutException("Read timed out")));
+        assertTrue(PowerAuthDegradedModeValidator.isConnectivityFailure(new IOException()));
+        // Client exceptions wrapping connectivity failures
+        assertTrue(PowerAuthDegradedModeValidator.isConnectivityFailure(new RuntimeException(new ConnectException())));
+        assertTrue(PowerAuthDegradedModeValidator.isConnectivityFailure(new UncheckedIOException(new SocketTimeoutException())));
+        assertTrue(PowerAuthDegradedModeValidator.isConnectivityFailure(new RemoteException("Transport error", new ConnectException())));
+        // Errors reported by PowerAuth server
+        assertFalse(PowerAuthDegradedModeValidator.isConnectivityFailure(new RemoteException("SOAP fault")));
+        assertFalse(PowerAuthDegradedModeValidator.isConnectivityFailure(new RuntimeException("SOAP fault")));
+        assertFalse(PowerAuthDegradedModeValidator.isConnectivityFailure(new IllegalStateException(new IllegalArgumentException())));
+        assertFalse(PowerAuthDegradedModeValidator.isConnectivityFailure(null));
+    }
+
+    @Test
+    void testDeepCauseChain() {
+        Throwable throwable = new ConnectException();
+        for (int i = 0; i < 20; i++) {
+            throwable = new RuntimeException(throwable);
+        }
+        // Cause chains are followed only to a limited depth
+        assertFalse(PowerAuthDegradedModeValidator.isConnectivityFailure(throwable));
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.filter;
+
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestPhase;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the response wrapper which adds the Server-Timing HTTP header.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthServerTimingResponseWrapperTest {
+
+    private final Map<String, String> headers = new HashMap<>();
+
+    private boolean committed;
+
+    private int headerWrites;
+
+    /**
+     * Create a response which records headers and reports the committed state of the test.
+     */
+    private HttpServletResponse createResponse() {
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "setHeader":
+                    headers.put((String) args[0], (String) args[1]);
+                    headerWrites++;
+                    return null;
+                case "isCommitted":
+                    return committed;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private PowerAuthRequestTiming createTiming() {
+        final PowerAuthRequestTiming timing = new PowerAuthRequestTiming();
+        timing.record(PowerAuthRequestPhase.AUTHENTICATION, 1_500_000);
+        timing.handlerStarted();
+        return timing;
+    }
+
+    @Test
+    void testHeaderAddedWhenResponseStarts() throws IOException {
+        final PowerAuthRequestTiming timing = createTiming();
+        final PowerAuthServerTimingResponseWrapper wrapper = new PowerAuthServerTimingResponseWrapper(createResponse(), timing, true);
+        assertFalse(timing.isRecorded(PowerAuthRequestPhase.HANDLER));
+        wrapper.getOutputStream();
+        assertTrue(timing.isRecorded(PowerAuthRequestPhase.HANDLER));
+        assertEquals(timing.toServerTimingHeader(), headers.get(PowerAuthRequestTiming.SERVER_TIMING_HEADER));
+        assertTrue(headers.get(PowerAuthRequestTiming.SERVER_TIMING_HEADER).startsWith("pa-auth;dur=1.500, pa-handler;dur="));
+
+        // Header is added only once
+        wrapper.getWriter();
+        wrapper.flushBuffer();
+        assertEquals(1, headerWrites);
+    }
+
+    @Test
+    void testHeaderAddedOnError() throws IOException {
+        final PowerAuthRequestTiming timing = createTiming();
+        final PowerAuthServerTimingResponseWrapper wrapper = new PowerAuthServerTimingResponseWrapper(createResponse(), timing, true);
+        wrapper.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+        assertTrue(timing.isRecorded(PowerAuthRequestPhase.HANDLER));
+        assertEquals(timing.toServerTimingHeader(), headers.get(PowerAuthRequestTiming.SERVER_TIMING_HEADER));
+    }
+
+    @Test
+    void testHeaderDisabled() throws IOException {
+        final PowerAuthRequestTiming timing = createTiming();
+        final PowerAuthServerTimingResponseWrapper wrapper = new PowerAuthServerTimingResponseWrapper(createResponse(), timing, false);
+        wrapper.getWriter();
+        // Handler timing is completed for metrics even without the header
+        assertTrue(timing.isRecorded(PowerAuthRequestPhase.HANDLER));
+        assertNull(headers.get(PowerAuthRequestTiming.SERVER_TIMING_HEADER));
+    }
+
+    @Test
+    void testCommittedResponse() {
+        final PowerAuthRequestTiming timing = createTiming();
+        final PowerAuthServerTimingResponseWrapper wrapper = new PowerAuthServerTimingResponseWrapper(createResponse(), timing, true);
+        committed = true;
+        wrapper.responseStarted();
+        assertTrue(timing.isRecorded(PowerAuthRequestPhase.HANDLER));
+        assertEquals(0, headerWrites);
+    }
+
+}
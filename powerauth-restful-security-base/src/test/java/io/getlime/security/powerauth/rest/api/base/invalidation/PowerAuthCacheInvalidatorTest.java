@@ -0,0 +1,220 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.invalidation;
+
+import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationState;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCacheConfiguration;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCacheConfiguration;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeConfiguration;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeValidator;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthValidatedToken;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of cache invalidation on the local node and on other nodes of a cluster.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthCacheInvalidatorTest {
+
+    private static final String STATUS_BLOB = "c3RhdHVzIGJsb2I=";
+
+    /**
+     * Broadcaster which delivers published events synchronously to all broadcasters of the same cluster,
+     * including the publishing one, whose events are ignored by node ID.
+     */
+    private static class LocalBroadcaster extends PowerAuthInvalidationBroadcasterBase {
+
+        private final List<LocalBroadcaster> cluster;
+        private final List<PowerAuthInvalidationEvent> publishedEvents = new ArrayList<>();
+
+        LocalBroadcaster(List<LocalBroadcaster> cluster) {
+            this.cluster = cluster;
+            cluster.add(this);
+        }
+
+        @Override
+        public void publish(PowerAuthInvalidationEvent event) {
+            publishedEvents.add(event);
+            for (LocalBroadcaster broadcaster : cluster) {
+                broadcaster.dispatch(getNodeId(), event);
+            }
+        }
+
+        @Override
+        public void close() {
+            cluster.remove(this);
+        }
+    }
+
+    /**
+     * Caches of a single node of the cluster.
+     */
+    private static class Node {
+
+        private final LocalBroadcaster broadcaster;
+        private final PowerAuthActivationStateCache activationStateCache;
+        private final PowerAuthActivationStatusCache activationStatusCache;
+        private final PowerAuthDegradedModeValidator degradedModeValidator;
+        private final PowerAuthCacheInvalidator invalidator;
+
+        Node(List<LocalBroadcaster> cluster) {
+            broadcaster = new LocalBroadcaster(cluster);
+            final PowerAuthActivationStateCacheConfiguration stateConfiguration = new PowerAuthActivationStateCacheConfiguration();
+            stateConfiguration.setEnabled(true);
+            activationStateCache = new PowerAuthActivationStateCache(stateConfiguration);
+            final PowerAuthActivationStatusCacheConfiguration statusConfiguration = new PowerAuthActivationStatusCacheConfiguration();
+            statusConfiguration.setEnabled(true);
+            activationStatusCache = new PowerAuthActivationStatusCache(statusConfiguration);
+            final PowerAuthDegradedModeConfiguration degradedConfiguration = new PowerAuthDegradedModeConfiguration();
+            degradedConfiguration.setEnabled(true);
+            degradedModeValidator = new PowerAuthDegradedModeValidator(degradedConfiguration);
+            invalidator = new PowerAuthCacheInvalidator(broadcaster, activationStateCache, activationStatusCache, degradedModeValidator);
+        }
+    }
+
+    private final String activationId = UUID.randomUUID().toString();
+    private final String tokenId = UUID.randomUUID().toString();
+
+    private final List<LocalBroadcaster> cluster = new ArrayList<>();
+    private final Node node = new Node(cluster);
+    private final Node otherNode = new Node(cluster);
+
+    private static String now() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+
+    @Test
+    void testActivationChanged() {
+        for (Node n : new Node[] {node, otherNode}) {
+            n.activationStateCache.activationStateChanged(activationId, PowerAuthActivationState.BLOCKED);
+            n.activationStatusCache.put(activationId, null, STATUS_BLOB, null);
+        }
+        node.invalidator.activationChanged(activationId);
+        for (Node n : new Node[] {node, otherNode}) {
+            assertFalse(n.activationStateCache.isActivationRejected(activationId));
+            assertNull(n.activationStatusCache.get(activationId, null));
+        }
+        assertEquals(1, node.broadcaster.publishedEvents.size());
+        assertEquals(0, otherNode.broadcaster.publishedEvents.size());
+    }
+
+    @Test
+    void testActivationRemoved() {
+        for (Node n : new Node[] {node, otherNode}) {
+            n.activationStatusCache.put(activationId, null, STATUS_BLOB, null);
+        }
+        otherNode.invalidator.activationRemoved(activationId);
+        for (Node n : new Node[] {node, otherNode}) {
+            assertEquals(PowerAuthActivationState.REMOVED, n.activationStateCache.getActivationState(activationId));
+            assertNull(n.activationStatusCache.get(activationId, null));
+        }
+    }
+
+    @Test
+    void testTokenRemoved() {
+        for (Node n : new Node[] {node, otherNode}) {
+            n.activationStateCache.tokenValidated(tokenId, activationId);
+            n.activationStateCache.activationStateChanged(activationId, PowerAuthActivationState.BLOCKED);
+            n.degradedModeValidator.tokenValidated(new PowerAuthValidatedToken(tokenId, activationId, "user", 1L,
+                    PowerAuthSignatureTypes.POSSESSION, System.currentTimeMillis()));
+            assertTrue(n.activationStateCache.isTokenRejected(tokenId));
+        }
+        assertNotNull(otherNode.degradedModeValidator.validateToken(tokenId, "nonce-1", now()));
+        node.invalidator.tokenRemoved(tokenId);
+        for (Node n : new Node[] {node, otherNode}) {
+            assertFalse(n.activationStateCache.isTokenRejected(tokenId));
+            assertNull(n.degradedModeValidator.validateToken(tokenId, "nonce-2", now()));
+        }
+    }
+
+    @Test
+    void testNullIdIgnored() {
+        node.invalidator.activationChanged(null);
+        node.invalidator.activationRemoved(null);
+        node.invalidator.tokenRemoved(null);
+        assertTrue(node.broadcaster.publishedEvents.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new PowerAuthInvalidationEvent(PowerAuthInvalidationEventType.TOKEN_REMOVED, null));
+        assertThrows(IllegalArgumentException.class, () -> new PowerAuthInvalidationEvent(null, tokenId));
+    }
+
+    @Test
+    void testFailingListenerDoesNotStopDelivery() {
+        otherNode.broadcaster.subscribe(event -> {
+            throw new IllegalStateException("Listener failure");
+        });
+        final List<PowerAuthInvalidationEvent> receivedEvents = new ArrayList<>();
+        otherNode.broadcaster.subscribe(receivedEvents::add);
+        node.invalidator.activationRemoved(activationId);
+        assertEquals(1, receivedEvents.size());
+        assertEquals(PowerAuthInvalidationEventType.ACTIVATION_REMOVED, receivedEvents.get(0).getType());
+        assertEquals(activationId, receivedEvents.get(0).getId());
+        assertEquals(PowerAuthActivationState.REMOVED, otherNode.activationStateCache.getActivationState(activationId));
+    }
+
+    @Test
+    void testInvalidatorWithoutCaches() {
+        final LocalBroadcaster broadcaster = new LocalBroadcaster(cluster);
+        final PowerAuthCacheInvalidator invalidator = new PowerAuthCacheInvalidator(broadcaster, null, null, null);
+        invalidator.activationChanged(activationId);
+        invalidator.activationRemoved(activationId);
+        invalidator.tokenRemoved(tokenId);
+        // Events are published to other nodes even though the node does not use any caches
+        assertEquals(3, broadcaster.publishedEvents.size());
+        assertEquals(PowerAuthActivationState.REMOVED, node.activationStateCache.getActivationState(activationId));
+        // Events received from other nodes are ignored as well
+        node.invalidator.tokenRemoved(tokenId);
+    }
+
+    @Test
+    void testDefaultInvalidator() {
+        // Default invalidator neither invalidates caches nor publishes events
+        final PowerAuthCacheInvalidator invalidator = new PowerAuthCacheInvalidator();
+        invalidator.activationChanged(activationId);
+        invalidator.activationRemoved(activationId);
+        invalidator.tokenRemoved(tokenId);
+        invalidator.onInvalidation(new PowerAuthInvalidationEvent(PowerAuthInvalidationEventType.ACTIVATION_REMOVED, activationId));
+        for (Node n : new Node[] {node, otherNode}) {
+            assertNull(n.activationStateCache.getActivationState(activationId));
+        }
+    }
+
+    @Test
+    void testInvalidJdbcBroadcasterConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new PowerAuthJdbcInvalidationBroadcaster(null, "events; DROP TABLE x", 1000L, 0L, 1000L));
+        assertThrows(IllegalArgumentException.class, () -> new PowerAuthJdbcInvalidationBroadcaster(null, "pa_cache_invalidation", 0L, 0L, 1000L));
+        assertThrows(IllegalArgumentException.class, () -> new PowerAuthJdbcInvalidationBroadcaster(null, "pa_cache_invalidation", 1000L, 1000L, 1000L));
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.nonce;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the open addressing set of long values.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class LongHashSetTest {
+
+    @Test
+    void testAddAndContains() {
+        final LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(42L));
+        assertTrue(set.add(42L));
+        assertTrue(set.contains(42L));
+        assertFalse(set.add(42L));
+        assertTrue(set.add(-42L));
+        assertTrue(set.contains(-42L));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void testResizeKeepsCollidingValues() {
+        final LongHashSet set = new LongHashSet();
+        // Values with equal low bits are placed into the same initial slot and probed linearly
+        for (long i = 1; i <= 1000; i++) {
+            assertTrue(set.add(i << 32));
+            assertTrue(set.add(-i));
+        }
+        assertEquals(2000, set.size());
+        for (long i = 1; i <= 1000; i++) {
+            assertTrue(set.contains(i << 32));
+            assertTrue(set.contains(-i));
+            assertFalse(set.add(i << 32));
+        }
+        assertFalse(set.contains(1001L << 32));
+        assertFalse(set.contains(1L));
+    }
+
+    @Test
+    void testClear() {
+        final LongHashSet set = new LongHashSet();
+        for (long i = 1; i <= 100; i++) {
+            set.add(i);
+        }
+        set.clear();
+        assertEquals(0, set.size());
+        for (long i = 1; i <= 100; i++) {
+            assertFalse(set.contains(i));
+        }
+        assertTrue(set.add(1L));
+    }
+
+}
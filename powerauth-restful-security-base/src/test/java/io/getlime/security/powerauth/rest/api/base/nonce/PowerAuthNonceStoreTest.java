@@ -0,0 +1,161 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.nonce;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceEvent;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthSimpleServiceMetrics;
+import org.junit.jupiter.api.Test;
+
+import static io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStore.SCOPE_SIGNATURE;
+import static io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStore.SCOPE_TOKEN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of replay detection in the local nonce store.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthNonceStoreTest {
+
+    private static final String ACTIVATION_ID = "f81d4fae-7dec-11d0-a765-00a0c91e6bf6";
+
+    // Start time is aligned to a time bucket
+    private static final long START = 1600000000000L;
+
+    private final PowerAuthSimpleServiceMetrics serviceMetrics = new PowerAuthSimpleServiceMetrics();
+
+    /**
+     * Create an enabled store with a single stripe and a window of twelve one second buckets.
+     */
+    private PowerAuthNonceStore createStore(int maxNonces) {
+        final PowerAuthNonceStoreConfiguration configuration = new PowerAuthNonceStoreConfiguration();
+        configuration.setEnabled(true);
+        configuration.setWindow(12000L);
+        configuration.setBucketCount(12);
+        configuration.setStripeCount(1);
+        configuration.setMaxNonces(maxNonces);
+        final PowerAuthNonceStore store = new PowerAuthNonceStore(configuration);
+        store.setServiceMetrics(serviceMetrics);
+        return store;
+    }
+
+    private PowerAuthNonceRegistration register(PowerAuthNonceStore store, String nonce, long now) {
+        return store.register(SCOPE_SIGNATURE, ACTIVATION_ID, nonce, true, now);
+    }
+
+    @Test
+    void testDisabledStore() {
+        final PowerAuthNonceStore store = new PowerAuthNonceStore(new PowerAuthNonceStoreConfiguration());
+        assertTrue(store.register(SCOPE_SIGNATURE, ACTIVATION_ID, "nonce"));
+        assertTrue(store.register(SCOPE_SIGNATURE, ACTIVATION_ID, "nonce"));
+        assertEquals(PowerAuthNonceRegistration.REGISTERED, store.registerWithinWindow(SCOPE_SIGNATURE, ACTIVATION_ID, "nonce"));
+        assertEquals(0, store.getSize());
+    }
+
+    @Test
+    void testReplayDetected() {
+        final PowerAuthNonceStore store = createStore(1000);
+        assertTrue(store.register(SCOPE_SIGNATURE, ACTIVATION_ID, "nonce"));
+        assertFalse(store.register(SCOPE_SIGNATURE, ACTIVATION_ID, "nonce"));
+        assertEquals(PowerAuthNonceRegistration.REPLAYED, store.registerWithinWindow(SCOPE_SIGNATURE, ACTIVATION_ID, "nonce"));
+        // Nonces are scoped by the scope and identifier
+        assertTrue(store.register(SCOPE_TOKEN, ACTIVATION_ID, "nonce"));
+        assertTrue(store.register(SCOPE_SIGNATURE, "5a6b7c8d-7dec-11d0-a765-00a0c91e6bf6", "nonce"));
+        // Shifting characters between values does not collide
+        assertTrue(store.register(SCOPE_SIGNATURE, ACTIVATION_ID + "n", "once"));
+        // Requests without identifier or nonce are not checked
+        assertTrue(store.register(SCOPE_SIGNATURE, null, "nonce"));
+        assertTrue(store.register(SCOPE_SIGNATURE, ACTIVATION_ID, null));
+        assertEquals(2, store.getReplayCount());
+        assertEquals(4, store.getSize());
+    }
+
+    @Test
+    void testReplayDetectedAcrossBucketRotation() {
+        final PowerAuthNonceStore store = createStore(1000);
+        for (int i = 0; i < 12; i++) {
+            assertEquals(PowerAuthNonceRegistration.REGISTERED, register(store, "nonce" + i, START + i * 1000L));
+        }
+        // All buckets are within the window
+        for (int i = 0; i < 12; i++) {
+            assertEquals(PowerAuthNonceRegistration.REPLAYED, register(store, "nonce" + i, START + 11999L));
+        }
+        // Two oldest buckets leave the window and are reused for new nonces
+        for (int i = 2; i < 12; i++) {
+            assertEquals(PowerAuthNonceRegistration.REPLAYED, register(store, "nonce" + i, START + 13000L));
+        }
+        assertEquals(PowerAuthNonceRegistration.REGISTERED, register(store, "nonce0", START + 13000L));
+        assertEquals(PowerAuthNonceRegistration.REGISTERED, register(store, "nonce1", START + 13000L));
+        assertEquals(PowerAuthNonceRegistration.REPLAYED, register(store, "nonce0", START + 13500L));
+        assertEquals(12, store.getSize());
+        // Buckets leaving the window are not counted as dropped
+        assertEquals(0, store.getDroppedBucketCount());
+    }
+
+    @Test
+    void testReplayDetectedWhenClockMovesBack() {
+        final PowerAuthNonceStore store = createStore(1000);
+        assertEquals(PowerAuthNonceRegistration.REGISTERED, register(store, "nonce", START + 20000L));
+        assertEquals(PowerAuthNonceRegistration.REPLAYED, register(store, "nonce", START));
+        assertEquals(PowerAuthNonceRegistration.REGISTERED, register(store, "other", START));
+        assertEquals(PowerAuthNonceRegistration.REPLAYED, register(store, "other", START + 20000L));
+    }
+
+    @Test
+    void testOldestBucketDroppedWhenFull() {
+        final PowerAuthNonceStore store = createStore(10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(PowerAuthNonceRegistration.REGISTERED, register(store, "old" + i, START));
+        }
+        // The store is full, registration within the window is refused and nothing is dropped
+        assertEquals(PowerAuthNonceRegistration.CAPACITY_EXCEEDED, store.register(SCOPE_SIGNATURE, ACTIVATION_ID, "new", false, START + 1000L));
+        assertEquals(0, store.getDroppedBucketCount());
+        assertEquals(PowerAuthNonceRegistration.REPLAYED, register(store, "old0", START + 1000L));
+
+        // Fail open, the oldest bucket is dropped and replays of its nonces are not detected anymore
+        assertEquals(PowerAuthNonceRegistration.REGISTERED, register(store, "new", START + 1000L));
+        assertEquals(1, store.getDroppedBucketCount());
+        assertEquals(1, serviceMetrics.getEventCount(PowerAuthServiceEvent.NONCE_STORE_BUCKET_DROPPED));
+        assertEquals(1, store.getSize());
+        assertEquals(PowerAuthNonceRegistration.REPLAYED, register(store, "new", START + 1000L));
+        assertEquals(PowerAuthNonceRegistration.REGISTERED, register(store, "old0", START + 1000L));
+    }
+
+    @Test
+    void testCurrentBucketDroppedWhenFull() {
+        final PowerAuthNonceStore store = createStore(10);
+        for (int i = 0; i < 10; i++) {
+            register(store, "nonce" + i, START);
+        }
+        assertEquals(PowerAuthNonceRegistration.REGISTERED, register(store, "nonce10", START));
+        assertEquals(1, store.getDroppedBucketCount());
+        assertEquals(1, serviceMetrics.getEventCount(PowerAuthServiceEvent.NONCE_STORE_BUCKET_DROPPED));
+        assertEquals(1, store.getSize());
+        for (int i = 11; i < 30; i++) {
+            register(store, "nonce" + i, START);
+        }
+        // Every drop is recorded even though the warning is logged only once
+        assertEquals(2, store.getDroppedBucketCount());
+        assertEquals(2, serviceMetrics.getEventCount(PowerAuthServiceEvent.NONCE_STORE_BUCKET_DROPPED));
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.scheduler;
+
+import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRequestRejectedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the priority aware request scheduler.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthRequestSchedulerTest {
+
+    private static class TokenController {
+    }
+
+    private static class SecureVaultController {
+    }
+
+    /**
+     * Create a scheduler with capacity of four requests, upgrade requests may use a single slot and they are
+     * rejected immediately.
+     */
+    private PowerAuthRequestScheduler createScheduler(String controllerPriorities) {
+        final PowerAuthRequestSchedulerConfiguration configuration = new PowerAuthRequestSchedulerConfiguration();
+        configuration.setMaxConcurrentRequests(4);
+        configuration.setControllerPriorities(controllerPriorities);
+        return new PowerAuthRequestScheduler(configuration);
+    }
+
+    @Test
+    void testControllerName() {
+        assertEquals("token", PowerAuthRequestScheduler.resolveControllerName(TokenController.class));
+        assertEquals("secureVault", PowerAuthRequestScheduler.resolveControllerName(SecureVaultController.class));
+        assertEquals("string", PowerAuthRequestScheduler.resolveControllerName(String.class));
+    }
+
+    @Test
+    void testDisabledScheduler() throws PowerAuthRequestRejectedException {
+        final PowerAuthRequestScheduler scheduler = new PowerAuthRequestScheduler(new PowerAuthRequestSchedulerConfiguration());
+        assertFalse(scheduler.isEnabled());
+        for (int i = 0; i < 10; i++) {
+            assertSame(PowerAuthRequestPermit.NONE, scheduler.acquire(TokenController.class, PowerAuthRequestPriority.UPGRADE));
+        }
+        assertEquals(0, scheduler.getInFlightCount());
+    }
+
+    @Test
+    void testCapacityShare() throws PowerAuthRequestRejectedException {
+        final PowerAuthRequestScheduler scheduler = createScheduler(null);
+        assertTrue(scheduler.isEnabled());
+        final PowerAuthRequestPermit upgradePermit = scheduler.acquire(TokenController.class, PowerAuthRequestPriority.UPGRADE);
+        assertThrows(PowerAuthRequestRejectedException.class, () -> scheduler.acquire(TokenController.class, PowerAuthRequestPriority.UPGRADE));
+        assertEquals(1, scheduler.getRejectedCount(PowerAuthRequestPriority.UPGRADE));
+
+        // Capacity of higher priorities remains available
+        final PowerAuthRequestPermit statusPermit1 = scheduler.acquire(TokenController.class, PowerAuthRequestPriority.ACTIVATION_STATUS);
+        final PowerAuthRequestPermit statusPermit2 = scheduler.acquire(TokenController.class, PowerAuthRequestPriority.ACTIVATION_STATUS);
+        final PowerAuthRequestPermit statusPermit3 = scheduler.acquire(TokenController.class, PowerAuthRequestPriority.ACTIVATION_STATUS);
+        assertEquals(4, scheduler.getInFlightCount());
+        assertEquals(0, scheduler.getRejectedCount(PowerAuthRequestPriority.ACTIVATION_STATUS));
+
+        upgradePermit.close();
+        statusPermit1.close();
+        statusPermit2.close();
+        statusPermit3.close();
+        assertEquals(0, scheduler.getInFlightCount());
+        scheduler.acquire(TokenController.class, PowerAuthRequestPriority.UPGRADE).close();
+    }
+
+    @Test
+    void testPermitReleasedOnce() throws PowerAuthRequestRejectedException {
+        final PowerAuthRequestScheduler scheduler = createScheduler(null);
+        final PowerAuthRequestPermit permit1 = scheduler.acquire(TokenController.class, PowerAuthRequestPriority.TOKEN);
+        final PowerAuthRequestPermit permit2 = scheduler.acquire(TokenController.class, PowerAuthRequestPriority.TOKEN);
+        permit1.close();
+        permit1.close();
+        assertEquals(1, scheduler.getInFlightCount());
+        permit2.close();
+        assertEquals(0, scheduler.getInFlightCount());
+    }
+
+    @Test
+    void testControllerPriorityOverride() throws PowerAuthRequestRejectedException {
+        final PowerAuthRequestScheduler scheduler = createScheduler("token:UPGRADE");
+        try (PowerAuthRequestPermit ignored = scheduler.acquire(TokenController.class, PowerAuthRequestPriority.ACTIVATION_STATUS)) {
+            assertThrows(PowerAuthRequestRejectedException.class, () -> scheduler.acquire(TokenController.class, PowerAuthRequestPriority.ACTIVATION_STATUS));
+            assertEquals(1, scheduler.getRejectedCount(PowerAuthRequestPriority.UPGRADE));
+            // Other controllers use the default priority
+            scheduler.acquire(SecureVaultController.class, PowerAuthRequestPriority.ACTIVATION_STATUS).close();
+        }
+    }
+
+    @Test
+    void testRejectedAfterWaiting() throws PowerAuthRequestRejectedException {
+        final PowerAuthRequestScheduler scheduler = createScheduler(null);
+        // Activation create requests may use two slots and wait 100 ms for a free slot
+        final PowerAuthRequestPermit permit1 = scheduler.acquire(TokenController.class, PowerAuthRequestPriority.ACTIVATION_CREATE);
+        final PowerAuthRequestPermit permit2 = scheduler.acquire(TokenController.class, PowerAuthRequestPriority.ACTIVATION_CREATE);
+        final long start = System.nanoTime();
+        assertThrows(PowerAuthRequestRejectedException.class, () -> scheduler.acquire(TokenController.class, PowerAuthRequestPriority.ACTIVATION_CREATE));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1, scheduler.getRejectedCount(PowerAuthRequestPriority.ACTIVATION_CREATE));
+        permit1.close();
+        permit2.close();
+    }
+
+    @Test
+    void testWaitingRequestAdmitted() throws Exception {
+        final PowerAuthRequestSchedulerConfiguration configuration = new PowerAuthRequestSchedulerConfiguration();
+        configuration.setMaxConcurrentRequests(4);
+        configuration.setMaxWaitTimes("ACTIVATION_CREATE:10000");
+        final PowerAuthRequestScheduler scheduler = new PowerAuthRequestScheduler(configuration);
+        final PowerAuthRequestPermit permit1 = scheduler.acquire(TokenController.class, PowerAuthRequestPriority.ACTIVATION_CREATE);
+        final PowerAuthRequestPermit permit2 = scheduler.acquire(TokenController.class, PowerAuthRequestPriority.ACTIVATION_CREATE);
+        final CompletableFuture<PowerAuthRequestPermit> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return scheduler.acquire(TokenController.class, PowerAuthRequestPriority.ACTIVATION_CREATE);
+            } catch (PowerAuthRequestRejectedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(waiting.isDone());
+        permit1.close();
+        waiting.get(5, TimeUnit.SECONDS).close();
+        permit2.close();
+        assertEquals(0, scheduler.getInFlightCount());
+        assertEquals(0, scheduler.getRejectedCount(PowerAuthRequestPriority.ACTIVATION_CREATE));
+    }
+
+}
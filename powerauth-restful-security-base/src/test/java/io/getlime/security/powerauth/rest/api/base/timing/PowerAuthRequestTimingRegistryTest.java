@@ -0,0 +1,140 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the registry of request phase timing metrics.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthRequestTimingRegistryTest {
+
+    private PowerAuthRequestTimingRegistry createRegistry(int maxEndpoints) {
+        final PowerAuthRequestTimingConfiguration configuration = new PowerAuthRequestTimingConfiguration();
+        configuration.setEnabled(true);
+        configuration.setMaxEndpoints(maxEndpoints);
+        return new PowerAuthRequestTimingRegistry(configuration);
+    }
+
+    private PowerAuthRequestTiming createTiming(PowerAuthRequestPhase phase, long durationMillis) {
+        final PowerAuthRequestTiming timing = new PowerAuthRequestTiming();
+        timing.record(phase, TimeUnit.MILLISECONDS.toNanos(durationMillis));
+        return timing;
+    }
+
+    @Test
+    void testDisabledRegistry() {
+        final PowerAuthRequestTimingConfiguration configuration = new PowerAuthRequestTimingConfiguration();
+        configuration.setServerTimingHeaderEnabled(true);
+        final PowerAuthRequestTimingRegistry registry = new PowerAuthRequestTimingRegistry(configuration);
+        assertFalse(registry.isEnabled());
+        assertFalse(registry.isServerTimingHeaderEnabled());
+        assertNull(registry.startRequest());
+        registry.record("/pa/v3/token/create", null);
+        assertTrue(registry.getEndpointMetrics().isEmpty());
+    }
+
+    @Test
+    void testEnabledRegistry() {
+        final PowerAuthRequestTimingRegistry registry = createRegistry(10);
+        assertTrue(registry.isEnabled());
+        assertFalse(registry.isServerTimingHeaderEnabled());
+        assertNotNull(registry.startRequest());
+    }
+
+    @Test
+    void testRecordPerEndpointAndPhase() {
+        final PowerAuthRequestTimingRegistry registry = createRegistry(10);
+        registry.record("/pa/v3/token/create", createTiming(PowerAuthRequestPhase.AUTHENTICATION, 10));
+        registry.record("/pa/v3/token/create", createTiming(PowerAuthRequestPhase.AUTHENTICATION, 30));
+        registry.record("/pa/v3/activation/status", createTiming(PowerAuthRequestPhase.DECRYPTION, 5));
+
+        final PowerAuthEndpointTimingMetrics tokenMetrics = registry.getEndpointMetrics("/pa/v3/token/create");
+        assertNotNull(tokenMetrics);
+        assertEquals("/pa/v3/token/create", tokenMetrics.getEndpoint());
+        assertEquals(2, tokenMetrics.getHistogram(PowerAuthRequestPhase.AUTHENTICATION).getCount());
+        assertEquals(40, tokenMetrics.getHistogram(PowerAuthRequestPhase.AUTHENTICATION).getTotalTime(TimeUnit.MILLISECONDS));
+        assertEquals(30, tokenMetrics.getHistogram(PowerAuthRequestPhase.AUTHENTICATION).getMaxTime(TimeUnit.MILLISECONDS));
+        // Phases which were not recorded do not affect their histograms
+        assertEquals(0, tokenMetrics.getHistogram(PowerAuthRequestPhase.DECRYPTION).getCount());
+
+        final PowerAuthEndpointTimingMetrics statusMetrics = registry.getEndpointMetrics("/pa/v3/activation/status");
+        assertNotNull(statusMetrics);
+        assertEquals(1, statusMetrics.getHistogram(PowerAuthRequestPhase.DECRYPTION).getCount());
+        assertEquals(0, statusMetrics.getHistogram(PowerAuthRequestPhase.AUTHENTICATION).getCount());
+        assertEquals(2, registry.getEndpointMetrics().size());
+    }
+
+    @Test
+    void testMaximumEndpoints() {
+        final PowerAuthRequestTimingRegistry registry = createRegistry(2);
+        registry.record("/first", createTiming(PowerAuthRequestPhase.HANDLER, 1));
+        registry.record("/second", createTiming(PowerAuthRequestPhase.HANDLER, 1));
+        registry.record("/third", createTiming(PowerAuthRequestPhase.HANDLER, 1));
+        registry.record("/fourth", createTiming(PowerAuthRequestPhase.HANDLER, 1));
+        // Known endpoints are still recorded separately
+        registry.record("/first", createTiming(PowerAuthRequestPhase.HANDLER, 1));
+
+        assertNull(registry.getEndpointMetrics("/third"));
+        assertNull(registry.getEndpointMetrics("/fourth"));
+        assertEquals(2, registry.getEndpointMetrics("/first").getHistogram(PowerAuthRequestPhase.HANDLER).getCount());
+        assertEquals(2, registry.getEndpointMetrics(PowerAuthRequestTimingRegistry.OTHER_ENDPOINTS)
+                .getHistogram(PowerAuthRequestPhase.HANDLER).getCount());
+        assertEquals(3, registry.getEndpointMetrics().size());
+    }
+
+    @Test
+    void testUnknownEndpoint() {
+        final PowerAuthRequestTimingRegistry registry = createRegistry(10);
+        registry.record(null, createTiming(PowerAuthRequestPhase.HANDLER, 1));
+        registry.record("/pa/v3/token/create", null);
+        assertEquals(1, registry.getEndpointMetrics().size());
+        assertEquals(1, registry.getEndpointMetrics(PowerAuthRequestTimingRegistry.OTHER_ENDPOINTS)
+                .getHistogram(PowerAuthRequestPhase.HANDLER).getCount());
+    }
+
+    @Test
+    void testServerTimingHeaderEnabled() {
+        final PowerAuthRequestTimingConfiguration configuration = new PowerAuthRequestTimingConfiguration();
+        configuration.setEnabled(true);
+        configuration.setServerTimingHeaderEnabled(true);
+        assertTrue(new PowerAuthRequestTimingRegistry(configuration).isServerTimingHeaderEnabled());
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        final PowerAuthRequestTimingConfiguration configuration = new PowerAuthRequestTimingConfiguration();
+        assertThrows(IllegalArgumentException.class, () -> configuration.setMaxEndpoints(0));
+        assertThrows(IllegalArgumentException.class, () -> configuration.setMaxEndpoints(-1));
+        assertEquals(PowerAuthRequestTimingConfiguration.DEFAULT_MAX_ENDPOINTS, configuration.getMaxEndpoints());
+    }
+
+}
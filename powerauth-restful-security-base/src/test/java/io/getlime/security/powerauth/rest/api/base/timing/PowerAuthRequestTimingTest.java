@@ -0,0 +1,128 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of durations of request processing phases.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthRequestTimingTest {
+
+    @AfterEach
+    void unbind() {
+        PowerAuthRequestTiming.unbind();
+    }
+
+    @Test
+    void testPhaseRecordedIntoBoundTiming() throws InterruptedException {
+        final PowerAuthRequestTiming timing = new PowerAuthRequestTiming();
+        timing.bind();
+        assertSame(timing, PowerAuthRequestTiming.current());
+        final long start = PowerAuthRequestTiming.phaseStarted();
+        Thread.sleep(5);
+        PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.AUTHENTICATION, start);
+        assertTrue(timing.isRecorded(PowerAuthRequestPhase.AUTHENTICATION));
+        assertTrue(timing.getDuration(PowerAuthRequestPhase.AUTHENTICATION, TimeUnit.MILLISECONDS) >= 5);
+        assertFalse(timing.isRecorded(PowerAuthRequestPhase.DECRYPTION));
+        assertEquals(0, timing.getDuration(PowerAuthRequestPhase.DECRYPTION, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void testPhaseWithoutBoundTiming() {
+        assertNull(PowerAuthRequestTiming.current());
+        final long start = PowerAuthRequestTiming.phaseStarted();
+        assertEquals(0L, start);
+        // Completing a phase without a bound timing is a no-op
+        PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.AUTHENTICATION, start);
+
+        final PowerAuthRequestTiming timing = new PowerAuthRequestTiming();
+        timing.bind();
+        PowerAuthRequestTiming.unbind();
+        assertNull(PowerAuthRequestTiming.current());
+        PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.AUTHENTICATION, PowerAuthRequestTiming.phaseStarted());
+        assertFalse(timing.isRecorded(PowerAuthRequestPhase.AUTHENTICATION));
+    }
+
+    @Test
+    void testRepeatedPhasesSummed() {
+        final PowerAuthRequestTiming timing = new PowerAuthRequestTiming();
+        timing.record(PowerAuthRequestPhase.DECRYPTION, 1000);
+        timing.record(PowerAuthRequestPhase.DECRYPTION, 2500);
+        // Negative durations caused by a non-monotonic clock are not subtracted
+        timing.record(PowerAuthRequestPhase.DECRYPTION, -500);
+        assertEquals(3500, timing.getDuration(PowerAuthRequestPhase.DECRYPTION, TimeUnit.NANOSECONDS));
+        timing.record(PowerAuthRequestPhase.ENCRYPTION, -500);
+        assertTrue(timing.isRecorded(PowerAuthRequestPhase.ENCRYPTION));
+        assertEquals(0, timing.getDuration(PowerAuthRequestPhase.ENCRYPTION, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void testHandlerExcludesNestedPhases() throws InterruptedException {
+        final PowerAuthRequestTiming timing = new PowerAuthRequestTiming();
+        timing.record(PowerAuthRequestPhase.BODY_BUFFERING, TimeUnit.SECONDS.toNanos(5));
+        final long start = System.nanoTime();
+        timing.handlerStarted();
+        Thread.sleep(5);
+        timing.record(PowerAuthRequestPhase.AUTHENTICATION, TimeUnit.MILLISECONDS.toNanos(2));
+        timing.handlerCompleted();
+        final long elapsed = System.nanoTime() - start;
+        final long handler = timing.getDuration(PowerAuthRequestPhase.HANDLER, TimeUnit.NANOSECONDS);
+        assertTrue(timing.isRecorded(PowerAuthRequestPhase.HANDLER));
+        assertTrue(handler >= TimeUnit.MILLISECONDS.toNanos(3));
+        assertTrue(handler <= elapsed - TimeUnit.MILLISECONDS.toNanos(2));
+
+        // Repeated completion is ignored
+        Thread.sleep(5);
+        timing.handlerCompleted();
+        assertEquals(handler, timing.getDuration(PowerAuthRequestPhase.HANDLER, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void testHandlerCompletedWithoutStart() {
+        final PowerAuthRequestTiming timing = new PowerAuthRequestTiming();
+        timing.handlerCompleted();
+        assertFalse(timing.isRecorded(PowerAuthRequestPhase.HANDLER));
+    }
+
+    @Test
+    void testServerTimingHeader() {
+        final PowerAuthRequestTiming timing = new PowerAuthRequestTiming();
+        assertEquals("", timing.toServerTimingHeader());
+        timing.record(PowerAuthRequestPhase.AUTHENTICATION, 12_431_999);
+        timing.record(PowerAuthRequestPhase.BODY_BUFFERING, 125_000);
+        timing.record(PowerAuthRequestPhase.ENCRYPTION, 7_000);
+        timing.record(PowerAuthRequestPhase.DECRYPTION, 0);
+        assertEquals("pa-body;dur=0.125, pa-decrypt;dur=0.000, pa-auth;dur=12.431, pa-encrypt;dur=0.007",
+                timing.toServerTimingHeader());
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.token;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Test of masking token IDs in logs.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthTokenIdsTest {
+
+    @Test
+    void testMask() {
+        assertEquals("d6561669...", PowerAuthTokenIds.mask("d6561669-34d6-4fee-8913-89477687a5cb"));
+        assertEquals("...", PowerAuthTokenIds.mask("d6561669"));
+        assertEquals("...", PowerAuthTokenIds.mask(""));
+        assertNull(PowerAuthTokenIds.mask(null));
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.token;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of local validation of token timestamps.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthTokenTimestampValidatorTest {
+
+    private static final long NOW = 1600000000000L;
+
+    private static final long MAX_SKEW = 300000L;
+
+    @Test
+    void testSkewBoundary() {
+        final PowerAuthTokenTimestampValidator validator = new PowerAuthTokenTimestampValidator(MAX_SKEW);
+        assertTrue(validator.isEnabled());
+        assertTrue(validator.validate(String.valueOf(NOW), NOW));
+        // Timestamps exactly at the maximum skew are accepted in both directions
+        assertTrue(validator.validate(String.valueOf(NOW - MAX_SKEW), NOW));
+        assertTrue(validator.validate(String.valueOf(NOW + MAX_SKEW), NOW));
+        assertFalse(validator.validate(String.valueOf(NOW - MAX_SKEW - 1), NOW));
+        assertFalse(validator.validate(String.valueOf(NOW + MAX_SKEW + 1), NOW));
+        assertTrue(validator.validate(String.valueOf(System.currentTimeMillis())));
+    }
+
+    @Test
+    void testInvalidTimestamp() {
+        final PowerAuthTokenTimestampValidator validator = new PowerAuthTokenTimestampValidator(MAX_SKEW);
+        assertFalse(validator.validate(null, NOW));
+        assertFalse(validator.validate("", NOW));
+        assertFalse(validator.validate("timestamp", NOW));
+        assertFalse(validator.validate("1600000000000.5", NOW));
+        assertFalse(validator.validate("99999999999999999999", NOW));
+    }
+
+    @Test
+    void testDisabled() {
+        final PowerAuthTokenTimestampValidator validator = new PowerAuthTokenTimestampValidator(0);
+        assertFalse(validator.isEnabled());
+        assertFalse(new PowerAuthTokenTimestampValidator().isEnabled());
+        // Any timestamp is accepted and left to the PowerAuth server
+        assertTrue(validator.validate(String.valueOf(NOW - 24 * 3600000L), NOW));
+        assertTrue(validator.validate(null, NOW));
+        assertTrue(validator.validate("timestamp", NOW));
+    }
+
+    @Test
+    void testNegativeSkew() {
+        assertThrows(IllegalArgumentException.class, () -> new PowerAuthTokenTimestampValidator(-1));
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.base.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.security.Security;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the warm-up of request processing.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthWarmupTest {
+
+    @BeforeAll
+    static void registerProvider() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    private static PowerAuthWarmupConfiguration createConfiguration(int iterations) {
+        final PowerAuthWarmupConfiguration configuration = new PowerAuthWarmupConfiguration();
+        configuration.setEnabled(true);
+        configuration.setIterations(iterations);
+        return configuration;
+    }
+
+    @Test
+    void testEciesTask() throws Exception {
+        final PowerAuthEciesWarmupTask task = new PowerAuthEciesWarmupTask(new ObjectMapper());
+        // Request decryption or response encryption failure is reported as an exception
+        for (int i = 0; i < 3; i++) {
+            task.run();
+        }
+    }
+
+    @Test
+    void testFailingTaskSkipped() {
+        final AtomicInteger failingRuns = new AtomicInteger();
+        final AtomicInteger runs = new AtomicInteger();
+        final PowerAuthWarmupTask failingTask = new PowerAuthWarmupTask() {
+            @Override
+            public String getName() {
+                return "failing";
+            }
+
+            @Override
+            public void run() {
+                failingRuns.incrementAndGet();
+                throw new IllegalStateException("Task failed");
+            }
+        };
+        final PowerAuthWarmupTask task = new PowerAuthWarmupTask() {
+            @Override
+            public String getName() {
+                return "counting";
+            }
+
+            @Override
+            public void run() {
+                // No request timing is bound while the tasks run
+                assertNull(PowerAuthRequestTiming.current());
+                runs.incrementAndGet();
+            }
+        };
+        final PowerAuthWarmup warmup = new PowerAuthWarmup(createConfiguration(5), Arrays.asList(failingTask, task));
+        final PowerAuthRequestTiming timing = new PowerAuthRequestTiming();
+        timing.bind();
+        try {
+            warmup.run();
+            warmup.run();
+            // Request timing of the calling thread is restored
+            assertSame(timing, PowerAuthRequestTiming.current());
+        } finally {
+            PowerAuthRequestTiming.unbind();
+        }
+        assertTrue(warmup.isCompleted());
+        assertEquals(5, warmup.getIterations());
+        assertEquals(1, failingRuns.get());
+        assertEquals(5, runs.get());
+    }
+
+}
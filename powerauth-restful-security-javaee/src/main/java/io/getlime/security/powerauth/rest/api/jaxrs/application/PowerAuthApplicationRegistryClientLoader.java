@@ -0,0 +1,71 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.jaxrs.application;
+
+import io.getlime.powerauth.soap.v3.PowerAuthPortV3ServiceStub;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistryLoader;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationVersion;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
+import io.getlime.security.powerauth.soap.axis.client.PowerAuthServiceClient;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loader of application versions for the application registry which uses PowerAuth server SOAP client.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthApplicationRegistryClientLoader implements PowerAuthApplicationRegistryLoader {
+
+    private final PowerAuthServiceClient powerAuthClient;
+
+    private final PowerAuthInstrumentedClient instrumentedClient;
+
+    /**
+     * Loader constructor.
+     * @param powerAuthClient PowerAuth server SOAP client.
+     * @param instrumentedClient Executor of PowerAuth server calls which records metrics.
+     */
+    public PowerAuthApplicationRegistryClientLoader(PowerAuthServiceClient powerAuthClient, PowerAuthInstrumentedClient instrumentedClient) {
+        this.powerAuthClient = powerAuthClient;
+        this.instrumentedClient = instrumentedClient;
+    }
+
+    @Override
+    public List<PowerAuthApplicationVersion> loadApplicationVersions() throws RemoteException {
+        final List<PowerAuthApplicationVersion> result = new ArrayList<>();
+        for (PowerAuthPortV3ServiceStub.Applications_type0 application: instrumentedClient.call(PowerAuthServiceOperation.GET_APPLICATION_LIST, () -> powerAuthClient.getApplicationList())) {
+            final PowerAuthPortV3ServiceStub.GetApplicationDetailResponse detail = instrumentedClient.call(PowerAuthServiceOperation.GET_APPLICATION_DETAIL, () -> powerAuthClient.getApplicationDetail(application.getId()));
+            final PowerAuthPortV3ServiceStub.Versions_type0[] versions = detail.getVersions();
+            if (versions == null) {
+                continue;
+            }
+            for (PowerAuthPortV3ServiceStub.Versions_type0 version: versions) {
+                result.add(new PowerAuthApplicationVersion(detail.getApplicationId(), version.getApplicationVersionId(),
+                        version.getApplicationVersionName(), version.getApplicationKey(), version.getSupported()));
+            }
+        }
+        return result;
+    }
+
+}
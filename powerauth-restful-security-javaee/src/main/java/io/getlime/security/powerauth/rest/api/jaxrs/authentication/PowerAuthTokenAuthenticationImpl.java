@@ -35,6 +35,7 @@ public class PowerAuthTokenAuthenticationImpl implements PowerAuthTokenAuthentic
     private String timestamp;
     private String version;
     private PowerAuthHttpHeader httpHeader;
+    private boolean degradedModeAllowed;
 
     /**
      * Default constructor
@@ -147,4 +148,22 @@ public class PowerAuthTokenAuthenticationImpl implements PowerAuthTokenAuthentic
     public void setHttpHeader(PowerAuthHttpHeader httpHeader) {
         this.httpHeader = httpHeader;
     }
+
+    /**
+     * Whether the token may be accepted in degraded mode in case PowerAuth server is not reachable.
+     * @return True in case degraded mode is allowed.
+     */
+    @Override
+    public boolean isDegradedModeAllowed() {
+        return degradedModeAllowed;
+    }
+
+    /**
+     * Set whether the token may be accepted in degraded mode in case PowerAuth server is not reachable.
+     * @param degradedModeAllowed Whether degraded mode is allowed.
+     */
+    @Override
+    public void setDegradedModeAllowed(boolean degradedModeAllowed) {
+        this.degradedModeAllowed = degradedModeAllowed;
+    }
 }
@@ -0,0 +1,163 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.jaxrs.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationConfiguration;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistry;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistryConfiguration;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthStatusCustomObjectHolder;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCacheConfiguration;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCacheConfiguration;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthCacheFactory;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthTinyLfuCacheFactory;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeConfiguration;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeValidator;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthCacheInvalidator;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthInvalidationBroadcaster;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthNoopInvalidationBroadcaster;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthNoopServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStore;
+import io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStoreConfiguration;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestScheduler;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestSchedulerConfiguration;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTimingConfiguration;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTimingRegistry;
+import io.getlime.security.powerauth.rest.api.base.token.PowerAuthTokenTimestampValidator;
+import io.getlime.security.powerauth.rest.api.jaxrs.application.PowerAuthApplicationRegistryClientLoader;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
+import io.getlime.security.powerauth.soap.axis.client.PowerAuthServiceClient;
+
+import javax.enterprise.context.Dependent;
+import javax.enterprise.inject.Disposes;
+import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.Produces;
+import javax.inject.Singleton;
+
+/**
+ * Producers of optional components used by the standard controllers, services, providers and filters. The produced
+ * components are disabled or no-op, so that applications need to produce only components of features they enable.
+ *
+ * <p>Components produced by the application replace the default ones in case the producers are declared in a bean
+ * class annotated with {@code @Alternative} and {@code @Priority}.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Dependent
+public class PowerAuthDefaultComponentFactory {
+
+    @Produces
+    @Singleton
+    public PowerAuthServiceMetrics buildServiceMetrics() {
+        return new PowerAuthNoopServiceMetrics();
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthRequestTimingRegistry buildRequestTimingRegistry() {
+        return new PowerAuthRequestTimingRegistry(new PowerAuthRequestTimingConfiguration());
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthRequestScheduler buildRequestScheduler() {
+        return new PowerAuthRequestScheduler(new PowerAuthRequestSchedulerConfiguration());
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthCacheFactory buildCacheFactory() {
+        return new PowerAuthTinyLfuCacheFactory();
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthDegradedModeValidator buildDegradedModeValidator(PowerAuthCacheFactory cacheFactory, PowerAuthServiceMetrics serviceMetrics) {
+        final PowerAuthDegradedModeValidator validator = new PowerAuthDegradedModeValidator(new PowerAuthDegradedModeConfiguration(), cacheFactory);
+        validator.setServiceMetrics(serviceMetrics);
+        return validator;
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthNonceStore buildNonceStore(PowerAuthServiceMetrics serviceMetrics) {
+        final PowerAuthNonceStore nonceStore = new PowerAuthNonceStore(new PowerAuthNonceStoreConfiguration());
+        nonceStore.setServiceMetrics(serviceMetrics);
+        return nonceStore;
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthTokenTimestampValidator buildTokenTimestampValidator() {
+        return new PowerAuthTokenTimestampValidator();
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthActivationStateCache buildActivationStateCache(PowerAuthCacheFactory cacheFactory) {
+        return new PowerAuthActivationStateCache(new PowerAuthActivationStateCacheConfiguration(), cacheFactory);
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthActivationStatusCache buildActivationStatusCache(PowerAuthCacheFactory cacheFactory) {
+        return new PowerAuthActivationStatusCache(new PowerAuthActivationStatusCacheConfiguration(), cacheFactory);
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthInvalidationBroadcaster buildInvalidationBroadcaster() {
+        // Invalidation events are not published to other nodes unless a broadcaster is produced by the application
+        return new PowerAuthNoopInvalidationBroadcaster();
+    }
+
+    public void closeInvalidationBroadcaster(@Disposes PowerAuthInvalidationBroadcaster broadcaster) {
+        broadcaster.close();
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthCacheInvalidator buildCacheInvalidator(PowerAuthInvalidationBroadcaster broadcaster, PowerAuthActivationStateCache activationStateCache,
+                                                           PowerAuthActivationStatusCache activationStatusCache, PowerAuthDegradedModeValidator degradedModeValidator) {
+        return new PowerAuthCacheInvalidator(broadcaster, activationStateCache, activationStatusCache, degradedModeValidator);
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthApplicationRegistry buildApplicationRegistry(PowerAuthServiceClient powerAuthClient, PowerAuthInstrumentedClient instrumentedClient) {
+        return new PowerAuthApplicationRegistry(new PowerAuthApplicationRegistryConfiguration(), new PowerAuthApplicationRegistryClientLoader(powerAuthClient, instrumentedClient));
+    }
+
+    public void closeApplicationRegistry(@Disposes PowerAuthApplicationRegistry applicationRegistry) {
+        applicationRegistry.close();
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthStatusCustomObjectHolder buildStatusCustomObjectHolder(PowerAuthApplicationConfiguration applicationConfiguration, Instance<ObjectMapper> objectMapper) {
+        // Custom object is serialized using the object mapper produced by the application, the JSON provider
+        // of the JAX-RS runtime uses a default object mapper otherwise
+        return new PowerAuthStatusCustomObjectHolder(applicationConfiguration, objectMapper.isUnsatisfied() ? new ObjectMapper() : objectMapper.get());
+    }
+
+}
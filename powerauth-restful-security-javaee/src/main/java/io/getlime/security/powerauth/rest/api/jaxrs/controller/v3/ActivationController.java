@@ -29,8 +29,11 @@ import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthActivation
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthEncryptionException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRecoveryException;
+import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRequestRejectedException;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
 import io.getlime.security.powerauth.rest.api.jaxrs.provider.PowerAuthAuthenticationProvider;
 import io.getlime.security.powerauth.rest.api.jaxrs.provider.PowerAuthEncryptionProvider;
+import io.getlime.security.powerauth.rest.api.jaxrs.scheduler.PowerAuthScheduled;
 import io.getlime.security.powerauth.rest.api.model.request.v3.ActivationLayer1Request;
 import io.getlime.security.powerauth.rest.api.model.request.v3.ActivationStatusRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.ActivationLayer1Response;
@@ -75,7 +78,8 @@ public class ActivationController {
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces({MediaType.APPLICATION_JSON})
     @Path("create")
-    public EciesEncryptedResponse createActivation() throws PowerAuthActivationException, PowerAuthRecoveryException {
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.ACTIVATION_CREATE)
+    public EciesEncryptedResponse createActivation() throws PowerAuthActivationException, PowerAuthRecoveryException, PowerAuthRequestRejectedException {
         try {
             PowerAuthEciesEncryption<ActivationLayer1Request> eciesEncryption = encryptionProvider.decryptRequest(httpServletRequest, ActivationLayer1Request.class, EciesScope.APPLICATION_SCOPE);
             ActivationLayer1Request layer1Request = eciesEncryption.getRequestObject();
@@ -91,12 +95,14 @@ public class ActivationController {
      * @param request PowerAuth RESTful request with {@link ActivationStatusRequest} payload.
      * @return PowerAuth RESTful response with {@link ActivationStatusResponse} payload.
      * @throws PowerAuthActivationException In case request fails.
+     * @throws PowerAuthRequestRejectedException In case request is rejected due to insufficient capacity.
      */
     @POST
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces({MediaType.APPLICATION_JSON})
     @Path("status")
-    public ObjectResponse<ActivationStatusResponse> getActivationStatus(ObjectRequest<ActivationStatusRequest> request) throws PowerAuthActivationException {
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.ACTIVATION_STATUS)
+    public ObjectResponse<ActivationStatusResponse> getActivationStatus(ObjectRequest<ActivationStatusRequest> request) throws PowerAuthActivationException, PowerAuthRequestRejectedException {
         if (request.getRequestObject() == null || request.getRequestObject().getActivationId() == null) {
             logger.warn("Invalid request object in activation status");
             throw new PowerAuthActivationException();
@@ -110,12 +116,14 @@ public class ActivationController {
      * @return PowerAuth RESTful response with {@link ActivationRemoveResponse} payload.
      * @throws PowerAuthAuthenticationException In case the signature validation fails.
      * @throws PowerAuthActivationException In case remove request fails.
+     * @throws PowerAuthRequestRejectedException In case request is rejected due to insufficient capacity.
      */
     @POST
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces({MediaType.APPLICATION_JSON})
     @Path("remove")
-    public ObjectResponse<ActivationRemoveResponse> removeActivation(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String signatureHeader) throws PowerAuthAuthenticationException, PowerAuthActivationException {
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.SIGNATURE)
+    public ObjectResponse<ActivationRemoveResponse> removeActivation(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String signatureHeader) throws PowerAuthAuthenticationException, PowerAuthActivationException, PowerAuthRequestRejectedException {
         byte[] requestBodyBytes = authenticationProvider.extractRequestBodyBytes(httpServletRequest);
         PowerAuthApiAuthentication apiAuthentication = authenticationProvider.validateRequestSignature("POST", requestBodyBytes, "/pa/activation/remove", signatureHeader);
         if (apiAuthentication == null || apiAuthentication.getActivationId() == null) {
@@ -23,7 +23,10 @@ import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
 import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRequestRejectedException;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
 import io.getlime.security.powerauth.rest.api.jaxrs.provider.PowerAuthAuthenticationProvider;
+import io.getlime.security.powerauth.rest.api.jaxrs.scheduler.PowerAuthScheduled;
 import io.getlime.security.powerauth.rest.api.jaxrs.service.v3.RecoveryService;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
@@ -70,13 +73,15 @@ public class RecoveryController {
      * @param authHeader PowerAuth signature HTTP header.
      * @return ECIES encrypted response.
      * @throws PowerAuthAuthenticationException In case confirm recovery fails.
+     * @throws PowerAuthRequestRejectedException In case request is rejected due to insufficient capacity.
      */
     @POST
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces({MediaType.APPLICATION_JSON})
     @Path("confirm")
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.SIGNATURE)
     public EciesEncryptedResponse confirmRecoveryCode(EciesEncryptedRequest request,
-                                                      @HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException {
+                                                      @HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException, PowerAuthRequestRejectedException {
 
         if (request == null) {
             logger.warn("Invalid request object in confirm recovery");
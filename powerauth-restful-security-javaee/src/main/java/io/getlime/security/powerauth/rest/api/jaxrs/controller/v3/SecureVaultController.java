@@ -23,7 +23,10 @@ import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.http.validator.InvalidPowerAuthHttpHeaderException;
 import io.getlime.security.powerauth.http.validator.PowerAuthSignatureHttpHeaderValidator;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRequestRejectedException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthSecureVaultException;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
+import io.getlime.security.powerauth.rest.api.jaxrs.scheduler.PowerAuthScheduled;
 import io.getlime.security.powerauth.rest.api.jaxrs.service.v3.SecureVaultService;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
@@ -62,14 +65,16 @@ public class SecureVaultController {
      * @return Response object encrypted by ECIES.
      * @throws PowerAuthAuthenticationException In case authentication fails.
      * @throws PowerAuthSecureVaultException In case unlocking the vault fails.
+     * @throws PowerAuthRequestRejectedException In case request is rejected due to insufficient capacity.
      */
     @POST
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces({MediaType.APPLICATION_JSON})
     @Path("unlock")
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.SIGNATURE)
     public EciesEncryptedResponse unlockVault(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String signatureHeader,
                                               EciesEncryptedRequest request,
-                                              @Context HttpServletRequest httpServletRequest) throws PowerAuthAuthenticationException, PowerAuthSecureVaultException {
+                                              @Context HttpServletRequest httpServletRequest) throws PowerAuthAuthenticationException, PowerAuthSecureVaultException, PowerAuthRequestRejectedException {
         if (request == null) {
             logger.warn("Invalid request object in vault unlock");
             throw new PowerAuthAuthenticationException();
@@ -24,7 +24,10 @@ import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
 import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRequestRejectedException;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
 import io.getlime.security.powerauth.rest.api.jaxrs.provider.PowerAuthAuthenticationProvider;
+import io.getlime.security.powerauth.rest.api.jaxrs.scheduler.PowerAuthScheduled;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,10 +62,12 @@ public class SignatureController {
      * @param authHeader PowerAuth authentication HTTP header.
      * @return API response with success.
      * @throws PowerAuthAuthenticationException In case any error occurs, including signature validation errors.
+     * @throws PowerAuthRequestRejectedException In case request is rejected due to insufficient capacity.
      */
     @GET
     @Path("validate")
-    public Response validateSignatureGet(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException {
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.SIGNATURE)
+    public Response validateSignatureGet(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException, PowerAuthRequestRejectedException {
         return validateSignature(authHeader);
     }
 
@@ -71,10 +76,12 @@ public class SignatureController {
      * @param authHeader PowerAuth authentication HTTP header.
      * @return API response with success.
      * @throws PowerAuthAuthenticationException In case any error occurs, including signature validation errors.
+     * @throws PowerAuthRequestRejectedException In case request is rejected due to insufficient capacity.
      */
     @POST
     @Path("validate")
-    public Response validateSignaturePost(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException {
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.SIGNATURE)
+    public Response validateSignaturePost(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException, PowerAuthRequestRejectedException {
         return validateSignature(authHeader);
     }
 
@@ -83,10 +90,12 @@ public class SignatureController {
      * @param authHeader PowerAuth authentication HTTP header.
      * @return API response with success.
      * @throws PowerAuthAuthenticationException In case any error occurs, including signature validation errors.
+     * @throws PowerAuthRequestRejectedException In case request is rejected due to insufficient capacity.
      */
     @PUT
     @Path("validate")
-    public Response validateSignaturePut(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException {
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.SIGNATURE)
+    public Response validateSignaturePut(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException, PowerAuthRequestRejectedException {
         return validateSignature(authHeader);
     }
 
@@ -95,10 +104,12 @@ public class SignatureController {
      * @param authHeader PowerAuth authentication HTTP header.
      * @return API response with success.
      * @throws PowerAuthAuthenticationException In case any error occurs, including signature validation errors.
+     * @throws PowerAuthRequestRejectedException In case request is rejected due to insufficient capacity.
      */
     @DELETE
     @Path("validate")
-    public Response validateSignatureDelete(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException {
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.SIGNATURE)
+    public Response validateSignatureDelete(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException, PowerAuthRequestRejectedException {
         return validateSignature(authHeader);
     }
 
@@ -26,7 +26,10 @@ import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.http.PowerAuthTokenHttpHeader;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRequestRejectedException;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
 import io.getlime.security.powerauth.rest.api.jaxrs.provider.PowerAuthAuthenticationProvider;
+import io.getlime.security.powerauth.rest.api.jaxrs.scheduler.PowerAuthScheduled;
 import io.getlime.security.powerauth.rest.api.jaxrs.service.v3.TokenService;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.request.v3.TokenRemoveRequest;
@@ -66,9 +69,10 @@ public class TokenController {
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces({MediaType.APPLICATION_JSON})
     @Path("create")
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.TOKEN)
     public EciesEncryptedResponse createToken(EciesEncryptedRequest request,
                                               @HeaderParam(PowerAuthTokenHttpHeader.HEADER_NAME) String tokenHeader,
-                                              @HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException {
+                                              @HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException, PowerAuthRequestRejectedException {
 
         if (request == null) {
             logger.warn("Invalid request object in create token");
@@ -102,9 +106,10 @@ public class TokenController {
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces({MediaType.APPLICATION_JSON})
     @Path("remove")
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.TOKEN)
     public ObjectResponse<TokenRemoveResponse> removeToken(ObjectRequest<TokenRemoveRequest> request,
                                                            @HeaderParam(PowerAuthTokenHttpHeader.HEADER_NAME) String tokenHeader,
-                                                           @HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException {
+                                                           @HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String authHeader) throws PowerAuthAuthenticationException, PowerAuthRequestRejectedException {
         if (request.getRequestObject() == null) {
             logger.warn("Invalid request object in remove token");
             throw new PowerAuthAuthenticationException();
@@ -26,7 +26,10 @@ import io.getlime.security.powerauth.http.validator.InvalidPowerAuthHttpHeaderEx
 import io.getlime.security.powerauth.http.validator.PowerAuthEncryptionHttpHeaderValidator;
 import io.getlime.security.powerauth.http.validator.PowerAuthSignatureHttpHeaderValidator;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRequestRejectedException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthUpgradeException;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
+import io.getlime.security.powerauth.rest.api.jaxrs.scheduler.PowerAuthScheduled;
 import io.getlime.security.powerauth.rest.api.jaxrs.service.v3.UpgradeService;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
@@ -68,13 +71,15 @@ public class UpgradeController {
      * @param encryptionHeader Encryption HTTP header.
      * @return ECIES encrypted response.
      * @throws PowerAuthUpgradeException In case upgrade fails.
+     * @throws PowerAuthRequestRejectedException In case request is rejected due to insufficient capacity.
      */
     @POST
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces({MediaType.APPLICATION_JSON})
     @Path("start")
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.UPGRADE)
     public EciesEncryptedResponse upgradeStart(EciesEncryptedRequest request,
-                                              @HeaderParam(PowerAuthEncryptionHttpHeader.HEADER_NAME) String encryptionHeader) throws PowerAuthUpgradeException {
+                                              @HeaderParam(PowerAuthEncryptionHttpHeader.HEADER_NAME) String encryptionHeader) throws PowerAuthUpgradeException, PowerAuthRequestRejectedException {
 
 
         if (request == null) {
@@ -112,12 +117,14 @@ public class UpgradeController {
      * @return Response.
      * @throws PowerAuthAuthenticationException In case request signature is invalid.
      * @throws PowerAuthUpgradeException In case commit fails.
+     * @throws PowerAuthRequestRejectedException In case request is rejected due to insufficient capacity.
      */
     @POST
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces({MediaType.APPLICATION_JSON})
     @Path("commit")
-    public Response upgradeCommit(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String signatureHeader) throws PowerAuthAuthenticationException, PowerAuthUpgradeException {
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.UPGRADE)
+    public Response upgradeCommit(@HeaderParam(PowerAuthSignatureHttpHeader.HEADER_NAME) String signatureHeader) throws PowerAuthAuthenticationException, PowerAuthUpgradeException, PowerAuthRequestRejectedException {
 
         // Parse the signature header
         PowerAuthSignatureHttpHeader header = new PowerAuthSignatureHttpHeader().fromValue(signatureHeader);
@@ -22,6 +22,8 @@ package io.getlime.security.powerauth.rest.api.jaxrs.encryption;
 import io.getlime.core.rest.model.base.request.ObjectRequest;
 import io.getlime.powerauth.soap.v2.PowerAuthPortV2ServiceStub;
 import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthNonPersonalizedEncryptor;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.rest.api.model.entity.NonPersonalizedEncryptedPayloadModel;
 import io.getlime.security.powerauth.soap.axis.client.PowerAuthServiceClient;
 
@@ -40,6 +42,9 @@ public class EncryptorFactory {
     @Inject
     private PowerAuthServiceClient powerAuthClient;
 
+    @Inject
+    private PowerAuthInstrumentedClient instrumentedClient;
+
     public EncryptorFactory() {
     }
 
@@ -66,11 +71,11 @@ public class EncryptorFactory {
      * @throws RemoteException In case a SOAP exception occurs.
      */
     public PowerAuthNonPersonalizedEncryptor buildNonPersonalizedEncryptor(String applicationKeyBase64, String sessionIndexBase64, String ephemeralPublicKeyBase64) throws RemoteException {
-        final PowerAuthPortV2ServiceStub.GetNonPersonalizedEncryptionKeyResponse encryptionKeyResponse = powerAuthClient.v2().generateNonPersonalizedE2EEncryptionKey(
+        final PowerAuthPortV2ServiceStub.GetNonPersonalizedEncryptionKeyResponse encryptionKeyResponse = instrumentedClient.call(PowerAuthServiceOperation.V2_GET_NON_PERSONALIZED_ENCRYPTION_KEY, () -> powerAuthClient.v2().generateNonPersonalizedE2EEncryptionKey(
                 applicationKeyBase64,
                 ephemeralPublicKeyBase64,
                 sessionIndexBase64
-        );
+        ));
         return new PowerAuthNonPersonalizedEncryptor(
                 encryptionKeyResponse.getApplicationKey(),
                 encryptionKeyResponse.getEncryptionKey(), encryptionKeyResponse.getEncryptionKeyIndex(),
@@ -21,8 +21,12 @@ package io.getlime.security.powerauth.rest.api.jaxrs.filter;
 
 import io.getlime.security.powerauth.rest.api.base.filter.PowerAuthRequestFilterBase;
 import io.getlime.security.powerauth.rest.api.base.filter.ResettableStreamHttpServletRequest;
+import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestObjects;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTimingRegistry;
 
 import javax.annotation.Priority;
+import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Priorities;
 import javax.ws.rs.container.ContainerRequestContext;
@@ -35,6 +39,9 @@ import java.io.IOException;
  * Request filter that intercepts the request body, forwards it to the controller 
  * as a request attribute named "X-PowerAuth-Request-Body" and resets the stream.
  *
+ * <p>In case request phase timing is enabled, the filter also starts measuring durations of request processing
+ * phases, which are completed by {@link PowerAuthServerTimingResponseFilter}.</p>
+ *
  * @author Petr Dvorak, petr@wultra.com
  *
  */
@@ -45,13 +52,27 @@ public class PowerAuthRequestFilter implements ContainerRequestFilter {
     @Context
     private HttpServletRequest httpRequest;
 
+    @Inject
+    private PowerAuthRequestTimingRegistry requestTimingRegistry;
+
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
         // WORKAROUND: fix issues with @FormParam annotations
         httpRequest.getParameterMap();
 
+        final PowerAuthRequestTiming timing = requestTimingRegistry.startRequest();
+        if (timing != null) {
+            // The timing is unbound from the request thread in PowerAuthServerTimingResponseFilter
+            httpRequest.setAttribute(PowerAuthRequestObjects.REQUEST_TIMING, timing);
+            timing.bind();
+        }
+
         final ResettableStreamHttpServletRequest httpServletRequest = PowerAuthRequestFilterBase.filterRequest(httpRequest);
         requestContext.setEntityStream(httpServletRequest.getInputStream());
+
+        if (timing != null) {
+            timing.handlerStarted();
+        }
     }
 
 }
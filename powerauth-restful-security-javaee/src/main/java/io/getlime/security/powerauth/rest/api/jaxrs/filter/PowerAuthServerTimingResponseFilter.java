@@ -0,0 +1,110 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.jaxrs.filter;
+
+import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestObjects;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTimingRegistry;
+
+import javax.annotation.Priority;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.Path;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.ext.Provider;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Response filter that completes request phase timing started in {@link PowerAuthRequestFilter}, records the phase
+ * durations per resource method and optionally adds the Server-Timing HTTP header.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION)
+public class PowerAuthServerTimingResponseFilter implements ContainerResponseFilter {
+
+    // Path templates of resource methods are resolved using reflection only once
+    private static final ConcurrentHashMap<Method, String> PATH_TEMPLATES = new ConcurrentHashMap<>();
+
+    @Context
+    private HttpServletRequest httpRequest;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Inject
+    private PowerAuthRequestTimingRegistry requestTimingRegistry;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        final PowerAuthRequestTiming timing = (PowerAuthRequestTiming) httpRequest.getAttribute(PowerAuthRequestObjects.REQUEST_TIMING);
+        if (timing == null) {
+            return;
+        }
+        try {
+            timing.handlerCompleted();
+            if (requestTimingRegistry.isServerTimingHeaderEnabled()) {
+                responseContext.getHeaders().putSingle(PowerAuthRequestTiming.SERVER_TIMING_HEADER, timing.toServerTimingHeader());
+            }
+            requestTimingRegistry.record(resolveEndpoint(requestContext), timing);
+        } finally {
+            PowerAuthRequestTiming.unbind();
+        }
+    }
+
+    /**
+     * Resolve endpoint name from the path template of the resource method which prevents creating metrics for each
+     * request path.
+     * @param requestContext Request context.
+     * @return Endpoint name or null in case the request was not matched to a resource method.
+     */
+    private String resolveEndpoint(ContainerRequestContext requestContext) {
+        final Class<?> resourceClass = resourceInfo.getResourceClass();
+        final Method resourceMethod = resourceInfo.getResourceMethod();
+        if (resourceClass == null || resourceMethod == null) {
+            return null;
+        }
+        final String pathTemplate = PATH_TEMPLATES.computeIfAbsent(resourceMethod, method -> resolvePathTemplate(resourceClass, method));
+        return requestContext.getMethod() + " " + pathTemplate;
+    }
+
+    /**
+     * Resolve path template from @Path annotations of resource class and resource method.
+     * @param resourceClass Resource class.
+     * @param resourceMethod Resource method.
+     * @return Path template.
+     */
+    private static String resolvePathTemplate(Class<?> resourceClass, Method resourceMethod) {
+        final UriBuilder uriBuilder = resourceClass.isAnnotationPresent(Path.class) ? UriBuilder.fromResource(resourceClass) : UriBuilder.fromPath("");
+        if (resourceMethod.isAnnotationPresent(Path.class)) {
+            uriBuilder.path(resourceMethod);
+        }
+        return uriBuilder.toTemplate();
+    }
+
+}
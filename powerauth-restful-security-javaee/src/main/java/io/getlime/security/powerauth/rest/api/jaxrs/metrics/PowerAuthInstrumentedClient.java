@@ -0,0 +1,108 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.jaxrs.metrics;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceCallOutcome;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+
+import javax.inject.Inject;
+import java.util.function.Predicate;
+
+/**
+ * Executor of PowerAuth server calls which records metrics of each call. Unlike the Spring integration, the SOAP
+ * client of the Java EE integration cannot be instrumented as a whole, so that each call of the client is wrapped,
+ * e.g. {@code instrumentedClient.call(PowerAuthServiceOperation.CREATE_TOKEN, () -> powerAuthClient.createToken(...))}.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthInstrumentedClient {
+
+    /**
+     * Call of PowerAuth server.
+     * @param <T> Response type.
+     * @param <E> Exception thrown by the call.
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+
+        /**
+         * Execute the call.
+         * @return Call response.
+         * @throws E In case the call fails.
+         */
+        T execute() throws E;
+
+    }
+
+    private final PowerAuthServiceMetrics serviceMetrics;
+
+    /**
+     * Constructor with service metrics.
+     * @param serviceMetrics Service metrics.
+     */
+    @Inject
+    public PowerAuthInstrumentedClient(PowerAuthServiceMetrics serviceMetrics) {
+        this.serviceMetrics = serviceMetrics;
+    }
+
+    /**
+     * Execute a call and record its duration and outcome.
+     * @param operation Operation name, see {@code PowerAuthServiceOperation}.
+     * @param call Call of PowerAuth server.
+     * @param <T> Response type.
+     * @param <E> Exception thrown by the call.
+     * @return Call response.
+     * @throws E In case the call fails.
+     */
+    public <T, E extends Exception> T call(String operation, Call<T, E> call) throws E {
+        return call(operation, call, null);
+    }
+
+    /**
+     * Execute a call which verifies a signature or a token and record its duration and outcome.
+     * @param operation Operation name, see {@code PowerAuthServiceOperation}.
+     * @param call Call of PowerAuth server.
+     * @param validity Resolves whether the verified signature or token was valid from the response, null in case
+     *                 the call does not verify a signature or a token.
+     * @param <T> Response type.
+     * @param <E> Exception thrown by the call.
+     * @return Call response.
+     * @throws E In case the call fails.
+     */
+    public <T, E extends Exception> T call(String operation, Call<T, E> call, Predicate<T> validity) throws E {
+        if (!serviceMetrics.isEnabled()) {
+            return call.execute();
+        }
+        final long startTime = serviceMetrics.callStarted(operation);
+        final T response;
+        try {
+            response = call.execute();
+        } catch (Exception ex) {
+            serviceMetrics.callFailed(operation, startTime, ex);
+            throw ex;
+        }
+        final PowerAuthServiceCallOutcome outcome = validity != null
+                ? PowerAuthServiceCallOutcome.fromValid(validity.test(response))
+                : PowerAuthServiceCallOutcome.VALID;
+        serviceMetrics.callCompleted(operation, startTime, outcome);
+        return response;
+    }
+
+}
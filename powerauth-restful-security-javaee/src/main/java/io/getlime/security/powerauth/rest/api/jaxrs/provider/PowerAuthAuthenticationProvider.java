@@ -29,16 +29,34 @@ import io.getlime.security.powerauth.http.PowerAuthTokenHttpHeader;
 import io.getlime.security.powerauth.http.validator.InvalidPowerAuthHttpHeaderException;
 import io.getlime.security.powerauth.http.validator.PowerAuthSignatureHttpHeaderValidator;
 import io.getlime.security.powerauth.http.validator.PowerAuthTokenHttpHeaderValidator;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistry;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationState;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCache;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthAuthentication;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthSignatureAuthentication;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthTokenAuthentication;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeValidator;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthValidatedToken;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.jfr.PowerAuthFlightRecorder;
+import io.getlime.security.powerauth.rest.api.base.jfr.PowerAuthSignatureVerificationEvent;
+import io.getlime.security.powerauth.rest.api.base.jfr.PowerAuthTokenValidationEvent;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceEvent;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
+import io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStore;
+import io.getlime.security.powerauth.rest.api.base.token.PowerAuthTokenIds;
+import io.getlime.security.powerauth.rest.api.base.token.PowerAuthTokenTimestampValidator;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestPhase;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
 import io.getlime.security.powerauth.rest.api.base.provider.PowerAuthAuthenticationProviderBase;
 import io.getlime.security.powerauth.rest.api.jaxrs.authentication.PowerAuthApiAuthenticationImpl;
 import io.getlime.security.powerauth.rest.api.jaxrs.authentication.PowerAuthSignatureAuthenticationImpl;
 import io.getlime.security.powerauth.rest.api.jaxrs.authentication.PowerAuthTokenAuthenticationImpl;
 import io.getlime.security.powerauth.rest.api.jaxrs.converter.v3.SignatureTypeConverter;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.soap.axis.client.PowerAuthServiceClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +80,30 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
     @Inject
     private PowerAuthServiceClient powerAuthClient;
 
+    @Inject
+    private PowerAuthServiceMetrics serviceMetrics;
+
+    @Inject
+    private PowerAuthInstrumentedClient instrumentedClient;
+
+    @Inject
+    private PowerAuthDegradedModeValidator degradedModeValidator;
+
+    @Inject
+    private PowerAuthNonceStore nonceStore;
+
+    @Inject
+    private PowerAuthTokenTimestampValidator tokenTimestampValidator;
+
+    @Inject
+    private PowerAuthActivationStateCache activationStateCache;
+
+    @Inject
+    private PowerAuthActivationStatusCache activationStatusCache;
+
+    @Inject
+    private PowerAuthApplicationRegistry applicationRegistry;
+
     public PowerAuthAuthenticationProvider() {
     }
 
@@ -108,7 +150,15 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
                 soapRequest.setForcedSignatureVersion(authentication.getForcedSignatureVersion());
             }
 
-            PowerAuthPortV3ServiceStub.VerifySignatureResponse soapResponse = powerAuthClient.verifySignature(soapRequest);
+            final PowerAuthPortV3ServiceStub.VerifySignatureResponse soapResponse = instrumentedClient.call(PowerAuthServiceOperation.VERIFY_SIGNATURE, () -> powerAuthClient.verifySignature(soapRequest), PowerAuthPortV3ServiceStub.VerifySignatureResponse::getSignatureValid);
+
+            // Remember activation state reported by PowerAuth server
+            if (soapResponse.getActivationStatus() != null) {
+                activationStateCache.activationStateChanged(authentication.getActivationId(), PowerAuthActivationState.fromValue(soapResponse.getActivationStatus().getValue()));
+            }
+
+            // Signature verification changes counters of the activation which are part of the activation status
+            activationStatusCache.invalidate(authentication.getActivationId());
 
             if (soapResponse.getSignatureValid()) {
                 PowerAuthApiAuthentication apiAuthentication = new PowerAuthApiAuthenticationImpl();
@@ -142,19 +192,47 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         soapRequest.setNonce(authentication.getNonce());
         soapRequest.setTimestamp(Long.valueOf(authentication.getTimestamp()));
 
+        final PowerAuthPortV3ServiceStub.ValidateTokenResponse soapResponse;
         try {
-            final PowerAuthPortV3ServiceStub.ValidateTokenResponse soapResponse = powerAuthClient.validateToken(soapRequest);
-            if (soapResponse.getTokenValid()) {
-                return copyAuthenticationAttributes(soapResponse.getActivationId(), soapResponse.getUserId(),
-                        soapResponse.getApplicationId(), PowerAuthSignatureTypes.getEnumFromString(soapResponse.getSignatureType().getValue()),
-                        authentication.getVersion(), authentication.getHttpHeader());
-            } else {
-                return null;
-            }
+            soapResponse = instrumentedClient.call(PowerAuthServiceOperation.VALIDATE_TOKEN, () -> powerAuthClient.validateToken(soapRequest), PowerAuthPortV3ServiceStub.ValidateTokenResponse::getTokenValid);
         } catch (Exception e) {
             logger.warn("Token validation failed", e);
+            // Tokens are accepted in degraded mode only on endpoints which allow it and only in case PowerAuth server
+            // is not reachable or does not respond in time
+            if (authentication.isDegradedModeAllowed() && PowerAuthDegradedModeValidator.isConnectivityFailure(e)) {
+                return validateTokenInDegradedMode(authentication);
+            }
+            return null;
+        }
+        if (soapResponse.getTokenValid()) {
+            final PowerAuthSignatureTypes signatureFactors = PowerAuthSignatureTypes.getEnumFromString(soapResponse.getSignatureType().getValue());
+            activationStateCache.tokenValidated(authentication.getTokenId(), soapResponse.getActivationId());
+            degradedModeValidator.tokenValidated(new PowerAuthValidatedToken(authentication.getTokenId(), soapResponse.getActivationId(),
+                    soapResponse.getUserId(), soapResponse.getApplicationId(), signatureFactors, System.currentTimeMillis()));
+            return copyAuthenticationAttributes(soapResponse.getActivationId(), soapResponse.getUserId(),
+                    soapResponse.getApplicationId(), signatureFactors,
+                    authentication.getVersion(), authentication.getHttpHeader());
+        } else {
+            degradedModeValidator.tokenRejected(authentication.getTokenId());
+            return null;
+        }
+    }
+
+    /**
+     * Validate basic token-based authentication in degraded mode when PowerAuth server is not reachable.
+     *
+     * @param authentication Token based authentication object.
+     * @return API authentication object in case token is accepted in degraded mode, null otherwise.
+     */
+    private PowerAuthApiAuthentication validateTokenInDegradedMode(PowerAuthTokenAuthentication authentication) {
+        final PowerAuthValidatedToken validatedToken = degradedModeValidator.validateToken(authentication.getTokenId(),
+                authentication.getNonce(), authentication.getTimestamp());
+        if (validatedToken == null) {
             return null;
         }
+        return copyAuthenticationAttributes(validatedToken.getActivationId(), validatedToken.getUserId(),
+                validatedToken.getApplicationId(), validatedToken.getSignatureFactors(),
+                authentication.getVersion(), authentication.getHttpHeader());
     }
 
     /**
@@ -204,6 +282,7 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         }
 
         // Parse HTTP header
+        final long headerPhaseStart = PowerAuthRequestTiming.phaseStarted();
         PowerAuthSignatureHttpHeader header = new PowerAuthSignatureHttpHeader().fromValue(httpAuthorizationHeader);
 
         // Validate the header
@@ -212,46 +291,73 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         } catch (InvalidPowerAuthHttpHeaderException e) {
             logger.warn(e.getMessage(), e);
             throw new PowerAuthAuthenticationException(e.getMessage());
+        } finally {
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.HEADER_PARSING, headerPhaseStart);
         }
 
-        // Check if the signature type is allowed
-        PowerAuthSignatureTypes expectedSignatureType = PowerAuthSignatureTypes.getEnumFromString(header.getSignatureType());
-        if (!allowedSignatureTypes.contains(expectedSignatureType)) {
-            throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_TYPE_INVALID");
-        }
-
-        // Configure PowerAuth authentication object
-        PowerAuthSignatureAuthentication powerAuthAuthentication = new PowerAuthSignatureAuthenticationImpl();
-        powerAuthAuthentication.setActivationId(header.getActivationId());
-        powerAuthAuthentication.setApplicationKey(header.getApplicationKey());
-        powerAuthAuthentication.setNonce(BaseEncoding.base64().decode(header.getNonce()));
-        powerAuthAuthentication.setSignatureType(header.getSignatureType());
-        powerAuthAuthentication.setSignature(header.getSignature());
-        powerAuthAuthentication.setHttpMethod(httpMethod);
-        powerAuthAuthentication.setRequestUri(requestUriIdentifier);
-        powerAuthAuthentication.setData(httpBody);
-        powerAuthAuthentication.setVersion(header.getVersion());
-        powerAuthAuthentication.setHttpHeader(header);
-        powerAuthAuthentication.setForcedSignatureVersion(forcedSignatureVersion);
-
-        // Call the authentication
-        PowerAuthApiAuthentication auth;
+        final long authPhaseStart = PowerAuthRequestTiming.phaseStarted();
+        final PowerAuthSignatureVerificationEvent verificationEvent = PowerAuthFlightRecorder.signatureVerificationStarted();
+        PowerAuthApiAuthentication auth = null;
         try {
-            auth = this.authenticate(powerAuthAuthentication);
-        } catch (RemoteException e) {
-            throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_SOAP_ERROR");
-        }
+            // Check if the signature type is allowed
+            PowerAuthSignatureTypes expectedSignatureType = PowerAuthSignatureTypes.getEnumFromString(header.getSignatureType());
+            if (!allowedSignatureTypes.contains(expectedSignatureType)) {
+                throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_TYPE_INVALID");
+            }
 
-        // In case authentication is null, throw PowerAuth exception
-        if (auth == null) {
-            throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_INVALID_VALUE");
-        }
+            // Reject requests with application keys which are unknown or unsupported
+            if (applicationRegistry.isApplicationKeyRejected(header.getApplicationKey())) {
+                logger.warn("Application key is unknown or unsupported, application key: {}", header.getApplicationKey());
+                throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_INVALID_VALUE");
+            }
+
+            // Reject requests of activations which are known to be blocked or removed
+            if (activationStateCache.isActivationRejected(header.getActivationId())) {
+                logger.warn("Activation is blocked or removed, activation ID: {}", header.getActivationId());
+                throw new PowerAuthAuthenticationException("POWER_AUTH_ACTIVATION_INVALID");
+            }
+
+            // Reject replayed requests locally before calling PowerAuth server
+            if (!nonceStore.register(PowerAuthNonceStore.SCOPE_SIGNATURE, header.getActivationId(), header.getNonce())) {
+                logger.warn("Signature nonce was already used, activation ID: {}", header.getActivationId());
+                throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_NONCE_REUSED");
+            }
+
+            // Configure PowerAuth authentication object
+            PowerAuthSignatureAuthentication powerAuthAuthentication = new PowerAuthSignatureAuthenticationImpl();
+            powerAuthAuthentication.setActivationId(header.getActivationId());
+            powerAuthAuthentication.setApplicationKey(header.getApplicationKey());
+            powerAuthAuthentication.setNonce(BaseEncoding.base64().decode(header.getNonce()));
+            powerAuthAuthentication.setSignatureType(header.getSignatureType());
+            powerAuthAuthentication.setSignature(header.getSignature());
+            powerAuthAuthentication.setHttpMethod(httpMethod);
+            powerAuthAuthentication.setRequestUri(requestUriIdentifier);
+            powerAuthAuthentication.setData(httpBody);
+            powerAuthAuthentication.setVersion(header.getVersion());
+            powerAuthAuthentication.setHttpHeader(header);
+            powerAuthAuthentication.setForcedSignatureVersion(forcedSignatureVersion);
+
+            // Call the authentication
+            try {
+                auth = this.authenticate(powerAuthAuthentication);
+            } catch (RemoteException e) {
+                throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_SOAP_ERROR");
+            }
 
-        return auth;
+            // In case authentication is null, throw PowerAuth exception
+            if (auth == null) {
+                throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_INVALID_VALUE");
+            }
+
+            return auth;
+        } finally {
+            PowerAuthFlightRecorder.signatureVerificationCompleted(verificationEvent, header.getActivationId(), requestUriIdentifier, header.getSignatureType(), httpBody, auth != null);
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.AUTHENTICATION, authPhaseStart);
+        }
     }
 
     @Override
-    public PowerAuthApiAuthentication validateToken(String tokenHeader, List<PowerAuthSignatureTypes> allowedSignatureTypes) throws PowerAuthAuthenticationException {
+    public PowerAuthApiAuthentication validateToken(String tokenHeader, List<PowerAuthSignatureTypes> allowedSignatureTypes, boolean degradedModeAllowed) throws PowerAuthAuthenticationException {
 
         // Check for HTTP PowerAuth signature header
         if (tokenHeader == null || tokenHeader.equals("undefined")) {
@@ -259,6 +365,7 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         }
 
         // Parse HTTP header
+        final long headerPhaseStart = PowerAuthRequestTiming.phaseStarted();
         PowerAuthTokenHttpHeader header = new PowerAuthTokenHttpHeader().fromValue(tokenHeader);
 
         // Validate the header
@@ -267,37 +374,66 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         } catch (InvalidPowerAuthHttpHeaderException e) {
             logger.warn(e.getMessage(), e);
             throw new PowerAuthAuthenticationException(e.getMessage());
+        } finally {
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.HEADER_PARSING, headerPhaseStart);
         }
 
-        // Prepare authentication object
-        PowerAuthTokenAuthentication powerAuthTokenAuthentication = new PowerAuthTokenAuthenticationImpl();
-        powerAuthTokenAuthentication.setTokenId(header.getTokenId());
-        powerAuthTokenAuthentication.setTokenDigest(header.getTokenDigest());
-        powerAuthTokenAuthentication.setNonce(header.getNonce());
-        powerAuthTokenAuthentication.setTimestamp(header.getTimestamp());
-        powerAuthTokenAuthentication.setVersion(header.getVersion());
-        powerAuthTokenAuthentication.setHttpHeader(header);
-
-        // Call the authentication based on token authentication object
-        final PowerAuthApiAuthentication auth;
+        final long authPhaseStart = PowerAuthRequestTiming.phaseStarted();
+        final PowerAuthTokenValidationEvent validationEvent = PowerAuthFlightRecorder.tokenValidationStarted();
+        PowerAuthApiAuthentication auth = null;
         try {
-            auth = this.authenticate(powerAuthTokenAuthentication);
-        } catch (RemoteException e) {
-            throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_SOAP_ERROR");
-        }
+            // Reject stale tokens locally before calling PowerAuth server
+            if (!tokenTimestampValidator.validate(header.getTimestamp())) {
+                logger.warn("Token timestamp is outside of allowed window, token ID: {}", PowerAuthTokenIds.mask(header.getTokenId()));
+                serviceMetrics.eventRecorded(PowerAuthServiceEvent.TOKEN_TIMESTAMP_REJECTED);
+                throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_TIMESTAMP_INVALID");
+            }
 
-        // In case authentication is null, throw PowerAuth exception
-        if (auth == null) {
-            throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_INVALID_VALUE");
-        }
+            // Reject tokens of activations which are known to be blocked or removed
+            if (activationStateCache.isTokenRejected(header.getTokenId())) {
+                logger.warn("Activation of token is blocked or removed, token ID: {}", PowerAuthTokenIds.mask(header.getTokenId()));
+                throw new PowerAuthAuthenticationException("POWER_AUTH_ACTIVATION_INVALID");
+            }
 
-        // Check if the signature type is allowed
-        PowerAuthSignatureTypes expectedSignatureType = auth.getSignatureFactors();
-        if (!allowedSignatureTypes.contains(expectedSignatureType)) {
-            throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_SIGNATURE_TYPE_INVALID");
-        }
+            // Reject replayed requests locally before calling PowerAuth server
+            if (!nonceStore.register(PowerAuthNonceStore.SCOPE_TOKEN, header.getTokenId(), header.getNonce())) {
+                logger.warn("Token nonce was already used, token ID: {}", PowerAuthTokenIds.mask(header.getTokenId()));
+                throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_NONCE_REUSED");
+            }
 
-        return auth;
+            // Prepare authentication object
+            PowerAuthTokenAuthentication powerAuthTokenAuthentication = new PowerAuthTokenAuthenticationImpl();
+            powerAuthTokenAuthentication.setTokenId(header.getTokenId());
+            powerAuthTokenAuthentication.setTokenDigest(header.getTokenDigest());
+            powerAuthTokenAuthentication.setNonce(header.getNonce());
+            powerAuthTokenAuthentication.setTimestamp(header.getTimestamp());
+            powerAuthTokenAuthentication.setVersion(header.getVersion());
+            powerAuthTokenAuthentication.setHttpHeader(header);
+            powerAuthTokenAuthentication.setDegradedModeAllowed(degradedModeAllowed);
+
+            // Call the authentication based on token authentication object
+            try {
+                auth = this.authenticate(powerAuthTokenAuthentication);
+            } catch (RemoteException e) {
+                throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_SOAP_ERROR");
+            }
+
+            // In case authentication is null, throw PowerAuth exception
+            if (auth == null) {
+                throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_INVALID_VALUE");
+            }
+
+            // Check if the signature type is allowed
+            PowerAuthSignatureTypes expectedSignatureType = auth.getSignatureFactors();
+            if (!allowedSignatureTypes.contains(expectedSignatureType)) {
+                throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_SIGNATURE_TYPE_INVALID");
+            }
+
+            return auth;
+        } finally {
+            PowerAuthFlightRecorder.tokenValidationCompleted(validationEvent, auth);
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.AUTHENTICATION, authPhaseStart);
+        }
     }
 
 }
@@ -20,9 +20,12 @@
 package io.getlime.security.powerauth.rest.api.jaxrs.provider;
 
 import io.getlime.powerauth.soap.v3.PowerAuthPortV3ServiceStub;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistry;
 import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesDecryptorParameters;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthEncryptionException;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
 import io.getlime.security.powerauth.rest.api.base.provider.PowerAuthEncryptionProviderBase;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.soap.axis.client.PowerAuthServiceClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +48,17 @@ public class PowerAuthEncryptionProvider extends PowerAuthEncryptionProviderBase
     @Inject
     private PowerAuthServiceClient powerAuthClient;
 
+    @Inject
+    private PowerAuthInstrumentedClient instrumentedClient;
+
+    @Inject
+    private PowerAuthApplicationRegistry applicationRegistry;
+
+    @Override
+    protected PowerAuthApplicationRegistry getApplicationRegistry() {
+        return applicationRegistry;
+    }
+
     @Override
     public PowerAuthEciesDecryptorParameters getEciesDecryptorParameters(String activationId, String applicationKey, String ephemeralPublicKey) throws PowerAuthEncryptionException {
         try {
@@ -52,7 +66,7 @@ public class PowerAuthEncryptionProvider extends PowerAuthEncryptionProviderBase
             eciesDecryptorRequest.setActivationId(activationId);
             eciesDecryptorRequest.setApplicationKey(applicationKey);
             eciesDecryptorRequest.setEphemeralPublicKey(ephemeralPublicKey);
-            PowerAuthPortV3ServiceStub.GetEciesDecryptorResponse eciesDecryptorResponse = powerAuthClient.getEciesDecryptor(eciesDecryptorRequest);
+            final PowerAuthPortV3ServiceStub.GetEciesDecryptorResponse eciesDecryptorResponse = instrumentedClient.call(PowerAuthServiceOperation.GET_ECIES_DECRYPTOR, () -> powerAuthClient.getEciesDecryptor(eciesDecryptorRequest));
             return new PowerAuthEciesDecryptorParameters(eciesDecryptorResponse.getSecretKey(), eciesDecryptorResponse.getSharedInfo2());
         } catch (RemoteException e) {
             logger.warn("Get Ecies decryptor parameters call failed", e);
@@ -0,0 +1,51 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.jaxrs.scheduler;
+
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
+
+import javax.enterprise.util.Nonbinding;
+import javax.interceptor.InterceptorBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Interceptor binding that limits concurrent processing of requests using the request scheduler. The permit is
+ * acquired by {@link PowerAuthSchedulerInterceptor} before the resource method is invoked and it is released once
+ * the resource method completes.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface PowerAuthScheduled {
+
+    /**
+     * Priority of the end-point, it can be overridden in scheduler configuration for the whole controller.
+     *
+     * @return Request priority.
+     */
+    @Nonbinding
+    PowerAuthRequestPriority priority();
+
+}
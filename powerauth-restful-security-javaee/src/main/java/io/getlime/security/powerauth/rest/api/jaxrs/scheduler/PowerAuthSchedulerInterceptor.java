@@ -0,0 +1,67 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.jaxrs.scheduler;
+
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPermit;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestScheduler;
+
+import javax.annotation.Priority;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+import java.lang.reflect.Method;
+
+/**
+ * Interceptor which acquires a request scheduler permit for resource methods annotated with
+ * {@link PowerAuthScheduled}. Rejected requests end with {@code PowerAuthRequestRejectedException} before the
+ * resource method is invoked, so that they are neither decrypted nor authenticated.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@PowerAuthScheduled(priority = PowerAuthRequestPriority.SIGNATURE)
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_BEFORE)
+public class PowerAuthSchedulerInterceptor {
+
+    @Inject
+    private PowerAuthRequestScheduler requestScheduler;
+
+    /**
+     * Invoke the resource method while holding a request scheduler permit.
+     * @param context Invocation context.
+     * @return Result of the resource method.
+     * @throws Exception In case the request is rejected or the resource method fails.
+     */
+    @AroundInvoke
+    public Object schedule(InvocationContext context) throws Exception {
+        final Method method = context.getMethod();
+        final PowerAuthScheduled powerAuthScheduledAnnotation = method.getAnnotation(PowerAuthScheduled.class);
+        if (powerAuthScheduledAnnotation == null || !requestScheduler.isEnabled()) {
+            return context.proceed();
+        }
+        // Declaring class is used instead of the target class, which may be a proxy subclass
+        try (PowerAuthRequestPermit ignored = requestScheduler.acquire(method.getDeclaringClass(), powerAuthScheduledAnnotation.priority())) {
+            return context.proceed();
+        }
+    }
+
+}
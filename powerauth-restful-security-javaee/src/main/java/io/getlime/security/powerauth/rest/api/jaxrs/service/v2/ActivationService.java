@@ -21,6 +21,8 @@ package io.getlime.security.powerauth.rest.api.jaxrs.service.v2;
 
 import io.getlime.powerauth.soap.v2.PowerAuthPortV2ServiceStub;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthActivationException;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.rest.api.model.request.v2.ActivationCreateRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v2.ActivationCreateResponse;
 import io.getlime.security.powerauth.soap.axis.client.PowerAuthServiceClient;
@@ -48,6 +50,9 @@ public class ActivationService {
     @Inject
     private PowerAuthServiceClient powerAuthClient;
 
+    @Inject
+    private PowerAuthInstrumentedClient instrumentedClient;
+
     private static final Logger logger = LoggerFactory.getLogger(ActivationService.class);
 
     /**
@@ -67,7 +72,7 @@ public class ActivationService {
             String applicationSignature = request.getApplicationSignature();
             String clientEphemeralKey = request.getEphemeralPublicKey();
 
-            PowerAuthPortV2ServiceStub.PrepareActivationResponse soapResponse = powerAuthClient.v2().prepareActivation(
+            final PowerAuthPortV2ServiceStub.PrepareActivationResponse soapResponse = instrumentedClient.call(PowerAuthServiceOperation.V2_PREPARE_ACTIVATION, () -> powerAuthClient.v2().prepareActivation(
                     activationIDShort,
                     activationName,
                     activationNonce,
@@ -76,7 +81,7 @@ public class ActivationService {
                     extras,
                     applicationKey,
                     applicationSignature
-            );
+            ));
 
             ActivationCreateResponse response = new ActivationCreateResponse();
             response.setActivationId(soapResponse.getActivationId());
@@ -27,7 +27,9 @@ import io.getlime.security.powerauth.http.validator.InvalidPowerAuthHttpHeaderEx
 import io.getlime.security.powerauth.http.validator.PowerAuthSignatureHttpHeaderValidator;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthSecureVaultException;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
 import io.getlime.security.powerauth.rest.api.jaxrs.converter.v2.SignatureTypeConverter;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.rest.api.jaxrs.provider.PowerAuthAuthenticationProvider;
 import io.getlime.security.powerauth.rest.api.model.request.v2.VaultUnlockRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v2.VaultUnlockResponse;
@@ -59,6 +61,9 @@ public class SecureVaultService {
     @Inject
     private PowerAuthServiceClient powerAuthClient;
 
+    @Inject
+    private PowerAuthInstrumentedClient instrumentedClient;
+
     @Inject
     private PowerAuthAuthenticationProvider authenticationProvider;
 
@@ -93,20 +98,17 @@ public class SecureVaultService {
             PowerAuthPortV2ServiceStub.SignatureType signatureType = converter.convertFrom(header.getSignatureType());
             String nonce = header.getNonce();
 
-            String reason = null;
-            byte[] requestBodyBytes;
+            final String reason;
+            final byte[] requestBodyBytes;
 
             if ("2.0".equals(header.getVersion())) {
                 // Version 2.0 requires null data in signature for vault unlock.
+                reason = null;
                 requestBodyBytes = null;
             } else if ("2.1".equals(header.getVersion())) {
                 // Version 2.1 or higher requires request data in signature (POST request body) for vault unlock.
-                if (request != null) {
-                    // Send vault unlock reason, in case it is available.
-                    if (request.getReason() != null) {
-                        reason = request.getReason();
-                    }
-                }
+                // Send vault unlock reason, in case it is available.
+                reason = request != null ? request.getReason() : null;
 
                 // Use POST request body as data for signature.
                 requestBodyBytes = authenticationProvider.extractRequestBodyBytes(httpServletRequest);
@@ -116,7 +118,7 @@ public class SecureVaultService {
 
             String data = PowerAuthHttpBody.getSignatureBaseString("POST", "/pa/vault/unlock", BaseEncoding.base64().decode(nonce), requestBodyBytes);
 
-            PowerAuthPortV2ServiceStub.VaultUnlockResponse soapResponse = powerAuthClient.v2().unlockVault(activationId, applicationId, data, signature, signatureType, reason);
+            final PowerAuthPortV2ServiceStub.VaultUnlockResponse soapResponse = instrumentedClient.call(PowerAuthServiceOperation.V2_VAULT_UNLOCK, () -> powerAuthClient.v2().unlockVault(activationId, applicationId, data, signature, signatureType, reason), PowerAuthPortV2ServiceStub.VaultUnlockResponse::getSignatureValid);
 
             if (!soapResponse.getSignatureValid()) {
                 throw new PowerAuthAuthenticationException();
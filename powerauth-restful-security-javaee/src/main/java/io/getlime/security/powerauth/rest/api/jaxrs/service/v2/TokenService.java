@@ -23,7 +23,9 @@ import io.getlime.powerauth.soap.v2.PowerAuthPortV2ServiceStub;
 import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
 import io.getlime.security.powerauth.rest.api.jaxrs.converter.v2.SignatureTypeConverter;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.rest.api.model.request.v2.TokenCreateRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v2.TokenCreateResponse;
 import io.getlime.security.powerauth.soap.axis.client.PowerAuthServiceClient;
@@ -53,6 +55,9 @@ public class TokenService {
     @Inject
     private PowerAuthServiceClient powerAuthClient;
 
+    @Inject
+    private PowerAuthInstrumentedClient instrumentedClient;
+
     /**
      * Create token.
      * @param request Create token request.
@@ -73,7 +78,7 @@ public class TokenService {
             SignatureTypeConverter converter = new SignatureTypeConverter();
 
             // Create a token
-            final PowerAuthPortV2ServiceStub.CreateTokenResponse token = powerAuthClient.v2().createToken(activationId, ephemeralPublicKey, converter.convertFrom(signatureFactors));
+            final PowerAuthPortV2ServiceStub.CreateTokenResponse token = instrumentedClient.call(PowerAuthServiceOperation.V2_CREATE_TOKEN, () -> powerAuthClient.v2().createToken(activationId, ephemeralPublicKey, converter.convertFrom(signatureFactors)));
 
             // Prepare a response
             final TokenCreateResponse response = new TokenCreateResponse();
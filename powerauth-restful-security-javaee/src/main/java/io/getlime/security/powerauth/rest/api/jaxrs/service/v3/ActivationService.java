@@ -20,13 +20,19 @@
 package io.getlime.security.powerauth.rest.api.jaxrs.service.v3;
 
 import io.getlime.powerauth.soap.v3.PowerAuthPortV3ServiceStub;
-import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationConfiguration;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthStatusCustomObjectHolder;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationState;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCache;
 import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesEncryption;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthActivationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRecoveryException;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthCacheInvalidator;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
 import io.getlime.security.powerauth.rest.api.base.provider.CustomActivationProvider;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.rest.api.model.entity.ActivationType;
 import io.getlime.security.powerauth.rest.api.model.request.v3.ActivationLayer1Request;
 import io.getlime.security.powerauth.rest.api.model.request.v3.ActivationStatusRequest;
@@ -63,7 +69,19 @@ public class ActivationService {
     private PowerAuthServiceClient powerAuthClient;
 
     @Inject
-    private PowerAuthApplicationConfiguration applicationConfiguration;
+    private PowerAuthInstrumentedClient instrumentedClient;
+
+    @Inject
+    private PowerAuthActivationStateCache activationStateCache;
+
+    @Inject
+    private PowerAuthActivationStatusCache activationStatusCache;
+
+    @Inject
+    private PowerAuthStatusCustomObjectHolder statusCustomObjectHolder;
+
+    @Inject
+    private PowerAuthCacheInvalidator cacheInvalidator;
 
     @Inject
     private CustomActivationProvider activationProvider;
@@ -103,7 +121,7 @@ public class ActivationService {
                     String activationCode = request.getIdentityAttributes().get("code");
 
                     // Call PrepareActivation SOAP method on PA server
-                    PowerAuthPortV3ServiceStub.PrepareActivationResponse response = powerAuthClient.prepareActivation(activationCode, applicationKey, ephemeralPublicKey, encryptedData, mac, nonce);
+                    final PowerAuthPortV3ServiceStub.PrepareActivationResponse response = instrumentedClient.call(PowerAuthServiceOperation.PREPARE_ACTIVATION, () -> powerAuthClient.prepareActivation(activationCode, applicationKey, ephemeralPublicKey, encryptedData, mac, nonce));
 
                     Map<String, Object> processedCustomAttributes = customAttributes;
                     // In case a custom activation provider is enabled, process custom attributes
@@ -134,15 +152,17 @@ public class ActivationService {
                     final Integer maxFailed = activationProvider.getMaxFailedAttemptCount(identity, customAttributes, userId, ActivationType.CUSTOM);
                     final Long maxFailedCount = maxFailed == null ? null : maxFailed.longValue();
                     final Integer activationValidityPeriod = activationProvider.getValidityPeriodDuringActivation(identity, customAttributes, userId, ActivationType.CUSTOM);
-                    Date activationExpireTimestamp = null;
+                    final Date activationExpireTimestamp;
                     if (activationValidityPeriod != null) {
                         Calendar activationExpiration = GregorianCalendar.getInstance();
                         activationExpiration.add(Calendar.MILLISECOND, activationValidityPeriod);
                         activationExpireTimestamp = activationExpiration.getTime();
+                    } else {
+                        activationExpireTimestamp = null;
                     }
 
                     // Create activation for a looked up user and application related to the given application key
-                    PowerAuthPortV3ServiceStub.CreateActivationResponse response = powerAuthClient.createActivation(
+                    final PowerAuthPortV3ServiceStub.CreateActivationResponse response = instrumentedClient.call(PowerAuthServiceOperation.CREATE_ACTIVATION, () -> powerAuthClient.createActivation(
                             userId,
                             activationExpireTimestamp,
                             maxFailedCount,
@@ -151,14 +171,15 @@ public class ActivationService {
                             encryptedData,
                             mac,
                             nonce
-                    );
+                    ));
 
                     // Process custom attributes using a custom logic
                     final Map<String, Object> processedCustomAttributes = activationProvider.processCustomActivationAttributes(customAttributes, response.getActivationId(), userId, ActivationType.CUSTOM);
 
                     // Check if activation should be committed instantly and if yes, perform commit
                     if (activationProvider.shouldAutoCommitActivation(identity, customAttributes, response.getActivationId(), userId, ActivationType.CUSTOM)) {
-                        PowerAuthPortV3ServiceStub.CommitActivationResponse commitResponse = powerAuthClient.commitActivation(response.getActivationId(), null);
+                        final PowerAuthPortV3ServiceStub.CommitActivationResponse commitResponse = instrumentedClient.call(PowerAuthServiceOperation.COMMIT_ACTIVATION, () -> powerAuthClient.commitActivation(response.getActivationId(), null));
+                        cacheInvalidator.activationChanged(response.getActivationId());
                         if (commitResponse.getActivated()) {
                             activationProvider.activationWasCommitted(identity, customAttributes, response.getActivationId(), userId, ActivationType.CUSTOM);
                         }
@@ -196,14 +217,16 @@ public class ActivationService {
                     }
 
                     // Resolve maxFailedCount, user ID is not known
-                    Long maxFailedCount = null;
+                    final Long maxFailedCount;
                     if (activationProvider != null) {
                         final Integer maxFailed = activationProvider.getMaxFailedAttemptCount(identity, customAttributes, null, ActivationType.RECOVERY);
                         maxFailedCount = maxFailed == null ? null : maxFailed.longValue();
+                    } else {
+                        maxFailedCount = null;
                     }
 
                     // Call RecoveryCodeActivation SOAP method on PA server
-                    PowerAuthPortV3ServiceStub.RecoveryCodeActivationResponse response = powerAuthClient.createActivationUsingRecoveryCode(recoveryCode, recoveryPuk, applicationKey, maxFailedCount, ephemeralPublicKey, encryptedData, mac, nonce);
+                    final PowerAuthPortV3ServiceStub.RecoveryCodeActivationResponse response = instrumentedClient.call(PowerAuthServiceOperation.RECOVERY_CODE_ACTIVATION, () -> powerAuthClient.createActivationUsingRecoveryCode(recoveryCode, recoveryPuk, applicationKey, maxFailedCount, ephemeralPublicKey, encryptedData, mac, nonce));
 
                     Map<String, Object> processedCustomAttributes = customAttributes;
                     // In case a custom activation provider is enabled, process custom attributes
@@ -213,7 +236,8 @@ public class ActivationService {
 
                     // Automatically commit activation by default, the optional activation provider can override automatic commit
                     if (activationProvider == null || activationProvider.shouldAutoCommitActivation(identity, customAttributes, response.getActivationId(), response.getUserId(), ActivationType.RECOVERY)) {
-                        PowerAuthPortV3ServiceStub.CommitActivationResponse commitResponse = powerAuthClient.commitActivation(response.getActivationId(), null);
+                        final PowerAuthPortV3ServiceStub.CommitActivationResponse commitResponse = instrumentedClient.call(PowerAuthServiceOperation.COMMIT_ACTIVATION, () -> powerAuthClient.commitActivation(response.getActivationId(), null));
+                        cacheInvalidator.activationChanged(response.getActivationId());
                         if (activationProvider != null && commitResponse.getActivated()) {
                             activationProvider.activationWasCommitted(identity, customAttributes, response.getActivationId(), response.getUserId(), ActivationType.RECOVERY);
                         }
@@ -254,14 +278,23 @@ public class ActivationService {
         try {
             String activationId = request.getActivationId();
             String challenge = request.getChallenge();
-            PowerAuthPortV3ServiceStub.GetActivationStatusResponse soapResponse = powerAuthClient.getActivationStatusWithEncryptedStatusBlob(activationId, challenge);
             ActivationStatusResponse response = new ActivationStatusResponse();
-            response.setActivationId(soapResponse.getActivationId());
-            response.setEncryptedStatusBlob(soapResponse.getEncryptedStatusBlob());
-            response.setNonce(soapResponse.getEncryptedStatusBlobNonce());
-            if (applicationConfiguration != null) {
-                response.setCustomObject(applicationConfiguration.statusServiceCustomObject());
+            // Status blob of requests without challenge (protocol version 3.0) is not randomized and it may be cached
+            final String cachedStatusBlob = activationStatusCache.get(activationId, challenge);
+            if (cachedStatusBlob != null) {
+                response.setActivationId(activationId);
+                response.setEncryptedStatusBlob(cachedStatusBlob);
+            } else {
+                final PowerAuthPortV3ServiceStub.GetActivationStatusResponse soapResponse = instrumentedClient.call(PowerAuthServiceOperation.GET_ACTIVATION_STATUS, () -> powerAuthClient.getActivationStatusWithEncryptedStatusBlob(activationId, challenge));
+                if (soapResponse.getActivationStatus() != null) {
+                    activationStateCache.activationStateChanged(activationId, PowerAuthActivationState.fromValue(soapResponse.getActivationStatus().getValue()));
+                }
+                response.setActivationId(soapResponse.getActivationId());
+                response.setEncryptedStatusBlob(soapResponse.getEncryptedStatusBlob());
+                response.setNonce(soapResponse.getEncryptedStatusBlobNonce());
+                activationStatusCache.put(activationId, challenge, soapResponse.getEncryptedStatusBlob(), soapResponse.getEncryptedStatusBlobNonce());
             }
+            response.setCustomObject(statusCustomObjectHolder.getCustomObject());
             return response;
         } catch (Exception ex) {
             logger.warn("PowerAuth activation status check failed", ex);
@@ -279,7 +312,8 @@ public class ActivationService {
     public ActivationRemoveResponse removeActivation(PowerAuthApiAuthentication apiAuthentication) throws PowerAuthActivationException {
         try {
             // Remove the activation
-            PowerAuthPortV3ServiceStub.RemoveActivationResponse soapResponse = powerAuthClient.removeActivation(apiAuthentication.getActivationId(), null);
+            final PowerAuthPortV3ServiceStub.RemoveActivationResponse soapResponse = instrumentedClient.call(PowerAuthServiceOperation.REMOVE_ACTIVATION, () -> powerAuthClient.removeActivation(apiAuthentication.getActivationId(), null));
+            cacheInvalidator.activationRemoved(apiAuthentication.getActivationId());
 
             // Call other application specific cleanup logic
             if (activationProvider != null) {
@@ -23,6 +23,8 @@ import io.getlime.powerauth.soap.v3.PowerAuthPortV3ServiceStub;
 import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
 import io.getlime.security.powerauth.soap.axis.client.PowerAuthServiceClient;
@@ -48,6 +50,9 @@ public class RecoveryService {
     @Inject
     private PowerAuthServiceClient powerAuthClient;
 
+    @Inject
+    private PowerAuthInstrumentedClient instrumentedClient;
+
     private static final Logger logger = LoggerFactory.getLogger(RecoveryService.class);
 
     /**
@@ -68,8 +73,8 @@ public class RecoveryService {
                 logger.error("PowerAuth confirm recovery failed because of invalid request");
                 throw new PowerAuthAuthenticationException();
             }
-            PowerAuthPortV3ServiceStub.ConfirmRecoveryCodeResponse paResponse = powerAuthClient.confirmRecoveryCode(activationId, applicationKey,
-                    request.getEphemeralPublicKey(), request.getEncryptedData(), request.getMac(), request.getNonce());
+            final PowerAuthPortV3ServiceStub.ConfirmRecoveryCodeResponse paResponse = instrumentedClient.call(PowerAuthServiceOperation.CONFIRM_RECOVERY_CODE, () -> powerAuthClient.confirmRecoveryCode(activationId, applicationKey,
+                    request.getEphemeralPublicKey(), request.getEncryptedData(), request.getMac(), request.getNonce()));
             if (!paResponse.getActivationId().equals(activationId)) {
                 logger.error("PowerAuth confirm recovery failed because of invalid activation ID in response");
                 throw new PowerAuthAuthenticationException();
@@ -25,7 +25,9 @@ import io.getlime.security.powerauth.http.PowerAuthHttpBody;
 import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthSecureVaultException;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
 import io.getlime.security.powerauth.rest.api.jaxrs.converter.v3.SignatureTypeConverter;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.rest.api.jaxrs.provider.PowerAuthAuthenticationProvider;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
@@ -54,6 +56,9 @@ public class SecureVaultService {
     @Inject
     private PowerAuthServiceClient powerAuthClient;
 
+    @Inject
+    private PowerAuthInstrumentedClient instrumentedClient;
+
     @Inject
     private PowerAuthAuthenticationProvider authenticationProvider;
 
@@ -92,8 +97,8 @@ public class SecureVaultService {
             String data = PowerAuthHttpBody.getSignatureBaseString("POST", "/pa/vault/unlock", BaseEncoding.base64().decode(nonce), requestBodyBytes);
 
             // Verify signature and get encrypted vault encryption key from PowerAuth server
-            PowerAuthPortV3ServiceStub.VaultUnlockResponse soapResponse = powerAuthClient.unlockVault(activationId, applicationKey, signature,
-                    signatureType, signatureVersion, data, ephemeralPublicKey, encryptedData, mac, eciesNonce);
+            final PowerAuthPortV3ServiceStub.VaultUnlockResponse soapResponse = instrumentedClient.call(PowerAuthServiceOperation.VAULT_UNLOCK, () -> powerAuthClient.unlockVault(activationId, applicationKey, signature,
+                    signatureType, signatureVersion, data, ephemeralPublicKey, encryptedData, mac, eciesNonce), PowerAuthPortV3ServiceStub.VaultUnlockResponse::getSignatureValid);
 
             if (!soapResponse.getSignatureValid()) {
                 throw new PowerAuthAuthenticationException();
@@ -24,7 +24,10 @@ import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
 import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthCacheInvalidator;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
 import io.getlime.security.powerauth.rest.api.jaxrs.converter.v3.SignatureTypeConverter;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.request.v3.TokenRemoveRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
@@ -54,6 +57,12 @@ public class TokenService {
     @Inject
     private PowerAuthServiceClient powerAuthClient;
 
+    @Inject
+    private PowerAuthInstrumentedClient instrumentedClient;
+
+    @Inject
+    private PowerAuthCacheInvalidator cacheInvalidator;
+
     /**
      * Create token.
      *
@@ -84,8 +93,8 @@ public class TokenService {
             String applicationKey = httpHeader.getApplicationKey();
 
             // Create a token
-            final PowerAuthPortV3ServiceStub.CreateTokenResponse token = powerAuthClient.createToken(activationId, applicationKey, ephemeralPublicKey,
-                    encryptedData, mac, nonce, converter.convertFrom(signatureFactors));
+            final PowerAuthPortV3ServiceStub.CreateTokenResponse token = instrumentedClient.call(PowerAuthServiceOperation.CREATE_TOKEN, () -> powerAuthClient.createToken(activationId, applicationKey, ephemeralPublicKey,
+                    encryptedData, mac, nonce, converter.convertFrom(signatureFactors)));
 
             // Prepare a response
             final EciesEncryptedResponse response = new EciesEncryptedResponse();
@@ -115,7 +124,8 @@ public class TokenService {
             final String tokenId = request.getTokenId();
 
             // Remove a token, ignore response, since the endpoint should quietly return
-            powerAuthClient.removeToken(tokenId, activationId);
+            instrumentedClient.call(PowerAuthServiceOperation.REMOVE_TOKEN, () -> powerAuthClient.removeToken(tokenId, activationId));
+            cacheInvalidator.tokenRemoved(tokenId);
 
             // Prepare a response
             final TokenRemoveResponse response = new TokenRemoveResponse();
@@ -27,6 +27,9 @@ import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthUpgradeException;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthCacheInvalidator;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceOperation;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.rest.api.jaxrs.provider.PowerAuthAuthenticationProvider;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
@@ -59,6 +62,12 @@ public class UpgradeService {
     @Inject
     private PowerAuthServiceClient powerAuthClient;
 
+    @Inject
+    private PowerAuthInstrumentedClient instrumentedClient;
+
+    @Inject
+    private PowerAuthCacheInvalidator cacheInvalidator;
+
     @Inject
     private PowerAuthAuthenticationProvider authenticationProvider;
 
@@ -84,7 +93,8 @@ public class UpgradeService {
             final String applicationKey = header.getApplicationKey();
 
             // Start upgrade on PowerAuth server
-            PowerAuthPortV3ServiceStub.StartUpgradeResponse upgradeResponse = powerAuthClient.startUpgrade(activationId, applicationKey, ephemeralPublicKey, encryptedData, mac, nonce);
+            final PowerAuthPortV3ServiceStub.StartUpgradeResponse upgradeResponse = instrumentedClient.call(PowerAuthServiceOperation.START_UPGRADE, () -> powerAuthClient.startUpgrade(activationId, applicationKey, ephemeralPublicKey, encryptedData, mac, nonce));
+            cacheInvalidator.activationChanged(activationId);
 
             // Prepare a response
             final EciesEncryptedResponse response = new EciesEncryptedResponse();
@@ -132,7 +142,8 @@ public class UpgradeService {
             final String applicationKey = httpHeader.getApplicationKey();
 
             // Commit upgrade on PowerAuth server
-            PowerAuthPortV3ServiceStub.CommitUpgradeResponse upgradeResponse = powerAuthClient.commitUpgrade(activationId, applicationKey);
+            final PowerAuthPortV3ServiceStub.CommitUpgradeResponse upgradeResponse = instrumentedClient.call(PowerAuthServiceOperation.COMMIT_UPGRADE, () -> powerAuthClient.commitUpgrade(activationId, applicationKey));
+            cacheInvalidator.activationChanged(activationId);
 
             if (upgradeResponse.getCommitted()) {
                 return new Response();
@@ -116,7 +116,8 @@ public class PowerAuthAnnotationInterceptor extends HandlerInterceptorAdapter {
                 try {
                     PowerAuthApiAuthentication authentication = authenticationProvider.validateToken(
                             request.getHeader(PowerAuthTokenHttpHeader.HEADER_NAME),
-                            new ArrayList<>(Arrays.asList(powerAuthTokenAnnotation.signatureType()))
+                            new ArrayList<>(Arrays.asList(powerAuthTokenAnnotation.signatureType())),
+                            powerAuthTokenAnnotation.degradedModeAllowed()
                     );
                     request.setAttribute(PowerAuthRequestObjects.AUTHENTICATION_OBJECT, authentication);
                 } catch (PowerAuthAuthenticationException ex) {
@@ -0,0 +1,75 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.spring.annotation;
+
+import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestObjects;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPermit;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestScheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor which acquires a request scheduler permit for handler methods annotated with {@link PowerAuthScheduled}.
+ *
+ * <p>The interceptor needs to be registered before {@link PowerAuthAnnotationInterceptor}, so that rejected
+ * requests are neither decrypted nor authenticated. The permit is released once the request is completed.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+public class PowerAuthSchedulerInterceptor extends HandlerInterceptorAdapter {
+
+    private PowerAuthRequestScheduler requestScheduler;
+
+    @Autowired(required = false)
+    public void setRequestScheduler(PowerAuthRequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (handler instanceof HandlerMethod && requestScheduler != null && requestScheduler.isEnabled()) {
+            final HandlerMethod handlerMethod = (HandlerMethod) handler;
+            final PowerAuthScheduled powerAuthScheduledAnnotation = handlerMethod.getMethodAnnotation(PowerAuthScheduled.class);
+            if (powerAuthScheduledAnnotation != null) {
+                final PowerAuthRequestPermit permit = requestScheduler.acquire(handlerMethod.getBeanType(), powerAuthScheduledAnnotation.priority());
+                request.setAttribute(PowerAuthRequestObjects.REQUEST_PERMIT, permit);
+            }
+        }
+        return super.preHandle(request, response, handler);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+        // Spring calls afterCompletion also when preHandle of an interceptor registered later fails
+        final Object permit = request.getAttribute(PowerAuthRequestObjects.REQUEST_PERMIT);
+        if (permit instanceof PowerAuthRequestPermit) {
+            request.removeAttribute(PowerAuthRequestObjects.REQUEST_PERMIT);
+            ((PowerAuthRequestPermit) permit).close();
+        }
+        super.afterCompletion(request, response, handler, ex);
+    }
+
+}
@@ -46,4 +46,12 @@ public @interface PowerAuthToken {
             PowerAuthSignatureTypes.POSSESSION_KNOWLEDGE_BIOMETRY
     };
 
+    /**
+     * Whether the token may be accepted in degraded mode in case PowerAuth server is not reachable. Degraded mode
+     * does not verify the token digest, allow it only for endpoints which do not change any data.
+     *
+     * @return True in case degraded mode is allowed, false by default.
+     */
+    boolean degradedModeAllowed() default false;
+
 }
@@ -0,0 +1,61 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.spring.application;
+
+import io.getlime.powerauth.soap.v3.GetApplicationDetailResponse;
+import io.getlime.powerauth.soap.v3.GetApplicationListResponse;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistryLoader;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationVersion;
+import io.getlime.security.powerauth.soap.spring.client.PowerAuthServiceClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loader of application versions for the application registry which uses PowerAuth server SOAP client.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthApplicationRegistryClientLoader implements PowerAuthApplicationRegistryLoader {
+
+    private final PowerAuthServiceClient powerAuthClient;
+
+    /**
+     * Loader constructor.
+     * @param powerAuthClient PowerAuth server SOAP client.
+     */
+    public PowerAuthApplicationRegistryClientLoader(PowerAuthServiceClient powerAuthClient) {
+        this.powerAuthClient = powerAuthClient;
+    }
+
+    @Override
+    public List<PowerAuthApplicationVersion> loadApplicationVersions() {
+        final List<PowerAuthApplicationVersion> result = new ArrayList<>();
+        for (GetApplicationListResponse.Applications application: powerAuthClient.getApplicationList()) {
+            final GetApplicationDetailResponse detail = powerAuthClient.getApplicationDetail(application.getId());
+            for (GetApplicationDetailResponse.Versions version: detail.getVersions()) {
+                result.add(new PowerAuthApplicationVersion(detail.getApplicationId(), version.getApplicationVersionId(),
+                        version.getApplicationVersionName(), version.getApplicationKey(), version.isSupported()));
+            }
+        }
+        return result;
+    }
+
+}
@@ -36,6 +36,7 @@ public class PowerAuthTokenAuthenticationImpl extends AbstractAuthenticationToke
     private String timestamp;
     private String version;
     private PowerAuthHttpHeader httpHeader;
+    private boolean degradedModeAllowed;
 
     /**
      * Default constructor
@@ -161,4 +162,22 @@ public class PowerAuthTokenAuthenticationImpl extends AbstractAuthenticationToke
     public void setHttpHeader(PowerAuthHttpHeader httpHeader) {
         this.httpHeader = httpHeader;
     }
+
+    /**
+     * Whether the token may be accepted in degraded mode in case PowerAuth server is not reachable.
+     * @return True in case degraded mode is allowed.
+     */
+    @Override
+    public boolean isDegradedModeAllowed() {
+        return degradedModeAllowed;
+    }
+
+    /**
+     * Set whether the token may be accepted in degraded mode in case PowerAuth server is not reachable.
+     * @param degradedModeAllowed Whether degraded mode is allowed.
+     */
+    @Override
+    public void setDegradedModeAllowed(boolean degradedModeAllowed) {
+        this.degradedModeAllowed = degradedModeAllowed;
+    }
 }
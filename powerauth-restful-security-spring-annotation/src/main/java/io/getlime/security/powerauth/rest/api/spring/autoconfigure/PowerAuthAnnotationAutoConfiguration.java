@@ -0,0 +1,180 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.spring.autoconfigure;
+
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCache;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeValidator;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthCacheInvalidator;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthNoopInvalidationBroadcaster;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthAnnotationInterceptor;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthSchedulerInterceptor;
+import io.getlime.security.powerauth.rest.api.spring.encryption.EncryptorFactory;
+import io.getlime.security.powerauth.rest.api.spring.entrypoint.PowerAuthApiAuthenticationEntryPoint;
+import io.getlime.security.powerauth.rest.api.spring.filter.EncryptionResponseBodyAdvice;
+import io.getlime.security.powerauth.rest.api.spring.metrics.MicrometerServiceMetrics;
+import io.getlime.security.powerauth.rest.api.spring.provider.PowerAuthAuthenticationProvider;
+import io.getlime.security.powerauth.rest.api.spring.provider.PowerAuthEncryptionProvider;
+import io.getlime.security.powerauth.soap.spring.client.PowerAuthServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto-configuration of components used by {@code @PowerAuth}, {@code @PowerAuthToken} and
+ * {@code @PowerAuthEncryption} annotations. The components are registered only in case the application defines
+ * a {@link PowerAuthServiceClient} bean, so that the annotations can be used without scanning the
+ * {@code io.getlime.security.powerauth} package.
+ *
+ * <p>Each component can be replaced by a bean of the same type defined by the application. Components found by
+ * component scanning are used as well, so applications which still scan the package are not affected.</p>
+ *
+ * <p>The annotation interceptors, the argument resolvers and the request filter still need to be added to the Spring
+ * MVC configuration by the application, registering them automatically would process requests twice in applications
+ * which already register them.</p>
+ *
+ * <p>In case Micrometer is used by the application, {@link MicrometerServiceMetrics} are registered as the
+ * {@link PowerAuthServiceMetrics} bean, unless the application defines its own service metrics.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnBean(PowerAuthServiceClient.class)
+@AutoConfigureAfter(name = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+public class PowerAuthAnnotationAutoConfiguration {
+
+    /**
+     * Register provider of signature and token authentication.
+     * @return Authentication provider.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public PowerAuthAuthenticationProvider powerAuthAuthenticationProvider() {
+        return new PowerAuthAuthenticationProvider();
+    }
+
+    /**
+     * Register provider of ECIES encryption.
+     * @return Encryption provider.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public PowerAuthEncryptionProvider powerAuthEncryptionProvider() {
+        return new PowerAuthEncryptionProvider();
+    }
+
+    /**
+     * Register interceptor of PowerAuth annotations.
+     * @return Annotation interceptor.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public PowerAuthAnnotationInterceptor powerAuthAnnotationInterceptor() {
+        return new PowerAuthAnnotationInterceptor();
+    }
+
+    /**
+     * Register interceptor of {@code @PowerAuthScheduled} annotation.
+     * @return Scheduler interceptor.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public PowerAuthSchedulerInterceptor powerAuthSchedulerInterceptor() {
+        return new PowerAuthSchedulerInterceptor();
+    }
+
+    /**
+     * Register advice which encrypts responses of ECIES encrypted requests.
+     * @return Encryption response body advice.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public EncryptionResponseBodyAdvice encryptionResponseBodyAdvice() {
+        return new EncryptionResponseBodyAdvice();
+    }
+
+    /**
+     * Register factory of non-personalized encryptors.
+     * @return Encryptor factory.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public EncryptorFactory encryptorFactory() {
+        return new EncryptorFactory();
+    }
+
+    /**
+     * Register Spring Security entry point for failed PowerAuth authentication.
+     * @return Authentication entry point.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public PowerAuthApiAuthenticationEntryPoint powerAuthApiAuthenticationEntryPoint() {
+        return new PowerAuthApiAuthenticationEntryPoint();
+    }
+
+    /**
+     * Register invalidator of the activation state cache, activation status cache and degraded mode validator
+     * defined by the application. The invalidator does not publish events to other nodes, define a bean with
+     * an invalidation broadcaster in case the application runs on multiple nodes.
+     * @param activationStateCache Activation state cache, if defined.
+     * @param activationStatusCache Activation status cache, if defined.
+     * @param degradedModeValidator Degraded mode validator, if defined.
+     * @return Cache invalidator.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public PowerAuthCacheInvalidator powerAuthCacheInvalidator(ObjectProvider<PowerAuthActivationStateCache> activationStateCache,
+                                                               ObjectProvider<PowerAuthActivationStatusCache> activationStatusCache,
+                                                               ObjectProvider<PowerAuthDegradedModeValidator> degradedModeValidator) {
+        return new PowerAuthCacheInvalidator(new PowerAuthNoopInvalidationBroadcaster(), activationStateCache.getIfAvailable(),
+                activationStatusCache.getIfAvailable(), degradedModeValidator.getIfAvailable());
+    }
+
+    /**
+     * Configuration of metrics published using Micrometer, used only in case Micrometer is on the classpath.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MicrometerMetricsConfiguration {
+
+        /**
+         * Register metrics of PowerAuth server calls published to the Micrometer registry of the application.
+         * @param meterRegistry Meter registry.
+         * @return Service metrics.
+         */
+        @Bean
+        @ConditionalOnBean(MeterRegistry.class)
+        @ConditionalOnMissingBean
+        public PowerAuthServiceMetrics powerAuthServiceMetrics(MeterRegistry meterRegistry) {
+            return new MicrometerServiceMetrics(meterRegistry);
+        }
+
+    }
+
+}
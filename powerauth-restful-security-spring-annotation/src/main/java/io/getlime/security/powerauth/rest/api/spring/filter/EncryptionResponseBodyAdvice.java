@@ -24,7 +24,11 @@ import com.google.common.io.BaseEncoding;
 import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.EciesDecryptor;
 import io.getlime.security.powerauth.crypto.lib.encryptor.ecies.model.EciesCryptogram;
 import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesEncryption;
+import io.getlime.security.powerauth.rest.api.base.jfr.EciesEncryptEvent;
+import io.getlime.security.powerauth.rest.api.base.jfr.PowerAuthFlightRecorder;
 import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestObjects;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestPhase;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
 import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthEncryption;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -109,12 +113,15 @@ public class EncryptionResponseBodyAdvice implements ResponseBodyAdvice<Object>
         }
 
         // Convert response to JSON
+        final long phaseStart = PowerAuthRequestTiming.phaseStarted();
+        final EciesEncryptEvent encryptEvent = PowerAuthFlightRecorder.eciesEncryptStarted();
         try {
             byte[] responseBytes = serializeResponseObject(response);
 
             // Encrypt response using decryptor and return ECIES cryptogram
             final EciesDecryptor eciesDecryptor = eciesEncryption.getEciesDecryptor();
             EciesCryptogram cryptogram = eciesDecryptor.encryptResponse(responseBytes);
+            PowerAuthFlightRecorder.eciesEncryptCompleted(encryptEvent, eciesEncryption, responseBytes.length, cryptogram.getEncryptedData().length);
             String encryptedDataBase64 = BaseEncoding.base64().encode(cryptogram.getEncryptedData());
             String macBase64 = BaseEncoding.base64().encode(cryptogram.getMac());
 
@@ -131,7 +138,10 @@ public class EncryptionResponseBodyAdvice implements ResponseBodyAdvice<Object>
                 return convertEncryptedResponse(encryptedResponse, mediaType);
             }
         } catch (Exception ex) {
+            PowerAuthFlightRecorder.eciesEncryptCompleted(encryptEvent, eciesEncryption, -1, 0);
             return null;
+        } finally {
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.ENCRYPTION, phaseStart);
         }
     }
 
@@ -19,29 +19,184 @@
  */
 package io.getlime.security.powerauth.rest.api.spring.filter;
 
+import io.getlime.security.powerauth.rest.api.base.capture.PowerAuthTrafficCapture;
+import io.getlime.security.powerauth.rest.api.base.capture.PowerAuthTrafficHeader;
+import io.getlime.security.powerauth.rest.api.base.capture.PowerAuthTrafficRecord;
+import io.getlime.security.powerauth.rest.api.base.filter.PowerAuthCountingResponseWrapper;
 import io.getlime.security.powerauth.rest.api.base.filter.PowerAuthRequestFilterBase;
+import io.getlime.security.powerauth.rest.api.base.filter.PowerAuthServerTimingResponseWrapper;
+import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestBody;
+import io.getlime.security.powerauth.rest.api.base.model.PowerAuthRequestObjects;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTimingRegistry;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuth;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthEncryption;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthToken;
 import org.springframework.lang.NonNull;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Request filter that intercepts the request body, forwards it to the controller 
  * as a request attribute named "X-PowerAuth-Request-Body" and resets the stream.
  *
+ * <p>In case request phase timing is enabled, the filter also measures durations of request processing phases,
+ * records them per request mapping and optionally sends them in the Server-Timing HTTP header.</p>
+ *
+ * <p>In case traffic capture is enabled, the filter records anonymized shapes of requests into the traffic log.</p>
+ *
  * @author Petr Dvorak, petr@wultra.com
  *
  */
 public class PowerAuthRequestFilter extends OncePerRequestFilter {
 
+    private static final PowerAuthTrafficHeader[] TRAFFIC_HEADERS = PowerAuthTrafficHeader.values();
+
+    private final ConcurrentHashMap<Method, String> annotationPaths = new ConcurrentHashMap<>();
+
+    private PowerAuthRequestTimingRegistry requestTimingRegistry;
+
+    private PowerAuthTrafficCapture trafficCapture;
+
+    /**
+     * Set registry of request phase timing metrics.
+     * @param requestTimingRegistry Request timing registry.
+     */
+    public void setRequestTimingRegistry(PowerAuthRequestTimingRegistry requestTimingRegistry) {
+        this.requestTimingRegistry = requestTimingRegistry;
+    }
+
+    /**
+     * Set capture of anonymized request shapes.
+     * @param trafficCapture Traffic capture.
+     */
+    public void setTrafficCapture(PowerAuthTrafficCapture trafficCapture) {
+        this.trafficCapture = trafficCapture;
+    }
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
-        super.doFilter(PowerAuthRequestFilterBase.filterRequest(request), response, filterChain);
+        final PowerAuthRequestTiming timing = requestTimingRegistry != null ? requestTimingRegistry.startRequest() : null;
+        final PowerAuthTrafficRecord trafficRecord = trafficCapture != null ? trafficCapture.startRequest() : null;
+        if (timing == null && trafficRecord == null) {
+            super.doFilter(PowerAuthRequestFilterBase.filterRequest(request), response, filterChain);
+            return;
+        }
+        if (timing != null) {
+            request.setAttribute(PowerAuthRequestObjects.REQUEST_TIMING, timing);
+            timing.bind();
+        }
+        if (trafficRecord != null) {
+            trafficRecord.bind();
+        }
+        try {
+            final HttpServletRequest filteredRequest = PowerAuthRequestFilterBase.filterRequest(request);
+            HttpServletResponse filteredResponse = response;
+            PowerAuthServerTimingResponseWrapper timedResponse = null;
+            if (timing != null) {
+                timedResponse = new PowerAuthServerTimingResponseWrapper(response, timing, requestTimingRegistry.isServerTimingHeaderEnabled());
+                filteredResponse = timedResponse;
+                timing.handlerStarted();
+            }
+            PowerAuthCountingResponseWrapper countingResponse = null;
+            if (trafficRecord != null) {
+                countingResponse = new PowerAuthCountingResponseWrapper(filteredResponse);
+                filteredResponse = countingResponse;
+            }
+            super.doFilter(filteredRequest, filteredResponse, filterChain);
+            if (timing != null) {
+                // Complete the handler timing in case no response body was written
+                timedResponse.responseStarted();
+                requestTimingRegistry.record(resolveEndpoint(filteredRequest), timing);
+            }
+            if (trafficRecord != null) {
+                completeTrafficRecord(trafficRecord, filteredRequest, countingResponse);
+                trafficCapture.record(trafficRecord);
+            }
+        } finally {
+            PowerAuthRequestTiming.unbind();
+            PowerAuthTrafficRecord.unbind();
+        }
+    }
+
+    /**
+     * Resolve endpoint name from the request mapping pattern which prevents creating metrics for each request path.
+     * @param request HTTP servlet request.
+     * @return Endpoint name or null in case the request was not mapped.
+     */
+    private String resolveEndpoint(HttpServletRequest request) {
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return null;
+        }
+        return request.getMethod() + " " + pattern;
+    }
+
+    /**
+     * Fill anonymized request shape into the traffic record. The request mapping pattern is recorded instead of
+     * the request path and only presence of PowerAuth HTTP headers is recorded.
+     * @param trafficRecord Traffic record.
+     * @param request HTTP servlet request.
+     * @param response Counting HTTP servlet response.
+     */
+    private void completeTrafficRecord(PowerAuthTrafficRecord trafficRecord, HttpServletRequest request, PowerAuthCountingResponseWrapper response) {
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        trafficRecord.setMethod(request.getMethod());
+        trafficRecord.setEndpoint(pattern != null ? pattern.toString() : "");
+        int headers = 0;
+        for (PowerAuthTrafficHeader header: TRAFFIC_HEADERS) {
+            if (request.getHeader(header.getHeaderName()) != null) {
+                headers |= header.getMask();
+            }
+        }
+        trafficRecord.setHeaders(headers);
+        long requestBodySize = request.getContentLengthLong();
+        if (requestBodySize < 0) {
+            // Use the buffered body in case the body length was not known in advance, e.g. for chunked requests
+            final Object body = request.getAttribute(PowerAuthRequestObjects.REQUEST_BODY);
+            final byte[] requestBytes = body instanceof PowerAuthRequestBody ? ((PowerAuthRequestBody) body).getRequestBytes() : null;
+            requestBodySize = requestBytes != null ? requestBytes.length : 0L;
+        }
+        trafficRecord.setRequestBodySize(requestBodySize);
+        trafficRecord.setResponseBodySize(response.getBodySize());
+        trafficRecord.setResponseStatus(response.getStatus());
+        final Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod) {
+            final Method method = ((HandlerMethod) handler).getMethod();
+            trafficRecord.setAnnotationPath(annotationPaths.computeIfAbsent(method, this::resolveAnnotationPath));
+        } else {
+            trafficRecord.setAnnotationPath("");
+        }
+    }
+
+    /**
+     * Resolve PowerAuth annotations of a handler method, e.g. "@PowerAuth @PowerAuthEncryption(ACTIVATION_SCOPE)".
+     * @param method Handler method.
+     * @return Annotation path, empty in case the method has no PowerAuth annotations.
+     */
+    private String resolveAnnotationPath(Method method) {
+        final StringBuilder sb = new StringBuilder();
+        if (method.isAnnotationPresent(PowerAuth.class)) {
+            sb.append("@PowerAuth");
+        }
+        if (method.isAnnotationPresent(PowerAuthToken.class)) {
+            sb.append(sb.length() > 0 ? " " : "").append("@PowerAuthToken");
+        }
+        final PowerAuthEncryption encryption = method.getAnnotation(PowerAuthEncryption.class);
+        if (encryption != null) {
+            sb.append(sb.length() > 0 ? " " : "").append("@PowerAuthEncryption(").append(encryption.scope()).append(')');
+        }
+        return sb.toString();
     }
 
 }
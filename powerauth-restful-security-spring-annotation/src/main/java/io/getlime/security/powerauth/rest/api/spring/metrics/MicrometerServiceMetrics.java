@@ -0,0 +1,138 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.spring.metrics;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceCallOutcome;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceEvent;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of PowerAuth server calls published using a Micrometer meter registry. Meters of an operation are
+ * registered on its first call and reused later, so that recording of calls does not allocate memory.
+ *
+ * <p>The following meters are registered:</p>
+ * <ul>
+ *     <li>{@code powerauth.service.calls} - timer of completed calls tagged by {@code operation} and {@code outcome}.</li>
+ *     <li>{@code powerauth.service.calls.active} - gauge of calls in progress tagged by {@code operation}.</li>
+ *     <li>{@code powerauth.service.events} - counter of events tagged by {@code event}, see {@link PowerAuthServiceEvent}.</li>
+ * </ul>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class MicrometerServiceMetrics implements PowerAuthServiceMetrics {
+
+    /**
+     * Name of the timer of completed calls.
+     */
+    public static final String CALLS = "powerauth.service.calls";
+
+    /**
+     * Name of the gauge of calls in progress.
+     */
+    public static final String ACTIVE_CALLS = "powerauth.service.calls.active";
+
+    /**
+     * Name of the counter of events.
+     */
+    public static final String EVENTS = "powerauth.service.events";
+
+    private static final PowerAuthServiceCallOutcome[] OUTCOMES = PowerAuthServiceCallOutcome.values();
+
+    private final MeterRegistry registry;
+
+    private final ConcurrentHashMap<String, OperationMeters> operations = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Counter> events = new ConcurrentHashMap<>();
+
+    /**
+     * Metrics constructor.
+     * @param registry Meter registry.
+     */
+    public MicrometerServiceMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public long callStarted(String operation) {
+        getOrCreate(operation).activeCalls.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    @Override
+    public void callCompleted(String operation, long startTime, PowerAuthServiceCallOutcome outcome) {
+        final OperationMeters meters = getOrCreate(operation);
+        meters.activeCalls.decrementAndGet();
+        meters.timers[outcome.ordinal()].record(Math.max(System.nanoTime() - startTime, 0L), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void eventRecorded(String event) {
+        Counter counter = events.get(event);
+        if (counter == null) {
+            counter = events.computeIfAbsent(event, name -> Counter.builder(EVENTS).tag("event", name).register(registry));
+        }
+        counter.increment();
+    }
+
+    private OperationMeters getOrCreate(String operation) {
+        // Avoid locking of computeIfAbsent for operations which already exist
+        final OperationMeters meters = operations.get(operation);
+        if (meters != null) {
+            return meters;
+        }
+        return operations.computeIfAbsent(operation, OperationMeters::new);
+    }
+
+    /**
+     * Meters of a single operation.
+     */
+    private final class OperationMeters {
+
+        private final AtomicLong activeCalls;
+
+        private final Timer[] timers = new Timer[OUTCOMES.length];
+
+        OperationMeters(String operation) {
+            // Gauge keeps only a weak reference to the value, the value is referenced by the operation meters
+            activeCalls = registry.gauge(ACTIVE_CALLS, Tags.of("operation", operation), new AtomicLong());
+            for (PowerAuthServiceCallOutcome outcome: OUTCOMES) {
+                timers[outcome.ordinal()] = Timer.builder(CALLS)
+                        .tag("operation", operation)
+                        .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                        .register(registry);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.spring.metrics;
+
+import io.getlime.powerauth.soap.v3.ValidateTokenResponse;
+import io.getlime.powerauth.soap.v3.VerifySignatureResponse;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceCallOutcome;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import org.springframework.ws.client.core.WebServiceMessageCallback;
+import org.springframework.ws.client.core.WebServiceTemplate;
+
+/**
+ * Web service template which records metrics of all PowerAuth server calls. Set the template to the PowerAuth
+ * service client using {@code setWebServiceTemplate} before the client is configured, all requests of the client
+ * are sent using the template.
+ *
+ * <p>Operations are named after SOAP request classes, e.g. {@code VerifySignatureRequest} is recorded as
+ * {@code verifySignature}, requests of protocol version 2.0 use the {@code v2.} prefix.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthInstrumentedWebServiceTemplate extends WebServiceTemplate {
+
+    private static final String REQUEST_SUFFIX = "Request";
+
+    private static final String V2_PACKAGE = "io.getlime.powerauth.soap.v2";
+
+    private static final ClassValue<String> OPERATION_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            String name = type.getSimpleName();
+            if (name.endsWith(REQUEST_SUFFIX) && name.length() > REQUEST_SUFFIX.length()) {
+                name = name.substring(0, name.length() - REQUEST_SUFFIX.length());
+            }
+            name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+            if (type.getPackage() != null && V2_PACKAGE.equals(type.getPackage().getName())) {
+                name = "v2." + name;
+            }
+            return name;
+        }
+    };
+
+    private final PowerAuthServiceMetrics serviceMetrics;
+
+    /**
+     * Template constructor.
+     * @param serviceMetrics Service metrics.
+     */
+    public PowerAuthInstrumentedWebServiceTemplate(PowerAuthServiceMetrics serviceMetrics) {
+        this.serviceMetrics = serviceMetrics;
+    }
+
+    @Override
+    public Object marshalSendAndReceive(String uri, Object requestPayload, WebServiceMessageCallback requestCallback) {
+        if (!serviceMetrics.isEnabled() || requestPayload == null) {
+            return super.marshalSendAndReceive(uri, requestPayload, requestCallback);
+        }
+        final String operation = OPERATION_NAMES.get(requestPayload.getClass());
+        final long startTime = serviceMetrics.callStarted(operation);
+        final Object response;
+        try {
+            response = super.marshalSendAndReceive(uri, requestPayload, requestCallback);
+        } catch (RuntimeException ex) {
+            serviceMetrics.callFailed(operation, startTime, ex);
+            throw ex;
+        }
+        serviceMetrics.callCompleted(operation, startTime, resolveOutcome(response));
+        return response;
+    }
+
+    /**
+     * Resolve outcome of a successful call, verification of signatures and tokens can be invalid.
+     * @param response Response object.
+     * @return Call outcome.
+     */
+    private PowerAuthServiceCallOutcome resolveOutcome(Object response) {
+        if (response instanceof VerifySignatureResponse) {
+            return PowerAuthServiceCallOutcome.fromValid(((VerifySignatureResponse) response).isSignatureValid());
+        }
+        if (response instanceof ValidateTokenResponse) {
+            return PowerAuthServiceCallOutcome.fromValid(((ValidateTokenResponse) response).isTokenValid());
+        }
+        return PowerAuthServiceCallOutcome.VALID;
+    }
+
+}
@@ -30,8 +30,25 @@ import io.getlime.security.powerauth.http.validator.InvalidPowerAuthHttpHeaderEx
 import io.getlime.security.powerauth.http.validator.PowerAuthSignatureHttpHeaderValidator;
 import io.getlime.security.powerauth.http.validator.PowerAuthTokenHttpHeaderValidator;
 import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationConfiguration;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistry;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationState;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCache;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeValidator;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthValidatedToken;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.jfr.PowerAuthFlightRecorder;
+import io.getlime.security.powerauth.rest.api.base.jfr.PowerAuthSignatureVerificationEvent;
+import io.getlime.security.powerauth.rest.api.base.jfr.PowerAuthTokenValidationEvent;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthNoopServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceEvent;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStore;
+import io.getlime.security.powerauth.rest.api.base.token.PowerAuthTokenIds;
+import io.getlime.security.powerauth.rest.api.base.token.PowerAuthTokenTimestampValidator;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestPhase;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTiming;
 import io.getlime.security.powerauth.rest.api.base.provider.PowerAuthAuthenticationProviderBase;
 import io.getlime.security.powerauth.rest.api.spring.authentication.PowerAuthApiAuthenticationImpl;
 import io.getlime.security.powerauth.rest.api.spring.authentication.PowerAuthSignatureAuthenticationImpl;
@@ -63,6 +80,20 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
 
     private PowerAuthApplicationConfiguration applicationConfiguration;
 
+    private PowerAuthDegradedModeValidator degradedModeValidator;
+
+    private PowerAuthNonceStore nonceStore;
+
+    private PowerAuthTokenTimestampValidator tokenTimestampValidator;
+
+    private PowerAuthActivationStateCache activationStateCache;
+
+    private PowerAuthActivationStatusCache activationStatusCache;
+
+    private PowerAuthApplicationRegistry applicationRegistry;
+
+    private PowerAuthServiceMetrics serviceMetrics = new PowerAuthNoopServiceMetrics();
+
     @Autowired
     public void setPowerAuthClient(PowerAuthServiceClient powerAuthClient) {
         this.powerAuthClient = powerAuthClient;
@@ -73,6 +104,41 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         this.applicationConfiguration = applicationConfiguration;
     }
 
+    @Autowired(required=false)
+    public void setDegradedModeValidator(PowerAuthDegradedModeValidator degradedModeValidator) {
+        this.degradedModeValidator = degradedModeValidator;
+    }
+
+    @Autowired(required=false)
+    public void setNonceStore(PowerAuthNonceStore nonceStore) {
+        this.nonceStore = nonceStore;
+    }
+
+    @Autowired(required=false)
+    public void setTokenTimestampValidator(PowerAuthTokenTimestampValidator tokenTimestampValidator) {
+        this.tokenTimestampValidator = tokenTimestampValidator;
+    }
+
+    @Autowired(required=false)
+    public void setActivationStateCache(PowerAuthActivationStateCache activationStateCache) {
+        this.activationStateCache = activationStateCache;
+    }
+
+    @Autowired(required=false)
+    public void setActivationStatusCache(PowerAuthActivationStatusCache activationStatusCache) {
+        this.activationStatusCache = activationStatusCache;
+    }
+
+    @Autowired(required=false)
+    public void setApplicationRegistry(PowerAuthApplicationRegistry applicationRegistry) {
+        this.applicationRegistry = applicationRegistry;
+    }
+
+    @Autowired(required=false)
+    public void setServiceMetrics(PowerAuthServiceMetrics serviceMetrics) {
+        this.serviceMetrics = serviceMetrics;
+    }
+
     public Authentication authenticate(Authentication authentication) throws AuthenticationException {
         // Handle signature based authentications
         if (authentication instanceof PowerAuthSignatureAuthenticationImpl) {
@@ -120,6 +186,16 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
 
             VerifySignatureResponse soapResponse = powerAuthClient.verifySignature(soapRequest);
 
+            // Remember activation state reported by PowerAuth server
+            if (activationStateCache != null && soapResponse.getActivationStatus() != null) {
+                activationStateCache.activationStateChanged(authentication.getActivationId(), PowerAuthActivationState.fromValue(soapResponse.getActivationStatus().value()));
+            }
+
+            // Signature verification changes counters of the activation which are part of the activation status
+            if (activationStatusCache != null) {
+                activationStatusCache.invalidate(authentication.getActivationId());
+            }
+
             if (soapResponse.isSignatureValid()) {
                 return copyAuthenticationAttributes(soapResponse.getActivationId(), soapResponse.getUserId(),
                         soapResponse.getApplicationId(), PowerAuthSignatureTypes.getEnumFromString(soapResponse.getSignatureType().value()),
@@ -147,19 +223,56 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         soapRequest.setNonce(authentication.getNonce());
         soapRequest.setTimestamp(Long.valueOf(authentication.getTimestamp()));
 
+        final ValidateTokenResponse soapResponse;
         try {
-            final ValidateTokenResponse soapResponse = powerAuthClient.validateToken(soapRequest);
-            if (soapResponse.isTokenValid()) {
-                return copyAuthenticationAttributes(soapResponse.getActivationId(), soapResponse.getUserId(),
-                        soapResponse.getApplicationId(), PowerAuthSignatureTypes.getEnumFromString(soapResponse.getSignatureType().value()),
-                        authentication.getVersion(), authentication.getHttpHeader());
-            } else {
-                return null;
-            }
+            soapResponse = powerAuthClient.validateToken(soapRequest);
         } catch (Exception e) {
             logger.warn("Token validation failed", e);
+            // Tokens are accepted in degraded mode only on endpoints which allow it and only in case PowerAuth server
+            // is not reachable or does not respond in time
+            if (authentication.isDegradedModeAllowed() && PowerAuthDegradedModeValidator.isConnectivityFailure(e)) {
+                return validateTokenInDegradedMode(authentication);
+            }
             return null;
         }
+        if (soapResponse.isTokenValid()) {
+            final PowerAuthSignatureTypes signatureFactors = PowerAuthSignatureTypes.getEnumFromString(soapResponse.getSignatureType().value());
+            if (activationStateCache != null) {
+                activationStateCache.tokenValidated(authentication.getTokenId(), soapResponse.getActivationId());
+            }
+            if (degradedModeValidator != null) {
+                degradedModeValidator.tokenValidated(new PowerAuthValidatedToken(authentication.getTokenId(), soapResponse.getActivationId(),
+                        soapResponse.getUserId(), soapResponse.getApplicationId(), signatureFactors, System.currentTimeMillis()));
+            }
+            return copyAuthenticationAttributes(soapResponse.getActivationId(), soapResponse.getUserId(),
+                    soapResponse.getApplicationId(), signatureFactors,
+                    authentication.getVersion(), authentication.getHttpHeader());
+        } else {
+            if (degradedModeValidator != null) {
+                degradedModeValidator.tokenRejected(authentication.getTokenId());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Validate basic token-based authentication in degraded mode when PowerAuth server is not reachable.
+     *
+     * @param authentication Token based authentication object.
+     * @return API authentication object in case token is accepted in degraded mode, null otherwise.
+     */
+    private PowerAuthApiAuthenticationImpl validateTokenInDegradedMode(PowerAuthTokenAuthenticationImpl authentication) {
+        if (degradedModeValidator == null) {
+            return null;
+        }
+        final PowerAuthValidatedToken validatedToken = degradedModeValidator.validateToken(authentication.getTokenId(),
+                authentication.getNonce(), authentication.getTimestamp());
+        if (validatedToken == null) {
+            return null;
+        }
+        return copyAuthenticationAttributes(validatedToken.getActivationId(), validatedToken.getUserId(),
+                validatedToken.getApplicationId(), validatedToken.getSignatureFactors(),
+                authentication.getVersion(), authentication.getHttpHeader());
     }
 
     /**
@@ -209,6 +322,7 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         }
 
         // Parse HTTP header
+        final long headerPhaseStart = PowerAuthRequestTiming.phaseStarted();
         PowerAuthSignatureHttpHeader header = new PowerAuthSignatureHttpHeader().fromValue(httpAuthorizationHeader);
 
         // Validate the header
@@ -217,40 +331,68 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         } catch (InvalidPowerAuthHttpHeaderException e) {
             logger.error(e.getMessage(), e);
             throw new PowerAuthAuthenticationException(e.getMessage());
+        } finally {
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.HEADER_PARSING, headerPhaseStart);
         }
 
-        // Check if the signature type is allowed
-        PowerAuthSignatureTypes expectedSignatureType = PowerAuthSignatureTypes.getEnumFromString(header.getSignatureType());
-        if (!allowedSignatureTypes.contains(expectedSignatureType)) {
-            throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_TYPE_INVALID");
-        }
+        final long authPhaseStart = PowerAuthRequestTiming.phaseStarted();
+        final PowerAuthSignatureVerificationEvent verificationEvent = PowerAuthFlightRecorder.signatureVerificationStarted();
+        PowerAuthApiAuthentication auth = null;
+        try {
+            // Check if the signature type is allowed
+            PowerAuthSignatureTypes expectedSignatureType = PowerAuthSignatureTypes.getEnumFromString(header.getSignatureType());
+            if (!allowedSignatureTypes.contains(expectedSignatureType)) {
+                throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_TYPE_INVALID");
+            }
 
-        // Configure PowerAuth authentication object
-        PowerAuthSignatureAuthenticationImpl powerAuthAuthentication = new PowerAuthSignatureAuthenticationImpl();
-        powerAuthAuthentication.setActivationId(header.getActivationId());
-        powerAuthAuthentication.setApplicationKey(header.getApplicationKey());
-        powerAuthAuthentication.setNonce(BaseEncoding.base64().decode(header.getNonce()));
-        powerAuthAuthentication.setSignatureType(header.getSignatureType());
-        powerAuthAuthentication.setSignature(header.getSignature());
-        powerAuthAuthentication.setHttpMethod(httpMethod);
-        powerAuthAuthentication.setRequestUri(requestUriIdentifier);
-        powerAuthAuthentication.setData(httpBody);
-        powerAuthAuthentication.setVersion(header.getVersion());
-        powerAuthAuthentication.setHttpHeader(header);
-        powerAuthAuthentication.setForcedSignatureVersion(forcedSignatureVersion);
-
-        // Call the authentication based on signature authentication object
-        PowerAuthApiAuthentication auth = (PowerAuthApiAuthentication) this.authenticate(powerAuthAuthentication);
-
-        // In case authentication is null, throw PowerAuth exception
-        if (auth == null) {
-            throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_INVALID_VALUE");
-        }
+            // Reject requests with application keys which are unknown or unsupported
+            if (applicationRegistry != null && applicationRegistry.isApplicationKeyRejected(header.getApplicationKey())) {
+                logger.warn("Application key is unknown or unsupported, application key: {}", header.getApplicationKey());
+                throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_INVALID_VALUE");
+            }
+
+            // Reject requests of activations which are known to be blocked or removed
+            if (activationStateCache != null && activationStateCache.isActivationRejected(header.getActivationId())) {
+                logger.warn("Activation is blocked or removed, activation ID: {}", header.getActivationId());
+                throw new PowerAuthAuthenticationException("POWER_AUTH_ACTIVATION_INVALID");
+            }
+
+            // Reject replayed requests locally before calling PowerAuth server
+            if (nonceStore != null && !nonceStore.register(PowerAuthNonceStore.SCOPE_SIGNATURE, header.getActivationId(), header.getNonce())) {
+                logger.warn("Signature nonce was already used, activation ID: {}", header.getActivationId());
+                throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_NONCE_REUSED");
+            }
 
-        return auth;
+            // Configure PowerAuth authentication object
+            PowerAuthSignatureAuthenticationImpl powerAuthAuthentication = new PowerAuthSignatureAuthenticationImpl();
+            powerAuthAuthentication.setActivationId(header.getActivationId());
+            powerAuthAuthentication.setApplicationKey(header.getApplicationKey());
+            powerAuthAuthentication.setNonce(BaseEncoding.base64().decode(header.getNonce()));
+            powerAuthAuthentication.setSignatureType(header.getSignatureType());
+            powerAuthAuthentication.setSignature(header.getSignature());
+            powerAuthAuthentication.setHttpMethod(httpMethod);
+            powerAuthAuthentication.setRequestUri(requestUriIdentifier);
+            powerAuthAuthentication.setData(httpBody);
+            powerAuthAuthentication.setVersion(header.getVersion());
+            powerAuthAuthentication.setHttpHeader(header);
+            powerAuthAuthentication.setForcedSignatureVersion(forcedSignatureVersion);
+
+            // Call the authentication based on signature authentication object
+            auth = (PowerAuthApiAuthentication) this.authenticate(powerAuthAuthentication);
+
+            // In case authentication is null, throw PowerAuth exception
+            if (auth == null) {
+                throw new PowerAuthAuthenticationException("POWER_AUTH_SIGNATURE_INVALID_VALUE");
+            }
+
+            return auth;
+        } finally {
+            PowerAuthFlightRecorder.signatureVerificationCompleted(verificationEvent, header.getActivationId(), requestUriIdentifier, header.getSignatureType(), httpBody, auth != null);
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.AUTHENTICATION, authPhaseStart);
+        }
     }
 
-    public PowerAuthApiAuthentication validateToken(String tokenHeader, List<PowerAuthSignatureTypes> allowedSignatureTypes) throws PowerAuthAuthenticationException {
+    public PowerAuthApiAuthentication validateToken(String tokenHeader, List<PowerAuthSignatureTypes> allowedSignatureTypes, boolean degradedModeAllowed) throws PowerAuthAuthenticationException {
 
         // Check for HTTP PowerAuth signature header
         if (tokenHeader == null || tokenHeader.equals("undefined")) {
@@ -258,6 +400,7 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         }
 
         // Parse HTTP header
+        final long headerPhaseStart = PowerAuthRequestTiming.phaseStarted();
         PowerAuthTokenHttpHeader header = new PowerAuthTokenHttpHeader().fromValue(tokenHeader);
 
         // Validate the header
@@ -266,33 +409,62 @@ public class PowerAuthAuthenticationProvider extends PowerAuthAuthenticationProv
         } catch (InvalidPowerAuthHttpHeaderException e) {
             logger.warn(e.getMessage(), e);
             throw new PowerAuthAuthenticationException(e.getMessage());
+        } finally {
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.HEADER_PARSING, headerPhaseStart);
         }
 
-        // Prepare authentication object
-        PowerAuthTokenAuthenticationImpl powerAuthTokenAuthentication = new PowerAuthTokenAuthenticationImpl();
-        powerAuthTokenAuthentication.setTokenId(header.getTokenId());
-        powerAuthTokenAuthentication.setTokenDigest(header.getTokenDigest());
-        powerAuthTokenAuthentication.setNonce(header.getNonce());
-        powerAuthTokenAuthentication.setTimestamp(header.getTimestamp());
-        powerAuthTokenAuthentication.setVersion(header.getVersion());
-        powerAuthTokenAuthentication.setHttpHeader(header);
-
-        // Call the authentication based on token authentication object
-        final PowerAuthApiAuthentication auth = (PowerAuthApiAuthentication) this.authenticate(powerAuthTokenAuthentication);
-
-        // In case authentication is null, throw PowerAuth exception
-        if (auth == null) {
-            throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_INVALID_VALUE");
-        }
+        final long authPhaseStart = PowerAuthRequestTiming.phaseStarted();
+        final PowerAuthTokenValidationEvent validationEvent = PowerAuthFlightRecorder.tokenValidationStarted();
+        PowerAuthApiAuthentication auth = null;
+        try {
+            // Reject stale tokens locally before calling PowerAuth server
+            if (tokenTimestampValidator != null && !tokenTimestampValidator.validate(header.getTimestamp())) {
+                logger.warn("Token timestamp is outside of allowed window, token ID: {}", PowerAuthTokenIds.mask(header.getTokenId()));
+                serviceMetrics.eventRecorded(PowerAuthServiceEvent.TOKEN_TIMESTAMP_REJECTED);
+                throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_TIMESTAMP_INVALID");
+            }
 
-        // Check if the signature type is allowed
-        PowerAuthSignatureTypes expectedSignatureType = auth.getSignatureFactors();
-        if (!allowedSignatureTypes.contains(expectedSignatureType)) {
-            throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_SIGNATURE_TYPE_INVALID");
-        }
+            // Reject tokens of activations which are known to be blocked or removed
+            if (activationStateCache != null && activationStateCache.isTokenRejected(header.getTokenId())) {
+                logger.warn("Activation of token is blocked or removed, token ID: {}", PowerAuthTokenIds.mask(header.getTokenId()));
+                throw new PowerAuthAuthenticationException("POWER_AUTH_ACTIVATION_INVALID");
+            }
 
-        return auth;
+            // Reject replayed requests locally before calling PowerAuth server
+            if (nonceStore != null && !nonceStore.register(PowerAuthNonceStore.SCOPE_TOKEN, header.getTokenId(), header.getNonce())) {
+                logger.warn("Token nonce was already used, token ID: {}", PowerAuthTokenIds.mask(header.getTokenId()));
+                throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_NONCE_REUSED");
+            }
 
+            // Prepare authentication object
+            PowerAuthTokenAuthenticationImpl powerAuthTokenAuthentication = new PowerAuthTokenAuthenticationImpl();
+            powerAuthTokenAuthentication.setTokenId(header.getTokenId());
+            powerAuthTokenAuthentication.setTokenDigest(header.getTokenDigest());
+            powerAuthTokenAuthentication.setNonce(header.getNonce());
+            powerAuthTokenAuthentication.setTimestamp(header.getTimestamp());
+            powerAuthTokenAuthentication.setVersion(header.getVersion());
+            powerAuthTokenAuthentication.setHttpHeader(header);
+            powerAuthTokenAuthentication.setDegradedModeAllowed(degradedModeAllowed);
+
+            // Call the authentication based on token authentication object
+            auth = (PowerAuthApiAuthentication) this.authenticate(powerAuthTokenAuthentication);
+
+            // In case authentication is null, throw PowerAuth exception
+            if (auth == null) {
+                throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_INVALID_VALUE");
+            }
+
+            // Check if the signature type is allowed
+            PowerAuthSignatureTypes expectedSignatureType = auth.getSignatureFactors();
+            if (!allowedSignatureTypes.contains(expectedSignatureType)) {
+                throw new PowerAuthAuthenticationException("POWER_AUTH_TOKEN_SIGNATURE_TYPE_INVALID");
+            }
+
+            return auth;
+        } finally {
+            PowerAuthFlightRecorder.tokenValidationCompleted(validationEvent, auth);
+            PowerAuthRequestTiming.phaseCompleted(PowerAuthRequestPhase.AUTHENTICATION, authPhaseStart);
+        }
     }
 
 }
@@ -21,6 +21,7 @@ package io.getlime.security.powerauth.rest.api.spring.provider;
 
 import io.getlime.powerauth.soap.v3.GetEciesDecryptorRequest;
 import io.getlime.powerauth.soap.v3.GetEciesDecryptorResponse;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistry;
 import io.getlime.security.powerauth.rest.api.base.encryption.PowerAuthEciesDecryptorParameters;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthEncryptionException;
 import io.getlime.security.powerauth.rest.api.base.provider.PowerAuthEncryptionProviderBase;
@@ -43,11 +44,23 @@ public class PowerAuthEncryptionProvider extends PowerAuthEncryptionProviderBase
 
     private PowerAuthServiceClient powerAuthClient;
 
+    private PowerAuthApplicationRegistry applicationRegistry;
+
     @Autowired
     public void setPowerAuthClient(PowerAuthServiceClient powerAuthClient) {
         this.powerAuthClient = powerAuthClient;
     }
 
+    @Autowired(required=false)
+    public void setApplicationRegistry(PowerAuthApplicationRegistry applicationRegistry) {
+        this.applicationRegistry = applicationRegistry;
+    }
+
+    @Override
+    protected PowerAuthApplicationRegistry getApplicationRegistry() {
+        return applicationRegistry;
+    }
+
     @Override
     public PowerAuthEciesDecryptorParameters getEciesDecryptorParameters(String activationId, String applicationKey, String ephemeralPublicKey) throws PowerAuthEncryptionException {
         try {
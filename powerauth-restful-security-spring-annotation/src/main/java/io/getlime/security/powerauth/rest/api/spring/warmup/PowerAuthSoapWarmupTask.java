@@ -0,0 +1,82 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.spring.warmup;
+
+import io.getlime.powerauth.soap.v3.GetActivationStatusRequest;
+import io.getlime.powerauth.soap.v3.GetActivationStatusResponse;
+import io.getlime.powerauth.soap.v3.GetEciesDecryptorRequest;
+import io.getlime.powerauth.soap.v3.GetEciesDecryptorResponse;
+import io.getlime.powerauth.soap.v3.ValidateTokenRequest;
+import io.getlime.powerauth.soap.v3.ValidateTokenResponse;
+import io.getlime.powerauth.soap.v3.VerifySignatureRequest;
+import io.getlime.powerauth.soap.v3.VerifySignatureResponse;
+import io.getlime.security.powerauth.rest.api.base.warmup.PowerAuthWarmupTask;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Warm-up task which marshals and unmarshals messages of the most frequent PowerAuth server calls, so that
+ * the JAXB context of a lazily initialized marshaller is created before the first request.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+public class PowerAuthSoapWarmupTask implements PowerAuthWarmupTask {
+
+    private final Jaxb2Marshaller marshaller;
+    private final List<Object> samples = Arrays.asList(
+            new GetEciesDecryptorRequest(),
+            new GetEciesDecryptorResponse(),
+            new VerifySignatureRequest(),
+            new VerifySignatureResponse(),
+            new ValidateTokenRequest(),
+            new ValidateTokenResponse(),
+            new GetActivationStatusRequest(),
+            new GetActivationStatusResponse()
+    );
+
+    /**
+     * Task constructor.
+     * @param marshaller Marshaller used by the PowerAuth server SOAP client.
+     */
+    public PowerAuthSoapWarmupTask(Jaxb2Marshaller marshaller) {
+        this.marshaller = marshaller;
+    }
+
+    @Override
+    public String getName() {
+        return "SOAP";
+    }
+
+    @Override
+    public void run() throws Exception {
+        for (Object sample : samples) {
+            final StringWriter writer = new StringWriter();
+            marshaller.marshal(sample, new StreamResult(writer));
+            marshaller.unmarshal(new StreamSource(new StringReader(writer.toString())));
+        }
+    }
+
+}
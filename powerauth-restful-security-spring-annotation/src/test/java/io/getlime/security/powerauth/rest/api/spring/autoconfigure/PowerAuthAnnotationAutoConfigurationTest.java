@@ -0,0 +1,173 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.spring.autoconfigure;
+
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthCacheInvalidator;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthSimpleServiceMetrics;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthAnnotationInterceptor;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthSchedulerInterceptor;
+import io.getlime.security.powerauth.rest.api.spring.encryption.EncryptorFactory;
+import io.getlime.security.powerauth.rest.api.spring.entrypoint.PowerAuthApiAuthenticationEntryPoint;
+import io.getlime.security.powerauth.rest.api.spring.filter.EncryptionResponseBodyAdvice;
+import io.getlime.security.powerauth.rest.api.spring.metrics.MicrometerServiceMetrics;
+import io.getlime.security.powerauth.rest.api.spring.provider.PowerAuthAuthenticationProvider;
+import io.getlime.security.powerauth.rest.api.spring.provider.PowerAuthEncryptionProvider;
+import io.getlime.security.powerauth.soap.spring.client.PowerAuthServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the auto-configuration of components used by PowerAuth annotations.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthAnnotationAutoConfigurationTest {
+
+    private static final Class<?>[] COMPONENTS = {
+            PowerAuthAuthenticationProvider.class,
+            PowerAuthEncryptionProvider.class,
+            PowerAuthAnnotationInterceptor.class,
+            PowerAuthSchedulerInterceptor.class,
+            EncryptionResponseBodyAdvice.class,
+            EncryptorFactory.class,
+            PowerAuthApiAuthenticationEntryPoint.class,
+            PowerAuthCacheInvalidator.class
+    };
+
+    /**
+     * Application with a PowerAuth server client and Spring MVC handler adapter used by the response body advice.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class ClientConfiguration {
+
+        @Bean
+        public PowerAuthServiceClient powerAuthServiceClient() {
+            return new PowerAuthServiceClient();
+        }
+
+        @Bean
+        public RequestMappingHandlerAdapter requestMappingHandlerAdapter() {
+            return new RequestMappingHandlerAdapter();
+        }
+
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class MeterRegistryConfiguration {
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class CustomComponentsConfiguration {
+
+        static final EncryptorFactory ENCRYPTOR_FACTORY = new EncryptorFactory();
+
+        static final PowerAuthServiceMetrics SERVICE_METRICS = new PowerAuthSimpleServiceMetrics();
+
+        @Bean
+        public EncryptorFactory customEncryptorFactory() {
+            return ENCRYPTOR_FACTORY;
+        }
+
+        @Bean
+        public PowerAuthServiceMetrics customServiceMetrics() {
+            return SERVICE_METRICS;
+        }
+
+    }
+
+    /**
+     * Create a servlet web application context with application configurations registered before
+     * the auto-configuration, like Spring Boot does.
+     */
+    private AnnotationConfigServletWebApplicationContext createContext(Class<?>... configurations) {
+        final AnnotationConfigServletWebApplicationContext context = new AnnotationConfigServletWebApplicationContext();
+        context.register(configurations);
+        context.register(PowerAuthAnnotationAutoConfiguration.class);
+        context.refresh();
+        return context;
+    }
+
+    @Test
+    void testComponentsRegistered() {
+        try (AnnotationConfigServletWebApplicationContext context = createContext(ClientConfiguration.class)) {
+            for (Class<?> component : COMPONENTS) {
+                assertEquals(1, context.getBeanNamesForType(component).length, component.getSimpleName());
+            }
+            // Micrometer is on the classpath, however the application does not use it
+            assertEquals(0, context.getBeanNamesForType(PowerAuthServiceMetrics.class).length);
+        }
+    }
+
+    @Test
+    void testComponentsNotRegisteredWithoutClient() {
+        try (AnnotationConfigServletWebApplicationContext context = createContext(MeterRegistryConfiguration.class)) {
+            for (Class<?> component : COMPONENTS) {
+                assertEquals(0, context.getBeanNamesForType(component).length, component.getSimpleName());
+            }
+            assertEquals(0, context.getBeanNamesForType(PowerAuthServiceMetrics.class).length);
+        }
+    }
+
+    @Test
+    void testComponentsNotRegisteredWithoutWebApplication() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(ClientConfiguration.class, PowerAuthAnnotationAutoConfiguration.class);
+            context.refresh();
+            for (Class<?> component : COMPONENTS) {
+                assertEquals(0, context.getBeanNamesForType(component).length, component.getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    void testMicrometerServiceMetrics() {
+        try (AnnotationConfigServletWebApplicationContext context = createContext(ClientConfiguration.class, MeterRegistryConfiguration.class)) {
+            assertTrue(context.getBean(PowerAuthServiceMetrics.class) instanceof MicrometerServiceMetrics);
+        }
+    }
+
+    @Test
+    void testApplicationComponentsPreferred() {
+        try (AnnotationConfigServletWebApplicationContext context = createContext(ClientConfiguration.class,
+                MeterRegistryConfiguration.class, CustomComponentsConfiguration.class)) {
+            assertSame(CustomComponentsConfiguration.ENCRYPTOR_FACTORY, context.getBean(EncryptorFactory.class));
+            assertSame(CustomComponentsConfiguration.SERVICE_METRICS, context.getBean(PowerAuthServiceMetrics.class));
+            assertEquals(1, context.getBeanNamesForType(PowerAuthAuthenticationProvider.class).length);
+        }
+    }
+
+}
@@ -0,0 +1,326 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.spring.autoconfigure;
+
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.ActivationController;
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.RecoveryController;
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.SecureVaultController;
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.SignatureController;
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.TokenController;
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.UpgradeController;
+import io.getlime.security.powerauth.rest.api.spring.exception.PowerAuthExceptionHandler;
+import io.getlime.security.powerauth.rest.api.spring.service.v3.ActivationService;
+import io.getlime.security.powerauth.rest.api.spring.service.v3.RecoveryService;
+import io.getlime.security.powerauth.rest.api.spring.service.v3.SecureVaultService;
+import io.getlime.security.powerauth.rest.api.spring.service.v3.TokenService;
+import io.getlime.security.powerauth.rest.api.spring.service.v3.UpgradeService;
+import io.getlime.security.powerauth.soap.spring.client.PowerAuthServiceClient;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto-configuration of standard PowerAuth RESTful API end-points. Activation and signature end-points of protocol
+ * version 3 are always registered, other features are registered only when enabled:
+ *
+ * <ul>
+ *     <li>{@code powerauth.api.v2.enabled} - end-points of protocol version 2</li>
+ *     <li>{@code powerauth.api.token.enabled} - token end-points</li>
+ *     <li>{@code powerauth.api.vault.enabled} - secure vault end-points</li>
+ *     <li>{@code powerauth.api.recovery.enabled} - activation recovery end-points</li>
+ *     <li>{@code powerauth.api.upgrade.enabled} - activation upgrade end-points</li>
+ * </ul>
+ *
+ * <p>All features are enabled by default. Disabled features do not create their controllers and services, so that
+ * the application does not pay for request mappings it does not publish. Token and secure vault properties apply
+ * to both protocol versions.</p>
+ *
+ * <p>Each bean can be replaced by a bean of the same type defined by the application. Beans found by component
+ * scanning are used as well, so applications which still scan the {@code io.getlime.security.powerauth} package
+ * are not affected, however the properties do not apply to them.</p>
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnBean(PowerAuthServiceClient.class)
+@AutoConfigureAfter(PowerAuthAnnotationAutoConfiguration.class)
+public class PowerAuthRestApiAutoConfiguration {
+
+    /**
+     * Register handler of PowerAuth exceptions.
+     * @return Exception handler.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public PowerAuthExceptionHandler powerAuthExceptionHandler() {
+        return new PowerAuthExceptionHandler();
+    }
+
+    /**
+     * Register activation service.
+     * @return Activation service.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ActivationService activationServiceV3() {
+        return new ActivationService();
+    }
+
+    /**
+     * Register activation controller.
+     * @return Activation controller.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ActivationController activationControllerV3() {
+        return new ActivationController();
+    }
+
+    /**
+     * Register signature controller.
+     * @return Signature controller.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SignatureController signatureControllerV3() {
+        return new SignatureController();
+    }
+
+    /**
+     * Token end-points, enabled using the 'powerauth.api.token.enabled' property.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "powerauth.api.token.enabled", matchIfMissing = true)
+    static class TokenApiConfiguration {
+
+        /**
+         * Register token service.
+         * @return Token service.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public TokenService tokenServiceV3() {
+            return new TokenService();
+        }
+
+        /**
+         * Register token controller.
+         * @return Token controller.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public TokenController tokenControllerV3() {
+            return new TokenController();
+        }
+
+    }
+
+    /**
+     * Secure vault end-points, enabled using the 'powerauth.api.vault.enabled' property.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "powerauth.api.vault.enabled", matchIfMissing = true)
+    static class SecureVaultApiConfiguration {
+
+        /**
+         * Register secure vault service.
+         * @return Secure vault service.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public SecureVaultService secureVaultServiceV3() {
+            return new SecureVaultService();
+        }
+
+        /**
+         * Register secure vault controller.
+         * @return Secure vault controller.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public SecureVaultController secureVaultControllerV3() {
+            return new SecureVaultController();
+        }
+
+    }
+
+    /**
+     * Activation recovery end-points, enabled using the 'powerauth.api.recovery.enabled' property.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "powerauth.api.recovery.enabled", matchIfMissing = true)
+    static class RecoveryApiConfiguration {
+
+        /**
+         * Register recovery service.
+         * @param powerAuthClient PowerAuth server SOAP client.
+         * @return Recovery service.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public RecoveryService recoveryService(PowerAuthServiceClient powerAuthClient) {
+            return new RecoveryService(powerAuthClient);
+        }
+
+        /**
+         * Register recovery controller.
+         * @param recoveryService Recovery service.
+         * @return Recovery controller.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public RecoveryController recoveryController(RecoveryService recoveryService) {
+            return new RecoveryController(recoveryService);
+        }
+
+    }
+
+    /**
+     * Activation upgrade end-points, enabled using the 'powerauth.api.upgrade.enabled' property.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "powerauth.api.upgrade.enabled", matchIfMissing = true)
+    static class UpgradeApiConfiguration {
+
+        /**
+         * Register upgrade service.
+         * @return Upgrade service.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public UpgradeService upgradeServiceV3() {
+            return new UpgradeService();
+        }
+
+        /**
+         * Register upgrade controller.
+         * @return Upgrade controller.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public UpgradeController upgradeController() {
+            return new UpgradeController();
+        }
+
+    }
+
+    /**
+     * End-points of protocol version 2, enabled using the 'powerauth.api.v2.enabled' property.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "powerauth.api.v2.enabled", matchIfMissing = true)
+    static class V2ApiConfiguration {
+
+        /**
+         * Register activation service for protocol version 2.
+         * @return Activation service.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public io.getlime.security.powerauth.rest.api.spring.service.v2.ActivationService activationServiceV2() {
+            return new io.getlime.security.powerauth.rest.api.spring.service.v2.ActivationService();
+        }
+
+        /**
+         * Register activation controller for protocol version 2.
+         * @return Activation controller.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public io.getlime.security.powerauth.rest.api.spring.controller.v2.ActivationController activationControllerV2() {
+            return new io.getlime.security.powerauth.rest.api.spring.controller.v2.ActivationController();
+        }
+
+        /**
+         * Register signature controller for protocol version 2.
+         * @return Signature controller.
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public io.getlime.security.powerauth.rest.api.spring.controller.v2.SignatureController signatureControllerV2() {
+            return new io.getlime.security.powerauth.rest.api.spring.controller.v2.SignatureController();
+        }
+
+        /**
+         * Token end-points for protocol version 2, enabled using the 'powerauth.api.token.enabled' property.
+         */
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnProperty(name = "powerauth.api.token.enabled", matchIfMissing = true)
+        static class V2TokenApiConfiguration {
+
+            /**
+             * Register token service for protocol version 2.
+             * @return Token service.
+             */
+            @Bean
+            @ConditionalOnMissingBean
+            public io.getlime.security.powerauth.rest.api.spring.service.v2.TokenService tokenServiceV2() {
+                return new io.getlime.security.powerauth.rest.api.spring.service.v2.TokenService();
+            }
+
+            /**
+             * Register token controller for protocol version 2.
+             * @return Token controller.
+             */
+            @Bean
+            @ConditionalOnMissingBean
+            public io.getlime.security.powerauth.rest.api.spring.controller.v2.TokenController tokenControllerV2() {
+                return new io.getlime.security.powerauth.rest.api.spring.controller.v2.TokenController();
+            }
+
+        }
+
+        /**
+         * Secure vault end-points for protocol version 2, enabled using the 'powerauth.api.vault.enabled' property.
+         */
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnProperty(name = "powerauth.api.vault.enabled", matchIfMissing = true)
+        static class V2SecureVaultApiConfiguration {
+
+            /**
+             * Register secure vault service for protocol version 2.
+             * @return Secure vault service.
+             */
+            @Bean
+            @ConditionalOnMissingBean
+            public io.getlime.security.powerauth.rest.api.spring.service.v2.SecureVaultService secureVaultServiceV2() {
+                return new io.getlime.security.powerauth.rest.api.spring.service.v2.SecureVaultService();
+            }
+
+            /**
+             * Register secure vault controller for protocol version 2.
+             * @return Secure vault controller.
+             */
+            @Bean
+            @ConditionalOnMissingBean
+            public io.getlime.security.powerauth.rest.api.spring.controller.v2.SecureVaultController secureVaultControllerV2() {
+                return new io.getlime.security.powerauth.rest.api.spring.controller.v2.SecureVaultController();
+            }
+
+        }
+
+    }
+
+}
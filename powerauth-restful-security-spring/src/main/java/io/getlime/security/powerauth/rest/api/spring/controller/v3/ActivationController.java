@@ -28,6 +28,7 @@ import io.getlime.security.powerauth.rest.api.base.encryption.EciesEncryptionCon
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthActivationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRecoveryException;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
 import io.getlime.security.powerauth.rest.api.model.request.v3.ActivationLayer1Request;
 import io.getlime.security.powerauth.rest.api.model.request.v3.ActivationStatusRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.ActivationLayer1Response;
@@ -35,6 +36,7 @@ import io.getlime.security.powerauth.rest.api.model.response.v3.ActivationRemove
 import io.getlime.security.powerauth.rest.api.model.response.v3.ActivationStatusResponse;
 import io.getlime.security.powerauth.rest.api.spring.annotation.EncryptedRequestBody;
 import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthEncryption;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthScheduled;
 import io.getlime.security.powerauth.rest.api.spring.provider.PowerAuthAuthenticationProvider;
 import io.getlime.security.powerauth.rest.api.spring.service.v3.ActivationService;
 import org.slf4j.Logger;
@@ -85,6 +87,7 @@ public class ActivationController {
      * @throws PowerAuthRecoveryException In case recovery PUK is invalid.
      */
     @RequestMapping(value = "create", method = RequestMethod.POST)
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.ACTIVATION_CREATE)
     @PowerAuthEncryption(scope = EciesScope.APPLICATION_SCOPE)
     public ActivationLayer1Response createActivation(@EncryptedRequestBody ActivationLayer1Request request,
                                                      EciesEncryptionContext eciesContext) throws PowerAuthActivationException, PowerAuthRecoveryException {
@@ -101,6 +104,7 @@ public class ActivationController {
      * @throws PowerAuthActivationException In case request fails.
      */
     @RequestMapping(value = "status", method = RequestMethod.POST)
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.ACTIVATION_STATUS)
     public ObjectResponse<ActivationStatusResponse> getActivationStatus(@RequestBody ObjectRequest<ActivationStatusRequest> request)
             throws PowerAuthActivationException {
         if (request.getRequestObject() == null || request.getRequestObject().getActivationId() == null) {
@@ -119,6 +123,7 @@ public class ActivationController {
      * @throws PowerAuthAuthenticationException In case the signature validation fails.
      */
     @RequestMapping(value = "remove", method = RequestMethod.POST)
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.SIGNATURE)
     public ObjectResponse<ActivationRemoveResponse> removeActivation(
             @RequestHeader(value = PowerAuthSignatureHttpHeader.HEADER_NAME) String signatureHeader,
             HttpServletRequest httpServletRequest)
@@ -22,9 +22,11 @@ package io.getlime.security.powerauth.rest.api.spring.controller.v3;
 import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
 import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuth;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthScheduled;
 import io.getlime.security.powerauth.rest.api.spring.service.v3.RecoveryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +71,7 @@ public class RecoveryController {
      * @throws PowerAuthAuthenticationException In case confirm recovery fails.
      */
     @RequestMapping(value = "confirm", method = RequestMethod.POST)
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.SIGNATURE)
     @PowerAuth(resourceId = "/pa/recovery/confirm", signatureType = {
             PowerAuthSignatureTypes.POSSESSION_KNOWLEDGE
     })
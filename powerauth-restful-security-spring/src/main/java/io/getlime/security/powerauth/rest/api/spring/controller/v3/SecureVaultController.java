@@ -24,8 +24,10 @@ import io.getlime.security.powerauth.http.validator.InvalidPowerAuthHttpHeaderEx
 import io.getlime.security.powerauth.http.validator.PowerAuthSignatureHttpHeaderValidator;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthSecureVaultException;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthScheduled;
 import io.getlime.security.powerauth.rest.api.spring.service.v3.SecureVaultService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +71,7 @@ public class SecureVaultController {
      * @throws PowerAuthSecureVaultException In case unlocking the vault fails.
      */
     @RequestMapping(value = "unlock", method = RequestMethod.POST)
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.SIGNATURE)
     public EciesEncryptedResponse unlockVault(
             @RequestHeader(value = PowerAuthSignatureHttpHeader.HEADER_NAME, defaultValue = "unknown") String signatureHeader,
             @RequestBody EciesEncryptedRequest request,
@@ -27,8 +27,10 @@ import io.getlime.security.powerauth.http.validator.PowerAuthEncryptionHttpHeade
 import io.getlime.security.powerauth.http.validator.PowerAuthSignatureHttpHeaderValidator;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthUpgradeException;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestPriority;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthScheduled;
 import io.getlime.security.powerauth.rest.api.spring.service.v3.UpgradeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +71,7 @@ public class UpgradeController {
      * @throws PowerAuthUpgradeException In case upgrade fails.
      */
     @RequestMapping(value = "start", method = RequestMethod.POST)
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.UPGRADE)
     public EciesEncryptedResponse upgradeStart(@RequestBody EciesEncryptedRequest request,
                                                  @RequestHeader(value = PowerAuthEncryptionHttpHeader.HEADER_NAME, defaultValue = "unknown") String encryptionHeader)
             throws PowerAuthUpgradeException {
@@ -112,6 +115,7 @@ public class UpgradeController {
      * @throws PowerAuthUpgradeException In case commit fails.
      */
     @RequestMapping(value = "commit", method = RequestMethod.POST)
+    @PowerAuthScheduled(priority = PowerAuthRequestPriority.UPGRADE)
     public Response upgradeCommit(@RequestHeader(value = PowerAuthSignatureHttpHeader.HEADER_NAME) String signatureHeader,
                                   HttpServletRequest httpServletRequest)
             throws PowerAuthAuthenticationException, PowerAuthUpgradeException {
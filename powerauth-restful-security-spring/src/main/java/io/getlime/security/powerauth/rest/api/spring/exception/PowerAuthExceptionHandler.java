@@ -124,4 +124,18 @@ public class PowerAuthExceptionHandler {
         return new ErrorResponse(pamx.getDefaultCode(), pamx);
     }
 
+    /**
+     * Handle PowerAuthRequestRejectedException exceptions.
+     * @param ex Exception instance.
+     * @return Error response.
+     */
+    @ExceptionHandler(value = PowerAuthRequestRejectedException.class)
+    @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+    public @ResponseBody ErrorResponse handlePowerAuthRequestRejectedException(Exception ex) {
+        PowerAuthRequestRejectedException paex = (PowerAuthRequestRejectedException)ex;
+        // Stack trace is not logged, the exception is expected to occur frequently during overload
+        logger.warn(paex.getMessage());
+        return new ErrorResponse(paex.getDefaultCode(), paex);
+    }
+
 }
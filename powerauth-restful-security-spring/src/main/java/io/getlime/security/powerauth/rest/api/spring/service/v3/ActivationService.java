@@ -21,11 +21,16 @@ package io.getlime.security.powerauth.rest.api.spring.service.v3;
 
 import io.getlime.powerauth.soap.v3.*;
 import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationConfiguration;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthStatusCustomObjectHolder;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationState;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCache;
 import io.getlime.security.powerauth.rest.api.base.encryption.EciesEncryptionContext;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthActivationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthRecoveryException;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthCacheInvalidator;
 import io.getlime.security.powerauth.rest.api.base.provider.CustomActivationProvider;
 import io.getlime.security.powerauth.rest.api.model.entity.ActivationType;
 import io.getlime.security.powerauth.rest.api.model.request.v3.ActivationLayer1Request;
@@ -67,6 +72,14 @@ public class ActivationService {
 
     private CustomActivationProvider activationProvider;
 
+    private PowerAuthActivationStateCache activationStateCache;
+
+    private PowerAuthActivationStatusCache activationStatusCache;
+
+    private PowerAuthStatusCustomObjectHolder statusCustomObjectHolder;
+
+    private PowerAuthCacheInvalidator cacheInvalidator = new PowerAuthCacheInvalidator();
+
     private static final Logger logger = LoggerFactory.getLogger(ActivationService.class);
 
     @Autowired
@@ -84,6 +97,26 @@ public class ActivationService {
         this.activationProvider = activationProvider;
     }
 
+    @Autowired(required = false)
+    public void setActivationStateCache(PowerAuthActivationStateCache activationStateCache) {
+        this.activationStateCache = activationStateCache;
+    }
+
+    @Autowired(required = false)
+    public void setActivationStatusCache(PowerAuthActivationStatusCache activationStatusCache) {
+        this.activationStatusCache = activationStatusCache;
+    }
+
+    @Autowired(required = false)
+    public void setStatusCustomObjectHolder(PowerAuthStatusCustomObjectHolder statusCustomObjectHolder) {
+        this.statusCustomObjectHolder = statusCustomObjectHolder;
+    }
+
+    @Autowired(required = false)
+    public void setCacheInvalidator(PowerAuthCacheInvalidator cacheInvalidator) {
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
     /**
      * Create activation.
      *
@@ -173,6 +206,7 @@ public class ActivationService {
                     // Check if activation should be committed instantly and if yes, perform commit
                     if (activationProvider.shouldAutoCommitActivation(identity, customAttributes, response.getActivationId(), userId, ActivationType.CUSTOM)) {
                         CommitActivationResponse commitResponse = powerAuthClient.commitActivation(response.getActivationId(), null);
+                        cacheInvalidator.activationChanged(response.getActivationId());
                         if (commitResponse.isActivated()) {
                             activationProvider.activationWasCommitted(identity, customAttributes, response.getActivationId(), userId, ActivationType.CUSTOM);
                         }
@@ -228,6 +262,7 @@ public class ActivationService {
                     // Automatically commit activation by default, the optional activation provider can override automatic commit
                     if (activationProvider == null || activationProvider.shouldAutoCommitActivation(identity, customAttributes, response.getActivationId(), response.getUserId(), ActivationType.RECOVERY)) {
                         CommitActivationResponse commitResponse = powerAuthClient.commitActivation(response.getActivationId(), null);
+                        cacheInvalidator.activationChanged(response.getActivationId());
                         if (activationProvider != null && commitResponse.isActivated()) {
                             activationProvider.activationWasCommitted(identity, customAttributes, response.getActivationId(), response.getUserId(), ActivationType.RECOVERY);
                         }
@@ -268,12 +303,27 @@ public class ActivationService {
         try {
             String activationId = request.getActivationId();
             String challenge = request.getChallenge();
-            GetActivationStatusResponse soapResponse = powerAuthClient.getActivationStatusWithEncryptedStatusBlob(activationId, challenge);
             ActivationStatusResponse response = new ActivationStatusResponse();
-            response.setActivationId(soapResponse.getActivationId());
-            response.setEncryptedStatusBlob(soapResponse.getEncryptedStatusBlob());
-            response.setNonce(soapResponse.getEncryptedStatusBlobNonce());
-            if (applicationConfiguration != null) {
+            // Status blob of requests without challenge (protocol version 3.0) is not randomized and it may be cached
+            final String cachedStatusBlob = activationStatusCache != null ? activationStatusCache.get(activationId, challenge) : null;
+            if (cachedStatusBlob != null) {
+                response.setActivationId(activationId);
+                response.setEncryptedStatusBlob(cachedStatusBlob);
+            } else {
+                GetActivationStatusResponse soapResponse = powerAuthClient.getActivationStatusWithEncryptedStatusBlob(activationId, challenge);
+                if (activationStateCache != null && soapResponse.getActivationStatus() != null) {
+                    activationStateCache.activationStateChanged(activationId, PowerAuthActivationState.fromValue(soapResponse.getActivationStatus().value()));
+                }
+                response.setActivationId(soapResponse.getActivationId());
+                response.setEncryptedStatusBlob(soapResponse.getEncryptedStatusBlob());
+                response.setNonce(soapResponse.getEncryptedStatusBlobNonce());
+                if (activationStatusCache != null) {
+                    activationStatusCache.put(activationId, challenge, soapResponse.getEncryptedStatusBlob(), soapResponse.getEncryptedStatusBlobNonce());
+                }
+            }
+            if (statusCustomObjectHolder != null) {
+                response.setCustomObject(statusCustomObjectHolder.getCustomObject());
+            } else if (applicationConfiguration != null) {
                 response.setCustomObject(applicationConfiguration.statusServiceCustomObject());
             }
             return response;
@@ -294,6 +344,7 @@ public class ActivationService {
         try {
             // Remove the activation
             RemoveActivationResponse soapResponse = powerAuthClient.removeActivation(apiAuthentication.getActivationId(), null);
+            cacheInvalidator.activationRemoved(apiAuthentication.getActivationId());
 
             // Call other application specific cleanup logic
             if (activationProvider != null) {
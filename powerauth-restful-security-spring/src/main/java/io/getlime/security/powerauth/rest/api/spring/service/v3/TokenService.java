@@ -24,6 +24,7 @@ import io.getlime.security.powerauth.crypto.lib.enums.PowerAuthSignatureTypes;
 import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthCacheInvalidator;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.request.v3.TokenRemoveRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
@@ -52,11 +53,18 @@ public class TokenService {
 
     private PowerAuthServiceClient powerAuthClient;
 
+    private PowerAuthCacheInvalidator cacheInvalidator = new PowerAuthCacheInvalidator();
+
     @Autowired
     public void setPowerAuthClient(PowerAuthServiceClient powerAuthClient) {
         this.powerAuthClient = powerAuthClient;
     }
 
+    @Autowired(required = false)
+    public void setCacheInvalidator(PowerAuthCacheInvalidator cacheInvalidator) {
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
     /**
      * Create token.
      *
@@ -119,6 +127,7 @@ public class TokenService {
 
             // Remove a token, ignore response, since the endpoint should quietly return
             powerAuthClient.removeToken(tokenId, activationId);
+            cacheInvalidator.tokenRemoved(tokenId);
 
             // Prepare a response
             final TokenRemoveResponse response = new TokenRemoveResponse();
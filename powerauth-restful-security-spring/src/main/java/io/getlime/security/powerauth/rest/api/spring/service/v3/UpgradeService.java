@@ -28,6 +28,7 @@ import io.getlime.security.powerauth.http.PowerAuthSignatureHttpHeader;
 import io.getlime.security.powerauth.rest.api.base.authentication.PowerAuthApiAuthentication;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthAuthenticationException;
 import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthUpgradeException;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthCacheInvalidator;
 import io.getlime.security.powerauth.rest.api.model.request.v3.EciesEncryptedRequest;
 import io.getlime.security.powerauth.rest.api.model.response.v3.EciesEncryptedResponse;
 import io.getlime.security.powerauth.rest.api.spring.provider.PowerAuthAuthenticationProvider;
@@ -59,6 +60,7 @@ public class UpgradeService {
 
     private PowerAuthServiceClient powerAuthClient;
     private PowerAuthAuthenticationProvider authenticationProvider;
+    private PowerAuthCacheInvalidator cacheInvalidator = new PowerAuthCacheInvalidator();
 
     @Autowired
     public void setPowerAuthClient(PowerAuthServiceClient powerAuthClient) {
@@ -70,6 +72,11 @@ public class UpgradeService {
         this.authenticationProvider = authenticationProvider;
     }
 
+    @Autowired(required = false)
+    public void setCacheInvalidator(PowerAuthCacheInvalidator cacheInvalidator) {
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
     /**
      * Start upgrade of activation to version 3.
      * @param request ECIES encrypted upgrade start request.
@@ -93,6 +100,7 @@ public class UpgradeService {
 
             // Start upgrade on PowerAuth server
             StartUpgradeResponse upgradeResponse = powerAuthClient.startUpgrade(activationId, applicationKey, ephemeralPublicKey, encryptedData, mac, nonce);
+            cacheInvalidator.activationChanged(activationId);
 
             // Prepare a response
             final EciesEncryptedResponse response = new EciesEncryptedResponse();
@@ -141,6 +149,7 @@ public class UpgradeService {
 
             // Commit upgrade on PowerAuth server
             CommitUpgradeResponse upgradeResponse = powerAuthClient.commitUpgrade(activationId, applicationKey);
+            cacheInvalidator.activationChanged(activationId);
 
             if (upgradeResponse.isCommitted()) {
                 return new Response();
@@ -0,0 +1,167 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.rest.api.spring.autoconfigure;
+
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.ActivationController;
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.RecoveryController;
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.SecureVaultController;
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.SignatureController;
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.TokenController;
+import io.getlime.security.powerauth.rest.api.spring.controller.v3.UpgradeController;
+import io.getlime.security.powerauth.rest.api.spring.exception.PowerAuthExceptionHandler;
+import io.getlime.security.powerauth.rest.api.spring.service.v3.RecoveryService;
+import io.getlime.security.powerauth.soap.spring.client.PowerAuthServiceClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test of the auto-configuration of standard PowerAuth RESTful API end-points.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+class PowerAuthRestApiAutoConfigurationTest {
+
+    /**
+     * Application with a PowerAuth server client and Spring MVC handler adapter used by the response body advice.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class ClientConfiguration {
+
+        @Bean
+        public PowerAuthServiceClient powerAuthServiceClient() {
+            return new PowerAuthServiceClient();
+        }
+
+        @Bean
+        public RequestMappingHandlerAdapter requestMappingHandlerAdapter() {
+            return new RequestMappingHandlerAdapter();
+        }
+
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class CustomExceptionHandlerConfiguration {
+
+        static final PowerAuthExceptionHandler EXCEPTION_HANDLER = new PowerAuthExceptionHandler();
+
+        @Bean
+        public PowerAuthExceptionHandler customExceptionHandler() {
+            return EXCEPTION_HANDLER;
+        }
+
+    }
+
+    /**
+     * Create a servlet web application context with given properties and application configurations registered
+     * before the auto-configurations, like Spring Boot does.
+     */
+    private AnnotationConfigServletWebApplicationContext createContext(Map<String, Object> properties, Class<?>... configurations) {
+        final AnnotationConfigServletWebApplicationContext context = new AnnotationConfigServletWebApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        if (configurations.length > 0) {
+            context.register(configurations);
+        }
+        context.register(PowerAuthAnnotationAutoConfiguration.class, PowerAuthRestApiAutoConfiguration.class);
+        context.refresh();
+        return context;
+    }
+
+    private void assertBeanCount(AnnotationConfigServletWebApplicationContext context, int expected, Class<?>... types) {
+        for (Class<?> type : types) {
+            assertEquals(expected, context.getBeanNamesForType(type).length, type.getName());
+        }
+    }
+
+    @Test
+    void testAllEndpointsRegisteredByDefault() {
+        try (AnnotationConfigServletWebApplicationContext context = createContext(new HashMap<>(), ClientConfiguration.class)) {
+            assertBeanCount(context, 1, PowerAuthExceptionHandler.class, ActivationController.class, SignatureController.class,
+                    TokenController.class, SecureVaultController.class, RecoveryController.class, RecoveryService.class, UpgradeController.class,
+                    io.getlime.security.powerauth.rest.api.spring.controller.v2.ActivationController.class,
+                    io.getlime.security.powerauth.rest.api.spring.controller.v2.SignatureController.class,
+                    io.getlime.security.powerauth.rest.api.spring.controller.v2.TokenController.class,
+                    io.getlime.security.powerauth.rest.api.spring.controller.v2.SecureVaultController.class);
+        }
+    }
+
+    @Test
+    void testDisabledEndpoints() {
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("powerauth.api.v2.enabled", "false");
+        properties.put("powerauth.api.token.enabled", "false");
+        properties.put("powerauth.api.vault.enabled", "false");
+        properties.put("powerauth.api.recovery.enabled", "false");
+        properties.put("powerauth.api.upgrade.enabled", "false");
+        try (AnnotationConfigServletWebApplicationContext context = createContext(properties, ClientConfiguration.class)) {
+            // Activation and signature end-points of protocol version 3 are always registered
+            assertBeanCount(context, 1, ActivationController.class, SignatureController.class);
+            assertBeanCount(context, 0, TokenController.class, SecureVaultController.class, RecoveryController.class,
+                    RecoveryService.class, UpgradeController.class,
+                    io.getlime.security.powerauth.rest.api.spring.controller.v2.ActivationController.class,
+                    io.getlime.security.powerauth.rest.api.spring.controller.v2.SignatureController.class);
+        }
+    }
+
+    @Test
+    void testFeaturesApplyToBothVersions() {
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("powerauth.api.token.enabled", "false");
+        try (AnnotationConfigServletWebApplicationContext context = createContext(properties, ClientConfiguration.class)) {
+            assertBeanCount(context, 0, TokenController.class,
+                    io.getlime.security.powerauth.rest.api.spring.controller.v2.TokenController.class);
+            assertBeanCount(context, 1, SecureVaultController.class,
+                    io.getlime.security.powerauth.rest.api.spring.controller.v2.SecureVaultController.class);
+        }
+        properties.clear();
+        properties.put("powerauth.api.v2.enabled", "false");
+        try (AnnotationConfigServletWebApplicationContext context = createContext(properties, ClientConfiguration.class)) {
+            assertBeanCount(context, 1, TokenController.class, SecureVaultController.class);
+            assertBeanCount(context, 0, io.getlime.security.powerauth.rest.api.spring.controller.v2.TokenController.class,
+                    io.getlime.security.powerauth.rest.api.spring.controller.v2.SecureVaultController.class);
+        }
+    }
+
+    @Test
+    void testEndpointsNotRegisteredWithoutClient() {
+        try (AnnotationConfigServletWebApplicationContext context = createContext(new HashMap<>())) {
+            assertBeanCount(context, 0, PowerAuthExceptionHandler.class, ActivationController.class, SignatureController.class,
+                    TokenController.class, RecoveryService.class);
+        }
+    }
+
+    @Test
+    void testApplicationBeansPreferred() {
+        try (AnnotationConfigServletWebApplicationContext context = createContext(new HashMap<>(), ClientConfiguration.class,
+                CustomExceptionHandlerConfiguration.class)) {
+            assertSame(CustomExceptionHandlerConfiguration.EXCEPTION_HANDLER, context.getBean(PowerAuthExceptionHandler.class));
+        }
+    }
+
+}
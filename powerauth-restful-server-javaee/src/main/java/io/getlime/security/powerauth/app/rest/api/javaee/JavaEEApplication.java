@@ -24,6 +24,7 @@ import io.getlime.security.powerauth.app.rest.api.javaee.controller.Authenticati
 import io.getlime.security.powerauth.app.rest.api.javaee.controller.TokenController;
 import io.getlime.security.powerauth.rest.api.jaxrs.exception.*;
 import io.getlime.security.powerauth.rest.api.jaxrs.filter.PowerAuthRequestFilter;
+import io.getlime.security.powerauth.rest.api.jaxrs.filter.PowerAuthServerTimingResponseFilter;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 import javax.ws.rs.ApplicationPath;
@@ -76,9 +77,11 @@ public class JavaEEApplication extends Application {
         resources.add(PowerAuthEncryptionExceptionResolver.class);
         resources.add(PowerAuthSecureVaultExceptionResolver.class);
         resources.add(PowerAuthUpgradeExceptionResolver.class);
+        resources.add(PowerAuthRequestRejectedExceptionResolver.class);
 
         // PowerAuth Filters
         resources.add(PowerAuthRequestFilter.class);
+        resources.add(PowerAuthServerTimingResponseFilter.class);
         return resources;
     }
 
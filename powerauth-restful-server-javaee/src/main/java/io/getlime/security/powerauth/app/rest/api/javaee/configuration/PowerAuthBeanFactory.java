@@ -20,33 +20,191 @@
 package io.getlime.security.powerauth.app.rest.api.javaee.configuration;
 
 import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationConfiguration;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistry;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistryConfiguration;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthStatusCustomObjectHolder;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCacheConfiguration;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCacheConfiguration;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthCacheFactory;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthCacheSnapshotConfiguration;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthCacheSnapshotService;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthTinyLfuCacheFactory;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeConfiguration;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeValidator;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthCacheInvalidator;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthInvalidationBroadcaster;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthNoopInvalidationBroadcaster;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthNoopServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthSimpleServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStore;
+import io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStoreConfiguration;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestScheduler;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestSchedulerConfiguration;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTimingConfiguration;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTimingRegistry;
+import io.getlime.security.powerauth.rest.api.base.token.PowerAuthTokenTimestampValidator;
 import io.getlime.security.powerauth.rest.api.jaxrs.application.DefaultApplicationConfiguration;
+import io.getlime.security.powerauth.rest.api.jaxrs.application.PowerAuthApplicationRegistryClientLoader;
+import io.getlime.security.powerauth.rest.api.jaxrs.metrics.PowerAuthInstrumentedClient;
 import io.getlime.security.powerauth.soap.axis.client.PowerAuthServiceClient;
 import org.apache.axis2.AxisFault;
 
+import javax.annotation.Priority;
 import javax.enterprise.context.Dependent;
+import javax.enterprise.inject.Alternative;
+import javax.enterprise.inject.Disposes;
 import javax.enterprise.inject.Produces;
+import javax.inject.Singleton;
+import javax.interceptor.Interceptor;
 
 /**
- * Class responsible for bean auto-wiring.
+ * Class responsible for bean auto-wiring. The class is an alternative, so that the produced components replace
+ * the default components of the PowerAuth integration.
  *
  * @author Petr Dvorak, petr@wultra.com
  */
 @Dependent
+@Alternative
+@Priority(Interceptor.Priority.APPLICATION)
 public class PowerAuthBeanFactory {
 
     @Produces
     public PowerAuthServiceClient buildClient() {
         try {
-            return new PowerAuthServiceClient("http://localhost:8080/powerauth-java-server/soap");
+            // PowerAuth server URL can be overridden using the powerauth.service.url system property
+            return new PowerAuthServiceClient(System.getProperty("powerauth.service.url", "http://localhost:8080/powerauth-java-server/soap"));
         } catch (AxisFault axisFault) {
             return null;
         }
     }
 
+    @Produces
+    @Singleton
+    public PowerAuthServiceMetrics buildServiceMetrics() {
+        // Metrics are disabled by default, enabled metrics are exported using JMX by PowerAuthServiceMetricsStartup
+        if (Boolean.getBoolean("powerauth.metrics.enabled")) {
+            return new PowerAuthSimpleServiceMetrics();
+        }
+        return new PowerAuthNoopServiceMetrics();
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthRequestTimingRegistry buildRequestTimingRegistry() {
+        // Request phase timing is disabled by default, enable it to record durations of request processing phases
+        final PowerAuthRequestTimingConfiguration configuration = new PowerAuthRequestTimingConfiguration();
+        configuration.setEnabled(false);
+        return new PowerAuthRequestTimingRegistry(configuration);
+    }
+
     @Produces
     public PowerAuthApplicationConfiguration buildApplicationConfiguration() {
         return new DefaultApplicationConfiguration();
     }
 
+    @Produces
+    @Singleton
+    public PowerAuthRequestScheduler buildRequestScheduler() {
+        // Scheduler is disabled by default, set maximum number of concurrent requests to enable it
+        PowerAuthRequestSchedulerConfiguration configuration = new PowerAuthRequestSchedulerConfiguration();
+        configuration.setMaxConcurrentRequests(Integer.parseInt(System.getProperty("powerauth.scheduler.maxConcurrentRequests", "0")));
+        configuration.setCapacityShares(System.getProperty("powerauth.scheduler.capacityShares"));
+        configuration.setMaxWaitTimes(System.getProperty("powerauth.scheduler.maxWaitTimes"));
+        configuration.setControllerPriorities(System.getProperty("powerauth.scheduler.controllerPriorities"));
+        return new PowerAuthRequestScheduler(configuration);
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthCacheFactory buildCacheFactory() {
+        // Default in-heap caches, produce a different factory to store cached values elsewhere
+        return new PowerAuthTinyLfuCacheFactory();
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthDegradedModeValidator buildDegradedModeValidator(PowerAuthCacheFactory cacheFactory, PowerAuthServiceMetrics serviceMetrics) {
+        // Degraded mode is disabled by default, enable it to accept recently validated tokens during PowerAuth server outage
+        PowerAuthDegradedModeValidator validator = new PowerAuthDegradedModeValidator(new PowerAuthDegradedModeConfiguration(), cacheFactory);
+        validator.setServiceMetrics(serviceMetrics);
+        return validator;
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthNonceStore buildNonceStore(PowerAuthServiceMetrics serviceMetrics) {
+        // Nonce store is disabled by default, enable it to reject replayed requests before calling PowerAuth server
+        PowerAuthNonceStore nonceStore = new PowerAuthNonceStore(new PowerAuthNonceStoreConfiguration());
+        nonceStore.setServiceMetrics(serviceMetrics);
+        return nonceStore;
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthTokenTimestampValidator buildTokenTimestampValidator() {
+        // Token timestamp validation is disabled by default, set maximum timestamp skew to enable it
+        return new PowerAuthTokenTimestampValidator();
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthActivationStateCache buildActivationStateCache(PowerAuthCacheFactory cacheFactory) {
+        // Activation state cache is disabled by default, enable it to reject requests of blocked and removed activations locally
+        return new PowerAuthActivationStateCache(new PowerAuthActivationStateCacheConfiguration(), cacheFactory);
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthCacheSnapshotService buildCacheSnapshotService(PowerAuthActivationStateCache activationStateCache) {
+        // Cache snapshots are disabled by default, enable them and set snapshot directory to warm up caches after restart
+        return new PowerAuthCacheSnapshotService(new PowerAuthCacheSnapshotConfiguration(), activationStateCache);
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthActivationStatusCache buildActivationStatusCache(PowerAuthCacheFactory cacheFactory) {
+        // Activation status cache is disabled by default, enable it to cache status of protocol version 3.0 requests
+        return new PowerAuthActivationStatusCache(new PowerAuthActivationStatusCacheConfiguration(), cacheFactory);
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthInvalidationBroadcaster buildInvalidationBroadcaster() {
+        // Invalidation events are not exchanged by default, produce multicast or JDBC broadcaster for clustered deployments
+        return new PowerAuthNoopInvalidationBroadcaster();
+    }
+
+    public void closeInvalidationBroadcaster(@Disposes PowerAuthInvalidationBroadcaster broadcaster) {
+        broadcaster.close();
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthCacheInvalidator buildCacheInvalidator(PowerAuthInvalidationBroadcaster broadcaster, PowerAuthActivationStateCache activationStateCache,
+                                                           PowerAuthActivationStatusCache activationStatusCache, PowerAuthDegradedModeValidator degradedModeValidator) {
+        return new PowerAuthCacheInvalidator(broadcaster, activationStateCache, activationStatusCache, degradedModeValidator);
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthApplicationRegistry buildApplicationRegistry(PowerAuthServiceClient powerAuthClient, PowerAuthInstrumentedClient instrumentedClient) {
+        // Application registry is disabled by default, enable it to reject unknown or unsupported application keys locally
+        return new PowerAuthApplicationRegistry(new PowerAuthApplicationRegistryConfiguration(), new PowerAuthApplicationRegistryClientLoader(powerAuthClient, instrumentedClient));
+    }
+
+    public void closeApplicationRegistry(@Disposes PowerAuthApplicationRegistry applicationRegistry) {
+        applicationRegistry.close();
+    }
+
+    @Produces
+    @Singleton
+    public PowerAuthStatusCustomObjectHolder buildStatusCustomObjectHolder(PowerAuthApplicationConfiguration applicationConfiguration) {
+        // Custom object is obtained for each request unless the application configuration specifies its TTL,
+        // it is serialized using the object mapper of the JSON provider used for responses
+        return new PowerAuthStatusCustomObjectHolder(applicationConfiguration, new DefaultJacksonJsonProvider().getContext(PowerAuthStatusCustomObjectHolder.class));
+    }
+
 }
@@ -0,0 +1,54 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.javaee.configuration;
+
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthCacheSnapshotService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.inject.Inject;
+
+/**
+ * Startup bean which loads the cache snapshot when the application starts and writes the final snapshot
+ * when the application stops.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Singleton
+@Startup
+public class PowerAuthCacheSnapshotStartup {
+
+    @Inject
+    private PowerAuthCacheSnapshotService cacheSnapshotService;
+
+    @PostConstruct
+    public void init() {
+        // Snapshot is loaded when the service is created, the call forces eager creation of the service
+        cacheSnapshotService.isEnabled();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        cacheSnapshotService.close();
+    }
+
+}
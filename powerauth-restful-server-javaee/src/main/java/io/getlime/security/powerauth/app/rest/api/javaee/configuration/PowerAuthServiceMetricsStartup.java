@@ -0,0 +1,64 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.javaee.configuration;
+
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetricsJmxExporter;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthSimpleServiceMetrics;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.inject.Inject;
+import javax.management.JMException;
+
+/**
+ * Startup bean which exports metrics of PowerAuth server calls using JMX when the application starts and
+ * unregisters them when the application stops. Metrics are exported only in case they are enabled.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Singleton
+@Startup
+public class PowerAuthServiceMetricsStartup {
+
+    @Inject
+    private PowerAuthServiceMetrics serviceMetrics;
+
+    private PowerAuthServiceMetricsJmxExporter exporter;
+
+    @PostConstruct
+    public void init() throws JMException {
+        if (serviceMetrics instanceof PowerAuthSimpleServiceMetrics) {
+            exporter = new PowerAuthServiceMetricsJmxExporter((PowerAuthSimpleServiceMetrics) serviceMetrics,
+                    System.getProperty("powerauth.metrics.objectName", PowerAuthServiceMetricsJmxExporter.DEFAULT_OBJECT_NAME));
+            exporter.register();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (exporter != null) {
+            exporter.close();
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+#!/bin/sh
+#
+# PowerAuth integration libraries for RESTful API applications, examples and
+# related software components
+#
+# Copyright (C) 2020 Wultra s.r.o.
+#
+# This program is free software: you can redistribute it and/or modify
+# it under the terms of the GNU Affero General Public License as published
+# by the Free Software Foundation, either version 3 of the License, or
+# (at your option) any later version.
+#
+# This program is distributed in the hope that it will be useful,
+# but WITHOUT ANY WARRANTY; without even the implied warranty of
+# MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+# GNU Affero General Public License for more details.
+#
+# You should have received a copy of the GNU Affero General Public License
+# along with this program.  If not, see <http://www.gnu.org/licenses/>.
+#
+
+
+# Launcher of PowerAuth RESTful server application using the AppCDS archive created by the 'cds' Maven profile.
+#
+# Usage:
+#   powerauth-restful-server.sh [arguments]        - start the application, the archive is used when it exists
+#   powerauth-restful-server.sh train [arguments]  - perform the training run and create the archive
+#
+# Environment variables:
+#   JAVA_HOME     - Java installation, the archive can be used only by the Java version which created it
+#   JAVA_OPTS     - additional JVM options
+#   POWERAUTH_CDS - set to 'false' to start the application without the archive
+
+BASE_DIR=$(cd "$(dirname "$0")" && pwd)
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+MAIN_CLASS=io.getlime.security.powerauth.app.rest.api.spring.PowerAuthApiJavaApplication
+ARCHIVE="$BASE_DIR/powerauth-restful-server.jsa"
+CLASS_LIST="$BASE_DIR/powerauth-restful-server.classlist"
+
+# The archive is valid only for the classpath used during its creation, jar files are added in a stable order
+CLASSPATH=$(LC_ALL=C ls "$BASE_DIR"/lib/*.jar | tr '\n' ':')
+CLASSPATH=${CLASSPATH%:}
+
+if [ "$1" = "train" ]; then
+    shift
+    rm -f "$ARCHIVE" "$CLASS_LIST"
+    # Record classes loaded during startup, warm-up and processing of training requests
+    "$JAVA" $JAVA_OPTS -XX:DumpLoadedClassList="$CLASS_LIST" -cp "$CLASSPATH" "$MAIN_CLASS" \
+        --server.port=0 --powerauth.cds.trainingRun=true \
+        --powerauth.warmup.enabled=true --powerauth.warmup.iterations=10 "$@" || exit 1
+    # Create the archive from the recorded classes
+    exec "$JAVA" -Xshare:dump -Xlog:cds=error -XX:SharedClassListFile="$CLASS_LIST" -XX:SharedArchiveFile="$ARCHIVE" -cp "$CLASSPATH"
+fi
+
+if [ "$POWERAUTH_CDS" != "false" ] && [ -f "$ARCHIVE" ]; then
+    CDS_OPTION="-XX:SharedArchiveFile=$ARCHIVE"
+fi
+
+exec "$JAVA" ${CDS_OPTION:+"$CDS_OPTION"} $JAVA_OPTS -cp "$CLASSPATH" "$MAIN_CLASS" "$@"
@@ -0,0 +1,96 @@
+/*
+ * PowerAuth integration libraries for RESTful API applications, examples and
+ * related software components
+ *
+ * Copyright (C) 2020 Wultra s.r.o.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.getlime.security.powerauth.app.rest.api.spring.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Training run of the application used for creating the AppCDS archive. Once the application is started,
+ * the training run sends a request to the application, so that the classes used for request processing are
+ * loaded, and exits the application. Classes loaded during the training run are stored in the archive.
+ *
+ * @author Petr Dvorak, petr@wultra.com
+ */
+@Component
+@ConditionalOnProperty("powerauth.cds.trainingRun")
+public class ClassDataSharingTrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassDataSharingTrainingRun.class);
+
+    private static final int TIMEOUT = 10000;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        final ConfigurableApplicationContext context = event.getApplicationContext();
+        if (context instanceof WebServerApplicationContext) {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+            final String baseUrl = "http://localhost:" + port + contextPath;
+            // Request processing of PowerAuth end-points is covered by the warm-up, training request does not call PowerAuth server
+            sendRequest(baseUrl + "/api/service/status");
+        }
+        logger.info("Training run completed, exiting application");
+        System.exit(SpringApplication.exit(context));
+    }
+
+    /**
+     * Send a GET request to the application and read the response, any response code is accepted.
+     * @param url Request URL.
+     */
+    private void sendRequest(String url) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(TIMEOUT);
+            connection.setReadTimeout(TIMEOUT);
+            final int responseCode = connection.getResponseCode();
+            final InputStream is = responseCode < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (is != null) {
+                try (InputStream responseStream = is) {
+                    final byte[] buffer = new byte[4096];
+                    while (responseStream.read(buffer) != -1) {
+                        // Response is read completely to process the whole request
+                    }
+                }
+            }
+            logger.info("Training request: {}, response code: {}", url, responseCode);
+        } catch (IOException ex) {
+            logger.warn("Training request failed: {}, error: {}", url, ex.getMessage());
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+}
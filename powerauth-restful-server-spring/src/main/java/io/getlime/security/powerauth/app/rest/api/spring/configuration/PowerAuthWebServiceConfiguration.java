@@ -19,16 +19,65 @@
  */
 package io.getlime.security.powerauth.app.rest.api.spring.configuration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationConfiguration;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistry;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthApplicationRegistryConfiguration;
+import io.getlime.security.powerauth.rest.api.base.application.PowerAuthStatusCustomObjectHolder;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStateCacheConfiguration;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCache;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthActivationStatusCacheConfiguration;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthCacheFactory;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthCacheSnapshotConfiguration;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthCacheSnapshotService;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthOffHeapCacheFactory;
+import io.getlime.security.powerauth.rest.api.base.cache.PowerAuthTinyLfuCacheFactory;
+import io.getlime.security.powerauth.rest.api.base.capture.PowerAuthTrafficCapture;
+import io.getlime.security.powerauth.rest.api.base.capture.PowerAuthTrafficCaptureConfiguration;
+import io.getlime.security.powerauth.rest.api.base.capture.PowerAuthTrafficCaptureServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeConfiguration;
+import io.getlime.security.powerauth.rest.api.base.degraded.PowerAuthDegradedModeValidator;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthCacheInvalidator;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthInvalidationBroadcaster;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthMulticastInvalidationBroadcaster;
+import io.getlime.security.powerauth.rest.api.base.invalidation.PowerAuthNoopInvalidationBroadcaster;
+import io.getlime.security.powerauth.rest.api.base.jfr.PowerAuthFlightRecorderServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthNoopServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.metrics.PowerAuthSimpleServiceMetrics;
+import io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStore;
+import io.getlime.security.powerauth.rest.api.base.nonce.PowerAuthNonceStoreConfiguration;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestScheduler;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTimingConfiguration;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTimingRegistry;
+import io.getlime.security.powerauth.rest.api.base.scheduler.PowerAuthRequestSchedulerConfiguration;
+import io.getlime.security.powerauth.rest.api.base.token.PowerAuthTokenTimestampValidator;
+import io.getlime.security.powerauth.rest.api.base.warmup.PowerAuthEciesWarmupTask;
+import io.getlime.security.powerauth.rest.api.base.warmup.PowerAuthJsonWarmupTask;
+import io.getlime.security.powerauth.rest.api.base.warmup.PowerAuthWarmup;
+import io.getlime.security.powerauth.rest.api.base.warmup.PowerAuthWarmupConfiguration;
+import io.getlime.security.powerauth.rest.api.base.warmup.PowerAuthWarmupTask;
+import io.getlime.security.powerauth.rest.api.spring.application.PowerAuthApplicationRegistryClientLoader;
+import io.getlime.security.powerauth.rest.api.spring.metrics.MicrometerServiceMetrics;
+import io.getlime.security.powerauth.rest.api.spring.metrics.PowerAuthInstrumentedWebServiceTemplate;
+import io.getlime.security.powerauth.rest.api.spring.warmup.PowerAuthSoapWarmupTask;
 import io.getlime.security.powerauth.soap.spring.client.PowerAuthServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.wss4j.dom.WSConstants;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.ws.client.support.interceptor.ClientInterceptor;
 import org.springframework.ws.soap.security.wss4j2.Wss4jSecurityInterceptor;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Default PowerAuth Service configuration.
  *
@@ -36,7 +85,6 @@ import org.springframework.ws.soap.security.wss4j2.Wss4jSecurityInterceptor;
  *
  */
 @Configuration
-@ComponentScan(basePackages = {"io.getlime.security.powerauth"})
 public class PowerAuthWebServiceConfiguration {
 
     @Value("${powerauth.service.url}")
@@ -57,6 +105,126 @@ public class PowerAuthWebServiceConfiguration {
     @Value("${powerauth.integration.service.applicationEnvironment}")
     private String applicationEnvironment;
 
+    @Value("${powerauth.api.v2.enabled:true}")
+    private boolean apiV2Enabled;
+
+    @Value("${powerauth.scheduler.maxConcurrentRequests:0}")
+    private int schedulerMaxConcurrentRequests;
+
+    @Value("${powerauth.scheduler.capacityShares:}")
+    private String schedulerCapacityShares;
+
+    @Value("${powerauth.scheduler.maxWaitTimes:}")
+    private String schedulerMaxWaitTimes;
+
+    @Value("${powerauth.scheduler.controllerPriorities:}")
+    private String schedulerControllerPriorities;
+
+    @Value("${powerauth.degradedMode.enabled:false}")
+    private boolean degradedModeEnabled;
+
+    @Value("${powerauth.degradedMode.graceWindow:60000}")
+    private long degradedModeGraceWindow;
+
+    @Value("${powerauth.degradedMode.maxNonces:1000000}")
+    private int degradedModeMaxNonces;
+
+    @Value("${powerauth.nonceStore.enabled:false}")
+    private boolean nonceStoreEnabled;
+
+    @Value("${powerauth.nonceStore.window:3600000}")
+    private long nonceStoreWindow;
+
+    @Value("${powerauth.nonceStore.maxNonces:1000000}")
+    private int nonceStoreMaxNonces;
+
+    @Value("${powerauth.token.maxTimestampSkew:0}")
+    private long tokenMaxTimestampSkew;
+
+    @Value("${powerauth.activationStateCache.enabled:false}")
+    private boolean activationStateCacheEnabled;
+
+    @Value("${powerauth.activationStateCache.blockedTtl:60000}")
+    private long activationStateCacheBlockedTtl;
+
+    @Value("${powerauth.activationStateCache.removedTtl:86400000}")
+    private long activationStateCacheRemovedTtl;
+
+    @Value("${powerauth.activationStatusCache.enabled:false}")
+    private boolean activationStatusCacheEnabled;
+
+    @Value("${powerauth.activationStatusCache.ttl:2000}")
+    private long activationStatusCacheTtl;
+
+    @Value("${powerauth.cache.offHeap.enabled:false}")
+    private boolean cacheOffHeapEnabled;
+
+    @Value("${powerauth.cacheSnapshot.enabled:false}")
+    private boolean cacheSnapshotEnabled;
+
+    @Value("${powerauth.cacheSnapshot.directory:}")
+    private String cacheSnapshotDirectory;
+
+    @Value("${powerauth.cacheSnapshot.interval:60000}")
+    private long cacheSnapshotInterval;
+
+    @Value("${powerauth.invalidation.multicast.enabled:false}")
+    private boolean invalidationMulticastEnabled;
+
+    @Value("${powerauth.invalidation.multicast.groupAddress:239.255.42.42}")
+    private String invalidationMulticastGroupAddress;
+
+    @Value("${powerauth.invalidation.multicast.port:42420}")
+    private int invalidationMulticastPort;
+
+    @Value("${powerauth.applicationRegistry.enabled:false}")
+    private boolean applicationRegistryEnabled;
+
+    @Value("${powerauth.applicationRegistry.refreshInterval:60000}")
+    private long applicationRegistryRefreshInterval;
+
+    @Value("${powerauth.applicationRegistry.unknownKeyRefreshInterval:10000}")
+    private long applicationRegistryUnknownKeyRefreshInterval;
+
+    @Value("${powerauth.applicationRegistry.maximumAge:600000}")
+    private long applicationRegistryMaximumAge;
+
+    @Value("${powerauth.metrics.enabled:false}")
+    private boolean metricsEnabled;
+
+    @Value("${powerauth.metrics.flightRecorderEnabled:false}")
+    private boolean metricsFlightRecorderEnabled;
+
+    @Value("${powerauth.requestTiming.enabled:false}")
+    private boolean requestTimingEnabled;
+
+    @Value("${powerauth.requestTiming.serverTimingHeaderEnabled:false}")
+    private boolean requestTimingServerTimingHeaderEnabled;
+
+    @Value("${powerauth.requestTiming.maxEndpoints:100}")
+    private int requestTimingMaxEndpoints;
+
+    @Value("${powerauth.trafficCapture.enabled:false}")
+    private boolean trafficCaptureEnabled;
+
+    @Value("${powerauth.trafficCapture.file:}")
+    private String trafficCaptureFile;
+
+    @Value("${powerauth.trafficCapture.sampleRate:1.0}")
+    private double trafficCaptureSampleRate;
+
+    @Value("${powerauth.trafficCapture.maxFileSize:104857600}")
+    private long trafficCaptureMaxFileSize;
+
+    @Value("${powerauth.warmup.enabled:false}")
+    private boolean warmupEnabled;
+
+    @Value("${powerauth.warmup.iterations:1000}")
+    private int warmupIterations;
+
+    @Value("${powerauth.warmup.maxDuration:30000}")
+    private long warmupMaxDuration;
+
 
     /**
      * Return WS-Security interceptor instance using UsernameToken authentication.
@@ -73,26 +241,96 @@ public class PowerAuthWebServiceConfiguration {
     }
 
     /**
-     * Marshaller for PowerAuth SOAP service communication.
+     * Marshaller for PowerAuth SOAP service communication. The JAXB context is created on the first PowerAuth
+     * server call, the schema of protocol version 2 is included only in case the 'powerauth.api.v2.enabled'
+     * server property is true.
      * @return JAXB marshaller with correctly configured context path.
      */
     @Bean
     public Jaxb2Marshaller marshaller() {
         Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
-        marshaller.setContextPaths("io.getlime.powerauth.soap.v2", "io.getlime.powerauth.soap.v3");
+        if (apiV2Enabled) {
+            marshaller.setContextPaths("io.getlime.powerauth.soap.v2", "io.getlime.powerauth.soap.v3");
+        } else {
+            marshaller.setContextPath("io.getlime.powerauth.soap.v3");
+        }
+        marshaller.setLazyInit(true);
         return marshaller;
     }
 
+    /**
+     * Prepare metrics of PowerAuth server calls, metrics are recorded in case the 'powerauth.metrics.enabled'
+     * server property is true. Metrics are published to the Micrometer registry in case the application has one,
+     * e.g. when Spring Boot Actuator is used, otherwise they are kept in memory. Flight Recorder events of the calls
+     * are emitted in case the 'powerauth.metrics.flightRecorderEnabled' server property is true. Calls are recorded
+     * into the traffic log in case traffic capture is enabled.
+     * @param trafficCapture Traffic capture.
+     * @param meterRegistry Micrometer registry, if available.
+     * @return Service metrics.
+     */
+    @Bean
+    public PowerAuthServiceMetrics serviceMetrics(PowerAuthTrafficCapture trafficCapture, ObjectProvider<MeterRegistry> meterRegistry) {
+        PowerAuthServiceMetrics serviceMetrics = new PowerAuthNoopServiceMetrics();
+        if (metricsEnabled) {
+            final MeterRegistry registry = meterRegistry.getIfAvailable();
+            serviceMetrics = registry != null ? new MicrometerServiceMetrics(registry) : new PowerAuthSimpleServiceMetrics();
+        }
+        if (metricsFlightRecorderEnabled) {
+            serviceMetrics = new PowerAuthFlightRecorderServiceMetrics(serviceMetrics);
+        }
+        if (trafficCapture.isEnabled()) {
+            serviceMetrics = new PowerAuthTrafficCaptureServiceMetrics(serviceMetrics, trafficCapture);
+        }
+        return serviceMetrics;
+    }
+
+    /**
+     * Prepare capture of anonymized request shapes into a binary traffic log which can be replayed by the load test,
+     * configured using 'powerauth.trafficCapture.enabled', 'powerauth.trafficCapture.file',
+     * 'powerauth.trafficCapture.sampleRate' and 'powerauth.trafficCapture.maxFileSize' server properties.
+     * @return Traffic capture.
+     * @throws IOException In case the traffic log cannot be created.
+     */
+    @Bean(destroyMethod = "close")
+    public PowerAuthTrafficCapture trafficCapture() throws IOException {
+        final PowerAuthTrafficCaptureConfiguration configuration = new PowerAuthTrafficCaptureConfiguration();
+        configuration.setEnabled(trafficCaptureEnabled);
+        configuration.setFile(trafficCaptureFile);
+        configuration.setSampleRate(trafficCaptureSampleRate);
+        configuration.setMaxFileSize(trafficCaptureMaxFileSize);
+        return new PowerAuthTrafficCapture(configuration);
+    }
+
+    /**
+     * Prepare registry of request phase timing metrics, configured using 'powerauth.requestTiming.enabled',
+     * 'powerauth.requestTiming.serverTimingHeaderEnabled' and 'powerauth.requestTiming.maxEndpoints' server properties.
+     * @return Request timing registry.
+     */
+    @Bean
+    public PowerAuthRequestTimingRegistry requestTimingRegistry() {
+        final PowerAuthRequestTimingConfiguration configuration = new PowerAuthRequestTimingConfiguration();
+        configuration.setEnabled(requestTimingEnabled);
+        configuration.setServerTimingHeaderEnabled(requestTimingServerTimingHeaderEnabled);
+        configuration.setMaxEndpoints(requestTimingMaxEndpoints);
+        return new PowerAuthRequestTimingRegistry(configuration);
+    }
+
     /**
      * Prepare a correctly configured PowerAuthServiceClient instance with the service
      * URL specified using 'powerauth.service.url' server property.
      * @param marshaller JAXB marshaller
+     * @param serviceMetrics Metrics of PowerAuth server calls
      * @return Correctly configured PowerAuthServiceClient instance with the service
      * URL specified using 'powerauth.service.url' server property
      */
     @Bean
-    public PowerAuthServiceClient powerAuthClient(Jaxb2Marshaller marshaller) {
+    public PowerAuthServiceClient powerAuthClient(Jaxb2Marshaller marshaller, PowerAuthServiceMetrics serviceMetrics) {
         PowerAuthServiceClient client = new PowerAuthServiceClient();
+        // Template must be set before the client is configured, the configuration is stored in the template.
+        // The template checks for each call whether metrics are enabled, Flight Recorder events may be enabled later.
+        if (!(serviceMetrics instanceof PowerAuthNoopServiceMetrics)) {
+            client.setWebServiceTemplate(new PowerAuthInstrumentedWebServiceTemplate(serviceMetrics));
+        }
         client.setDefaultUri(powerAuthServiceUrl);
         client.setMarshaller(marshaller);
         client.setUnmarshaller(marshaller);
@@ -106,6 +344,218 @@ public class PowerAuthWebServiceConfiguration {
         return client;
     }
 
+    /**
+     * Prepare warm-up of request processing, configured using 'powerauth.warmup.enabled', 'powerauth.warmup.iterations'
+     * and 'powerauth.warmup.maxDuration' server properties. Synthetic ECIES requests are decrypted and their responses
+     * encrypted, model classes are serialized by the object mapper used for request and response bodies, and SOAP
+     * messages are processed by the marshaller. The warm-up duration is available using
+     * {@link PowerAuthWarmup#getDuration()}.
+     * @param marshaller JAXB marshaller.
+     * @param objectMapper Object mapper used for request and response bodies.
+     * @return Warm-up.
+     */
+    @Bean
+    public PowerAuthWarmup warmup(Jaxb2Marshaller marshaller, ObjectMapper objectMapper) {
+        final PowerAuthWarmupConfiguration configuration = new PowerAuthWarmupConfiguration();
+        configuration.setEnabled(warmupEnabled);
+        configuration.setIterations(warmupIterations);
+        configuration.setMaxDuration(warmupMaxDuration);
+        final List<PowerAuthWarmupTask> tasks = Arrays.asList(
+                new PowerAuthEciesWarmupTask(objectMapper),
+                new PowerAuthJsonWarmupTask(objectMapper, PowerAuthJsonWarmupTask.defaultSamples()),
+                new PowerAuthSoapWarmupTask(marshaller)
+        );
+        return new PowerAuthWarmup(configuration, tasks);
+    }
+
+    /**
+     * Execute the warm-up once all singletons are created. The embedded web server starts accepting connections
+     * only after the application context is refreshed, so the application is reported ready after the warm-up.
+     * @param warmup Warm-up.
+     * @return Warm-up runner.
+     */
+    @Bean
+    public SmartInitializingSingleton warmupRunner(PowerAuthWarmup warmup) {
+        return warmup::run;
+    }
+
+    /**
+     * Prepare request scheduler which limits number of concurrently processed requests
+     * using 'powerauth.scheduler.maxConcurrentRequests' server property. Zero value
+     * disables the scheduler. Capacity shares, waiting times and controller priorities
+     * are overridden using 'powerauth.scheduler.capacityShares', 'powerauth.scheduler.maxWaitTimes'
+     * and 'powerauth.scheduler.controllerPriorities' server properties.
+     * @return Request scheduler.
+     */
+    @Bean
+    public PowerAuthRequestScheduler requestScheduler() {
+        PowerAuthRequestSchedulerConfiguration configuration = new PowerAuthRequestSchedulerConfiguration();
+        configuration.setMaxConcurrentRequests(schedulerMaxConcurrentRequests);
+        configuration.setCapacityShares(schedulerCapacityShares);
+        configuration.setMaxWaitTimes(schedulerMaxWaitTimes);
+        configuration.setControllerPriorities(schedulerControllerPriorities);
+        return new PowerAuthRequestScheduler(configuration);
+    }
+
+    /**
+     * Prepare factory of caches used by PowerAuth integration components. Activation states and token activations
+     * are stored outside of the heap in case the 'powerauth.cache.offHeap.enabled' server property is true.
+     * Replace this bean to store cached values in a different cache implementation.
+     * @return Cache factory.
+     */
+    @Bean
+    public PowerAuthCacheFactory cacheFactory() {
+        if (cacheOffHeapEnabled) {
+            return new PowerAuthOffHeapCacheFactory();
+        }
+        return new PowerAuthTinyLfuCacheFactory();
+    }
+
+    /**
+     * Prepare validator of tokens used in case PowerAuth server is not reachable, configured using
+     * 'powerauth.degradedMode.enabled', 'powerauth.degradedMode.graceWindow' and 'powerauth.degradedMode.maxNonces'
+     * server properties.
+     * @param serviceMetrics Metrics which record decisions of the degraded mode.
+     * @return Degraded mode validator.
+     */
+    @Bean
+    public PowerAuthDegradedModeValidator degradedModeValidator(PowerAuthServiceMetrics serviceMetrics) {
+        PowerAuthDegradedModeConfiguration configuration = new PowerAuthDegradedModeConfiguration();
+        configuration.setEnabled(degradedModeEnabled);
+        configuration.setGraceWindow(degradedModeGraceWindow);
+        configuration.setMaxNonces(degradedModeMaxNonces);
+        final PowerAuthDegradedModeValidator validator = new PowerAuthDegradedModeValidator(configuration, cacheFactory());
+        validator.setServiceMetrics(serviceMetrics);
+        return validator;
+    }
+
+    /**
+     * Prepare local nonce store used for rejecting replayed requests before calling PowerAuth server, configured
+     * using 'powerauth.nonceStore.enabled', 'powerauth.nonceStore.window' and 'powerauth.nonceStore.maxNonces'
+     * server properties.
+     * @param serviceMetrics Metrics which record buckets dropped due to exceeded capacity.
+     * @return Nonce store.
+     */
+    @Bean
+    public PowerAuthNonceStore nonceStore(PowerAuthServiceMetrics serviceMetrics) {
+        PowerAuthNonceStoreConfiguration configuration = new PowerAuthNonceStoreConfiguration();
+        configuration.setEnabled(nonceStoreEnabled);
+        configuration.setWindow(nonceStoreWindow);
+        configuration.setMaxNonces(nonceStoreMaxNonces);
+        final PowerAuthNonceStore nonceStore = new PowerAuthNonceStore(configuration);
+        nonceStore.setServiceMetrics(serviceMetrics);
+        return nonceStore;
+    }
+
+    /**
+     * Prepare validator of token timestamps used for rejecting stale tokens before calling PowerAuth server,
+     * configured using 'powerauth.token.maxTimestampSkew' server property. Zero value disables the validation.
+     * @return Token timestamp validator.
+     */
+    @Bean
+    public PowerAuthTokenTimestampValidator tokenTimestampValidator() {
+        return new PowerAuthTokenTimestampValidator(tokenMaxTimestampSkew);
+    }
+
+    /**
+     * Prepare cache of blocked and removed activations used for rejecting their requests before calling PowerAuth
+     * server, configured using 'powerauth.activationStateCache.enabled', 'powerauth.activationStateCache.blockedTtl'
+     * and 'powerauth.activationStateCache.removedTtl' server properties.
+     * @return Activation state cache.
+     */
+    @Bean
+    public PowerAuthActivationStateCache activationStateCache() {
+        PowerAuthActivationStateCacheConfiguration configuration = new PowerAuthActivationStateCacheConfiguration();
+        configuration.setEnabled(activationStateCacheEnabled);
+        configuration.setBlockedTtl(activationStateCacheBlockedTtl);
+        configuration.setRemovedTtl(activationStateCacheRemovedTtl);
+        return new PowerAuthActivationStateCache(configuration, cacheFactory());
+    }
+
+    /**
+     * Prepare broadcaster of cache invalidation events between nodes of a cluster. UDP multicast is used in case
+     * the 'powerauth.invalidation.multicast.enabled' server property is true, the group is configured using
+     * 'powerauth.invalidation.multicast.groupAddress' and 'powerauth.invalidation.multicast.port' server properties.
+     * @return Invalidation broadcaster.
+     * @throws IOException In case multicast socket cannot be opened.
+     */
+    @Bean(destroyMethod = "close")
+    public PowerAuthInvalidationBroadcaster invalidationBroadcaster() throws IOException {
+        if (invalidationMulticastEnabled) {
+            return new PowerAuthMulticastInvalidationBroadcaster(invalidationMulticastGroupAddress, invalidationMulticastPort, 1);
+        }
+        return new PowerAuthNoopInvalidationBroadcaster();
+    }
+
+    /**
+     * Prepare invalidator of integration caches on all nodes of a cluster.
+     * @param degradedModeValidator Degraded mode validator.
+     * @return Cache invalidator.
+     * @throws IOException In case multicast socket cannot be opened.
+     */
+    @Bean
+    public PowerAuthCacheInvalidator cacheInvalidator(PowerAuthDegradedModeValidator degradedModeValidator) throws IOException {
+        return new PowerAuthCacheInvalidator(invalidationBroadcaster(), activationStateCache(), activationStatusCache(), degradedModeValidator);
+    }
+
+    /**
+     * Prepare service which persists snapshots of the activation state cache, so that restarted nodes do not start
+     * with empty cache, configured using 'powerauth.cacheSnapshot.enabled', 'powerauth.cacheSnapshot.directory'
+     * and 'powerauth.cacheSnapshot.interval' server properties. The final snapshot is written on shutdown.
+     * @return Cache snapshot service.
+     */
+    @Bean(destroyMethod = "close")
+    public PowerAuthCacheSnapshotService cacheSnapshotService() {
+        PowerAuthCacheSnapshotConfiguration configuration = new PowerAuthCacheSnapshotConfiguration();
+        configuration.setEnabled(cacheSnapshotEnabled);
+        configuration.setDirectory(cacheSnapshotDirectory);
+        configuration.setInterval(cacheSnapshotInterval);
+        return new PowerAuthCacheSnapshotService(configuration, activationStateCache());
+    }
+
+    /**
+     * Prepare short-lived cache of activation status blobs of protocol version 3.0 requests, configured using
+     * 'powerauth.activationStatusCache.enabled' and 'powerauth.activationStatusCache.ttl' server properties.
+     * @return Activation status cache.
+     */
+    @Bean
+    public PowerAuthActivationStatusCache activationStatusCache() {
+        PowerAuthActivationStatusCacheConfiguration configuration = new PowerAuthActivationStatusCacheConfiguration();
+        configuration.setEnabled(activationStatusCacheEnabled);
+        configuration.setTtl(activationStatusCacheTtl);
+        return new PowerAuthActivationStatusCache(configuration, cacheFactory());
+    }
+
+    /**
+     * Prepare registry of application versions used for rejecting requests with unknown or unsupported application
+     * keys before calling PowerAuth server, configured using 'powerauth.applicationRegistry.enabled',
+     * 'powerauth.applicationRegistry.refreshInterval', 'powerauth.applicationRegistry.unknownKeyRefreshInterval'
+     * and 'powerauth.applicationRegistry.maximumAge' server properties.
+     * @param powerAuthClient PowerAuth server SOAP client.
+     * @return Application registry.
+     */
+    @Bean(destroyMethod = "close")
+    public PowerAuthApplicationRegistry applicationRegistry(PowerAuthServiceClient powerAuthClient) {
+        PowerAuthApplicationRegistryConfiguration configuration = new PowerAuthApplicationRegistryConfiguration();
+        configuration.setEnabled(applicationRegistryEnabled);
+        configuration.setRefreshInterval(applicationRegistryRefreshInterval);
+        configuration.setUnknownKeyRefreshInterval(applicationRegistryUnknownKeyRefreshInterval);
+        configuration.setMaximumAge(applicationRegistryMaximumAge);
+        return new PowerAuthApplicationRegistry(configuration, new PowerAuthApplicationRegistryClientLoader(powerAuthClient));
+    }
+
+    /**
+     * Prepare holder of the custom object returned by activation status end-point. The custom object is reused
+     * for the time returned by {@link PowerAuthApplicationConfiguration#statusServiceCustomObjectTtl()}.
+     * @param applicationConfiguration Application configuration.
+     * @param objectMapper Object mapper used for serialization of responses.
+     * @return Holder of the status service custom object.
+     */
+    @Bean
+    public PowerAuthStatusCustomObjectHolder statusCustomObjectHolder(PowerAuthApplicationConfiguration applicationConfiguration, ObjectMapper objectMapper) {
+        return new PowerAuthStatusCustomObjectHolder(applicationConfiguration, objectMapper);
+    }
+
     public String getApplicationName() {
         return applicationName;
     }
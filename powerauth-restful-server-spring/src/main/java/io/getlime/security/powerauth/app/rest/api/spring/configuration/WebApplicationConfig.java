@@ -19,7 +19,10 @@
  */
 package io.getlime.security.powerauth.app.rest.api.spring.configuration;
 
+import io.getlime.security.powerauth.rest.api.base.capture.PowerAuthTrafficCapture;
+import io.getlime.security.powerauth.rest.api.base.timing.PowerAuthRequestTimingRegistry;
 import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthAnnotationInterceptor;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthSchedulerInterceptor;
 import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthEncryptionArgumentResolver;
 import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthWebArgumentResolver;
 import io.getlime.security.powerauth.rest.api.spring.filter.PowerAuthRequestFilter;
@@ -52,6 +55,15 @@ public class WebApplicationConfig implements WebMvcConfigurer {
         return new PowerAuthAnnotationInterceptor();
     }
 
+    /**
+     * Register a new @PowerAuthScheduled annotation interceptor.
+     * @return New scheduler interceptor bean.
+     */
+    @Bean
+    public PowerAuthSchedulerInterceptor powerAuthSchedulerInterceptor() {
+        return new PowerAuthSchedulerInterceptor();
+    }
+
     /**
      * Register new method argument resolvers.
      * @return New PowerAuthWebArgumentResolver bean.
@@ -72,12 +84,17 @@ public class WebApplicationConfig implements WebMvcConfigurer {
 
     /**
      * Register a new PowerAuthRequestFilter and map it to /* end-point.
+     * @param requestTimingRegistry Registry of request phase timing metrics.
+     * @param trafficCapture Capture of anonymized request shapes.
      * @return PowerAuthRequestFilter instance.
      */
     @Bean
-    public FilterRegistrationBean powerAuthFilterRegistration() {
+    public FilterRegistrationBean powerAuthFilterRegistration(PowerAuthRequestTimingRegistry requestTimingRegistry, PowerAuthTrafficCapture trafficCapture) {
         FilterRegistrationBean<PowerAuthRequestFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(new PowerAuthRequestFilter());
+        final PowerAuthRequestFilter requestFilter = new PowerAuthRequestFilter();
+        requestFilter.setRequestTimingRegistry(requestTimingRegistry);
+        requestFilter.setTrafficCapture(trafficCapture);
+        registrationBean.setFilter(requestFilter);
         registrationBean.setMatchAfter(true);
         return registrationBean;
     }
@@ -93,11 +110,12 @@ public class WebApplicationConfig implements WebMvcConfigurer {
     }
 
     /**
-     * Add annotation interceptor.
+     * Add annotation interceptors, the scheduler interceptor needs to be added first.
      * @param registry Registry of annotation interceptors.
      */
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(powerAuthSchedulerInterceptor());
         registry.addInterceptor(powerAuthInterceptor());
     }
 
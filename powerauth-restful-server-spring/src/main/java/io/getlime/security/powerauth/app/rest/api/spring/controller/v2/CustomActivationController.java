@@ -37,6 +37,7 @@ import io.getlime.security.powerauth.soap.spring.client.PowerAuthServiceClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -58,6 +59,7 @@ import java.util.Map;
  * @author Petr Dvorak, petr@wultra.com
  */
 @RestController("customActivationControllerV2")
+@ConditionalOnProperty(name = "powerauth.api.v2.enabled", matchIfMissing = true)
 @RequestMapping(value = "/pa/activation/direct")
 public class CustomActivationController {
 
@@ -30,6 +30,7 @@ import io.getlime.security.powerauth.rest.api.spring.encryption.EncryptorFactory
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -49,6 +50,7 @@ import java.security.InvalidKeyException;
  * @author Roman Strobl, roman.strobl@wultra.com
  */
 @RestController("encryptedDataExchangeControllerV2")
+@ConditionalOnProperty(name = "powerauth.api.v2.enabled", matchIfMissing = true)
 public class EncryptedDataExchangeController {
 
     private static final Logger logger = LoggerFactory.getLogger(EncryptedDataExchangeController.class);
@@ -29,6 +29,7 @@ import io.getlime.security.powerauth.rest.api.base.exception.PowerAuthEncryption
 import io.getlime.security.powerauth.rest.api.spring.annotation.EncryptedRequestBody;
 import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuth;
 import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthEncryption;
+import io.getlime.security.powerauth.rest.api.spring.annotation.PowerAuthToken;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
@@ -176,4 +177,33 @@ public class EncryptedDataExchangeController {
         return requestData;
     }
 
+    /**
+     * Sample encrypted data exchange authenticated using a token.
+     *
+     * @param request Data exchange request.
+     * @param eciesContext ECIES context.
+     * @param auth PowerAuth authentication object.
+     * @return Data exchange response.
+     * @throws PowerAuthAuthenticationException In case token validation fails.
+     * @throws PowerAuthEncryptionException In case encryption or decryption fails.
+     */
+    @RequestMapping(value = "v3/token", method = RequestMethod.POST)
+    @PowerAuthToken
+    @PowerAuthEncryption(scope = EciesScope.ACTIVATION_SCOPE)
+    public DataExchangeResponse exchangeTokenAuthenticatedData(@EncryptedRequestBody DataExchangeRequest request,
+                                                               EciesEncryptionContext eciesContext,
+                                                               PowerAuthApiAuthentication auth) throws PowerAuthAuthenticationException, PowerAuthEncryptionException {
+
+        if (auth == null || auth.getUserId() == null) {
+            throw new PowerAuthAuthenticationException("Token validation failed");
+        }
+
+        if (eciesContext == null) {
+            throw new PowerAuthEncryptionException("Decryption failed");
+        }
+
+        // Return a slightly different String containing original data in response
+        return new DataExchangeResponse("Server successfully decrypted data and verified token, request data: " + (request == null ? "''" : request.getData()) + ", user ID: " + auth.getUserId());
+    }
+
 }